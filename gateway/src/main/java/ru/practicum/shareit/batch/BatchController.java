@@ -0,0 +1,39 @@
+package ru.practicum.shareit.batch;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.Profile;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import ru.practicum.shareit.batch.dto.BatchRequestDto;
+import ru.practicum.shareit.batch.dto.BatchResponseDto;
+
+import java.util.List;
+
+@Slf4j
+@RestController
+@Profile("!reactive")
+@RequestMapping(path = "/batch")
+@RequiredArgsConstructor
+public class BatchController {
+    private final BatchDispatcher batchDispatcher;
+
+    /**
+     * Выполняет подзапросы параллельно от имени пользователя пакета и возвращает ответы в том же порядке.
+     */
+    @PostMapping
+    public List<BatchResponseDto> execute(@RequestHeader(value = "X-Sharer-User-Id", required = false) Long userId,
+                                          @RequestBody @NotEmpty @Size(max = 20)
+                                          List<@Valid BatchRequestDto> requests,
+                                          HttpServletRequest request) {
+        log.info("Получили пакет из {} подзапросов пользователя {}", requests.size(), userId);
+        return batchDispatcher.dispatch(userId, request, requests);
+    }
+}
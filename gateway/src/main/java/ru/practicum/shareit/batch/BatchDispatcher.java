@@ -0,0 +1,198 @@
+package ru.practicum.shareit.batch;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletRequest;
+import jakarta.servlet.ServletResponse;
+import jakarta.servlet.http.HttpServletRequest;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.lang.Nullable;
+import org.springframework.web.servlet.DispatcherServlet;
+import ru.practicum.shareit.batch.dto.BatchRequestDto;
+import ru.practicum.shareit.batch.dto.BatchResponseDto;
+import ru.practicum.shareit.client.DeadlineInterceptor;
+import ru.practicum.shareit.exceptions.ErrorResponse;
+import ru.practicum.shareit.ratelimit.RateLimiter;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Выполняет подзапросы пакета {@code POST /batch} параллельно. Подзапрос не уходит обратно в шлюз по HTTP,
+ * а передаётся как {@link SubRequest} прямо в {@link DispatcherServlet} шлюза: маршрут, параметры по умолчанию,
+ * проверки и ответы об ошибках те же, что у отдельного запроса к контроллеру. Фильтры контейнера подзапрос
+ * не проходит, поэтому токен ограничения частоты своего маршрута у клиента пакета он списывает здесь.
+ * <p>
+ * Подзапросы всех пакетов выполняются в общем пуле из {@code maxConcurrency} потоков с очередью
+ * на {@code queueCapacity} подзапросов; подзапрос, которому не хватило места, получает {@code 503}. Весь пакет
+ * ограничен одним сроком {@code timeout}: подзапросы, не завершённые к сроку, отменяются и получают {@code 504},
+ * а готовые ответы возвращаются как есть.
+ */
+@Slf4j
+public class BatchDispatcher implements AutoCloseable {
+    /**
+     * Заголовки ответа на подзапрос, которые попадают в ответ пакета.
+     */
+    static final List<String> PASSED_HEADERS = List.of(HttpHeaders.ETAG, HttpHeaders.LOCATION,
+            HttpHeaders.RETRY_AFTER, "X-Next-Cursor");
+
+    /**
+     * Берётся при выполнении подзапроса: без веб-сервера, например в тестах конфигурации, его нет.
+     */
+    private final ObjectProvider<DispatcherServlet> dispatcherServlet;
+    private final RateLimiter rateLimiter;
+    private final ThreadPoolExecutor executor;
+    private final Duration timeout;
+    private final ObjectMapper objectMapper;
+
+    public BatchDispatcher(ObjectProvider<DispatcherServlet> dispatcherServlet, RateLimiter rateLimiter,
+                           int maxConcurrency, int queueCapacity, Duration timeout, ObjectMapper objectMapper) {
+        this.dispatcherServlet = dispatcherServlet;
+        this.rateLimiter = rateLimiter;
+        this.executor = new ThreadPoolExecutor(maxConcurrency, maxConcurrency, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), Thread.ofPlatform().name("batch-", 0).daemon().factory());
+        this.timeout = timeout;
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * @param userId пользователь пакета; от его имени выполняется каждый подзапрос
+     * @param batch  запрос пакета; по его адресу ограничивается частота подзапросов без пользователя
+     * @return ответы в порядке подзапросов
+     */
+    public List<BatchResponseDto> dispatch(@Nullable Long userId, HttpServletRequest batch,
+                                           List<BatchRequestDto> requests) {
+        long deadline = System.nanoTime() + timeout.toNanos();
+        String client = RateLimiter.client(userId == null ? null : String.valueOf(userId), batch.getRemoteAddr());
+        List<Future<BatchResponseDto>> responses = requests.stream()
+                .map(request -> submit(subRequest(batch, request, userId, deadline), client))
+                .toList();
+        List<BatchResponseDto> results = new ArrayList<>(responses.size());
+        for (int i = 0; i < responses.size(); i++) {
+            results.add(await(responses.get(i), requests.get(i), deadline));
+        }
+        return results;
+    }
+
+    @Override
+    public void close() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Подзапрос получает срок пакета: вызовы сервера из него передают время до этого срока, а не весь бюджет
+     * запроса к шлюзу.
+     */
+    private SubRequest subRequest(HttpServletRequest batch, BatchRequestDto request, @Nullable Long userId,
+                                  long deadline) {
+        try {
+            byte[] body = request.getBody() == null || request.getBody().isNull() ? null
+                    : objectMapper.writeValueAsBytes(request.getBody());
+            SubRequest subRequest = new SubRequest(batch, request.getMethod(), request.getPath(), userId, body);
+            DeadlineInterceptor.inherit(subRequest, deadline);
+            return subRequest;
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private Future<BatchResponseDto> submit(SubRequest request, String client) {
+        long wait = rateLimiter.acquire(request.getPath(), client);
+        if (wait > 0) {
+            long retryAfter = RateLimiter.retryAfterSeconds(wait);
+            log.debug("подзапрос {} {} клиента {} отклонён, повторить через {} с", request.getMethod(),
+                    request.getPath(), client, retryAfter);
+            return CompletableFuture.completedFuture(error(HttpStatus.TOO_MANY_REQUESTS,
+                    Map.of(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfter)),
+                    "Слишком много запросов, повторите через " + retryAfter + " с"));
+        }
+        try {
+            return executor.submit(() -> execute(request));
+        } catch (RejectedExecutionException e) {
+            log.debug("подзапрос {} {} отклонён: очередь пакетов заполнена", request.getMethod(), request.getPath());
+            return CompletableFuture.completedFuture(error(HttpStatus.SERVICE_UNAVAILABLE, Map.of(),
+                    "Шлюз перегружен: подзапрос не выполнен"));
+        }
+    }
+
+    private BatchResponseDto await(Future<BatchResponseDto> response, BatchRequestDto request, long deadline) {
+        try {
+            return response.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            log.debug("подзапрос {} {} не выполнен к сроку пакета", request.getMethod(), request.getPath());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+            log.warn("подзапрос {} {} не выполнен: {}", request.getMethod(), request.getPath(),
+                    e.getCause().getMessage());
+            return error(HttpStatus.INTERNAL_SERVER_ERROR, Map.of(), "Произошла ошибка на стороне сервера");
+        }
+        response.cancel(true);
+        return error(HttpStatus.GATEWAY_TIMEOUT, Map.of(), "Истёк срок выполнения пакета");
+    }
+
+    private BatchResponseDto execute(SubRequest request) {
+        SubResponse response = new SubResponse();
+        try {
+            dispatcherServlet.getObject().service((ServletRequest) request, (ServletResponse) response);
+            return new BatchResponseDto(response.getStatus(), passedHeaders(response.headers()),
+                    body(response.headers().getContentType(), response.body()));
+        } catch (ServletException | IOException | RuntimeException e) {
+            log.warn("подзапрос {} {} не выполнен: {}", request.getMethod(), request.getPath(), e.getMessage());
+            return error(HttpStatus.INTERNAL_SERVER_ERROR, Map.of(), "Произошла ошибка на стороне сервера");
+        }
+    }
+
+    private static Map<String, String> passedHeaders(HttpHeaders responseHeaders) {
+        Map<String, String> headers = new LinkedHashMap<>();
+        PASSED_HEADERS.forEach(name -> {
+            String value = responseHeaders.getFirst(name);
+            if (value != null) {
+                headers.put(name, value);
+            }
+        });
+        return headers;
+    }
+
+    /**
+     * Тело ответа в виде JSON для вставки в ответ пакета как есть. Тело не разбирается: байты JSON
+     * копируются без изменений, ответ без тела — {@code null}, а тело не в JSON передаётся строкой.
+     */
+    @Nullable
+    private String body(@Nullable MediaType contentType, byte[] body) throws JsonProcessingException {
+        if (body.length == 0) {
+            return null;
+        }
+        String text = new String(body, StandardCharsets.UTF_8);
+        boolean json = contentType == null || contentType.isCompatibleWith(MediaType.APPLICATION_JSON)
+                || contentType.getSubtype().endsWith("+json");
+        return json ? text : objectMapper.writeValueAsString(text);
+    }
+
+    private BatchResponseDto error(HttpStatus status, Map<String, String> headers, String message) {
+        try {
+            return new BatchResponseDto(status.value(), headers,
+                    objectMapper.writeValueAsString(new ErrorResponse(message)));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
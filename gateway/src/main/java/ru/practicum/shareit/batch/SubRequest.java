@@ -0,0 +1,542 @@
+package ru.practicum.shareit.batch;
+
+import jakarta.servlet.AsyncContext;
+import jakarta.servlet.DispatcherType;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.RequestDispatcher;
+import jakarta.servlet.ServletConnection;
+import jakarta.servlet.ServletContext;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.ServletRequest;
+import jakarta.servlet.ServletResponse;
+import jakarta.servlet.http.Cookie;
+import jakarta.servlet.http.HttpServletMapping;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpSession;
+import jakarta.servlet.http.HttpUpgradeHandler;
+import jakarta.servlet.http.MappingMatch;
+import jakarta.servlet.http.Part;
+import lombok.Getter;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.lang.Nullable;
+import org.springframework.util.MultiValueMap;
+import org.springframework.web.util.UriComponents;
+import org.springframework.web.util.UriComponentsBuilder;
+import org.springframework.web.util.UriUtils;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.security.Principal;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Подзапрос пакета в виде отдельного HTTP-запроса к шлюзу, который {@link BatchDispatcher} передаёт
+ * в {@code DispatcherServlet}: маршрут, параметры по умолчанию, проверки и ошибки берутся из контроллеров.
+ * <p>
+ * Запрос не ссылается на запрос пакета: подзапрос, отменённый по сроку пакета, может выполняться и после ответа
+ * на пакет, когда контейнер уже переиспользует исходный запрос. Из запроса пакета заранее копируются адрес
+ * клиента, путь приложения и язык. Подзапрос принимает и отдаёт только JSON; асинхронная обработка, сессии
+ * и загрузка файлов ему недоступны.
+ */
+class SubRequest implements HttpServletRequest {
+    private static final String USER_HEADER = "X-Sharer-User-Id";
+
+    @Getter
+    private final String method;
+    private final String path;
+    private final String requestUri;
+    @Nullable
+    private final String queryString;
+    private final Map<String, String[]> parameters;
+    private final HttpHeaders headers = new HttpHeaders();
+    private final byte[] body;
+    private final Map<String, Object> attributes = new ConcurrentHashMap<>();
+    private final String contextPath;
+    private final ServletContext servletContext;
+    private final String remoteAddr;
+    private final Locale locale;
+    private String characterEncoding = StandardCharsets.UTF_8.name();
+
+    SubRequest(HttpServletRequest batch, String method, String path, @Nullable Long userId, @Nullable byte[] body) {
+        UriComponents uri = UriComponentsBuilder.fromUriString(path).build();
+        this.method = method;
+        this.path = uri.getPath();
+        this.contextPath = batch.getContextPath();
+        this.requestUri = contextPath + this.path;
+        this.queryString = uri.getQuery();
+        this.parameters = parameters(uri.getQueryParams());
+        this.body = body != null ? body : new byte[0];
+        this.servletContext = batch.getServletContext();
+        this.remoteAddr = batch.getRemoteAddr();
+        this.locale = batch.getLocale();
+        headers.setAccept(List.of(MediaType.APPLICATION_JSON));
+        if (userId != null) {
+            headers.set(USER_HEADER, String.valueOf(userId));
+        }
+        if (body != null) {
+            headers.setContentType(MediaType.APPLICATION_JSON);
+            headers.setContentLength(body.length);
+        }
+    }
+
+    /**
+     * Путь подзапроса без параметров, по которому списывается токен ограничения частоты.
+     */
+    String getPath() {
+        return path;
+    }
+
+    private static Map<String, String[]> parameters(MultiValueMap<String, String> query) {
+        Map<String, String[]> parameters = new LinkedHashMap<>();
+        query.forEach((name, values) -> parameters.put(URLDecoder.decode(name, StandardCharsets.UTF_8),
+                values.stream()
+                        .map(value -> value == null ? "" : URLDecoder.decode(value, StandardCharsets.UTF_8))
+                        .toArray(String[]::new)));
+        return Collections.unmodifiableMap(parameters);
+    }
+
+    @Override
+    public String getRequestURI() {
+        return requestUri;
+    }
+
+    @Override
+    public StringBuffer getRequestURL() {
+        return new StringBuffer(getScheme()).append("://").append(getServerName()).append(':')
+                .append(getServerPort()).append(requestUri);
+    }
+
+    @Override
+    public String getContextPath() {
+        return contextPath;
+    }
+
+    @Override
+    public String getServletPath() {
+        return UriUtils.decode(path, StandardCharsets.UTF_8);
+    }
+
+    @Override
+    @Nullable
+    public String getPathInfo() {
+        return null;
+    }
+
+    @Override
+    @Nullable
+    public String getPathTranslated() {
+        return null;
+    }
+
+    @Override
+    public HttpServletMapping getHttpServletMapping() {
+        return new HttpServletMapping() {
+            @Override
+            public String getMatchValue() {
+                return "";
+            }
+
+            @Override
+            public String getPattern() {
+                return "/";
+            }
+
+            @Override
+            public String getServletName() {
+                return "dispatcherServlet";
+            }
+
+            @Override
+            public MappingMatch getMappingMatch() {
+                return MappingMatch.DEFAULT;
+            }
+        };
+    }
+
+    @Override
+    @Nullable
+    public String getQueryString() {
+        return queryString;
+    }
+
+    @Override
+    @Nullable
+    public String getParameter(String name) {
+        String[] values = parameters.get(name);
+        return values != null && values.length > 0 ? values[0] : null;
+    }
+
+    @Override
+    public Enumeration<String> getParameterNames() {
+        return Collections.enumeration(parameters.keySet());
+    }
+
+    @Override
+    @Nullable
+    public String[] getParameterValues(String name) {
+        return parameters.get(name);
+    }
+
+    @Override
+    public Map<String, String[]> getParameterMap() {
+        return parameters;
+    }
+
+    @Override
+    @Nullable
+    public String getHeader(String name) {
+        return headers.getFirst(name);
+    }
+
+    @Override
+    public Enumeration<String> getHeaders(String name) {
+        return Collections.enumeration(headers.getOrEmpty(name));
+    }
+
+    @Override
+    public Enumeration<String> getHeaderNames() {
+        return Collections.enumeration(headers.keySet());
+    }
+
+    @Override
+    public int getIntHeader(String name) {
+        String value = getHeader(name);
+        return value == null ? -1 : Integer.parseInt(value);
+    }
+
+    @Override
+    public long getDateHeader(String name) {
+        return headers.getFirstDate(name);
+    }
+
+    @Override
+    @Nullable
+    public String getContentType() {
+        return headers.getFirst(HttpHeaders.CONTENT_TYPE);
+    }
+
+    @Override
+    public int getContentLength() {
+        return body.length;
+    }
+
+    @Override
+    public long getContentLengthLong() {
+        return body.length;
+    }
+
+    @Override
+    public String getCharacterEncoding() {
+        return characterEncoding;
+    }
+
+    @Override
+    public void setCharacterEncoding(String encoding) {
+        this.characterEncoding = encoding;
+    }
+
+    @Override
+    public ServletInputStream getInputStream() {
+        ByteArrayInputStream in = new ByteArrayInputStream(body);
+        return new ServletInputStream() {
+            @Override
+            public boolean isFinished() {
+                return in.available() == 0;
+            }
+
+            @Override
+            public boolean isReady() {
+                return true;
+            }
+
+            @Override
+            public void setReadListener(ReadListener readListener) {
+                throw new UnsupportedOperationException("Подзапрос пакета читается только синхронно");
+            }
+
+            @Override
+            public int read() {
+                return in.read();
+            }
+
+            @Override
+            public int read(byte[] buffer, int offset, int length) {
+                return in.read(buffer, offset, length);
+            }
+        };
+    }
+
+    @Override
+    public BufferedReader getReader() throws IOException {
+        return new BufferedReader(new InputStreamReader(getInputStream(), characterEncoding));
+    }
+
+    @Override
+    @Nullable
+    public Object getAttribute(String name) {
+        return attributes.get(name);
+    }
+
+    @Override
+    public Enumeration<String> getAttributeNames() {
+        return Collections.enumeration(attributes.keySet());
+    }
+
+    @Override
+    public void setAttribute(String name, @Nullable Object value) {
+        if (value == null) {
+            attributes.remove(name);
+        } else {
+            attributes.put(name, value);
+        }
+    }
+
+    @Override
+    public void removeAttribute(String name) {
+        attributes.remove(name);
+    }
+
+    @Override
+    public DispatcherType getDispatcherType() {
+        return DispatcherType.REQUEST;
+    }
+
+    @Override
+    public ServletContext getServletContext() {
+        return servletContext;
+    }
+
+    @Override
+    public Locale getLocale() {
+        return locale;
+    }
+
+    @Override
+    public Enumeration<Locale> getLocales() {
+        return Collections.enumeration(List.of(locale));
+    }
+
+    @Override
+    public String getProtocol() {
+        return "HTTP/1.1";
+    }
+
+    @Override
+    public String getScheme() {
+        return "http";
+    }
+
+    @Override
+    public String getServerName() {
+        return "localhost";
+    }
+
+    @Override
+    public int getServerPort() {
+        return 80;
+    }
+
+    @Override
+    public boolean isSecure() {
+        return false;
+    }
+
+    @Override
+    public String getRemoteAddr() {
+        return remoteAddr;
+    }
+
+    @Override
+    public String getRemoteHost() {
+        return remoteAddr;
+    }
+
+    @Override
+    public int getRemotePort() {
+        return 0;
+    }
+
+    @Override
+    public String getLocalName() {
+        return getServerName();
+    }
+
+    @Override
+    public String getLocalAddr() {
+        return "127.0.0.1";
+    }
+
+    @Override
+    public int getLocalPort() {
+        return getServerPort();
+    }
+
+    @Override
+    public String getRequestId() {
+        return "";
+    }
+
+    @Override
+    public String getProtocolRequestId() {
+        return "";
+    }
+
+    @Override
+    public ServletConnection getServletConnection() {
+        throw new UnsupportedOperationException("У подзапроса пакета нет своего соединения");
+    }
+
+    @Override
+    @Nullable
+    public RequestDispatcher getRequestDispatcher(String path) {
+        return null;
+    }
+
+    @Override
+    public boolean isAsyncStarted() {
+        return false;
+    }
+
+    @Override
+    public boolean isAsyncSupported() {
+        return false;
+    }
+
+    @Override
+    public AsyncContext startAsync() {
+        throw new IllegalStateException("Подзапрос пакета выполняется только синхронно");
+    }
+
+    @Override
+    public AsyncContext startAsync(ServletRequest servletRequest, ServletResponse servletResponse) {
+        throw new IllegalStateException("Подзапрос пакета выполняется только синхронно");
+    }
+
+    @Override
+    public AsyncContext getAsyncContext() {
+        throw new IllegalStateException("Подзапрос пакета выполняется только синхронно");
+    }
+
+    @Override
+    @Nullable
+    public String getAuthType() {
+        return null;
+    }
+
+    @Override
+    @Nullable
+    public Cookie[] getCookies() {
+        return null;
+    }
+
+    @Override
+    @Nullable
+    public String getRemoteUser() {
+        return null;
+    }
+
+    @Override
+    public boolean isUserInRole(String role) {
+        return false;
+    }
+
+    @Override
+    @Nullable
+    public Principal getUserPrincipal() {
+        return null;
+    }
+
+    @Override
+    @Nullable
+    public String getRequestedSessionId() {
+        return null;
+    }
+
+    @Override
+    @Nullable
+    public HttpSession getSession(boolean create) {
+        if (create) {
+            throw new IllegalStateException("У подзапроса пакета нет сессии");
+        }
+        return null;
+    }
+
+    @Override
+    @Nullable
+    public HttpSession getSession() {
+        return getSession(true);
+    }
+
+    @Override
+    public String changeSessionId() {
+        throw new IllegalStateException("У подзапроса пакета нет сессии");
+    }
+
+    @Override
+    public boolean isRequestedSessionIdValid() {
+        return false;
+    }
+
+    @Override
+    public boolean isRequestedSessionIdFromCookie() {
+        return false;
+    }
+
+    @Override
+    public boolean isRequestedSessionIdFromURL() {
+        return false;
+    }
+
+    @Override
+    public boolean authenticate(HttpServletResponse response) {
+        return false;
+    }
+
+    @Override
+    public void login(String username, String password) {
+        throw new UnsupportedOperationException("Подзапрос пакета выполняется от имени пакета");
+    }
+
+    @Override
+    public void logout() {
+    }
+
+    @Override
+    public Collection<Part> getParts() {
+        return List.of();
+    }
+
+    @Override
+    @Nullable
+    public Part getPart(String name) {
+        return null;
+    }
+
+    @Override
+    public <T extends HttpUpgradeHandler> T upgrade(Class<T> handlerClass) {
+        throw new UnsupportedOperationException("Подзапрос пакета не переключает протокол");
+    }
+
+    @Override
+    public Map<String, String> getTrailerFields() {
+        return Map.of();
+    }
+
+    @Override
+    public boolean isTrailerFieldsReady() {
+        return true;
+    }
+}
@@ -0,0 +1,27 @@
+package ru.practicum.shareit.batch.dto;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Pattern;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+/**
+ * Подзапрос пакета: метод, путь API шлюза с параметрами и тело, если оно нужно.
+ */
+@Getter
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class BatchRequestDto {
+    @NotNull(message = "Метод подзапроса должен быть задан")
+    @Pattern(regexp = "GET|POST|PUT|PATCH|DELETE", message = "Неподдерживаемый метод подзапроса")
+    private String method;
+    @NotNull(message = "Путь подзапроса должен быть задан")
+    @Pattern(regexp = "/(users|items|bookings|requests)(?!.*\\.\\.)(/[^?#\\s]*)?(\\?[^#\\s]*)?",
+            message = "Подзапрос может обращаться только к /users, /items, /bookings и /requests")
+    private String path;
+    private JsonNode body;
+}
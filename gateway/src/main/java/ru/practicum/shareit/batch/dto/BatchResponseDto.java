@@ -0,0 +1,22 @@
+package ru.practicum.shareit.batch.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonRawValue;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.Map;
+
+/**
+ * Ответ на подзапрос пакета: код, значимые заголовки и тело в том виде, в каком его вернул бы отдельный запрос.
+ * Тело — готовый JSON, который вставляется в ответ пакета без повторного разбора.
+ */
+@Getter
+@AllArgsConstructor
+public class BatchResponseDto {
+    private int status;
+    @JsonInclude(JsonInclude.Include.NON_EMPTY)
+    private Map<String, String> headers;
+    @JsonRawValue
+    private String body;
+}
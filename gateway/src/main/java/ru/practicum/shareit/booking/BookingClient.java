@@ -1,48 +1,122 @@
 package ru.practicum.shareit.booking;
 
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.context.annotation.Profile;
 import org.springframework.http.ResponseEntity;
-import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.http.client.ClientHttpRequestFactory;
 import org.springframework.stereotype.Service;
+import org.springframework.web.client.ResourceAccessException;
 import org.springframework.web.util.DefaultUriBuilderFactory;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.enums.BookingState;
+import ru.practicum.shareit.booking.enums.BookingView;
 import ru.practicum.shareit.client.BaseClient;
+import ru.practicum.shareit.client.ResponseCache;
+import ru.practicum.shareit.client.ServerCallGuard;
+import ru.practicum.shareit.client.ServerResponseBody;
+import ru.practicum.shareit.item.ItemClient;
 
+import java.io.IOException;
+import java.util.HashMap;
 import java.util.Map;
 
 @Service
+@Profile("!reactive")
 public class BookingClient extends BaseClient {
     private static final String API_PREFIX = "/bookings";
 
+    private final ObjectMapper objectMapper;
 
-    public BookingClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder) {
+    public BookingClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder,
+                         ClientHttpRequestFactory requestFactory, ResponseCache responseCache,
+                         ServerCallGuard guard, ObjectMapper objectMapper) {
         super(builder
                 .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
-                .requestFactory(() -> new HttpComponentsClientHttpRequestFactory())
-                .build()
+                .requestFactory(() -> requestFactory)
+                .build(), responseCache, null, guard
         );
+        this.objectMapper = objectMapper;
     }
 
     public ResponseEntity<Object> addBookingRequest(BookingDto bookingDto, Long userId) {
         return post("", userId, bookingDto);
     }
 
+    /**
+     * Подтверждённая вещь становится недоступной, поэтому её ответы и результаты поиска удаляются из кэша шлюза.
+     * Какая это вещь, видно только из ответа сервера, поэтому он читается целиком.
+     */
     public ResponseEntity<Object> approveBooking(Long bookingId, Long userId, Boolean approved) {
-        return patch("/" + bookingId + "?approved={approved}", userId,
+        ResponseEntity<Object> response = patch("/" + bookingId + "?approved={approved}", userId,
                 Map.of("approved", approved), null);
+        if (!approved || !response.getStatusCode().is2xxSuccessful()
+                || !(response.getBody() instanceof ServerResponseBody body)) {
+            return response;
+        }
+        try {
+            byte[] bytes = body.readAllBytes();
+            JsonNode itemId = objectMapper.readTree(bytes).path("item").path("id");
+            if (itemId.canConvertToLong()) {
+                invalidate(ItemClient.API_PREFIX + "/" + itemId.asLong());
+            }
+            invalidate(ItemClient.SEARCH_PATH);
+            return ResponseEntity.status(response.getStatusCode()).headers(response.getHeaders()).body(bytes);
+        } catch (IOException e) {
+            throw new ResourceAccessException("Ошибка при чтении ответа на подтверждение бронирования "
+                    + bookingId + ": " + e.getMessage(), e);
+        }
     }
 
     public ResponseEntity<Object> getBooking(Long bookingId, Long userId) {
         return get("/" + bookingId, userId);
     }
 
-    public ResponseEntity<Object> getBookings(Long userId, BookingState state) {
-        return get("?state={state}", userId, Map.of("state", state));
+    public ResponseEntity<Object> getBookings(Long userId, BookingState state, String cursor, Integer size,
+                                              BookingView view) {
+        return getPage("", userId, state, cursor, size, view);
     }
 
-    public ResponseEntity<Object> getBookingsOfAllItemsOfOwner(Long userId, BookingState state) {
-        return get("/owner?state={state}", userId, Map.of("state", state));
+    public ResponseEntity<Object> getBookingsOfAllItemsOfOwner(Long userId, BookingState state, String cursor,
+                                                               Integer size, BookingView view) {
+        return getPage("/owner", userId, state, cursor, size, view);
+    }
+
+    /**
+     * Бронирования вещи пользователем в компактном виде.
+     */
+    public ResponseEntity<Object> getBookingsOfItem(Long userId, Long itemId, String cursor, Integer size) {
+        Map<String, Object> parameters = new HashMap<>(Map.of("size", size));
+        if (cursor == null) {
+            return get("/item/" + itemId + "?size={size}", userId, parameters);
+        }
+        parameters.put("cursor", cursor);
+        return get("/item/" + itemId + "?size={size}&cursor={cursor}", userId, parameters);
+    }
+
+    public ResponseEntity<Object> streamBookings(Long userId, BookingState state) {
+        return stream("?state={state}", userId, Map.of("state", state));
+    }
+
+    public ResponseEntity<Object> streamBookingsOfAllItemsOfOwner(Long userId, BookingState state) {
+        return stream("/owner?state={state}", userId, Map.of("state", state));
+    }
+
+    private ResponseEntity<Object> getPage(String path, Long userId, BookingState state, String cursor,
+                                           Integer size, BookingView view) {
+        Map<String, Object> parameters = new HashMap<>(Map.of("state", state, "view", view));
+        StringBuilder query = new StringBuilder(path).append("?state={state}");
+        if (size != null) {
+            parameters.put("size", size);
+            query.append("&size={size}");
+        }
+        query.append("&view={view}");
+        if (cursor != null) {
+            parameters.put("cursor", cursor);
+            query.append("&cursor={cursor}");
+        }
+        return get(query.toString(), userId, parameters);
     }
 }
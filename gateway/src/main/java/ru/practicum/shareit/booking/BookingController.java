@@ -1,14 +1,21 @@
 package ru.practicum.shareit.booking;
 
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Positive;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.enums.BookingState;
+import ru.practicum.shareit.booking.enums.BookingView;
+
 
 @RestController
+@Profile("!reactive")
 @RequestMapping(path = "/bookings")
 @RequiredArgsConstructor
 @Slf4j
@@ -36,13 +43,42 @@ public class BookingController {
 
     @GetMapping
     public ResponseEntity<Object> getBookings(@RequestHeader("X-Sharer-User-Id") Long userId,
-                                              @RequestParam(defaultValue = "ALL") BookingState state) {
-        return bookingClient.getBookings(userId, state);
+                                              @RequestParam(defaultValue = "ALL") BookingState state,
+                                              @RequestParam(required = false) String cursor,
+                                              @RequestParam(required = false) @Positive @Max(100) Integer size,
+                                              @RequestParam(defaultValue = "FULL") BookingView view) {
+        return bookingClient.getBookings(userId, state, cursor, size, view);
+    }
+
+    @GetMapping("/item/{itemId}")
+    public ResponseEntity<Object> getBookingsOfItem(@RequestHeader("X-Sharer-User-Id") Long userId,
+                                                    @PathVariable Long itemId,
+                                                    @RequestParam(required = false) String cursor,
+                                                    @RequestParam(defaultValue = "20")
+                                                    @Positive @Max(100) Integer size) {
+        return bookingClient.getBookingsOfItem(userId, itemId, cursor, size);
+    }
+
+    @GetMapping(produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<Object> streamBookings(@RequestHeader("X-Sharer-User-Id") Long userId,
+                                                 @RequestParam(defaultValue = "ALL") BookingState state) {
+        return bookingClient.streamBookings(userId, state);
+    }
+
+    @GetMapping(path = "/owner", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<Object> streamBookingsOfItemsOfOwner(@RequestHeader("X-Sharer-User-Id") Long userId,
+                                                               @RequestParam(defaultValue = "ALL")
+                                                               BookingState state) {
+        return bookingClient.streamBookingsOfAllItemsOfOwner(userId, state);
     }
 
     @GetMapping("/owner")
     public ResponseEntity<Object> getBookingsOfItemsOfOwner(@RequestHeader("X-Sharer-User-Id") Long userId,
-                                                            @RequestParam(defaultValue = "ALL") BookingState state) {
-        return bookingClient.getBookingsOfAllItemsOfOwner(userId, state);
+                                                            @RequestParam(defaultValue = "ALL") BookingState state,
+                                                            @RequestParam(required = false) String cursor,
+                                                            @RequestParam(required = false)
+                                                            @Positive @Max(100) Integer size,
+                                                            @RequestParam(defaultValue = "FULL") BookingView view) {
+        return bookingClient.getBookingsOfAllItemsOfOwner(userId, state, cursor, size, view);
     }
 }
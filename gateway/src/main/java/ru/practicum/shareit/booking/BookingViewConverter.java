@@ -0,0 +1,16 @@
+package ru.practicum.shareit.booking;
+
+import org.springframework.core.convert.converter.Converter;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.booking.enums.BookingView;
+
+/**
+ * Принимает вид списка бронирований без учёта регистра: {@code view=compact} и {@code view=COMPACT}.
+ */
+@Component
+public class BookingViewConverter implements Converter<String, BookingView> {
+    @Override
+    public BookingView convert(String source) {
+        return BookingView.valueOf(source.trim().toUpperCase());
+    }
+}
@@ -0,0 +1,80 @@
+package ru.practicum.shareit.booking;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.stereotype.Service;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.enums.BookingState;
+import ru.practicum.shareit.booking.enums.BookingView;
+import ru.practicum.shareit.client.ReactiveBaseClient;
+
+import java.util.HashMap;
+import java.util.Map;
+
+@Service
+@Profile("reactive")
+public class ReactiveBookingClient extends ReactiveBaseClient {
+    private static final String API_PREFIX = "/bookings";
+
+    public ReactiveBookingClient(@Value("${shareit-server.url}") String serverUrl, WebClient.Builder builder,
+                                 ReactorClientHttpConnector connector) {
+        super(builder
+                .baseUrl(serverUrl + API_PREFIX)
+                .clientConnector(connector)
+                .build());
+    }
+
+    public Mono<ResponseEntity<Flux<DataBuffer>>> addBookingRequest(BookingDto bookingDto, Long userId) {
+        return post("", userId, bookingDto);
+    }
+
+    public Mono<ResponseEntity<Flux<DataBuffer>>> approveBooking(Long bookingId, Long userId, Boolean approved) {
+        return patch("/" + bookingId + "?approved={approved}", userId,
+                Map.of("approved", approved), null);
+    }
+
+    public Mono<ResponseEntity<Flux<DataBuffer>>> getBooking(Long bookingId, Long userId) {
+        return get("/" + bookingId, userId);
+    }
+
+    public Mono<ResponseEntity<Flux<DataBuffer>>> getBookings(Long userId, BookingState state, String cursor,
+                                                              Integer size, BookingView view) {
+        return getPage("", userId, state, cursor, size, view);
+    }
+
+    public Mono<ResponseEntity<Flux<DataBuffer>>> getBookingsOfAllItemsOfOwner(Long userId, BookingState state,
+                                                                               String cursor, Integer size,
+                                                                               BookingView view) {
+        return getPage("/owner", userId, state, cursor, size, view);
+    }
+
+    public Mono<ResponseEntity<Flux<DataBuffer>>> streamBookings(Long userId, BookingState state) {
+        return stream("?state={state}", userId, Map.of("state", state));
+    }
+
+    public Mono<ResponseEntity<Flux<DataBuffer>>> streamBookingsOfAllItemsOfOwner(Long userId, BookingState state) {
+        return stream("/owner?state={state}", userId, Map.of("state", state));
+    }
+
+    private Mono<ResponseEntity<Flux<DataBuffer>>> getPage(String path, Long userId, BookingState state,
+                                                           String cursor, Integer size, BookingView view) {
+        Map<String, Object> parameters = new HashMap<>(Map.of("state", state, "view", view));
+        StringBuilder query = new StringBuilder(path).append("?state={state}");
+        if (size != null) {
+            parameters.put("size", size);
+            query.append("&size={size}");
+        }
+        query.append("&view={view}");
+        if (cursor != null) {
+            parameters.put("cursor", cursor);
+            query.append("&cursor={cursor}");
+        }
+        return get(query.toString(), userId, parameters);
+    }
+}
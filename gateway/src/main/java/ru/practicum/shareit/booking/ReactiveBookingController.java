@@ -0,0 +1,85 @@
+package ru.practicum.shareit.booking;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Positive;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.enums.BookingState;
+import ru.practicum.shareit.booking.enums.BookingView;
+
+/**
+ * {@link BookingController} для реактивного режима шлюза: те же адреса и проверки, но без блокировки потока.
+ */
+@RestController
+@Profile("reactive")
+@RequestMapping(path = "/bookings")
+@RequiredArgsConstructor
+public class ReactiveBookingController {
+    private final ReactiveBookingClient bookingClient;
+
+    @PostMapping
+    public Mono<ResponseEntity<Flux<DataBuffer>>> addBookingRequest(@Valid @RequestBody BookingDto bookingDto,
+                                                                    @RequestHeader("X-Sharer-User-Id") Long userId) {
+        return bookingClient.addBookingRequest(bookingDto, userId);
+    }
+
+    @PatchMapping("/{bookingId}")
+    public Mono<ResponseEntity<Flux<DataBuffer>>> approveBooking(@PathVariable Long bookingId,
+                                                                 @RequestHeader("X-Sharer-User-Id") Long userId,
+                                                                 @RequestParam Boolean approved) {
+        return bookingClient.approveBooking(bookingId, userId, approved);
+    }
+
+    @GetMapping("/{bookingId}")
+    public Mono<ResponseEntity<Flux<DataBuffer>>> getBooking(@PathVariable Long bookingId,
+                                                             @RequestHeader("X-Sharer-User-Id") Long userId) {
+        return bookingClient.getBooking(bookingId, userId);
+    }
+
+    @GetMapping
+    public Mono<ResponseEntity<Flux<DataBuffer>>> getBookings(@RequestHeader("X-Sharer-User-Id") Long userId,
+                                                              @RequestParam(defaultValue = "ALL") BookingState state,
+                                                              @RequestParam(required = false) String cursor,
+                                                              @RequestParam(required = false)
+                                                              @Positive @Max(100) Integer size,
+                                                              @RequestParam(defaultValue = "FULL") BookingView view) {
+        return bookingClient.getBookings(userId, state, cursor, size, view);
+    }
+
+    @GetMapping(produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Mono<ResponseEntity<Flux<DataBuffer>>> streamBookings(@RequestHeader("X-Sharer-User-Id") Long userId,
+                                                                 @RequestParam(defaultValue = "ALL")
+                                                                 BookingState state) {
+        return bookingClient.streamBookings(userId, state);
+    }
+
+    @GetMapping(path = "/owner", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Mono<ResponseEntity<Flux<DataBuffer>>> streamBookingsOfItemsOfOwner(@RequestHeader("X-Sharer-User-Id")
+                                                                               Long userId,
+                                                                               @RequestParam(defaultValue = "ALL")
+                                                                               BookingState state) {
+        return bookingClient.streamBookingsOfAllItemsOfOwner(userId, state);
+    }
+
+    @GetMapping("/owner")
+    public Mono<ResponseEntity<Flux<DataBuffer>>> getBookingsOfItemsOfOwner(@RequestHeader("X-Sharer-User-Id")
+                                                                            Long userId,
+                                                                            @RequestParam(defaultValue = "ALL")
+                                                                            BookingState state,
+                                                                            @RequestParam(required = false)
+                                                                            String cursor,
+                                                                            @RequestParam(required = false)
+                                                                            @Positive @Max(100) Integer size,
+                                                                            @RequestParam(defaultValue = "FULL")
+                                                                            BookingView view) {
+        return bookingClient.getBookingsOfAllItemsOfOwner(userId, state, cursor, size, view);
+    }
+}
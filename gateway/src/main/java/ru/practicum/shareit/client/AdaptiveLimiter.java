@@ -0,0 +1,159 @@
+package ru.practicum.shareit.client;
+
+import com.github.benmanes.caffeine.cache.Ticker;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Предел одновременных вызовов сервера, который подстраивается под время ответа по алгоритму TCP Vegas. Время
+ * ответа без нагрузки у каждого маршрута своё — минимальное за последние два окна {@code rttWindow}, иначе
+ * медленный маршрут вроде {@code GET /bookings/owner} по сравнению с быстрым {@code GET /users/{id}} выглядел бы
+ * как очередь на сервере. По отношению к нему оценивается, сколько вызовов стоят в очереди сервера:
+ * {@code limit * (1 - rttNoLoad / rtt)}. Шаг изменения предела — {@code max(1, log10(limit))}. Если очереди
+ * практически нет, не больше {@code log10(limit)} вызовов, предел растёт сразу на шесть шагов, как в VegasLimit
+ * библиотеки concurrency-limits: так он от начального значения быстро доходит до возможностей сервера. Пока
+ * очередь короче {@code 3 * log10(limit)}, предел растёт на шаг, когда она длиннее {@code 6 * log10(limit)} —
+ * уменьшается на шаг, а вызов без ответа или с ответом {@code 5xx} уменьшает его сразу. Пока занято меньше
+ * половины предела, он не меняется.
+ * <p>
+ * Записи получают весь предел, а чтения — только долю {@code readShare}, поэтому при перегрузке первыми
+ * отклоняются чтения. Метрики: {@code gateway.adaptive.limit} и {@code gateway.adaptive.in.flight}.
+ */
+public class AdaptiveLimiter {
+    private final ReentrantLock lock = new ReentrantLock();
+    private final int minLimit;
+    private final int maxLimit;
+    private final double readShare;
+    private final long rttWindowNanos;
+    private final Ticker ticker;
+
+    private final Map<String, RttWindow> routes = new HashMap<>();
+
+    private double limit;
+    private int inFlight;
+
+    public AdaptiveLimiter(int initialLimit, int minLimit, int maxLimit, double readShare, Duration rttWindow,
+                           Ticker ticker, MeterRegistry meterRegistry) {
+        this.limit = initialLimit;
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.readShare = readShare;
+        this.rttWindowNanos = rttWindow.toNanos();
+        this.ticker = ticker;
+        Gauge.builder("gateway.adaptive.limit", this, AdaptiveLimiter::limit)
+                .description("Текущий предел одновременных вызовов сервера")
+                .register(meterRegistry);
+        Gauge.builder("gateway.adaptive.in.flight", this, AdaptiveLimiter::inFlight)
+                .description("Вызовы сервера, которые выполняются сейчас")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Занимает место для вызова, если предел позволяет.
+     *
+     * @param write запись, которой доступен весь предел; чтению доступна только доля {@code readShare}
+     */
+    public boolean tryAcquire(boolean write) {
+        lock.lock();
+        try {
+            int allowed = write ? (int) limit : Math.max(1, (int) (limit * readShare));
+            if (inFlight >= allowed) {
+                return false;
+            }
+            inFlight++;
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void release() {
+        lock.lock();
+        try {
+            inFlight--;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Пересчитывает предел по времени ответа сервера.
+     *
+     * @param route    маршрут вызова, например {@code GET /bookings/owner}
+     * @param rttNanos время до ответа сервера
+     * @param dropped  сервер не ответил или ответил {@code 5xx}
+     */
+    public void sample(String route, long rttNanos, boolean dropped) {
+        lock.lock();
+        try {
+            long now = ticker.read();
+            long noLoadRtt = routes.computeIfAbsent(route, name -> new RttWindow(now)).sample(now, rttNanos);
+            double log = Math.log10(limit);
+            double step = Math.max(1, log);
+            if (dropped) {
+                limit -= step;
+            } else if (inFlight * 2 >= limit) {
+                double queue = limit * (1 - (double) noLoadRtt / rttNanos);
+                if (queue <= log) {
+                    limit += 6 * step;
+                } else if (queue < 3 * log) {
+                    limit += step;
+                } else if (queue > 6 * log) {
+                    limit -= step;
+                }
+            }
+            limit = Math.clamp(limit, minLimit, maxLimit);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int limit() {
+        lock.lock();
+        try {
+            return (int) limit;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int inFlight() {
+        lock.lock();
+        try {
+            return inFlight;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Минимальное время ответа маршрута в текущем и предыдущем окне {@code rttWindow}.
+     */
+    private final class RttWindow {
+        private long windowStart;
+        private long windowMinRtt = Long.MAX_VALUE;
+        private long previousMinRtt = Long.MAX_VALUE;
+
+        private RttWindow(long now) {
+            this.windowStart = now;
+        }
+
+        /**
+         * Учитывает время ответа и возвращает время ответа маршрута без нагрузки.
+         */
+        private long sample(long now, long rttNanos) {
+            if (now - windowStart >= rttWindowNanos) {
+                previousMinRtt = windowMinRtt;
+                windowMinRtt = Long.MAX_VALUE;
+                windowStart = now;
+            }
+            windowMinRtt = Math.min(windowMinRtt, rttNanos);
+            return Math.min(previousMinRtt, windowMinRtt);
+        }
+    }
+}
@@ -1,22 +1,60 @@
 package ru.practicum.shareit.client;
 
+import java.io.IOException;
+import java.net.URI;
 import java.util.List;
 import java.util.Map;
 
-import org.springframework.http.HttpEntity;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.client.ClientHttpRequest;
+import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.http.converter.HttpMessageConverter;
 import org.springframework.lang.Nullable;
-import org.springframework.web.client.HttpStatusCodeException;
+import org.springframework.web.client.ResourceAccessException;
 import org.springframework.web.client.RestTemplate;
 
 public class BaseClient {
+    /**
+     * Заголовки ответа сервера, которые шлюз передаёт клиенту. Заголовки соединения не передаются.
+     */
+    static final List<String> PASSED_HEADERS = List.of(HttpHeaders.CONTENT_TYPE,
+            HttpHeaders.CONTENT_LENGTH, HttpHeaders.CONTENT_ENCODING, HttpHeaders.CACHE_CONTROL, HttpHeaders.ETAG,
+            HttpHeaders.LAST_MODIFIED, HttpHeaders.LOCATION, HttpHeaders.VARY, "X-Next-Cursor");
+
     protected final RestTemplate rest;
+    @Nullable
+    protected final ResponseCache responseCache;
+    @Nullable
+    private final RequestCoalescer coalescer;
+    @Nullable
+    private final ServerCallGuard guard;
 
     public BaseClient(RestTemplate rest) {
+        this(rest, null);
+    }
+
+    public BaseClient(RestTemplate rest, @Nullable ResponseCache responseCache) {
+        this(rest, responseCache, null);
+    }
+
+    public BaseClient(RestTemplate rest, @Nullable ResponseCache responseCache,
+                      @Nullable RequestCoalescer coalescer) {
+        this(rest, responseCache, coalescer, null);
+    }
+
+    /**
+     * @param guard пределы одновременных вызовов и выключатели маршрутов; без него вызовы не ограничиваются
+     */
+    public BaseClient(RestTemplate rest, @Nullable ResponseCache responseCache,
+                      @Nullable RequestCoalescer coalescer, @Nullable ServerCallGuard guard) {
         this.rest = rest;
+        this.responseCache = responseCache;
+        this.coalescer = coalescer;
+        this.guard = guard;
     }
 
     protected ResponseEntity<Object> get(String path) {
@@ -31,6 +69,35 @@ public class BaseClient {
         return makeAndSendRequest(HttpMethod.GET, path, userId, parameters, null);
     }
 
+    /**
+     * GET-запрос через кэш ответов шлюза: тело ответа читается целиком, чтобы его можно было отдать повторно.
+     * Одинаковые одновременные запросы маршрута {@code route}, если для него включено объединение, ходят
+     * на сервер одним запросом. Без кэша запрос выполняется как обычный {@link #get(String, Long, Map)}.
+     */
+    protected ResponseEntity<Object> cachedGet(String route, String path, @Nullable Long userId,
+                                               @Nullable Map<String, Object> parameters) {
+        if (responseCache == null) {
+            return get(path, userId, parameters);
+        }
+        URI uri = expand(path, parameters);
+        try {
+            return responseCache.get(uri, userId, cached -> coalescer != null
+                    ? coalescer.execute(route, uri, userId, () -> fetch(uri, userId, cached))
+                    : fetch(uri, userId, cached));
+        } catch (IOException e) {
+            throw new ResourceAccessException("Ошибка при запросе GET " + uri + ": " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Удаляет из кэша ответы по пути {@code path} относительно адреса сервера, например {@code /items/1}.
+     */
+    protected void invalidate(String path) {
+        if (responseCache != null) {
+            responseCache.invalidate(path);
+        }
+    }
+
     protected <T> ResponseEntity<Object> post(String path, T body) {
         return post(path, null, null, body);
     }
@@ -82,44 +149,140 @@ public class BaseClient {
         return makeAndSendRequest(HttpMethod.DELETE, path, userId, parameters, null);
     }
 
+    /**
+     * Запрашивает список в формате {@code application/x-ndjson}; ответ передаётся клиенту по мере получения.
+     */
+    protected ResponseEntity<Object> stream(String path, Long userId, @Nullable Map<String, Object> parameters) {
+        return makeAndSendRequest(HttpMethod.GET, path, userId, parameters, null, MediaType.APPLICATION_NDJSON);
+    }
+
     private <T> ResponseEntity<Object> makeAndSendRequest(HttpMethod method, String path, Long userId,
                                                           @Nullable Map<String, Object> parameters, @Nullable T body) {
-        HttpEntity<T> requestEntity = new HttpEntity<>(body, defaultHeaders(userId));
+        return makeAndSendRequest(method, path, userId, parameters, body, MediaType.APPLICATION_JSON);
+    }
 
-        ResponseEntity<Object> shareitServerResponse;
+    /**
+     * Отправляет запрос на сервер и возвращает его ответ как есть: код, значимые заголовки и тело
+     * {@link ServerResponseBody}, которое копируется из потока HTTP-клиента в ответ шлюза без разбора JSON.
+     * Место вызова в {@link ServerCallGuard} занято, пока тело не дочитано.
+     */
+    private <T> ResponseEntity<Object> makeAndSendRequest(HttpMethod method, String path, Long userId,
+                                                          @Nullable Map<String, Object> parameters, @Nullable T body,
+                                                          MediaType accept) {
+        URI uri = expand(path, parameters);
+        ServerCallGuard.Permit permit = enter(method, uri, MediaType.APPLICATION_NDJSON.equals(accept));
         try {
-            if (parameters != null) {
-                shareitServerResponse = rest.exchange(path, method, requestEntity, Object.class, parameters);
-            } else {
-                shareitServerResponse = rest.exchange(path, method, requestEntity, Object.class);
+            ClientHttpRequest request = createRequest(uri, method, userId, accept);
+            if (body != null) {
+                writeBody(request, body);
+            }
+            return prepareGatewayResponse(execute(request, permit), permit);
+        } catch (IOException e) {
+            permit.close();
+            throw new ResourceAccessException("Ошибка при запросе " + method + " " + uri + ": " + e.getMessage(), e);
+        } catch (RuntimeException e) {
+            permit.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Запрашивает ответ для кэша; если есть прежний ответ с {@code ETag}, запрос условный, и при
+     * {@code 304 Not Modified} возвращается прежняя запись.
+     */
+    private ResponseCache.Entry fetch(URI uri, Long userId, @Nullable ResponseCache.Entry cached)
+            throws IOException {
+        try (ServerCallGuard.Permit permit = enter(HttpMethod.GET, uri, false)) {
+            ClientHttpRequest request = createRequest(uri, HttpMethod.GET, userId, MediaType.APPLICATION_JSON);
+            if (cached != null && cached.etag() != null) {
+                request.getHeaders().setIfNoneMatch(cached.etag());
+            }
+            try (ClientHttpResponse response = execute(request, permit)) {
+                if (cached != null && response.getStatusCode().isSameCodeAs(HttpStatus.NOT_MODIFIED)) {
+                    return cached;
+                }
+                return responseCache.entry(response.getStatusCode(), passedHeaders(response),
+                        response.getBody().readAllBytes());
             }
-        } catch (HttpStatusCodeException e) {
-            return ResponseEntity.status(e.getStatusCode()).body(e.getResponseBodyAsByteArray());
         }
-        return prepareGatewayResponse(shareitServerResponse);
     }
 
-    private HttpHeaders defaultHeaders(Long userId) {
+    private ServerCallGuard.Permit enter(HttpMethod method, URI uri, boolean stream) {
+        return guard != null ? guard.enter(method, uri, stream) : ServerCallGuard.Permit.NONE;
+    }
+
+    /**
+     * Выполняет запрос и сообщает исход выключателю маршрута: ответ с кодом {@code 5xx} или отсутствие ответа
+     * считаются ошибкой сервера.
+     */
+    private static ClientHttpResponse execute(ClientHttpRequest request, ServerCallGuard.Permit permit)
+            throws IOException {
+        try {
+            ClientHttpResponse response = request.execute();
+            permit.completed(response.getStatusCode());
+            return response;
+        } catch (IOException e) {
+            permit.failed();
+            throw e;
+        }
+    }
+
+    private URI expand(String path, @Nullable Map<String, Object> parameters) {
+        return parameters != null
+                ? rest.getUriTemplateHandler().expand(path, parameters)
+                : rest.getUriTemplateHandler().expand(path);
+    }
+
+    private ClientHttpRequest createRequest(URI uri, HttpMethod method, Long userId, MediaType accept)
+            throws IOException {
+        ClientHttpRequest request = rest.getRequestFactory().createRequest(uri, method);
+        request.getHeaders().addAll(defaultHeaders(userId, accept));
+        return request;
+    }
+
+    @SuppressWarnings("unchecked")
+    private void writeBody(ClientHttpRequest request, Object body) throws IOException {
+        for (HttpMessageConverter<?> converter : rest.getMessageConverters()) {
+            if (converter.canWrite(body.getClass(), MediaType.APPLICATION_JSON)) {
+                ((HttpMessageConverter<Object>) converter).write(body, MediaType.APPLICATION_JSON, request);
+                return;
+            }
+        }
+        throw new IllegalArgumentException("Нет конвертера для тела запроса " + body.getClass().getName());
+    }
+
+    static HttpHeaders defaultHeaders(Long userId, MediaType accept) {
         HttpHeaders headers = new HttpHeaders();
         headers.setContentType(MediaType.APPLICATION_JSON);
-        headers.setAccept(List.of(MediaType.APPLICATION_JSON));
+        headers.setAccept(List.of(accept));
         if (userId != null) {
             headers.set("X-Sharer-User-Id", String.valueOf(userId));
         }
         return headers;
     }
 
-    private static ResponseEntity<Object> prepareGatewayResponse(ResponseEntity<Object> response) {
-        if (response.getStatusCode().is2xxSuccessful()) {
-            return response;
-        }
-
-        ResponseEntity.BodyBuilder responseBuilder = ResponseEntity.status(response.getStatusCode());
+    private static ResponseEntity<Object> prepareGatewayResponse(ClientHttpResponse response,
+                                                                 ServerCallGuard.Permit permit) throws IOException {
+        HttpHeaders headers = passedHeaders(response);
+        ResponseEntity.BodyBuilder responseBuilder = ResponseEntity.status(response.getStatusCode()).headers(headers);
 
-        if (response.hasBody()) {
-            return responseBuilder.body(response.getBody());
+        if (headers.getContentLength() == 0 || response.getStatusCode().isSameCodeAs(HttpStatus.NO_CONTENT)) {
+            response.close();
+            permit.close();
+            return responseBuilder.build();
         }
 
-        return responseBuilder.build();
+        return responseBuilder.body(new ServerResponseBody(response, permit));
+    }
+
+    private static HttpHeaders passedHeaders(ClientHttpResponse response) {
+        HttpHeaders headers = new HttpHeaders();
+        PASSED_HEADERS.forEach(name -> {
+            List<String> values = response.getHeaders().get(name);
+            if (values != null) {
+                headers.put(name, values);
+            }
+        });
+        return headers;
     }
 }
@@ -0,0 +1,173 @@
+package ru.practicum.shareit.client;
+
+import com.github.benmanes.caffeine.cache.Ticker;
+
+import java.time.Duration;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Автоматический выключатель одного маршрута сервера. Исходы последних {@code windowSize} вызовов хранятся
+ * в кольцевом буфере; когда среди них набирается не меньше {@code minimumCalls} и доля ошибок достигает
+ * {@code failureRateThreshold} процентов, выключатель размыкается и на {@code openFor} запрещает вызовы.
+ * Затем он пропускает {@code halfOpenProbes} пробных вызовов: если все успешны, выключатель замыкается,
+ * а первая же ошибка снова размыкает его.
+ */
+final class CircuitBreaker {
+    private final ReentrantLock lock = new ReentrantLock();
+    private final boolean[] failed;
+    private final int minimumCalls;
+    private final int failureRateThreshold;
+    private final long openForNanos;
+    private final int halfOpenProbes;
+    private final Ticker ticker;
+
+    private State state = State.CLOSED;
+    private int next;
+    private int calls;
+    private int failures;
+    private long openUntil;
+    private int probes;
+    private int probeSuccesses;
+
+    CircuitBreaker(int windowSize, int minimumCalls, int failureRateThreshold, Duration openFor, int halfOpenProbes,
+                   Ticker ticker) {
+        this.failed = new boolean[windowSize];
+        this.minimumCalls = minimumCalls;
+        this.failureRateThreshold = failureRateThreshold;
+        this.openForNanos = openFor.toNanos();
+        this.halfOpenProbes = halfOpenProbes;
+        this.ticker = ticker;
+    }
+
+    /**
+     * Решает, можно ли выполнить вызов.
+     *
+     * @return {@link State#CLOSED} для обычного вызова, {@link State#HALF_OPEN} для пробного и {@link State#OPEN},
+     *         если вызов запрещён
+     */
+    State tryPass() {
+        lock.lock();
+        try {
+            if (state == State.OPEN) {
+                if (ticker.read() - openUntil < 0) {
+                    return State.OPEN;
+                }
+                state = State.HALF_OPEN;
+                probes = 0;
+                probeSuccesses = 0;
+            }
+            if (state == State.HALF_OPEN) {
+                if (probes == halfOpenProbes) {
+                    return State.OPEN;
+                }
+                probes++;
+            }
+            return state;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Запоминает исход вызова, пропущенного как {@code admittedAs}. Исходы вызовов, начатых до смены состояния,
+     * не учитываются.
+     */
+    void record(State admittedAs, boolean failure) {
+        lock.lock();
+        try {
+            if (admittedAs != state) {
+                return;
+            }
+            if (state == State.CLOSED) {
+                recordClosed(failure);
+            } else if (failure) {
+                open();
+            } else if (++probeSuccesses == halfOpenProbes) {
+                close();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Освобождает место пробного вызова, который не дошёл до сервера.
+     */
+    void release(State admittedAs) {
+        lock.lock();
+        try {
+            if (admittedAs == State.HALF_OPEN && state == State.HALF_OPEN) {
+                probes--;
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Через сколько наносекунд выключатель пропустит пробный вызов; {@code 0}, если уже пропускает.
+     */
+    long retryAfterNanos() {
+        lock.lock();
+        try {
+            return state == State.OPEN ? Math.max(0, openUntil - ticker.read()) : 0;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    State state() {
+        lock.lock();
+        try {
+            return state == State.OPEN && ticker.read() - openUntil >= 0 ? State.HALF_OPEN : state;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Доля ошибок в процентах среди вызовов в буфере.
+     */
+    double failureRate() {
+        lock.lock();
+        try {
+            return calls == 0 ? 0 : 100.0 * failures / calls;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void recordClosed(boolean failure) {
+        if (calls == failed.length) {
+            if (failed[next]) {
+                failures--;
+            }
+        } else {
+            calls++;
+        }
+        failed[next] = failure;
+        if (failure) {
+            failures++;
+        }
+        next = (next + 1) % failed.length;
+        if (calls >= minimumCalls && failures * 100 >= failureRateThreshold * calls) {
+            open();
+        }
+    }
+
+    private void open() {
+        state = State.OPEN;
+        openUntil = ticker.read() + openForNanos;
+    }
+
+    private void close() {
+        state = State.CLOSED;
+        next = 0;
+        calls = 0;
+        failures = 0;
+    }
+
+    enum State {
+        CLOSED, HALF_OPEN, OPEN
+    }
+}
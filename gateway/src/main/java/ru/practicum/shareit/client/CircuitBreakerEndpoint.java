@@ -0,0 +1,21 @@
+package ru.practicum.shareit.client;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+
+import java.util.SortedMap;
+
+/**
+ * {@code /actuator/circuitbreakers}: состояние выключателя и свободные места каждого маршрута сервера.
+ */
+@Endpoint(id = "circuitbreakers")
+@RequiredArgsConstructor
+public class CircuitBreakerEndpoint {
+    private final ServerCallGuard guard;
+
+    @ReadOperation
+    public SortedMap<String, ServerCallGuard.RouteState> circuitBreakers() {
+        return guard.routes();
+    }
+}
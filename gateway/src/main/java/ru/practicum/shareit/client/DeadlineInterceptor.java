@@ -0,0 +1,200 @@
+package ru.practicum.shareit.client;
+
+import com.github.benmanes.caffeine.cache.Ticker;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletRequest;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpRequest;
+import org.springframework.http.MediaType;
+import org.springframework.http.client.ClientHttpRequestExecution;
+import org.springframework.http.client.ClientHttpRequestInterceptor;
+import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.lang.Nullable;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Передаёт серверу в заголовке {@value #HEADER}, сколько миллисекунд шлюз ещё готов ждать ответ: бюджет
+ * за вычетом времени, которое уже прошло с прихода запроса к шлюзу. Время прихода отмечает {@link ArrivalFilter};
+ * вызовам вне запроса, например фоновому обновлению кэша, достаётся весь бюджет. Сервер отклоняет запросы
+ * с истёкшим сроком и прерывает по нему запросы к базе.
+ * <p>
+ * Часть запроса может быть ограничена сроком короче бюджета, например сборка страницы вещи или пакет. Вызовы
+ * такой части идут из потоков пула, где нет атрибутов запроса, поэтому срок передаётся явно: через
+ * {@link #withDeadline} для задачи пула или {@link #inherit} для подзапроса пакета. Серверу тогда уходит
+ * меньшее из оставшегося бюджета и времени до этого срока.
+ * <p>
+ * Потоковые вызовы NDJSON идут без срока: поток длится, пока сервер отдаёт строки, и ограничен тайм-аутом
+ * потоковой транзакции сервера, а прервать его по сроку можно только на середине уже начатого ответа.
+ */
+public class DeadlineInterceptor implements ClientHttpRequestInterceptor {
+    public static final String HEADER = "X-Request-Timeout-Ms";
+
+    static final String ARRIVED_AT = DeadlineInterceptor.class.getName() + ".arrivedAt";
+    static final String DEADLINE = DeadlineInterceptor.class.getName() + ".deadline";
+
+    private final long budgetNanos;
+    private final Ticker ticker;
+
+    public DeadlineInterceptor(Duration budget, Ticker ticker) {
+        this.budgetNanos = budget.toNanos();
+        this.ticker = ticker;
+    }
+
+    @Override
+    public ClientHttpResponse intercept(HttpRequest request, byte[] body, ClientHttpRequestExecution execution)
+            throws IOException {
+        if (!isStream(request)) {
+            request.getHeaders().set(HEADER, String.valueOf(remainingMillis()));
+        }
+        return execution.execute(request, body);
+    }
+
+    private static boolean isStream(HttpRequest request) {
+        return request.getHeaders().getAccept().stream().anyMatch(MediaType.APPLICATION_NDJSON::equalsTypeAndSubtype);
+    }
+
+    long remainingMillis() {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        long now = ticker.read();
+        long remaining = budgetNanos;
+        if (attribute(attributes, ARRIVED_AT) instanceof Long arrivedAt) {
+            remaining -= now - arrivedAt;
+        }
+        if (attribute(attributes, DEADLINE) instanceof Long deadline) {
+            remaining = Math.min(remaining, deadline - now);
+        }
+        return Math.max(0, TimeUnit.NANOSECONDS.toMillis(remaining));
+    }
+
+    /**
+     * Задача, которая в потоке пула вызывает сервер со сроком текущего запроса к шлюзу, сокращённым
+     * до {@code deadline}. Срок — значение {@link System#nanoTime()}, как и время прихода запроса.
+     */
+    public static Runnable withDeadline(long deadline, Runnable task) {
+        RequestAttributes current = RequestContextHolder.getRequestAttributes();
+        Object arrivedAt = attribute(current, ARRIVED_AT);
+        Long earliest = earliest(attribute(current, DEADLINE), deadline);
+        return () -> {
+            RequestAttributes previous = RequestContextHolder.getRequestAttributes();
+            TaskAttributes attributes = new TaskAttributes();
+            attributes.setAttribute(ARRIVED_AT, arrivedAt, RequestAttributes.SCOPE_REQUEST);
+            attributes.setAttribute(DEADLINE, earliest, RequestAttributes.SCOPE_REQUEST);
+            RequestContextHolder.setRequestAttributes(attributes);
+            try {
+                task.run();
+            } finally {
+                RequestContextHolder.setRequestAttributes(previous);
+                attributes.completed();
+            }
+        };
+    }
+
+    /**
+     * Переносит в запрос {@code target}, который шлюз обработает в другом потоке, срок текущего запроса,
+     * сокращённый до {@code deadline}.
+     */
+    public static void inherit(ServletRequest target, long deadline) {
+        RequestAttributes current = RequestContextHolder.getRequestAttributes();
+        target.setAttribute(ARRIVED_AT, attribute(current, ARRIVED_AT));
+        target.setAttribute(DEADLINE, earliest(attribute(current, DEADLINE), deadline));
+    }
+
+    @Nullable
+    private static Object attribute(@Nullable RequestAttributes attributes, String name) {
+        return attributes != null ? attributes.getAttribute(name, RequestAttributes.SCOPE_REQUEST) : null;
+    }
+
+    private static long earliest(@Nullable Object deadline, long other) {
+        return deadline instanceof Long at && at - other < 0 ? at : other;
+    }
+
+    /**
+     * Атрибуты задачи пула вместо атрибутов запроса: срок и действия по завершении, например освобождение
+     * непрочитанного тела ответа сервера.
+     */
+    private static final class TaskAttributes implements RequestAttributes {
+        private final Map<String, Object> attributes = new ConcurrentHashMap<>();
+        private final List<Runnable> destructionCallbacks = new ArrayList<>();
+
+        @Override
+        @Nullable
+        public Object getAttribute(String name, int scope) {
+            return attributes.get(name);
+        }
+
+        @Override
+        public void setAttribute(String name, @Nullable Object value, int scope) {
+            if (value == null) {
+                attributes.remove(name);
+            } else {
+                attributes.put(name, value);
+            }
+        }
+
+        @Override
+        public void removeAttribute(String name, int scope) {
+            attributes.remove(name);
+        }
+
+        @Override
+        public String[] getAttributeNames(int scope) {
+            return attributes.keySet().toArray(String[]::new);
+        }
+
+        @Override
+        public synchronized void registerDestructionCallback(String name, Runnable callback, int scope) {
+            destructionCallbacks.add(callback);
+        }
+
+        @Override
+        @Nullable
+        public Object resolveReference(String key) {
+            return null;
+        }
+
+        @Override
+        public String getSessionId() {
+            throw new IllegalStateException("У задачи пула нет сессии");
+        }
+
+        @Override
+        public Object getSessionMutex() {
+            throw new IllegalStateException("У задачи пула нет сессии");
+        }
+
+        private synchronized void completed() {
+            destructionCallbacks.forEach(Runnable::run);
+            destructionCallbacks.clear();
+        }
+    }
+
+    /**
+     * Отмечает время прихода запроса к шлюзу, от которого отсчитывается бюджет.
+     */
+    public static class ArrivalFilter extends OncePerRequestFilter {
+        private final Ticker ticker;
+
+        public ArrivalFilter(Ticker ticker) {
+            this.ticker = ticker;
+        }
+
+        @Override
+        protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+                throws ServletException, IOException {
+            request.setAttribute(ARRIVED_AT, ticker.read());
+            chain.doFilter(request, response);
+        }
+    }
+}
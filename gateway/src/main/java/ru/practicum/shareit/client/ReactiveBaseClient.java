@@ -0,0 +1,104 @@
+package ru.practicum.shareit.client;
+
+import java.util.Map;
+
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.lang.Nullable;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Неблокирующий аналог {@link BaseClient} для реактивного режима шлюза: запрос на сервер не занимает поток,
+ * а тело ответа передаётся клиенту буферами по мере получения.
+ */
+public class ReactiveBaseClient {
+    protected final WebClient webClient;
+
+    public ReactiveBaseClient(WebClient webClient) {
+        this.webClient = webClient;
+    }
+
+    protected Mono<ResponseEntity<Flux<DataBuffer>>> get(String path) {
+        return get(path, null, null);
+    }
+
+    protected Mono<ResponseEntity<Flux<DataBuffer>>> get(String path, long userId) {
+        return get(path, userId, null);
+    }
+
+    protected Mono<ResponseEntity<Flux<DataBuffer>>> get(String path, Long userId,
+                                                         @Nullable Map<String, Object> parameters) {
+        return makeAndSendRequest(HttpMethod.GET, path, userId, parameters, null, MediaType.APPLICATION_JSON);
+    }
+
+    protected <T> Mono<ResponseEntity<Flux<DataBuffer>>> post(String path, T body) {
+        return post(path, null, null, body);
+    }
+
+    protected <T> Mono<ResponseEntity<Flux<DataBuffer>>> post(String path, long userId, T body) {
+        return post(path, userId, null, body);
+    }
+
+    protected <T> Mono<ResponseEntity<Flux<DataBuffer>>> post(String path, Long userId,
+                                                              @Nullable Map<String, Object> parameters, T body) {
+        return makeAndSendRequest(HttpMethod.POST, path, userId, parameters, body, MediaType.APPLICATION_JSON);
+    }
+
+    protected <T> Mono<ResponseEntity<Flux<DataBuffer>>> patch(String path, T body) {
+        return patch(path, null, null, body);
+    }
+
+    protected <T> Mono<ResponseEntity<Flux<DataBuffer>>> patch(String path, long userId, T body) {
+        return patch(path, userId, null, body);
+    }
+
+    protected <T> Mono<ResponseEntity<Flux<DataBuffer>>> patch(String path, Long userId,
+                                                               @Nullable Map<String, Object> parameters, T body) {
+        return makeAndSendRequest(HttpMethod.PATCH, path, userId, parameters, body, MediaType.APPLICATION_JSON);
+    }
+
+    protected Mono<ResponseEntity<Flux<DataBuffer>>> delete(String path) {
+        return makeAndSendRequest(HttpMethod.DELETE, path, null, null, null, MediaType.APPLICATION_JSON);
+    }
+
+    /**
+     * Запрашивает список в формате {@code application/x-ndjson}; ответ передаётся клиенту по мере получения.
+     */
+    protected Mono<ResponseEntity<Flux<DataBuffer>>> stream(String path, Long userId,
+                                                            @Nullable Map<String, Object> parameters) {
+        return makeAndSendRequest(HttpMethod.GET, path, userId, parameters, null, MediaType.APPLICATION_NDJSON);
+    }
+
+    /**
+     * Отправляет запрос на сервер и возвращает его ответ как есть: ответы с кодом ошибки не превращаются
+     * в исключения, а передаются клиенту вместе с телом, как и в {@link BaseClient}.
+     */
+    private <T> Mono<ResponseEntity<Flux<DataBuffer>>> makeAndSendRequest(HttpMethod method, String path,
+                                                                          Long userId,
+                                                                          @Nullable Map<String, Object> parameters,
+                                                                          @Nullable T body, MediaType accept) {
+        WebClient.RequestBodySpec request = webClient.method(method)
+                .uri(path, parameters != null ? parameters : Map.of())
+                .headers(headers -> headers.addAll(BaseClient.defaultHeaders(userId, accept)));
+        WebClient.RequestHeadersSpec<?> spec = body != null ? request.bodyValue(body) : request;
+        return spec.retrieve()
+                .onStatus(status -> true, response -> Mono.empty())
+                .toEntityFlux(DataBuffer.class)
+                .map(ReactiveBaseClient::prepareGatewayResponse);
+    }
+
+    private static ResponseEntity<Flux<DataBuffer>> prepareGatewayResponse(ResponseEntity<Flux<DataBuffer>> response) {
+        HttpHeaders headers = new HttpHeaders();
+        BaseClient.PASSED_HEADERS.forEach(name -> {
+            if (response.getHeaders().containsKey(name)) {
+                headers.put(name, response.getHeaders().get(name));
+            }
+        });
+        return ResponseEntity.status(response.getStatusCode()).headers(headers).body(response.getBody());
+    }
+}
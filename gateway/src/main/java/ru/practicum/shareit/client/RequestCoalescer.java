@@ -0,0 +1,91 @@
+package ru.practicum.shareit.client;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.lang.Nullable;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.net.URI;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Объединение одинаковых одновременных GET-запросов к серверу: первый запрос идёт на сервер, остальные с тем же
+ * адресом и пользователем ждут его ответ и получают ту же запись. Ожидание ограничено {@code maxWait}, после
+ * чего запрос отправляется на сервер сам. Объединение включается для каждого маршрута отдельно.
+ * <p>
+ * Метрика {@code gateway.request.coalescing} с тегами {@code route} и {@code result}: {@code leader} — запрос
+ * ушёл на сервер, {@code shared} — получен ответ другого запроса, {@code timeout} — ожидание истекло.
+ */
+public class RequestCoalescer {
+    private final ConcurrentMap<Key, CompletableFuture<ResponseCache.Entry>> inFlight = new ConcurrentHashMap<>();
+    private final long maxWaitNanos;
+    private final Map<String, Boolean> routes;
+    private final MeterRegistry meterRegistry;
+
+    public RequestCoalescer(Duration maxWait, Map<String, Boolean> routes, MeterRegistry meterRegistry) {
+        this.maxWaitNanos = maxWait.toNanos();
+        this.routes = Map.copyOf(routes);
+        this.meterRegistry = meterRegistry;
+    }
+
+    /**
+     * Выполняет {@code call} или присоединяется к такому же запросу, который уже выполняется. Ошибка первого
+     * запроса передаётся всем, кто ждал его ответ.
+     */
+    public ResponseCache.Entry execute(String route, URI uri, @Nullable Long userId, Call call) throws IOException {
+        if (!routes.getOrDefault(route, false)) {
+            return call.execute();
+        }
+        Key key = new Key(uri, userId);
+        CompletableFuture<ResponseCache.Entry> flight = new CompletableFuture<>();
+        CompletableFuture<ResponseCache.Entry> leader = inFlight.putIfAbsent(key, flight);
+        if (leader == null) {
+            count(route, "leader");
+            try {
+                ResponseCache.Entry entry = call.execute();
+                flight.complete(entry);
+                return entry;
+            } catch (IOException | RuntimeException e) {
+                flight.completeExceptionally(e);
+                throw e;
+            } finally {
+                inFlight.remove(key, flight);
+            }
+        }
+        try {
+            ResponseCache.Entry entry = leader.get(maxWaitNanos, TimeUnit.NANOSECONDS);
+            count(route, "shared");
+            return entry;
+        } catch (TimeoutException e) {
+            count(route, "timeout");
+            return call.execute();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Прервано ожидание ответа на " + uri);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IOException cause) {
+                throw cause;
+            }
+            throw (RuntimeException) e.getCause();
+        }
+    }
+
+    private void count(String route, String result) {
+        meterRegistry.counter("gateway.request.coalescing", "route", route, "result", result).increment();
+    }
+
+    @FunctionalInterface
+    public interface Call {
+        ResponseCache.Entry execute() throws IOException;
+    }
+
+    private record Key(URI uri, @Nullable Long userId) {
+    }
+}
@@ -0,0 +1,225 @@
+package ru.practicum.shareit.client;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import com.github.benmanes.caffeine.cache.Ticker;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.ResponseEntity;
+import org.springframework.lang.Nullable;
+
+import java.io.IOException;
+import java.net.URI;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Кэш ответов сервера в шлюзе. Ответ свежий {@code freshFor} после получения и отдаётся без запроса на сервер.
+ * Ещё {@code staleWhileRevalidate} устаревший ответ отдаётся сразу, а в фоне проверяется условным запросом
+ * с {@code If-None-Match}. Позже ответ проверяется условным запросом до отдачи клиенту; без обращений
+ * запись хранится {@code retainFor}.
+ * <p>
+ * Ключи записей проиндексированы по пути, и у каждого пути своя версия: {@link #invalidate} удаляет только записи
+ * своего пути и не даёт положить в кэш ответы этого пути, запрошенные до удаления, не затрагивая загрузки
+ * остальных путей.
+ * <p>
+ * Метрики: {@code gateway.response.cache.requests} с тегом {@code result} ({@code hit}, {@code stale},
+ * {@code revalidated}, {@code miss}), доля ответов из кэша {@code gateway.response.cache.hit.ratio},
+ * насколько устарели отданные ответы {@code gateway.response.cache.staleness} и число записей
+ * {@code gateway.response.cache.size}.
+ */
+@Slf4j
+public class ResponseCache {
+    private final Cache<Key, Entry> entries;
+    /**
+     * Ключи записей и версия по каждому пути. Путь помнится дольше своих записей, чтобы удаление, пришедшее
+     * во время загрузки, всегда меняло ту же версию, которую загрузка проверит.
+     */
+    private final Cache<String, PathState> paths;
+    private final Set<Key> refreshing = ConcurrentHashMap.newKeySet();
+    private final String basePath;
+    private final long freshForNanos;
+    private final long staleForNanos;
+    private final Ticker ticker;
+    private final Executor executor;
+    private final Map<Result, Counter> requests = new EnumMap<>(Result.class);
+    private final Timer staleness;
+
+    public ResponseCache(String serverUrl, long maxEntries, Duration freshFor, Duration staleWhileRevalidate,
+                         Duration retainFor, Ticker ticker, Executor executor, MeterRegistry meterRegistry) {
+        this.entries = Caffeine.newBuilder()
+                .maximumSize(maxEntries)
+                .expireAfterWrite(retainFor)
+                .ticker(ticker)
+                .evictionListener((Key key, Entry entry, RemovalCause cause) -> unindex(key))
+                .build();
+        this.paths = Caffeine.newBuilder()
+                .expireAfterAccess(retainFor.multipliedBy(2))
+                .ticker(ticker)
+                .build();
+        this.basePath = URI.create(serverUrl).getRawPath().replaceAll("/+$", "");
+        this.freshForNanos = freshFor.toNanos();
+        this.staleForNanos = freshFor.plus(staleWhileRevalidate).toNanos();
+        this.ticker = ticker;
+        this.executor = executor;
+        for (Result result : Result.values()) {
+            requests.put(result, Counter.builder("gateway.response.cache.requests")
+                    .description("Запросы к кэшу ответов сервера")
+                    .tag("result", result.name().toLowerCase())
+                    .register(meterRegistry));
+        }
+        this.staleness = Timer.builder("gateway.response.cache.staleness")
+                .description("Насколько устарел ответ, отданный из кэша до фоновой проверки")
+                .register(meterRegistry);
+        Gauge.builder("gateway.response.cache.hit.ratio", this, ResponseCache::hitRatio)
+                .description("Доля запросов, на которые ответ отдан из кэша")
+                .register(meterRegistry);
+        Gauge.builder("gateway.response.cache.size", entries, Cache::estimatedSize)
+                .description("Записей в кэше ответов сервера")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Отдаёт ответ на GET-запрос из кэша или через {@code loader}. Загрузчику передаётся прежняя запись, если она
+     * есть, чтобы он мог отправить условный запрос и вернуть её же при ответе {@code 304 Not Modified}.
+     */
+    public ResponseEntity<Object> get(URI uri, @Nullable Long userId, Loader loader) throws IOException {
+        Key key = new Key(HttpMethod.GET, uri.getRawPath(), uri.getRawQuery(), userId);
+        Entry cached = entries.getIfPresent(key);
+        long age = cached != null ? ticker.read() - cached.storedAt() : Long.MAX_VALUE;
+        if (age < freshForNanos) {
+            requests.get(Result.HIT).increment();
+            return cached.toResponse();
+        }
+        if (age < staleForNanos) {
+            requests.get(Result.STALE).increment();
+            staleness.record(Duration.ofNanos(age - freshForNanos));
+            refreshInBackground(key, cached, loader);
+            return cached.toResponse();
+        }
+        long loadedVersion = version(key);
+        Entry response = loader.load(cached);
+        requests.get(cached != null && response == cached ? Result.REVALIDATED : Result.MISS).increment();
+        return store(key, cached, response, loadedVersion).toResponse();
+    }
+
+    /**
+     * Удаляет ответы по пути {@code path} относительно адреса сервера для всех параметров и пользователей.
+     * Загрузки этого пути, начатые до удаления, свой результат в кэш уже не положат.
+     */
+    public void invalidate(String path) {
+        PathState state = paths.getIfPresent(basePath + path);
+        if (state == null) {
+            return;
+        }
+        state.version().incrementAndGet();
+        for (Key key : state.keys()) {
+            state.keys().remove(key);
+            entries.invalidate(key);
+        }
+    }
+
+    /**
+     * Запись для только что полученного ответа сервера.
+     */
+    public Entry entry(HttpStatusCode status, HttpHeaders headers, byte[] body) {
+        return new Entry(status, headers, body, ticker.read());
+    }
+
+    private void refreshInBackground(Key key, Entry cached, Loader loader) {
+        if (!refreshing.add(key)) {
+            return;
+        }
+        executor.execute(() -> {
+            try {
+                long loadedVersion = version(key);
+                store(key, cached, loader.load(cached), loadedVersion);
+            } catch (IOException | RuntimeException e) {
+                log.warn("Не удалось обновить ответ {} в кэше: {}", key.path(), e.getMessage());
+            } finally {
+                refreshing.remove(key);
+            }
+        });
+    }
+
+    /**
+     * Кладёт ответ в кэш, если он успешный и с начала загрузки его путь не удалялся. Версия проверяется ещё раз
+     * после записи: если путь удалили между проверкой и записью, запись удаляется. Если сервер подтвердил
+     * прежнюю запись, она считается полученной заново.
+     */
+    private Entry store(Key key, @Nullable Entry cached, Entry response, long loadedVersion) {
+        Entry stored = response == cached ? entry(cached.status(), cached.headers(), cached.body()) : response;
+        if (!stored.status().is2xxSuccessful()) {
+            return stored;
+        }
+        PathState state = pathState(key);
+        if (state.version().get() == loadedVersion) {
+            state.keys().add(key);
+            entries.put(key, stored);
+            if (state.version().get() != loadedVersion) {
+                entries.invalidate(key);
+            }
+        }
+        return stored;
+    }
+
+    private long version(Key key) {
+        return pathState(key).version().get();
+    }
+
+    private PathState pathState(Key key) {
+        return paths.get(key.path(), path -> new PathState(new AtomicLong(), ConcurrentHashMap.newKeySet()));
+    }
+
+    private void unindex(Key key) {
+        PathState state = paths.getIfPresent(key.path());
+        if (state != null) {
+            state.keys().remove(key);
+        }
+    }
+
+    private double hitRatio() {
+        double served = requests.get(Result.HIT).count() + requests.get(Result.STALE).count()
+                + requests.get(Result.REVALIDATED).count();
+        double total = served + requests.get(Result.MISS).count();
+        return total == 0 ? 0 : served / total;
+    }
+
+    @FunctionalInterface
+    public interface Loader {
+        Entry load(@Nullable Entry cached) throws IOException;
+    }
+
+    private enum Result {
+        HIT, STALE, REVALIDATED, MISS
+    }
+
+    private record Key(HttpMethod method, String path, @Nullable String query, @Nullable Long userId) {
+    }
+
+    private record PathState(AtomicLong version, Set<Key> keys) {
+    }
+
+    public record Entry(HttpStatusCode status, HttpHeaders headers, byte[] body, long storedAt) {
+        @Nullable
+        public String etag() {
+            return headers.getETag();
+        }
+
+        private ResponseEntity<Object> toResponse() {
+            return ResponseEntity.status(status).headers(headers).body(body);
+        }
+    }
+}
@@ -0,0 +1,267 @@
+package ru.practicum.shareit.client;
+
+import com.github.benmanes.caffeine.cache.Ticker;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.lang.Nullable;
+import org.springframework.web.util.UriComponentsBuilder;
+import ru.practicum.shareit.exceptions.ServerUnavailableException;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Изоляция маршрутов сервера друг от друга. Клиент — первый сегмент пути ({@code bookings}, {@code items}, ...),
+ * маршрут — метод и путь, в котором числовые сегменты заменены на {@code {id}}, например
+ * {@code GET /bookings/owner} или {@code PATCH /items/{id}}. Одновременных вызовов каждого клиента и каждого
+ * маршрута не больше заданного, и у каждого маршрута свой {@link CircuitBreaker}. Вызов сверх предела или
+ * по разомкнутому маршруту сразу отклоняется {@link ServerUnavailableException}, а не ждёт в очереди. Если задан
+ * {@link AdaptiveLimiter}, все вызовы сервера вместе ограничены ещё и его пределом, а запросы кроме
+ * {@code GET} считаются записями. Поток NDJSON занимает место в этом пределе только до заголовков ответа:
+ * дальше он может длиться минуты, и его время не говорит о загрузке сервера.
+ * <p>
+ * Метрики: {@code gateway.circuit.breaker.state} (0 — замкнут, 1 — пробные вызовы, 2 — разомкнут),
+ * {@code gateway.bulkhead.available} с тегами {@code client} и {@code route} и счётчик отклонённых вызовов
+ * {@code gateway.server.call.rejected} с тегом {@code reason}: {@code circuit-open}, {@code client-bulkhead},
+ * {@code route-bulkhead} или {@code adaptive-limit}.
+ */
+@Slf4j
+public class ServerCallGuard {
+    private final String basePath;
+    private final Bulkheads bulkheads;
+    private final Breakers breakers;
+    @Nullable
+    private final AdaptiveLimiter limiter;
+    private final Ticker ticker;
+    private final MeterRegistry meterRegistry;
+    private final ConcurrentMap<String, Semaphore> clients = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, Route> routes = new ConcurrentHashMap<>();
+
+    public ServerCallGuard(String serverUrl, Bulkheads bulkheads, Breakers breakers,
+                           @Nullable AdaptiveLimiter limiter, Ticker ticker, MeterRegistry meterRegistry) {
+        String path = UriComponentsBuilder.fromUriString(serverUrl).build().getPath();
+        this.basePath = path == null ? "" : path.replaceAll("/+$", "");
+        this.bulkheads = bulkheads;
+        this.breakers = breakers;
+        this.limiter = limiter;
+        this.ticker = ticker;
+        this.meterRegistry = meterRegistry;
+    }
+
+    /**
+     * Занимает место для вызова сервера; разрешение нужно закрыть, когда ответ прочитан.
+     *
+     * @throws ServerUnavailableException если маршрут разомкнут или все места клиента или маршрута заняты
+     */
+    public Permit enter(HttpMethod method, URI uri) {
+        return enter(method, uri, false);
+    }
+
+    /**
+     * @param stream вызов возвращает поток NDJSON: место в пределе {@link AdaptiveLimiter} освобождается, как только
+     *               получены заголовки ответа
+     */
+    public Permit enter(HttpMethod method, URI uri, boolean stream) {
+        String path = route(uri.getRawPath());
+        Route route = routes.computeIfAbsent(method.name() + " " + path, name -> newRoute(name, path));
+        CircuitBreaker.State admittedAs = route.breaker().tryPass();
+        if (admittedAs == CircuitBreaker.State.OPEN) {
+            throw reject(route, "circuit-open", "временно отключён из-за ошибок сервера",
+                    route.breaker().retryAfterNanos());
+        }
+        if (!route.client().tryAcquire()) {
+            route.breaker().release(admittedAs);
+            throw reject(route, "client-bulkhead", "не выполнен: заняты все вызовы клиента " + route.clientName(),
+                    0);
+        }
+        if (!route.bulkhead().tryAcquire()) {
+            route.client().release();
+            route.breaker().release(admittedAs);
+            throw reject(route, "route-bulkhead", "не выполнен: заняты все вызовы маршрута", 0);
+        }
+        if (limiter != null && !limiter.tryAcquire(method != HttpMethod.GET)) {
+            route.bulkhead().release();
+            route.client().release();
+            route.breaker().release(admittedAs);
+            throw reject(route, "adaptive-limit", "не выполнен: сервер перегружен", 0);
+        }
+        return new Permit(route, admittedAs, limiter, stream, ticker);
+    }
+
+    /**
+     * Состояние маршрутов, к которым уже были вызовы, по их названиям.
+     */
+    public SortedMap<String, RouteState> routes() {
+        SortedMap<String, RouteState> states = new TreeMap<>();
+        routes.forEach((name, route) -> states.put(name, new RouteState(route.clientName(),
+                route.breaker().state().name(), route.breaker().failureRate(), route.bulkhead().availablePermits(),
+                route.maxConcurrent())));
+        return states;
+    }
+
+    private String route(String rawPath) {
+        String path = rawPath.startsWith(basePath) ? rawPath.substring(basePath.length()) : rawPath;
+        return path.replaceAll("/\\d+(?=/|$)", "/{id}");
+    }
+
+    private Route newRoute(String name, String path) {
+        String[] segments = path.split("/", 3);
+        String clientName = segments.length > 1 ? segments[1] : "";
+        int maxConcurrent = bulkheads.paths().getOrDefault(path, bulkheads.routeMaxConcurrent());
+        Route route = new Route(name, clientName, maxConcurrent,
+                clients.computeIfAbsent(clientName, client -> new Semaphore(bulkheads.clientMaxConcurrent())),
+                new Semaphore(maxConcurrent),
+                new CircuitBreaker(breakers.windowSize(), breakers.minimumCalls(), breakers.failureRateThreshold(),
+                        breakers.openFor(), breakers.halfOpenProbes(), ticker));
+        Gauge.builder("gateway.circuit.breaker.state", route.breaker(), breaker -> breaker.state().ordinal())
+                .description("Состояние выключателя маршрута: 0 — замкнут, 1 — пробные вызовы, 2 — разомкнут")
+                .tags("client", clientName, "route", name)
+                .register(meterRegistry);
+        Gauge.builder("gateway.bulkhead.available", route.bulkhead(), Semaphore::availablePermits)
+                .description("Свободные места для одновременных вызовов маршрута")
+                .tags("client", clientName, "route", name)
+                .register(meterRegistry);
+        return route;
+    }
+
+    private ServerUnavailableException reject(Route route, String reason, String message, long waitNanos) {
+        Counter.builder("gateway.server.call.rejected")
+                .description("Вызовы сервера, отклонённые без отправки")
+                .tags("client", route.clientName(), "route", route.name(), "reason", reason)
+                .register(meterRegistry)
+                .increment();
+        log.debug("вызов {} отклонён: {}", route.name(), reason);
+        return new ServerUnavailableException("Сервер недоступен: вызов " + route.name() + " " + message,
+                Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos + 999_999_999)));
+    }
+
+    /**
+     * Место для одного вызова сервера. Исход вызова передаётся выключателю маршрута, а время ответа — пределу
+     * одновременных вызовов через {@link #completed} или {@link #failed}; место освобождается при закрытии,
+     * повторное закрытие ничего не делает. Место потока в пределе одновременных вызовов освобождается уже
+     * при получении заголовков ответа.
+     */
+    public static final class Permit implements AutoCloseable {
+        /**
+         * Разрешение для клиентов без изоляции маршрутов.
+         */
+        public static final Permit NONE = new Permit(null, CircuitBreaker.State.CLOSED, null, false,
+                Ticker.systemTicker());
+
+        @Nullable
+        private final Route route;
+        private final CircuitBreaker.State admittedAs;
+        @Nullable
+        private final AdaptiveLimiter limiter;
+        private final boolean stream;
+        private final Ticker ticker;
+        private final long startedAt;
+        private final AtomicBoolean recorded = new AtomicBoolean();
+        private final AtomicBoolean limiterReleased = new AtomicBoolean();
+        private final AtomicBoolean closed = new AtomicBoolean();
+
+        private Permit(@Nullable Route route, CircuitBreaker.State admittedAs, @Nullable AdaptiveLimiter limiter,
+                       boolean stream, Ticker ticker) {
+            this.route = route;
+            this.admittedAs = admittedAs;
+            this.limiter = limiter;
+            this.stream = stream;
+            this.ticker = ticker;
+            this.startedAt = ticker.read();
+        }
+
+        /**
+         * Сервер ответил; ответы с кодом {@code 5xx} считаются ошибками.
+         */
+        public void completed(HttpStatusCode status) {
+            record(status.is5xxServerError());
+        }
+
+        /**
+         * Сервер не ответил: соединение не установлено или истёк тайм-аут.
+         */
+        public void failed() {
+            record(true);
+        }
+
+        @Override
+        public void close() {
+            if (route == null || !closed.compareAndSet(false, true)) {
+                return;
+            }
+            releaseLimiter();
+            route.bulkhead().release();
+            route.client().release();
+            if (!recorded.get()) {
+                route.breaker().release(admittedAs);
+            }
+        }
+
+        private void record(boolean failure) {
+            if (route != null && recorded.compareAndSet(false, true)) {
+                route.breaker().record(admittedAs, failure);
+                if (limiter != null) {
+                    limiter.sample(route.name(), ticker.read() - startedAt, failure);
+                }
+                if (stream) {
+                    releaseLimiter();
+                }
+            }
+        }
+
+        private void releaseLimiter() {
+            if (limiter != null && limiterReleased.compareAndSet(false, true)) {
+                limiter.release();
+            }
+        }
+    }
+
+    /**
+     * Пределы одновременных вызовов.
+     *
+     * @param clientMaxConcurrent сколько вызовов одного клиента выполняется одновременно
+     * @param routeMaxConcurrent  сколько вызовов одного маршрута выполняется одновременно
+     * @param paths               отдельные пределы маршрутов по путям, например {@code /bookings/owner}
+     */
+    public record Bulkheads(int clientMaxConcurrent, int routeMaxConcurrent, Map<String, Integer> paths) {
+        public Bulkheads {
+            paths = paths == null ? Map.of() : Map.copyOf(paths);
+        }
+    }
+
+    /**
+     * Настройки выключателей маршрутов.
+     *
+     * @param windowSize           исходы скольких последних вызовов учитываются
+     * @param minimumCalls         сколько вызовов нужно, чтобы выключатель мог разомкнуться
+     * @param failureRateThreshold при какой доле ошибок в процентах выключатель размыкается
+     * @param openFor              сколько выключатель остаётся разомкнутым до пробных вызовов
+     * @param halfOpenProbes       сколько успешных пробных вызовов замыкают выключатель
+     */
+    public record Breakers(int windowSize, int minimumCalls, int failureRateThreshold, Duration openFor,
+                           int halfOpenProbes) {
+    }
+
+    /**
+     * Состояние маршрута для {@code /actuator/circuitbreakers}.
+     */
+    public record RouteState(String client, String state, double failureRate, int availableCalls,
+                             int maxConcurrentCalls) {
+    }
+
+    private record Route(String name, String clientName, int maxConcurrent, Semaphore client, Semaphore bulkhead,
+                         CircuitBreaker breaker) {
+    }
+}
@@ -0,0 +1,107 @@
+package ru.practicum.shareit.client;
+
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.http.converter.AbstractHttpMessageConverter;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Тело ответа сервера, которое шлюз передаёт клиенту как есть: байты копируются из потока HTTP-клиента
+ * прямо в ответ шлюза без разбора JSON. Тело читается один раз; после записи, чтения или {@link #close()}
+ * соединение с сервером и место вызова в {@link ServerCallGuard} освобождаются.
+ * <p>
+ * Тело, созданное при обработке запроса к шлюзу, закрывается и по завершении этого запроса: Spring MVC может
+ * не записать его вовсе, например ответив {@code 304 Not Modified} на {@code If-None-Match} по переданному
+ * {@code ETag}.
+ * <p>
+ * В отличие от {@code Resource}, такое тело Spring MVC не отдаёт частями по заголовку {@code Range}
+ * и не добавляет к ответу {@code Accept-Ranges}.
+ */
+public final class ServerResponseBody implements StreamingResponseBody, Closeable {
+    private static final String RELEASE_CALLBACK = ServerResponseBody.class.getName() + ".release.";
+    private static final AtomicLong RELEASE_IDS = new AtomicLong();
+
+    private final ClientHttpResponse response;
+    private final ServerCallGuard.Permit permit;
+    private final AtomicBoolean closed = new AtomicBoolean();
+
+    ServerResponseBody(ClientHttpResponse response, ServerCallGuard.Permit permit) {
+        this.response = response;
+        this.permit = permit;
+        RequestAttributes request = RequestContextHolder.getRequestAttributes();
+        if (request != null) {
+            request.registerDestructionCallback(RELEASE_CALLBACK + RELEASE_IDS.incrementAndGet(),
+                    this::close, RequestAttributes.SCOPE_REQUEST);
+        }
+    }
+
+    @Override
+    public void writeTo(OutputStream out) throws IOException {
+        try (InputStream in = response.getBody()) {
+            in.transferTo(out);
+        } finally {
+            close();
+        }
+    }
+
+    /**
+     * Дочитывает тело целиком, например чтобы разобрать его в шлюзе или отдать повторно.
+     */
+    public byte[] readAllBytes() throws IOException {
+        try (InputStream in = response.getBody()) {
+            return in.readAllBytes();
+        } finally {
+            close();
+        }
+    }
+
+    @Override
+    public void close() {
+        if (closed.compareAndSet(false, true)) {
+            response.close();
+            permit.close();
+        }
+    }
+
+    /**
+     * Пишет {@link ServerResponseBody} в ответ шлюза; тип содержимого и длина берутся из заголовков ответа сервера.
+     */
+    public static class Converter extends AbstractHttpMessageConverter<ServerResponseBody> {
+        public Converter() {
+            super(MediaType.ALL);
+        }
+
+        @Override
+        protected boolean supports(Class<?> clazz) {
+            return ServerResponseBody.class.isAssignableFrom(clazz);
+        }
+
+        @Override
+        public boolean canRead(Class<?> clazz, MediaType mediaType) {
+            return false;
+        }
+
+        @Override
+        protected ServerResponseBody readInternal(Class<? extends ServerResponseBody> clazz,
+                                                  HttpInputMessage inputMessage) {
+            throw new HttpMessageNotReadableException("Тело ответа сервера не читается из запроса", inputMessage);
+        }
+
+        @Override
+        protected void writeInternal(ServerResponseBody body, HttpOutputMessage outputMessage) throws IOException {
+            body.writeTo(outputMessage.getBody());
+        }
+    }
+}
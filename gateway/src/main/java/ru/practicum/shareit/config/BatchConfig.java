@@ -0,0 +1,27 @@
+package ru.practicum.shareit.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.web.servlet.DispatcherServlet;
+import ru.practicum.shareit.batch.BatchDispatcher;
+import ru.practicum.shareit.ratelimit.RateLimiter;
+
+/**
+ * Пакетные запросы обычного режима шлюза.
+ */
+@Configuration
+@Profile("!reactive")
+@EnableConfigurationProperties(BatchProperties.class)
+public class BatchConfig {
+    @Bean(destroyMethod = "close")
+    public BatchDispatcher batchDispatcher(ObjectProvider<DispatcherServlet> dispatcherServlet,
+                                           RateLimiter rateLimiter, BatchProperties properties,
+                                           ObjectMapper objectMapper) {
+        return new BatchDispatcher(dispatcherServlet, rateLimiter, properties.maxConcurrency(),
+                properties.queueCapacity(), properties.timeout(), objectMapper);
+    }
+}
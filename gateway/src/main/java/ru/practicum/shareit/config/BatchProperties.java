@@ -0,0 +1,18 @@
+package ru.practicum.shareit.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Настройки пакетных запросов {@code POST /batch}.
+ *
+ * @param maxConcurrency сколько подзапросов всех пакетов выполняется одновременно
+ * @param queueCapacity  сколько подзапросов ждёт свободного потока, прежде чем отклоняться
+ * @param timeout        срок выполнения всего пакета; не завершённые к нему подзапросы получают {@code 504}
+ */
+@ConfigurationProperties("shareit-gateway.batch")
+public record BatchProperties(int maxConcurrency,
+                              int queueCapacity,
+                              Duration timeout) {
+}
@@ -0,0 +1,27 @@
+package ru.practicum.shareit.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import ru.practicum.shareit.booking.BookingClient;
+import ru.practicum.shareit.item.ItemClient;
+import ru.practicum.shareit.item.ItemPageAssembler;
+import ru.practicum.shareit.request.ItemRequestClient;
+
+/**
+ * Страница вещи обычного режима шлюза.
+ */
+@Configuration
+@Profile("!reactive")
+@EnableConfigurationProperties(ItemPageProperties.class)
+public class ItemPageConfig {
+    @Bean(destroyMethod = "close")
+    public ItemPageAssembler itemPageAssembler(ItemPageProperties properties, ItemClient itemClient,
+                                               BookingClient bookingClient, ItemRequestClient itemRequestClient,
+                                               ObjectMapper objectMapper) {
+        return new ItemPageAssembler(itemClient, bookingClient, itemRequestClient, properties.maxConcurrency(),
+                properties.queueCapacity(), properties.timeout(), properties.bookingsSize(), objectMapper);
+    }
+}
@@ -0,0 +1,20 @@
+package ru.practicum.shareit.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Настройки страницы вещи {@code GET /items/{id}/page}.
+ *
+ * @param maxConcurrency сколько вызовов сервера для страниц вещей выполняется одновременно
+ * @param queueCapacity  сколько вызовов ждёт свободного потока, прежде чем отклоняться
+ * @param timeout        срок сборки страницы; части, не готовые к сроку, кроме самой вещи, отдаются пустыми
+ * @param bookingsSize   сколько последних бронирований вещи пользователем попадает на страницу
+ */
+@ConfigurationProperties("shareit-gateway.item-page")
+public record ItemPageProperties(int maxConcurrency,
+                                 int queueCapacity,
+                                 Duration timeout,
+                                 int bookingsSize) {
+}
@@ -0,0 +1,39 @@
+package ru.practicum.shareit.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Ticker;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import ru.practicum.shareit.ratelimit.RateLimitFilter;
+import ru.practicum.shareit.ratelimit.RateLimiter;
+import ru.practicum.shareit.ratelimit.ReactiveRateLimitFilter;
+
+/**
+ * Ограничение частоты запросов к шлюзу, общее для обычного и реактивного режимов.
+ */
+@Configuration
+@EnableConfigurationProperties(RateLimitProperties.class)
+public class RateLimitConfig {
+    @Bean
+    public RateLimiter rateLimiter(RateLimitProperties properties, MeterRegistry meterRegistry) {
+        return new RateLimiter(properties.routes().entrySet().stream()
+                .map(route -> new RateLimiter.Route(route.getKey(), route.getValue().path(),
+                        route.getValue().capacity(), route.getValue().refillPerSecond()))
+                .toList(), properties.maxBuckets(), properties.idleEviction(), Ticker.systemTicker(), meterRegistry);
+    }
+
+    @Bean
+    @Profile("!reactive")
+    public RateLimitFilter rateLimitFilter(RateLimiter rateLimiter, ObjectMapper objectMapper) {
+        return new RateLimitFilter(rateLimiter, objectMapper);
+    }
+
+    @Bean
+    @Profile("reactive")
+    public ReactiveRateLimitFilter reactiveRateLimitFilter(RateLimiter rateLimiter, ObjectMapper objectMapper) {
+        return new ReactiveRateLimitFilter(rateLimiter, objectMapper);
+    }
+}
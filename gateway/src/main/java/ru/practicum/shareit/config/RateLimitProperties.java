@@ -0,0 +1,26 @@
+package ru.practicum.shareit.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.Map;
+
+/**
+ * Настройки ограничения частоты запросов к шлюзу.
+ *
+ * @param maxBuckets   сколько корзин клиентов хранится всего
+ * @param idleEviction через сколько простоя корзина клиента удаляется
+ * @param routes       бюджеты маршрутов по их названиям
+ */
+@ConfigurationProperties("shareit-gateway.rate-limit")
+public record RateLimitProperties(long maxBuckets,
+                                  Duration idleEviction,
+                                  Map<String, Budget> routes) {
+    /**
+     * @param path            путь маршрута; бюджет действует на него и на все пути под ним
+     * @param capacity        сколько запросов клиент может сделать подряд
+     * @param refillPerSecond сколько запросов в секунду клиент может делать дальше
+     */
+    public record Budget(String path, int capacity, double refillPerSecond) {
+    }
+}
@@ -0,0 +1,55 @@
+package ru.practicum.shareit.config;
+
+import io.netty.channel.ChannelOption;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.web.embedded.netty.NettyReactiveWebServerFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+/**
+ * Реактивный режим шлюза: сервер Netty и неблокирующий клиент Reactor Netty с теми же настройками пула
+ * {@code shareit-server.http-client.*}, что и у {@link ShareItServerClientConfig}. Шлюз обращается к одному
+ * адресу сервера, а Reactor Netty держит отдельный пул на каждый адрес, поэтому размер этого пула —
+ * {@code max-connections}, общий предел соединений. Состояние пула публикуется в метриках
+ * {@code reactor.netty.connection.provider.*}.
+ * <p>
+ * Реактивные клиенты передают запросы серверу напрямую и не используют слой обычного режима: в этом режиме нет
+ * кэша ответов и объединения одинаковых запросов, выключателей, изоляции маршрутов и подстраиваемого предела
+ * вызовов ({@code /actuator/circuitbreakers}), заголовка срока {@code X-Request-Timeout-Ms}, пакетных запросов
+ * {@code POST /batch}, страницы вещи {@code GET /items/{id}/page} и списка {@code GET /bookings/item/{id}}.
+ * Ограничение частоты запросов работает в обоих режимах.
+ */
+@Configuration
+@Profile("reactive")
+@EnableConfigurationProperties(ShareItServerClientProperties.class)
+public class ReactiveShareItServerClientConfig {
+    private static final String POOL_NAME = "shareit-server";
+
+    @Bean
+    public NettyReactiveWebServerFactory nettyReactiveWebServerFactory() {
+        return new NettyReactiveWebServerFactory();
+    }
+
+    @Bean(destroyMethod = "dispose")
+    public ConnectionProvider shareItServerConnectionProvider(ShareItServerClientProperties properties) {
+        return ConnectionProvider.builder(POOL_NAME)
+                .maxConnections(properties.maxConnections())
+                .pendingAcquireTimeout(properties.connectionRequestTimeout())
+                .maxIdleTime(properties.idleEviction())
+                .evictInBackground(properties.idleEviction())
+                .metrics(true)
+                .build();
+    }
+
+    @Bean
+    public ReactorClientHttpConnector shareItServerConnector(ConnectionProvider connectionProvider,
+                                                             ShareItServerClientProperties properties) {
+        return new ReactorClientHttpConnector(HttpClient.create(connectionProvider)
+                .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, (int) properties.connectTimeout().toMillis())
+                .responseTimeout(properties.readTimeout()));
+    }
+}
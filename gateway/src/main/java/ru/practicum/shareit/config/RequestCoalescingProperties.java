@@ -0,0 +1,17 @@
+package ru.practicum.shareit.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.Map;
+
+/**
+ * Настройки объединения одинаковых одновременных GET-запросов шлюза к серверу.
+ *
+ * @param maxWait сколько запрос ждёт ответ такого же запроса, прежде чем отправиться на сервер сам
+ * @param routes  для каких маршрутов объединение включено: {@code item}, {@code item-search}, {@code request}
+ */
+@ConfigurationProperties("shareit-server.coalescing")
+public record RequestCoalescingProperties(Duration maxWait,
+                                          Map<String, Boolean> routes) {
+}
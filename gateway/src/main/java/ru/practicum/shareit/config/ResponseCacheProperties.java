@@ -0,0 +1,20 @@
+package ru.practicum.shareit.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Настройки кэша ответов сервера в шлюзе.
+ *
+ * @param maxEntries           сколько ответов хранится
+ * @param freshFor             сколько ответ отдаётся без обращения к серверу
+ * @param staleWhileRevalidate сколько после этого устаревший ответ отдаётся сразу, пока он проверяется в фоне
+ * @param retainFor            сколько ответ хранится для условных запросов к серверу
+ */
+@ConfigurationProperties("shareit-server.response-cache")
+public record ResponseCacheProperties(long maxEntries,
+                                      Duration freshFor,
+                                      Duration staleWhileRevalidate,
+                                      Duration retainFor) {
+}
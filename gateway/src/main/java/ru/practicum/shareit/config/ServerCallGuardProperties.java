@@ -0,0 +1,30 @@
+package ru.practicum.shareit.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import ru.practicum.shareit.client.ServerCallGuard;
+
+import java.time.Duration;
+
+/**
+ * Пределы одновременных вызовов сервера и настройки выключателей маршрутов.
+ *
+ * @param bulkhead       пределы одновременных вызовов клиентов и маршрутов
+ * @param circuitBreaker настройки выключателей
+ * @param adaptiveLimit  подстраиваемый предел всех одновременных вызовов сервера
+ */
+@ConfigurationProperties("shareit-server.resilience")
+public record ServerCallGuardProperties(ServerCallGuard.Bulkheads bulkhead,
+                                        ServerCallGuard.Breakers circuitBreaker,
+                                        AdaptiveLimit adaptiveLimit) {
+    /**
+     * @param enabled      включён ли предел
+     * @param initialLimit предел при запуске
+     * @param minLimit     ниже какого значения предел не опускается
+     * @param maxLimit     выше какого значения предел не поднимается
+     * @param readShare    какая доля предела доступна чтениям
+     * @param rttWindow    за какое окно ищется время ответа без нагрузки
+     */
+    public record AdaptiveLimit(boolean enabled, int initialLimit, int minLimit, int maxLimit, double readShare,
+                                Duration rttWindow) {
+    }
+}
@@ -0,0 +1,129 @@
+package ru.practicum.shareit.config;
+
+import com.github.benmanes.caffeine.cache.Ticker;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.httpcomponents.hc5.PoolingHttpClientConnectionManagerMetricsBinder;
+import org.apache.hc.client5.http.config.ConnectionConfig;
+import org.apache.hc.client5.http.config.RequestConfig;
+import org.apache.hc.client5.http.impl.classic.HttpClients;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.apache.hc.core5.util.TimeValue;
+import org.apache.hc.core5.util.Timeout;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.web.client.RestTemplateCustomizer;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.Ordered;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.http.client.ClientHttpRequestFactory;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import ru.practicum.shareit.client.AdaptiveLimiter;
+import ru.practicum.shareit.client.CircuitBreakerEndpoint;
+import ru.practicum.shareit.client.DeadlineInterceptor;
+import ru.practicum.shareit.client.RequestCoalescer;
+import ru.practicum.shareit.client.ResponseCache;
+import ru.practicum.shareit.client.ServerCallGuard;
+import ru.practicum.shareit.client.ServerResponseBody;
+
+/**
+ * Один пул соединений с сервером на все клиенты шлюза. Состояние пула публикуется в метриках
+ * {@code httpcomponents.httpclient.pool.*} с тегом {@code httpclient=shareit-server}. Здесь же общий кэш ответов
+ * сервера, который клиенты используют для чтения вещей и запросов, объединение одинаковых одновременных
+ * чтений и изоляция маршрутов сервера, состояние которой видно в {@code /actuator/circuitbreakers}. Каждый вызов
+ * сервера, кроме потоковых, несёт срок, оставшийся от {@code request-deadline} с прихода запроса к шлюзу.
+ */
+@Configuration
+@Profile("!reactive")
+@EnableConfigurationProperties({ShareItServerClientProperties.class, ResponseCacheProperties.class,
+        RequestCoalescingProperties.class, ServerCallGuardProperties.class})
+public class ShareItServerClientConfig {
+    private static final String POOL_NAME = "shareit-server";
+
+    @Bean(destroyMethod = "close")
+    public PoolingHttpClientConnectionManager shareItServerConnectionManager(ShareItServerClientProperties properties,
+                                                                             MeterRegistry meterRegistry) {
+        Timer leaseTimer = Timer.builder("httpcomponents.httpclient.pool.lease")
+                .description("Ожидание соединения из пула")
+                .tag("httpclient", POOL_NAME)
+                .register(meterRegistry);
+        PoolingHttpClientConnectionManager connectionManager = new InstrumentedConnectionManager(leaseTimer);
+        connectionManager.setMaxTotal(properties.maxConnections());
+        connectionManager.setDefaultMaxPerRoute(properties.maxConnectionsPerRoute());
+        connectionManager.setDefaultConnectionConfig(ConnectionConfig.custom()
+                .setConnectTimeout(Timeout.of(properties.connectTimeout()))
+                .setSocketTimeout(Timeout.of(properties.readTimeout()))
+                .setValidateAfterInactivity(TimeValue.of(properties.validateAfterInactivity()))
+                .build());
+        new PoolingHttpClientConnectionManagerMetricsBinder(connectionManager, POOL_NAME).bindTo(meterRegistry);
+        return connectionManager;
+    }
+
+    @Bean
+    public ClientHttpRequestFactory shareItServerRequestFactory(PoolingHttpClientConnectionManager connectionManager,
+                                                                ShareItServerClientProperties properties) {
+        return new HttpComponentsClientHttpRequestFactory(HttpClients.custom()
+                .setConnectionManager(connectionManager)
+                .setConnectionManagerShared(true)
+                .setDefaultRequestConfig(RequestConfig.custom()
+                        .setConnectionRequestTimeout(Timeout.of(properties.connectionRequestTimeout()))
+                        .build())
+                .evictExpiredConnections()
+                .evictIdleConnections(TimeValue.of(properties.idleEviction()))
+                .build());
+    }
+
+    @Bean
+    public ResponseCache shareItServerResponseCache(@Value("${shareit-server.url}") String serverUrl,
+                                                    ResponseCacheProperties properties, TaskExecutor taskExecutor,
+                                                    MeterRegistry meterRegistry) {
+        return new ResponseCache(serverUrl, properties.maxEntries(), properties.freshFor(),
+                properties.staleWhileRevalidate(), properties.retainFor(), Ticker.systemTicker(), taskExecutor,
+                meterRegistry);
+    }
+
+    @Bean
+    public RequestCoalescer shareItServerRequestCoalescer(RequestCoalescingProperties properties,
+                                                          MeterRegistry meterRegistry) {
+        return new RequestCoalescer(properties.maxWait(), properties.routes(), meterRegistry);
+    }
+
+    @Bean
+    public ServerCallGuard shareItServerCallGuard(@Value("${shareit-server.url}") String serverUrl,
+                                                  ServerCallGuardProperties properties, MeterRegistry meterRegistry) {
+        ServerCallGuardProperties.AdaptiveLimit adaptiveLimit = properties.adaptiveLimit();
+        AdaptiveLimiter limiter = adaptiveLimit.enabled()
+                ? new AdaptiveLimiter(adaptiveLimit.initialLimit(), adaptiveLimit.minLimit(), adaptiveLimit.maxLimit(),
+                        adaptiveLimit.readShare(), adaptiveLimit.rttWindow(), Ticker.systemTicker(), meterRegistry)
+                : null;
+        return new ServerCallGuard(serverUrl, properties.bulkhead(), properties.circuitBreaker(), limiter,
+                Ticker.systemTicker(), meterRegistry);
+    }
+
+    @Bean
+    public ServerResponseBody.Converter serverResponseBodyConverter() {
+        return new ServerResponseBody.Converter();
+    }
+
+    @Bean
+    public CircuitBreakerEndpoint circuitBreakerEndpoint(ServerCallGuard guard) {
+        return new CircuitBreakerEndpoint(guard);
+    }
+
+    @Bean
+    public FilterRegistrationBean<DeadlineInterceptor.ArrivalFilter> requestArrivalFilter() {
+        FilterRegistrationBean<DeadlineInterceptor.ArrivalFilter> registration = new FilterRegistrationBean<>(
+                new DeadlineInterceptor.ArrivalFilter(Ticker.systemTicker()));
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE);
+        return registration;
+    }
+
+    @Bean
+    public RestTemplateCustomizer shareItServerDeadlineCustomizer(ShareItServerClientProperties properties) {
+        DeadlineInterceptor interceptor = new DeadlineInterceptor(properties.requestDeadline(), Ticker.systemTicker());
+        return rest -> rest.getInterceptors().add(interceptor);
+    }
+}
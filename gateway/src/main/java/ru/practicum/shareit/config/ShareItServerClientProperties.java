@@ -0,0 +1,30 @@
+package ru.practicum.shareit.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Настройки общего пула соединений шлюза с сервером.
+ *
+ * @param maxConnections           соединений в пуле всего
+ * @param maxConnectionsPerRoute   соединений с одним адресом сервера
+ * @param connectTimeout           ожидание установки соединения
+ * @param readTimeout              ожидание очередных данных от сервера; это тайм-аут простоя сокета, а не срок
+ *                                 всего ответа
+ * @param requestDeadline          срок ответа сервера на вызов, отсчитываемый с прихода запроса к шлюзу;
+ *                                 передаётся серверу в заголовке {@code X-Request-Timeout-Ms}
+ * @param connectionRequestTimeout ожидание свободного соединения из пула
+ * @param idleEviction             через сколько простоя соединение закрывается
+ * @param validateAfterInactivity  после какого простоя соединение проверяется перед использованием
+ */
+@ConfigurationProperties("shareit-server.http-client")
+public record ShareItServerClientProperties(int maxConnections,
+                                            int maxConnectionsPerRoute,
+                                            Duration connectTimeout,
+                                            Duration readTimeout,
+                                            Duration requestDeadline,
+                                            Duration connectionRequestTimeout,
+                                            Duration idleEviction,
+                                            Duration validateAfterInactivity) {
+}
@@ -1,10 +1,17 @@
 package ru.practicum.shareit.exceptions;
 
+import org.springframework.beans.TypeMismatchException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.bind.support.WebExchangeBindException;
+import org.springframework.web.method.annotation.HandlerMethodValidationException;
+import org.springframework.web.method.annotation.MethodArgumentTypeMismatchException;
+import org.springframework.web.server.ServerWebInputException;
 
 @RestControllerAdvice
 public class ErrorHandler {
@@ -15,6 +22,47 @@ public class ErrorHandler {
         return new ErrorResponse(e.getMessage());
     }
 
+    /**
+     * Ошибка проверки тела запроса в реактивном режиме шлюза.
+     */
+    @ExceptionHandler
+    @ResponseStatus(HttpStatus.BAD_REQUEST)
+    public ErrorResponse handleValidation(final WebExchangeBindException e) {
+        return new ErrorResponse(e.getMessage());
+    }
+
+    @ExceptionHandler
+    @ResponseStatus(HttpStatus.BAD_REQUEST)
+    public ErrorResponse handleParameterValidation(final HandlerMethodValidationException e) {
+        return new ErrorResponse(e.getMessage());
+    }
+
+    @ExceptionHandler
+    @ResponseStatus(HttpStatus.BAD_REQUEST)
+    public ErrorResponse handleParameterType(final MethodArgumentTypeMismatchException e) {
+        return new ErrorResponse("Некорректное значение параметра " + e.getName());
+    }
+
+    /**
+     * Ошибка чтения запроса в реактивном режиме шлюза. Как и в обычном режиме, клиенту с кодом 400 сообщается
+     * только о некорректном значении параметра, остальные ошибки считаются ошибками сервера.
+     */
+    @ExceptionHandler
+    public ResponseEntity<ErrorResponse> handleInput(final ServerWebInputException e) {
+        if (e.getCause() instanceof TypeMismatchException && e.getMethodParameter() != null) {
+            return ResponseEntity.badRequest().body(
+                    new ErrorResponse("Некорректное значение параметра " + e.getMethodParameter().getParameterName()));
+        }
+        return ResponseEntity.internalServerError().body(handle(e));
+    }
+
+    @ExceptionHandler
+    public ResponseEntity<ErrorResponse> handleUnavailable(final ServerUnavailableException e) {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(e.getRetryAfterSeconds()))
+                .body(new ErrorResponse(e.getMessage()));
+    }
+
     @ExceptionHandler
     @ResponseStatus(HttpStatus.INTERNAL_SERVER_ERROR)
     public ErrorResponse handle(final Exception e) {
@@ -0,0 +1,18 @@
+package ru.practicum.shareit.exceptions;
+
+import lombok.Getter;
+
+/**
+ * Вызов сервера не выполнен, потому что маршрут отключён автоматическим выключателем или занят предел
+ * одновременных вызовов, или переполнен пул шлюза. Клиенту отвечают
+ * {@code 503 Service Unavailable} с заголовком {@code Retry-After}.
+ */
+@Getter
+public class ServerUnavailableException extends RuntimeException {
+    private final long retryAfterSeconds;
+
+    public ServerUnavailableException(String message, long retryAfterSeconds) {
+        super(message);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+}
@@ -1,49 +1,129 @@
 package ru.practicum.shareit.item;
 
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.context.annotation.Profile;
 import org.springframework.http.ResponseEntity;
-import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.http.client.ClientHttpRequestFactory;
 import org.springframework.stereotype.Service;
+import org.springframework.web.client.ResourceAccessException;
 import org.springframework.web.util.DefaultUriBuilderFactory;
 import ru.practicum.shareit.client.BaseClient;
+import ru.practicum.shareit.client.RequestCoalescer;
+import ru.practicum.shareit.client.ResponseCache;
+import ru.practicum.shareit.client.ServerCallGuard;
+import ru.practicum.shareit.client.ServerResponseBody;
 import ru.practicum.shareit.item.dto.CreateCommentDto;
 import ru.practicum.shareit.item.dto.CreateItemDto;
 import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.request.ItemRequestClient;
 
+import java.io.IOException;
+import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 
 @Service
+@Profile("!reactive")
 public class ItemClient extends BaseClient {
-    private static final String API_PREFIX = "/items";
+    public static final String API_PREFIX = "/items";
+    public static final String SEARCH_PATH = API_PREFIX + "/search";
 
-    public ItemClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder) {
+    private final ObjectMapper objectMapper;
+
+    public ItemClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder,
+                      ClientHttpRequestFactory requestFactory, ResponseCache responseCache,
+                      RequestCoalescer coalescer, ServerCallGuard guard, ObjectMapper objectMapper) {
         super(builder.uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
-                .requestFactory(() -> new HttpComponentsClientHttpRequestFactory())
-                .build());
+                .requestFactory(() -> requestFactory)
+                .build(), responseCache, coalescer, guard);
+        this.objectMapper = objectMapper;
     }
 
     public ResponseEntity<Object> addItem(CreateItemDto itemDto, Long userId) {
-        return post("", userId, itemDto);
+        ResponseEntity<Object> response = post("", userId, itemDto);
+        invalidateAdded(List.of(itemDto));
+        return response;
     }
 
+    /**
+     * Изменённая вещь меняется и в ответе на запрос, к которому она добавлена; запрос берётся из ответа сервера.
+     */
     public ResponseEntity<Object> updateItem(ItemDto itemDto, Long userId, Long itemId) {
-        return patch("/" + itemId, userId, itemDto);
+        ResponseEntity<Object> response = patch("/" + itemId, userId, itemDto);
+        invalidate(API_PREFIX + "/" + itemId);
+        invalidate(SEARCH_PATH);
+        if (!response.getStatusCode().is2xxSuccessful() || !(response.getBody() instanceof ServerResponseBody body)) {
+            return response;
+        }
+        try {
+            byte[] bytes = body.readAllBytes();
+            JsonNode requestId = objectMapper.readTree(bytes).path("requestId");
+            if (requestId.canConvertToLong()) {
+                invalidate(ItemRequestClient.API_PREFIX + "/" + requestId.asLong());
+            }
+            return ResponseEntity.status(response.getStatusCode()).headers(response.getHeaders()).body(bytes);
+        } catch (IOException e) {
+            throw new ResourceAccessException("Ошибка при чтении ответа на изменение вещи "
+                    + itemId + ": " + e.getMessage(), e);
+        }
+    }
+
+    public ResponseEntity<Object> addItems(List<CreateItemDto> itemDtos, Long userId) {
+        ResponseEntity<Object> response = post("/batch", userId, itemDtos);
+        invalidateAdded(itemDtos);
+        return response;
+    }
+
+    public ResponseEntity<Object> updateItems(List<ItemDto> itemDtos, Long userId) {
+        ResponseEntity<Object> response = patch("/batch", userId, itemDtos);
+        itemDtos.stream()
+                .map(ItemDto::getId)
+                .filter(Objects::nonNull)
+                .distinct()
+                .forEach(itemId -> invalidate(API_PREFIX + "/" + itemId));
+        invalidate(SEARCH_PATH);
+        return response;
     }
 
     public ResponseEntity<Object> getItemById(Long itemId) {
-        return get("/" + itemId);
+        return cachedGet("item", "/" + itemId, null, null);
     }
 
     public ResponseEntity<Object> getItemsOfUser(Long userId) {
         return get("", userId);
     }
 
-    public ResponseEntity<Object> getItemByNameOrDescription(String text) {
-        return get("/search?text={text}", null, Map.of("text", text));
+    public ResponseEntity<Object> streamItemsOfUser(Long userId) {
+        return stream("", userId, null);
+    }
+
+    public ResponseEntity<Object> getItemByNameOrDescription(String text, Integer from, Integer size) {
+        return cachedGet("item-search", "/search?text={text}&from={from}&size={size}", null,
+                Map.of("text", text, "from", from, "size", size));
+    }
+
+    public ResponseEntity<Object> suggestItemNames(String prefix, Integer size) {
+        return get("/suggest?prefix={prefix}&size={size}", null, Map.of("prefix", prefix, "size", size));
     }
 
     public ResponseEntity<Object> addComment(CreateCommentDto commentDto, Long itemId, Long userId) {
-        return post("/" + itemId + "/comment", userId, commentDto);
+        ResponseEntity<Object> response = post("/" + itemId + "/comment", userId, commentDto);
+        invalidate(API_PREFIX + "/" + itemId);
+        return response;
+    }
+
+    /**
+     * Новые вещи попадают в результаты поиска и в ответы на запросы, к которым они добавлены.
+     */
+    private void invalidateAdded(List<CreateItemDto> itemDtos) {
+        itemDtos.stream()
+                .map(CreateItemDto::getRequestId)
+                .filter(Objects::nonNull)
+                .distinct()
+                .forEach(requestId -> invalidate(ItemRequestClient.API_PREFIX + "/" + requestId));
+        invalidate(SEARCH_PATH);
     }
 }
@@ -1,21 +1,33 @@
 package ru.practicum.shareit.item;
 
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Positive;
+import jakarta.validation.constraints.PositiveOrZero;
+import jakarta.validation.constraints.Size;
 import jakarta.websocket.server.PathParam;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import ru.practicum.shareit.item.dto.CreateCommentDto;
 import ru.practicum.shareit.item.dto.CreateItemDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 
+import java.util.List;
+
 @RestController
+@Profile("!reactive")
 @RequestMapping("/items")
 @RequiredArgsConstructor
 @Slf4j
 public class ItemController {
     private final ItemClient itemClient;
+    private final ItemPageAssembler itemPageAssembler;
 
     @PostMapping
     public ResponseEntity<Object> addItem(@Valid @RequestBody CreateItemDto itemDto,
@@ -30,19 +42,57 @@ public class ItemController {
         return itemClient.updateItem(itemDto, userId, itemId);
     }
 
+    @PostMapping("/batch")
+    public ResponseEntity<Object> addItems(@RequestBody @NotEmpty @Size(max = 10000)
+                                           List<@Valid CreateItemDto> itemDtos,
+                                           @RequestHeader("X-Sharer-User-Id") Long userId) {
+        return itemClient.addItems(itemDtos, userId);
+    }
+
+    @PatchMapping("/batch")
+    public ResponseEntity<Object> updateItems(@RequestBody @NotEmpty @Size(max = 10000)
+                                              List<ItemDto> itemDtos,
+                                              @RequestHeader("X-Sharer-User-Id") Long userId) {
+        return itemClient.updateItems(itemDtos, userId);
+    }
+
     @GetMapping("/{itemId}")
     public ResponseEntity<Object> getItemById(@PathVariable Long itemId) {
         return itemClient.getItemById(itemId);
     }
 
+    /**
+     * Вещь с отзывами, её бронирования пользователем и запрос, к которому она добавлена, одним ответом.
+     */
+    @GetMapping("/{itemId}/page")
+    public ResponseEntity<Object> getItemPage(@PathVariable Long itemId,
+                                              @RequestHeader("X-Sharer-User-Id") Long userId) {
+        return itemPageAssembler.assemble(itemId, userId);
+    }
+
     @GetMapping
     public ResponseEntity<Object> getItemsOfUser(@RequestHeader("X-Sharer-User-Id") Long userId) {
         return itemClient.getItemsOfUser(userId);
     }
 
+    @GetMapping(produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<Object> streamItemsOfUser(@RequestHeader("X-Sharer-User-Id") Long userId) {
+        return itemClient.streamItemsOfUser(userId);
+    }
+
     @GetMapping("/search")
-    public ResponseEntity<Object> getItemByNameOrDescription(@PathParam("text") String text) {
-        return itemClient.getItemByNameOrDescription(text);
+    public ResponseEntity<Object> getItemByNameOrDescription(@PathParam("text") String text,
+                                                             @RequestParam(defaultValue = "0")
+                                                             @PositiveOrZero Integer from,
+                                                             @RequestParam(defaultValue = "20")
+                                                             @Positive @Max(100) Integer size) {
+        return itemClient.getItemByNameOrDescription(text, from, size);
+    }
+
+    @GetMapping("/suggest")
+    public ResponseEntity<Object> suggestItemNames(@RequestParam @NotBlank String prefix,
+                                                   @RequestParam(defaultValue = "10") @Positive @Max(50) Integer size) {
+        return itemClient.suggestItemNames(prefix, size);
     }
 
     @PostMapping("/{itemId}/comment")
@@ -0,0 +1,205 @@
+package ru.practicum.shareit.item;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.ResponseEntity;
+import org.springframework.lang.Nullable;
+import org.springframework.web.client.ResourceAccessException;
+import ru.practicum.shareit.booking.BookingClient;
+import ru.practicum.shareit.client.DeadlineInterceptor;
+import ru.practicum.shareit.client.ServerResponseBody;
+import ru.practicum.shareit.exceptions.ErrorResponse;
+import ru.practicum.shareit.exceptions.ServerUnavailableException;
+import ru.practicum.shareit.item.dto.ItemPageDto;
+import ru.practicum.shareit.item.dto.ItemPageDto.PartStatus;
+import ru.practicum.shareit.request.ItemRequestClient;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * Собирает страницу вещи {@code GET /items/{id}/page} из нескольких вызовов сервера. Вещь с отзывами
+ * и бронирования вещи пользователем запрашиваются параллельно, а запрос, к которому вещь добавлена, — сразу
+ * после вещи, когда стал известен его id. Вся сборка ограничена сроком {@code timeout}. Без вещи страницы нет:
+ * если вещь не получена к сроку, клиент получает {@code 504}, а ответ сервера с ошибкой передаётся как есть.
+ * Остальные части, не готовые к сроку или завершённые ошибкой, на странице пусты и отмечены в {@code parts}.
+ * <p>
+ * Вызовы выполняются в своём пуле из {@code maxConcurrency} потоков с очередью на {@code queueCapacity}
+ * вызовов, поэтому ожидание медленного сервера после срока занимает поток пула, а не поток Tomcat.
+ */
+@Slf4j
+public class ItemPageAssembler implements AutoCloseable {
+    static final String ITEM = "item";
+    static final String BOOKINGS = "bookings";
+    static final String REQUEST = "request";
+
+    private final ItemClient itemClient;
+    private final BookingClient bookingClient;
+    private final ItemRequestClient itemRequestClient;
+    private final ThreadPoolExecutor executor;
+    private final Duration timeout;
+    private final int bookingsSize;
+    private final ObjectMapper objectMapper;
+
+    public ItemPageAssembler(ItemClient itemClient, BookingClient bookingClient, ItemRequestClient itemRequestClient,
+                             int maxConcurrency, int queueCapacity, Duration timeout, int bookingsSize,
+                             ObjectMapper objectMapper) {
+        this.itemClient = itemClient;
+        this.bookingClient = bookingClient;
+        this.itemRequestClient = itemRequestClient;
+        this.executor = new ThreadPoolExecutor(maxConcurrency, maxConcurrency, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), Thread.ofPlatform().name("item-page-", 0).daemon().factory());
+        this.timeout = timeout;
+        this.bookingsSize = bookingsSize;
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * @return страница вещи или ответ сервера на запрос вещи, если он не успешен
+     * @throws ServerUnavailableException если вещь не запрошена: пул перегружен или сервер недоступен
+     */
+    public ResponseEntity<Object> assemble(Long itemId, Long userId) {
+        long deadline = System.nanoTime() + timeout.toNanos();
+        CompletableFuture<Fetched> item = new CompletableFuture<>();
+        CompletableFuture<Fetched> request = item.thenApply(this::fetchRequest);
+        CompletableFuture<Fetched> bookings = new CompletableFuture<>();
+        submit(item, deadline, () -> itemClient.getItemById(itemId));
+        submit(bookings, deadline, () -> bookingClient.getBookingsOfItem(userId, itemId, null, bookingsSize));
+
+        Fetched itemResponse;
+        try {
+            itemResponse = item.get(remaining(deadline), TimeUnit.NANOSECONDS);
+        } catch (TimeoutException | InterruptedException e) {
+            if (e instanceof InterruptedException) {
+                Thread.currentThread().interrupt();
+            }
+            log.debug("страница вещи {} не собрана: вещь не получена к сроку", itemId);
+            return ResponseEntity.status(HttpStatus.GATEWAY_TIMEOUT)
+                    .body(new ErrorResponse("Истёк срок сборки страницы вещи " + itemId));
+        } catch (ExecutionException e) {
+            throw e.getCause() instanceof RuntimeException cause ? cause : new IllegalStateException(e.getCause());
+        }
+        if (!itemResponse.status().is2xxSuccessful()) {
+            return ResponseEntity.status(itemResponse.status()).body(itemResponse.body());
+        }
+
+        Map<String, PartStatus> parts = new LinkedHashMap<>();
+        parts.put(ITEM, PartStatus.OK);
+        JsonNode bookingsBody = await(BOOKINGS, bookings, deadline, parts);
+        JsonNode requestBody = await(REQUEST, request, deadline, parts);
+        boolean partial = parts.containsValue(PartStatus.TIMED_OUT) || parts.containsValue(PartStatus.FAILED);
+        return ResponseEntity.ok(new ItemPageDto(itemResponse.body(), bookingsBody, requestBody, partial, parts));
+    }
+
+    @Override
+    public void close() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Запрос, к которому добавлена вещь; {@code null}, если вещь ни к какому запросу не добавлена.
+     */
+    @Nullable
+    private Fetched fetchRequest(Fetched item) {
+        JsonNode requestId = item.body() == null ? null : item.body().path("requestId");
+        if (!item.status().is2xxSuccessful() || requestId == null || !requestId.canConvertToLong()) {
+            return null;
+        }
+        return fetch(() -> itemRequestClient.getRequestById(requestId.asLong()));
+    }
+
+    /**
+     * Ждёт необязательную часть страницы не дольше срока и отмечает в {@code parts}, получена ли она.
+     */
+    @Nullable
+    private JsonNode await(String name, CompletableFuture<Fetched> part, long deadline,
+                           Map<String, PartStatus> parts) {
+        try {
+            Fetched fetched = part.get(remaining(deadline), TimeUnit.NANOSECONDS);
+            if (fetched == null) {
+                parts.put(name, PartStatus.NOT_LINKED);
+                return null;
+            }
+            if (!fetched.status().is2xxSuccessful()) {
+                log.debug("часть {} страницы вещи не получена: сервер ответил {}", name, fetched.status());
+                parts.put(name, PartStatus.FAILED);
+                return null;
+            }
+            parts.put(name, PartStatus.OK);
+            return fetched.body();
+        } catch (TimeoutException e) {
+            log.debug("часть {} страницы вещи не получена к сроку", name);
+            parts.put(name, PartStatus.TIMED_OUT);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            parts.put(name, PartStatus.TIMED_OUT);
+        } catch (ExecutionException e) {
+            log.debug("часть {} страницы вещи не получена: {}", name, e.getCause().getMessage());
+            parts.put(name, PartStatus.FAILED);
+        }
+        return null;
+    }
+
+    /**
+     * Выполняет вызов в пуле; серверу передаётся срок сборки страницы, а не весь бюджет запроса к шлюзу.
+     * Запрос, к которому добавлена вещь, запрашивается в том же потоке после вещи и получает тот же срок.
+     */
+    private void submit(CompletableFuture<Fetched> future, long deadline, Supplier<ResponseEntity<Object>> call) {
+        try {
+            executor.execute(DeadlineInterceptor.withDeadline(deadline, () -> {
+                try {
+                    future.complete(fetch(call));
+                } catch (RuntimeException e) {
+                    future.completeExceptionally(e);
+                }
+            }));
+        } catch (RejectedExecutionException e) {
+            future.completeExceptionally(new ServerUnavailableException(
+                    "Шлюз перегружен: страница вещи не собрана", 1));
+        }
+    }
+
+    /**
+     * Выполняет вызов и сразу дочитывает тело ответа, чтобы освободить соединение и место вызова сервера.
+     */
+    private Fetched fetch(Supplier<ResponseEntity<Object>> call) {
+        ResponseEntity<Object> response = call.get();
+        try {
+            return new Fetched(response.getStatusCode(), read(response.getBody()));
+        } catch (IOException e) {
+            throw new ResourceAccessException("Ошибка при чтении ответа сервера для страницы вещи: "
+                    + e.getMessage(), e);
+        }
+    }
+
+    @Nullable
+    private JsonNode read(@Nullable Object body) throws IOException {
+        if (body instanceof ServerResponseBody serverBody) {
+            return objectMapper.readTree(serverBody.readAllBytes());
+        }
+        if (body instanceof byte[] bytes && bytes.length > 0) {
+            return objectMapper.readTree(bytes);
+        }
+        return null;
+    }
+
+    private static long remaining(long deadline) {
+        return Math.max(0, deadline - System.nanoTime());
+    }
+
+    private record Fetched(HttpStatusCode status, @Nullable JsonNode body) {
+    }
+}
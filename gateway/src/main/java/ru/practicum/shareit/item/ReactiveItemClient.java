@@ -0,0 +1,78 @@
+package ru.practicum.shareit.item;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.stereotype.Service;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import ru.practicum.shareit.client.ReactiveBaseClient;
+import ru.practicum.shareit.item.dto.CreateCommentDto;
+import ru.practicum.shareit.item.dto.CreateItemDto;
+import ru.practicum.shareit.item.dto.ItemDto;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+@Service
+@Profile("reactive")
+public class ReactiveItemClient extends ReactiveBaseClient {
+    private static final String API_PREFIX = "/items";
+
+    public ReactiveItemClient(@Value("${shareit-server.url}") String serverUrl, WebClient.Builder builder,
+                              ReactorClientHttpConnector connector) {
+        super(builder.baseUrl(serverUrl + API_PREFIX)
+                .clientConnector(connector)
+                .build());
+    }
+
+    public Mono<ResponseEntity<Flux<DataBuffer>>> addItem(CreateItemDto itemDto, Long userId) {
+        return post("", userId, itemDto);
+    }
+
+    public Mono<ResponseEntity<Flux<DataBuffer>>> updateItem(ItemDto itemDto, Long userId, Long itemId) {
+        return patch("/" + itemId, userId, itemDto);
+    }
+
+    public Mono<ResponseEntity<Flux<DataBuffer>>> addItems(List<CreateItemDto> itemDtos, Long userId) {
+        return post("/batch", userId, itemDtos);
+    }
+
+    public Mono<ResponseEntity<Flux<DataBuffer>>> updateItems(List<ItemDto> itemDtos, Long userId) {
+        return patch("/batch", userId, itemDtos);
+    }
+
+    public Mono<ResponseEntity<Flux<DataBuffer>>> getItemById(Long itemId) {
+        return get("/" + itemId);
+    }
+
+    public Mono<ResponseEntity<Flux<DataBuffer>>> getItemsOfUser(Long userId) {
+        return get("", userId);
+    }
+
+    public Mono<ResponseEntity<Flux<DataBuffer>>> streamItemsOfUser(Long userId) {
+        return stream("", userId, null);
+    }
+
+    public Mono<ResponseEntity<Flux<DataBuffer>>> getItemByNameOrDescription(String text, Integer from,
+                                                                             Integer size) {
+        Map<String, Object> parameters = new HashMap<>();
+        parameters.put("text", text);
+        parameters.put("from", from);
+        parameters.put("size", size);
+        return get("/search?text={text}&from={from}&size={size}", null, parameters);
+    }
+
+    public Mono<ResponseEntity<Flux<DataBuffer>>> suggestItemNames(String prefix, Integer size) {
+        return get("/suggest?prefix={prefix}&size={size}", null, Map.of("prefix", prefix, "size", size));
+    }
+
+    public Mono<ResponseEntity<Flux<DataBuffer>>> addComment(CreateCommentDto commentDto, Long itemId,
+                                                             Long userId) {
+        return post("/" + itemId + "/comment", userId, commentDto);
+    }
+}
@@ -0,0 +1,100 @@
+package ru.practicum.shareit.item;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Positive;
+import jakarta.validation.constraints.PositiveOrZero;
+import jakarta.validation.constraints.Size;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import ru.practicum.shareit.item.dto.CreateCommentDto;
+import ru.practicum.shareit.item.dto.CreateItemDto;
+import ru.practicum.shareit.item.dto.ItemDto;
+
+import java.util.List;
+
+/**
+ * {@link ItemController} для реактивного режима шлюза: те же адреса и проверки, но без блокировки потока.
+ */
+@RestController
+@Profile("reactive")
+@RequestMapping("/items")
+@RequiredArgsConstructor
+public class ReactiveItemController {
+    private final ReactiveItemClient itemClient;
+
+    @PostMapping
+    public Mono<ResponseEntity<Flux<DataBuffer>>> addItem(@Valid @RequestBody CreateItemDto itemDto,
+                                                          @RequestHeader("X-Sharer-User-Id") Long userId) {
+        return itemClient.addItem(itemDto, userId);
+    }
+
+    @PatchMapping("/{itemId}")
+    public Mono<ResponseEntity<Flux<DataBuffer>>> updateItem(@RequestBody ItemDto itemDto,
+                                                             @RequestHeader("X-Sharer-User-Id") Long userId,
+                                                             @PathVariable Long itemId) {
+        return itemClient.updateItem(itemDto, userId, itemId);
+    }
+
+    @PostMapping("/batch")
+    public Mono<ResponseEntity<Flux<DataBuffer>>> addItems(@RequestBody @NotEmpty @Size(max = 10000)
+                                                           List<@Valid CreateItemDto> itemDtos,
+                                                           @RequestHeader("X-Sharer-User-Id") Long userId) {
+        return itemClient.addItems(itemDtos, userId);
+    }
+
+    @PatchMapping("/batch")
+    public Mono<ResponseEntity<Flux<DataBuffer>>> updateItems(@RequestBody @NotEmpty @Size(max = 10000)
+                                                              List<ItemDto> itemDtos,
+                                                              @RequestHeader("X-Sharer-User-Id") Long userId) {
+        return itemClient.updateItems(itemDtos, userId);
+    }
+
+    @GetMapping("/{itemId}")
+    public Mono<ResponseEntity<Flux<DataBuffer>>> getItemById(@PathVariable Long itemId) {
+        return itemClient.getItemById(itemId);
+    }
+
+    @GetMapping
+    public Mono<ResponseEntity<Flux<DataBuffer>>> getItemsOfUser(@RequestHeader("X-Sharer-User-Id") Long userId) {
+        return itemClient.getItemsOfUser(userId);
+    }
+
+    @GetMapping(produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Mono<ResponseEntity<Flux<DataBuffer>>> streamItemsOfUser(@RequestHeader("X-Sharer-User-Id")
+                                                                    Long userId) {
+        return itemClient.streamItemsOfUser(userId);
+    }
+
+    @GetMapping("/search")
+    public Mono<ResponseEntity<Flux<DataBuffer>>> getItemByNameOrDescription(@RequestParam(required = false)
+                                                                             String text,
+                                                                             @RequestParam(defaultValue = "0")
+                                                                             @PositiveOrZero Integer from,
+                                                                             @RequestParam(defaultValue = "20")
+                                                                             @Positive @Max(100) Integer size) {
+        return itemClient.getItemByNameOrDescription(text, from, size);
+    }
+
+    @GetMapping("/suggest")
+    public Mono<ResponseEntity<Flux<DataBuffer>>> suggestItemNames(@RequestParam @NotBlank String prefix,
+                                                                   @RequestParam(defaultValue = "10")
+                                                                   @Positive @Max(50) Integer size) {
+        return itemClient.suggestItemNames(prefix, size);
+    }
+
+    @PostMapping("/{itemId}/comment")
+    public Mono<ResponseEntity<Flux<DataBuffer>>> addComment(@Valid @RequestBody CreateCommentDto createCommentDto,
+                                                             @PathVariable Long itemId,
+                                                             @RequestHeader("X-Sharer-User-Id") Long userId) {
+        return itemClient.addComment(createCommentDto, itemId, userId);
+    }
+}
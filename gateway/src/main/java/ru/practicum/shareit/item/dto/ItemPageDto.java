@@ -0,0 +1,41 @@
+package ru.practicum.shareit.item.dto;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.Map;
+
+/**
+ * Страница вещи: вещь с отзывами, бронирования этой вещи пользователем и запрос, к которому вещь добавлена.
+ * Часть, которую не удалось получить, равна {@code null}; почему — видно в {@code parts}, а {@code partial}
+ * показывает, что на странице не хватает хотя бы одной части.
+ */
+@Getter
+@AllArgsConstructor
+public class ItemPageDto {
+    private JsonNode item;
+    private JsonNode bookings;
+    private JsonNode request;
+    private boolean partial;
+    private Map<String, PartStatus> parts;
+
+    public enum PartStatus {
+        /**
+         * Часть получена.
+         */
+        OK,
+        /**
+         * Вещь не добавлена к запросу, и запрашивать нечего.
+         */
+        NOT_LINKED,
+        /**
+         * Часть не получена к сроку сборки страницы.
+         */
+        TIMED_OUT,
+        /**
+         * Сервер ответил ошибкой или был недоступен.
+         */
+        FAILED
+    }
+}
@@ -0,0 +1,46 @@
+package ru.practicum.shareit.ratelimit;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.filter.OncePerRequestFilter;
+import ru.practicum.shareit.exceptions.ErrorResponse;
+
+import java.io.IOException;
+
+/**
+ * Отклоняет запросы сверх бюджета клиента с кодом {@code 429 Too Many Requests} и заголовком
+ * {@code Retry-After}, не отправляя их на сервер.
+ */
+@Slf4j
+@RequiredArgsConstructor
+public class RateLimitFilter extends OncePerRequestFilter {
+    private final RateLimiter rateLimiter;
+    private final ObjectMapper objectMapper;
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        String client = RateLimiter.client(request.getHeader("X-Sharer-User-Id"), request.getRemoteAddr());
+        long wait = rateLimiter.acquire(request.getRequestURI(), client);
+        if (wait == 0) {
+            chain.doFilter(request, response);
+            return;
+        }
+        long retryAfter = RateLimiter.retryAfterSeconds(wait);
+        log.debug("запрос {} {} клиента {} отклонён, повторить через {} с", request.getMethod(),
+                request.getRequestURI(), client, retryAfter);
+        response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfter));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        objectMapper.writeValue(response.getOutputStream(),
+                new ErrorResponse("Слишком много запросов, повторите через " + retryAfter + " с"));
+    }
+}
@@ -0,0 +1,100 @@
+package ru.practicum.shareit.ratelimit;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Ticker;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.lang.Nullable;
+
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Ограничение частоты запросов к шлюзу: у каждого клиента на каждом маршруте своя корзина токенов.
+ * Корзины, к которым не обращались {@code idleEviction}, удаляются, и всего их не больше {@code maxBuckets}.
+ * Отклонённые запросы считаются в метрике {@code gateway.rate.limit.rejected} с тегом {@code route}.
+ */
+public class RateLimiter {
+    private final List<Limit> limits;
+    private final Cache<Key, TokenBucket> buckets;
+    private final Ticker ticker;
+
+    public RateLimiter(List<Route> routes, long maxBuckets, Duration idleEviction, Ticker ticker,
+                       MeterRegistry meterRegistry) {
+        this.limits = routes.stream()
+                .map(route -> {
+                    long tokenNanos = Math.round(1_000_000_000 / route.refillPerSecond());
+                    return new Limit(route.name(), route.path(), tokenNanos, tokenNanos * route.capacity(),
+                            Counter.builder("gateway.rate.limit.rejected")
+                                    .description("Запросы, отклонённые из-за превышения частоты")
+                                    .tag("route", route.name())
+                                    .register(meterRegistry));
+                })
+                .sorted(Comparator.comparingInt((Limit limit) -> limit.path().length()).reversed())
+                .toList();
+        this.buckets = Caffeine.newBuilder()
+                .maximumSize(maxBuckets)
+                .expireAfterAccess(idleEviction)
+                .ticker(ticker)
+                .build();
+        this.ticker = ticker;
+    }
+
+    /**
+     * Списывает токен клиента {@code client} на маршруте с самым длинным путём, которому принадлежит {@code path}.
+     *
+     * @return {@code 0}, если запрос можно выполнить, иначе через сколько наносекунд появится следующий токен
+     */
+    public long acquire(String path, String client) {
+        Limit limit = match(path);
+        if (limit == null) {
+            return 0;
+        }
+        long wait = buckets.get(new Key(limit.route(), client), key -> new TokenBucket())
+                .tryAcquire(ticker.read(), limit.tokenNanos(), limit.capacityNanos());
+        if (wait > 0) {
+            limit.rejected().increment();
+        }
+        return wait;
+    }
+
+    /**
+     * Клиент — пользователь из заголовка {@code X-Sharer-User-Id}, а без него — адрес, с которого пришёл запрос.
+     */
+    public static String client(@Nullable String userId, @Nullable String address) {
+        return userId != null ? "user:" + userId : "address:" + address;
+    }
+
+    /**
+     * Значение {@code Retry-After}: ожидание, округлённое вверх до целых секунд.
+     */
+    public static long retryAfterSeconds(long waitNanos) {
+        return Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos + 999_999_999));
+    }
+
+    private Limit match(String path) {
+        for (Limit limit : limits) {
+            if (path.startsWith(limit.path())
+                    && (path.length() == limit.path().length() || path.charAt(limit.path().length()) == '/')) {
+                return limit;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Маршрут — путь и все пути под ним — с бюджетом на одного клиента: не больше {@code capacity} запросов
+     * подряд, дальше {@code refillPerSecond} запросов в секунду.
+     */
+    public record Route(String name, String path, int capacity, double refillPerSecond) {
+    }
+
+    private record Limit(String route, String path, long tokenNanos, long capacityNanos, Counter rejected) {
+    }
+
+    private record Key(String route, String client) {
+    }
+}
@@ -0,0 +1,50 @@
+package ru.practicum.shareit.ratelimit;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.publisher.Mono;
+import ru.practicum.shareit.exceptions.ErrorResponse;
+
+import java.net.InetSocketAddress;
+
+/**
+ * {@link RateLimitFilter} для реактивного режима шлюза.
+ */
+@RequiredArgsConstructor
+public class ReactiveRateLimitFilter implements WebFilter {
+    private final RateLimiter rateLimiter;
+    private final ObjectMapper objectMapper;
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
+        ServerHttpRequest request = exchange.getRequest();
+        InetSocketAddress address = request.getRemoteAddress();
+        String client = RateLimiter.client(request.getHeaders().getFirst("X-Sharer-User-Id"),
+                address != null ? address.getHostString() : null);
+        long wait = rateLimiter.acquire(request.getPath().value(), client);
+        if (wait == 0) {
+            return chain.filter(exchange);
+        }
+        long retryAfter = RateLimiter.retryAfterSeconds(wait);
+        ServerHttpResponse response = exchange.getResponse();
+        response.setStatusCode(HttpStatus.TOO_MANY_REQUESTS);
+        response.getHeaders().set(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfter));
+        response.getHeaders().setContentType(MediaType.APPLICATION_JSON);
+        try {
+            byte[] body = objectMapper.writeValueAsBytes(
+                    new ErrorResponse("Слишком много запросов, повторите через " + retryAfter + " с"));
+            return response.writeWith(Mono.just(response.bufferFactory().wrap(body)));
+        } catch (JsonProcessingException e) {
+            return Mono.error(e);
+        }
+    }
+}
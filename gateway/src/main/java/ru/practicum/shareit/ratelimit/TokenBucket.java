@@ -0,0 +1,34 @@
+package ru.practicum.shareit.ratelimit;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Корзина токенов одного клиента на одном маршруте без блокировок. Вместо числа токенов и времени последнего
+ * пополнения хранится одно число — момент, когда корзина снова будет полной; оба значения из него выводятся,
+ * поэтому запрос списывает токен одним сравнением с обменом.
+ */
+final class TokenBucket {
+    private final AtomicLong fullAt = new AtomicLong(Long.MIN_VALUE);
+
+    /**
+     * Списывает токен.
+     *
+     * @param now            текущее время в наносекундах
+     * @param tokenNanos     за сколько наносекунд пополняется один токен
+     * @param capacityNanos  за сколько наносекунд пополняется вся корзина
+     * @return {@code 0}, если токен списан, иначе сколько наносекунд ждать следующего токена
+     */
+    long tryAcquire(long now, long tokenNanos, long capacityNanos) {
+        while (true) {
+            long current = fullAt.get();
+            long next = Math.max(current, now) + tokenNanos;
+            long excess = next - now - capacityNanos;
+            if (excess > 0) {
+                return excess;
+            }
+            if (fullAt.compareAndSet(current, next)) {
+                return 0;
+            }
+        }
+    }
+}
@@ -2,21 +2,28 @@ package ru.practicum.shareit.request;
 
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.context.annotation.Profile;
 import org.springframework.http.ResponseEntity;
-import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.http.client.ClientHttpRequestFactory;
 import org.springframework.stereotype.Service;
 import org.springframework.web.util.DefaultUriBuilderFactory;
 import ru.practicum.shareit.client.BaseClient;
+import ru.practicum.shareit.client.RequestCoalescer;
+import ru.practicum.shareit.client.ResponseCache;
+import ru.practicum.shareit.client.ServerCallGuard;
 import ru.practicum.shareit.request.dto.CreateRequestDto;
 
 @Service
+@Profile("!reactive")
 public class ItemRequestClient extends BaseClient {
     public static final String API_PREFIX = "/requests";
 
-    public ItemRequestClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder) {
+    public ItemRequestClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder,
+                             ClientHttpRequestFactory requestFactory, ResponseCache responseCache,
+                             RequestCoalescer coalescer, ServerCallGuard guard) {
         super(builder.uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
-                .requestFactory(() -> new HttpComponentsClientHttpRequestFactory())
-                .build());
+                .requestFactory(() -> requestFactory)
+                .build(), responseCache, coalescer, guard);
     }
 
     public ResponseEntity<Object> addRequest(CreateRequestDto createRequestDto, Long userId) {
@@ -31,7 +38,15 @@ public class ItemRequestClient extends BaseClient {
         return get("/all", userId);
     }
 
+    public ResponseEntity<Object> streamAllByUser(Long userId) {
+        return stream("", userId, null);
+    }
+
+    public ResponseEntity<Object> streamRequestsOfOtherUsers(Long userId) {
+        return stream("/all", userId, null);
+    }
+
     public ResponseEntity<Object> getRequestById(Long requestId) {
-        return get("/" + requestId);
+        return cachedGet("request", "/" + requestId, null, null);
     }
 }
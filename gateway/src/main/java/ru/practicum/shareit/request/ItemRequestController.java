@@ -3,12 +3,15 @@ package ru.practicum.shareit.request;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import ru.practicum.shareit.request.dto.CreateRequestDto;
 
 @Slf4j
 @RestController
+@Profile("!reactive")
 @RequestMapping(path = "/requests")
 @RequiredArgsConstructor
 public class ItemRequestController {
@@ -30,6 +33,16 @@ public class ItemRequestController {
         return itemRequestService.getRequestsOfOtherUsers(userId);
     }
 
+    @GetMapping(produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<Object> streamAllByUser(@RequestHeader("X-Sharer-User-Id") Long userId) {
+        return itemRequestService.streamAllByUser(userId);
+    }
+
+    @GetMapping(path = "/all", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<Object> streamAllOfOtherUsers(@RequestHeader("X-Sharer-User-Id") Long userId) {
+        return itemRequestService.streamRequestsOfOtherUsers(userId);
+    }
+
     @GetMapping("/{requestId}")
     public ResponseEntity<Object> getById(@PathVariable Long requestId) {
         return itemRequestService.getRequestById(requestId);
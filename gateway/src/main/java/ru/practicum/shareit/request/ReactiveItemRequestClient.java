@@ -0,0 +1,48 @@
+package ru.practicum.shareit.request;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.stereotype.Service;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import ru.practicum.shareit.client.ReactiveBaseClient;
+import ru.practicum.shareit.request.dto.CreateRequestDto;
+
+@Service
+@Profile("reactive")
+public class ReactiveItemRequestClient extends ReactiveBaseClient {
+    public ReactiveItemRequestClient(@Value("${shareit-server.url}") String serverUrl, WebClient.Builder builder,
+                                     ReactorClientHttpConnector connector) {
+        super(builder.baseUrl(serverUrl + ItemRequestClient.API_PREFIX)
+                .clientConnector(connector)
+                .build());
+    }
+
+    public Mono<ResponseEntity<Flux<DataBuffer>>> addRequest(CreateRequestDto createRequestDto, Long userId) {
+        return post("", userId, createRequestDto);
+    }
+
+    public Mono<ResponseEntity<Flux<DataBuffer>>> getAllByUser(Long userId) {
+        return get("", userId);
+    }
+
+    public Mono<ResponseEntity<Flux<DataBuffer>>> getRequestsOfOtherUsers(Long userId) {
+        return get("/all", userId);
+    }
+
+    public Mono<ResponseEntity<Flux<DataBuffer>>> streamAllByUser(Long userId) {
+        return stream("", userId, null);
+    }
+
+    public Mono<ResponseEntity<Flux<DataBuffer>>> streamRequestsOfOtherUsers(Long userId) {
+        return stream("/all", userId, null);
+    }
+
+    public Mono<ResponseEntity<Flux<DataBuffer>>> getRequestById(Long requestId) {
+        return get("/" + requestId);
+    }
+}
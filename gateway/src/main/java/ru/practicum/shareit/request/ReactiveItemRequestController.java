@@ -0,0 +1,56 @@
+package ru.practicum.shareit.request;
+
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import ru.practicum.shareit.request.dto.CreateRequestDto;
+
+/**
+ * {@link ItemRequestController} для реактивного режима шлюза: те же адреса и проверки, но без блокировки потока.
+ */
+@RestController
+@Profile("reactive")
+@RequestMapping(path = "/requests")
+@RequiredArgsConstructor
+public class ReactiveItemRequestController {
+    private final ReactiveItemRequestClient itemRequestClient;
+
+    @PostMapping
+    public Mono<ResponseEntity<Flux<DataBuffer>>> addRequest(@Valid @RequestBody CreateRequestDto createRequestDto,
+                                                             @RequestHeader("X-Sharer-User-Id") Long userId) {
+        return itemRequestClient.addRequest(createRequestDto, userId);
+    }
+
+    @GetMapping
+    public Mono<ResponseEntity<Flux<DataBuffer>>> getAllByUser(@RequestHeader("X-Sharer-User-id") Long userId) {
+        return itemRequestClient.getAllByUser(userId);
+    }
+
+    @GetMapping("/all")
+    public Mono<ResponseEntity<Flux<DataBuffer>>> getAllOfOtherUsers(@RequestHeader("X-Sharer-User-Id")
+                                                                     Long userId) {
+        return itemRequestClient.getRequestsOfOtherUsers(userId);
+    }
+
+    @GetMapping(produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Mono<ResponseEntity<Flux<DataBuffer>>> streamAllByUser(@RequestHeader("X-Sharer-User-Id") Long userId) {
+        return itemRequestClient.streamAllByUser(userId);
+    }
+
+    @GetMapping(path = "/all", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Mono<ResponseEntity<Flux<DataBuffer>>> streamAllOfOtherUsers(@RequestHeader("X-Sharer-User-Id")
+                                                                        Long userId) {
+        return itemRequestClient.streamRequestsOfOtherUsers(userId);
+    }
+
+    @GetMapping("/{requestId}")
+    public Mono<ResponseEntity<Flux<DataBuffer>>> getById(@PathVariable Long requestId) {
+        return itemRequestClient.getRequestById(requestId);
+    }
+}
@@ -0,0 +1,45 @@
+package ru.practicum.shareit.user;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.stereotype.Service;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import ru.practicum.shareit.client.ReactiveBaseClient;
+import ru.practicum.shareit.user.dto.UpdateUserDto;
+import ru.practicum.shareit.user.dto.UserDto;
+
+@Service
+@Profile("reactive")
+public class ReactiveUserClient extends ReactiveBaseClient {
+    private static final String API_PREFIX = "/users";
+
+    public ReactiveUserClient(@Value("${shareit-server.url}") String serverUrl, WebClient.Builder builder,
+                              ReactorClientHttpConnector connector) {
+        super(builder
+                .baseUrl(serverUrl + API_PREFIX)
+                .clientConnector(connector)
+                .build());
+    }
+
+    public Mono<ResponseEntity<Flux<DataBuffer>>> getUserById(long userId) {
+        return get("/" + userId);
+    }
+
+    public Mono<ResponseEntity<Flux<DataBuffer>>> createUser(UserDto userDto) {
+        return post("", userDto);
+    }
+
+    public Mono<ResponseEntity<Flux<DataBuffer>>> updateUser(UpdateUserDto userDto, Long userId) {
+        return patch("/" + userId, userDto);
+    }
+
+    public Mono<Void> deleteUserById(Long userId) {
+        return delete("/" + userId)
+                .flatMap(response -> response.getBody() != null ? response.getBody().then() : Mono.empty());
+    }
+}
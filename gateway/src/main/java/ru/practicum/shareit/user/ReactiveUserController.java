@@ -0,0 +1,47 @@
+package ru.practicum.shareit.user;
+
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import ru.practicum.shareit.user.dto.UpdateUserDto;
+import ru.practicum.shareit.user.dto.UserDto;
+
+/**
+ * {@link UserController} для реактивного режима шлюза: те же адреса и проверки, но без блокировки потока.
+ */
+@Slf4j
+@RestController
+@Profile("reactive")
+@RequestMapping(path = "/users")
+@RequiredArgsConstructor
+public class ReactiveUserController {
+    private final ReactiveUserClient userClient;
+
+    @GetMapping("/{userId}")
+    public Mono<ResponseEntity<Flux<DataBuffer>>> getUserById(@PathVariable Long userId) {
+        return userClient.getUserById(userId);
+    }
+
+    @PostMapping
+    public Mono<ResponseEntity<Flux<DataBuffer>>> createUser(@Valid @RequestBody UserDto userDto) {
+        log.info("Получили запрос на создание пользователи name = {}", userDto.getName());
+        return userClient.createUser(userDto);
+    }
+
+    @PatchMapping("/{userId}")
+    public Mono<ResponseEntity<Flux<DataBuffer>>> updateUser(@Valid @RequestBody UpdateUserDto userDto,
+                                                             @PathVariable Long userId) {
+        return userClient.updateUser(userDto, userId);
+    }
+
+    @DeleteMapping("/{userId}")
+    public Mono<Void> deleteUserById(@PathVariable Long userId) {
+        return userClient.deleteUserById(userId);
+    }
+}
@@ -3,6 +3,7 @@ package ru.practicum.shareit.user;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.Profile;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import ru.practicum.shareit.user.dto.UpdateUserDto;
@@ -10,6 +11,7 @@ import ru.practicum.shareit.user.dto.UserDto;
 
 @Slf4j
 @RestController
+@Profile("!reactive")
 @RequestMapping(path = "/users")
 @RequiredArgsConstructor
 public class UserController {
@@ -0,0 +1,203 @@
+package ru.practicum.shareit;
+
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.http.server.HttpServer;
+import reactor.netty.resources.ConnectionProvider;
+import reactor.netty.resources.LoopResources;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.lang.management.ThreadMXBean;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Нагрузочное сравнение режимов шлюза. Сервер отвечает с задержкой {@value #DELAY_MILLIS} мс.
+ * <p>
+ * Первый замер: сколько одновременных медленных запросов выдерживает обычный режим на Tomcat с блокирующим
+ * клиентом и реактивный режим на Netty с неблокирующим клиентом при одном и том же пуле
+ * из {@value #WORKER_THREADS} рабочих потоков. Уровень нагрузки считается выдержанным, если все запросы успешны
+ * и 99-й перцентиль задержки не больше удвоенного ответа сервера.
+ * <p>
+ * Второй замер: пропускная способность и 99-й перцентиль обычного режима на потоках платформы и на виртуальных
+ * потоках при {@value #CLIENTS} одновременных клиентах.
+ * <p>
+ * Запуск: {@code mvn -pl gateway test -Pbenchmark -Dbenchmark.concurrency=50,100,200,400,800}.
+ */
+@Slf4j
+@Tag("benchmark")
+class GatewayModeLoadTest {
+    private static final int WORKER_THREADS = 50;
+    private static final long DELAY_MILLIS = 500;
+    private static final int CLIENTS = 2_000;
+
+    private final int[] concurrency = Arrays.stream(System.getProperty("benchmark.concurrency",
+                    "50,100,200,400,800").split(","))
+            .mapToInt(level -> Integer.parseInt(level.trim()))
+            .toArray();
+    private final ConnectionProvider connections = ConnectionProvider.builder("load")
+            .maxConnections(10_000)
+            .pendingAcquireMaxCount(-1)
+            .build();
+    /**
+     * Свои циклы событий у сервера и нагрузки: общие ресурсы Reactor Netty освобождает контекст шлюза
+     * при закрытии.
+     */
+    private final LoopResources loops = LoopResources.create("load");
+    private DisposableServer server;
+
+    @BeforeEach
+    void startSlowServer() {
+        server = HttpServer.create()
+                .host("localhost")
+                .port(0)
+                .runOn(loops)
+                .handle((request, response) -> response.header("Content-Type", "application/json")
+                        .sendString(Mono.just("{\"id\":1,\"name\":\"name\",\"email\":\"name@mail.ru\"}")
+                                .delayElement(Duration.ofMillis(DELAY_MILLIS))))
+                .bindNow();
+    }
+
+    @AfterEach
+    void stopSlowServer() {
+        server.disposeNow();
+        connections.dispose();
+        loops.dispose();
+    }
+
+    @Test
+    void benchmarkConcurrentSlowRequestsPerMode() {
+        int blocking = sustainedConcurrency("блокирующий");
+        int reactive = sustainedConcurrency("реактивный", "reactive");
+        log.info("при {} рабочих потоках и ответе сервера за {} мс выдержано одновременных запросов: "
+                + "блокирующий режим {}, реактивный режим {}", WORKER_THREADS, DELAY_MILLIS, blocking, reactive);
+        assertTrue(reactive >= blocking, "реактивный режим должен выдерживать не меньше запросов");
+    }
+
+    private int sustainedConcurrency(String mode, String... profiles) {
+        int sustained = 0;
+        try (ConfigurableApplicationContext gateway = startGateway(profiles,
+                "--server.tomcat.threads.max=" + WORKER_THREADS,
+                "--server.tomcat.accept-count=" + Arrays.stream(concurrency).max().orElse(0))) {
+            HttpClient http = client(gateway);
+            load(http, Arrays.stream(concurrency).max().orElse(0));
+            for (int level : concurrency) {
+                LoadResult result = load(http, level);
+                log.info("{} режим, {} одновременных запросов: ошибок {}, p50 {} мс, p99 {} мс, {} запросов/с, "
+                                + "потоков до {}, куча до {} МБ", mode, level, result.failed(), result.p50(),
+                        result.p99(), result.throughput(), result.peakThreads(), result.peakHeapMb());
+                if (result.failed() == 0 && result.p99() <= 2 * DELAY_MILLIS) {
+                    sustained = level;
+                }
+            }
+        }
+        return sustained;
+    }
+
+    @Test
+    void benchmarkVirtualThreadsAgainstPlatformThreads() {
+        LoadResult platform = loadAtClients("потоки платформы");
+        LoadResult virtual = loadAtClients("виртуальные потоки", "virtual-threads");
+        log.info("{} одновременных клиентов, ответ сервера за {} мс: потоки платформы {} запросов/с, p99 {} мс, "
+                        + "потоков до {}; виртуальные потоки {} запросов/с, p99 {} мс, потоков до {}", CLIENTS,
+                DELAY_MILLIS, platform.throughput(), platform.p99(), platform.peakThreads(), virtual.throughput(),
+                virtual.p99(), virtual.peakThreads());
+        assertTrue(virtual.throughput() >= platform.throughput(),
+                "на виртуальных потоках шлюз должен пропускать не меньше запросов");
+    }
+
+    private LoadResult loadAtClients(String mode, String... profiles) {
+        try (ConfigurableApplicationContext gateway = startGateway(profiles,
+                "--server.tomcat.accept-count=" + CLIENTS)) {
+            HttpClient http = client(gateway);
+            load(http, CLIENTS);
+            LoadResult result = load(http, CLIENTS);
+            log.info("{}, {} одновременных клиентов: ошибок {}, p50 {} мс, p99 {} мс, {} запросов/с, потоков до {}",
+                    mode, CLIENTS, result.failed(), result.p50(), result.p99(), result.throughput(),
+                    result.peakThreads());
+            return result;
+        }
+    }
+
+    private ConfigurableApplicationContext startGateway(String[] profiles, String... args) {
+        List<String> arguments = new ArrayList<>(List.of("--server.port=0",
+                "--shareit-server.url=http://localhost:" + server.port(),
+                "--shareit-server.http-client.max-connections=10000",
+                "--shareit-server.http-client.max-connections-per-route=10000",
+                "--shareit-server.http-client.connection-request-timeout=30s",
+                "--shareit-server.resilience.bulkhead.client-max-concurrent=10000",
+                "--shareit-server.resilience.bulkhead.route-max-concurrent=10000",
+                "--shareit-server.resilience.adaptive-limit.enabled=false",
+                "--spring.main.banner-mode=off"));
+        arguments.addAll(List.of(args));
+        return new SpringApplicationBuilder(ShareItGateway.class)
+                .profiles(profiles)
+                .run(arguments.toArray(String[]::new));
+    }
+
+    private HttpClient client(ConfigurableApplicationContext gateway) {
+        int port = ((WebServerApplicationContext) gateway).getWebServer().getPort();
+        return HttpClient.create(connections).runOn(loops).baseUrl("http://localhost:" + port);
+    }
+
+    private LoadResult load(HttpClient http, int level) {
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+        threads.resetPeakThreadCount();
+        AtomicLong peakHeap = new AtomicLong();
+        ScheduledExecutorService sampler = Executors.newSingleThreadScheduledExecutor();
+        sampler.scheduleAtFixedRate(() -> peakHeap.accumulateAndGet(memory.getHeapMemoryUsage().getUsed(), Math::max),
+                0, 20, TimeUnit.MILLISECONDS);
+
+        long startedAt = System.nanoTime();
+        List<Long> latencies = Flux.range(0, level)
+                .flatMap(i -> {
+                    long sentAt = System.nanoTime();
+                    return http.headers(headers -> headers.set("Accept", "application/json"))
+                            .get()
+                            .uri("/users/1")
+                            .responseSingle((response, body) -> body.asString()
+                                    .map(ignored -> response.status().code() == 200
+                                            ? TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - sentAt) : -1L))
+                            .timeout(Duration.ofSeconds(60))
+                            .onErrorReturn(-1L);
+                }, level)
+                .collectSortedList()
+                .block();
+        long elapsedMillis = Math.max(1, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startedAt));
+        sampler.shutdownNow();
+
+        List<Long> succeeded = latencies.stream().filter(latency -> latency >= 0).toList();
+        return new LoadResult(level - succeeded.size(), percentile(succeeded, 50), percentile(succeeded, 99),
+                succeeded.size() * 1000L / elapsedMillis, threads.getPeakThreadCount(), peakHeap.get() >> 20);
+    }
+
+    private static long percentile(List<Long> sorted, int percentile) {
+        if (sorted.isEmpty()) {
+            return Long.MAX_VALUE;
+        }
+        return sorted.get(Math.min(sorted.size() - 1, sorted.size() * percentile / 100));
+    }
+
+    private record LoadResult(int failed, long p50, long p99, long throughput, int peakThreads, long peakHeapMb) {
+    }
+}
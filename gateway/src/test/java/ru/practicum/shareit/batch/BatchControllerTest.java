@@ -0,0 +1,209 @@
+package ru.practicum.shareit.batch;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import ru.practicum.shareit.client.DeadlineInterceptor;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Пакетные запросы через настоящий шлюз: сервер-заглушка отвечает через {@value #DELAY_MILLIS} мс, а на путь
+ * {@value #SLOW_PATH} — через {@value #SLOW_MILLIS} мс, и возвращает путь и пользователя запроса. Срок пакета —
+ * {@value #TIMEOUT_MILLIS} мс, поиск вещей ограничен одним запросом.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "shareit-gateway.batch.timeout=" + BatchControllerTest.TIMEOUT_MILLIS + "ms",
+        "shareit-gateway.rate-limit.routes.item-search.capacity=1",
+        "shareit-gateway.rate-limit.routes.item-search.refill-per-second=0.01"})
+class BatchControllerTest {
+    static final long TIMEOUT_MILLIS = 1000;
+    private static final long DELAY_MILLIS = 300;
+    private static final long SLOW_MILLIS = 3000;
+    private static final String SLOW_PATH = "/users/99";
+    private static final ConcurrentLinkedQueue<String> RECEIVED = new ConcurrentLinkedQueue<>();
+    private static final ConcurrentLinkedQueue<Long> DEADLINES = new ConcurrentLinkedQueue<>();
+    private static final HttpServer SERVER = startServer();
+
+    @Autowired
+    private TestRestTemplate rest;
+
+    @DynamicPropertySource
+    static void serverUrl(DynamicPropertyRegistry registry) {
+        registry.add("shareit-server.url", () -> "http://localhost:" + SERVER.getAddress().getPort());
+    }
+
+    @AfterAll
+    static void stopServer() {
+        SERVER.stop(0);
+    }
+
+    @Test
+    void testDispatchSubRequestsConcurrently() {
+        batch(List.of(Map.of("method", "GET", "path", "/users/1")));
+        long startedAt = System.nanoTime();
+        ResponseEntity<JsonNode> response = batch(List.of(
+                Map.of("method", "GET", "path", "/users/1"),
+                Map.of("method", "GET", "path", "/items"),
+                Map.of("method", "GET", "path", "/bookings?state=CURRENT"),
+                Map.of("method", "GET", "path", "/requests")));
+        long elapsedMillis = (System.nanoTime() - startedAt) / 1_000_000;
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        JsonNode responses = response.getBody();
+        assertEquals(4, responses.size());
+        List<String> paths = List.of("/users/1", "/items", "/bookings?state=CURRENT&view=FULL", "/requests");
+        for (int i = 0; i < paths.size(); i++) {
+            assertEquals(200, responses.get(i).get("status").asInt());
+            assertEquals(paths.get(i), responses.get(i).get("body").get("path").asText());
+        }
+        assertEquals("7", responses.get(2).get("body").get("user").asText());
+        assertTrue(elapsedMillis < DELAY_MILLIS * 3, "пакет выполнялся " + elapsedMillis + " мс");
+        assertTrue(DEADLINES.stream().allMatch(deadline -> deadline <= TIMEOUT_MILLIS),
+                "сервер получил сроки " + DEADLINES);
+    }
+
+    @Test
+    void testValidateSubRequestsLikeSeparateRequests() {
+        RECEIVED.clear();
+        ResponseEntity<JsonNode> response = batch(List.of(
+                Map.of("method", "POST", "path", "/users", "body", Map.of("name", "", "email", "not-an-email")),
+                Map.of("method", "GET", "path", "/bookings?size=1000"),
+                Map.of("method", "GET", "path", "/users/1")));
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        JsonNode responses = response.getBody();
+        assertEquals(400, responses.get(0).get("status").asInt());
+        assertTrue(responses.get(0).get("body").get("error").asText().contains("Неверный формат email"));
+        assertEquals(400, responses.get(1).get("status").asInt());
+        assertEquals(200, responses.get(2).get("status").asInt());
+        assertEquals(List.of("/users/1"), List.copyOf(RECEIVED));
+    }
+
+    @Test
+    void testBoundWholeBatchWithOneDeadline() {
+        long startedAt = System.nanoTime();
+        ResponseEntity<JsonNode> response = batch(List.of(
+                Map.of("method", "GET", "path", SLOW_PATH),
+                Map.of("method", "GET", "path", "/users/2")));
+        long elapsedMillis = (System.nanoTime() - startedAt) / 1_000_000;
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        JsonNode responses = response.getBody();
+        assertEquals(504, responses.get(0).get("status").asInt());
+        assertTrue(responses.get(0).get("body").get("error").asText().contains("Истёк срок"));
+        assertEquals(200, responses.get(1).get("status").asInt());
+        assertEquals("/users/2", responses.get(1).get("body").get("path").asText());
+        assertTrue(elapsedMillis < SLOW_MILLIS, "пакет выполнялся " + elapsedMillis + " мс");
+    }
+
+    @Test
+    void testChargeRateLimitForEverySubRequest() {
+        ResponseEntity<JsonNode> response = batch(List.of(
+                Map.of("method", "GET", "path", "/items/search?text=a"),
+                Map.of("method", "GET", "path", "/items/search?text=b")));
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        JsonNode responses = response.getBody();
+        assertEquals(200, responses.get(0).get("status").asInt());
+        assertEquals("/items/search?text=a&from=0&size=20", responses.get(0).get("body").get("path").asText());
+        assertEquals(429, responses.get(1).get("status").asInt());
+        assertTrue(responses.get(1).get("headers").has("Retry-After"));
+    }
+
+    @Test
+    void testAnswerSubRequestsLikeSeparateRequests() {
+        List<Map<String, Object>> requests = List.of(
+                Map.of("method", "DELETE", "path", "/bookings/1"),
+                Map.of("method", "GET", "path", "/items"),
+                Map.of("method", "GET", "path", "/items/abc"),
+                Map.of("method", "GET", "path", "/items/suggest?prefix=%20"),
+                Map.of("method", "GET", "path", "/bookings?state=UNKNOWN"));
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_JSON);
+        ResponseEntity<JsonNode> response = rest.postForEntity("/batch", new HttpEntity<>(requests, headers),
+                JsonNode.class);
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        JsonNode responses = response.getBody();
+        for (int i = 0; i < requests.size(); i++) {
+            ResponseEntity<JsonNode> separate = rest.exchange(
+                    URI.create(rest.getRootUri() + requests.get(i).get("path")),
+                    HttpMethod.valueOf((String) requests.get(i).get("method")), null, JsonNode.class);
+            assertEquals(separate.getStatusCode().value(), responses.get(i).get("status").asInt(),
+                    requests.get(i).toString());
+            assertEquals(separate.getBody(), responses.get(i).get("body"), requests.get(i).toString());
+        }
+    }
+
+    @Test
+    void testRejectBatchOutsideApi() {
+        assertEquals(HttpStatus.BAD_REQUEST,
+                batch(List.of(Map.of("method", "GET", "path", "/actuator/health"))).getStatusCode());
+        assertEquals(HttpStatus.BAD_REQUEST,
+                batch(List.of(Map.of("method", "GET", "path", "/users/../actuator"))).getStatusCode());
+        assertEquals(HttpStatus.BAD_REQUEST, batch(List.of()).getStatusCode());
+        assertFalse(RECEIVED.contains("/actuator/health"));
+    }
+
+    private ResponseEntity<JsonNode> batch(List<Map<String, Object>> requests) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_JSON);
+        headers.set("X-Sharer-User-Id", "7");
+        return rest.postForEntity("/batch", new HttpEntity<>(requests, headers), JsonNode.class);
+    }
+
+    private static HttpServer startServer() {
+        try {
+            HttpServer server = HttpServer.create(new InetSocketAddress("localhost", 0), 100);
+            server.setExecutor(Executors.newVirtualThreadPerTaskExecutor());
+            server.createContext("/", exchange -> {
+                String path = exchange.getRequestURI().toString();
+                RECEIVED.add(path);
+                DEADLINES.add(Long.parseLong(exchange.getRequestHeaders().getFirst(DeadlineInterceptor.HEADER)));
+                try {
+                    Thread.sleep(path.equals(SLOW_PATH) ? SLOW_MILLIS : DELAY_MILLIS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                byte[] body = ("{\"path\":\"" + path + "\",\"user\":\""
+                        + exchange.getRequestHeaders().getFirst("X-Sharer-User-Id") + "\"}")
+                        .getBytes(StandardCharsets.UTF_8);
+                exchange.getResponseHeaders().add("Content-Type", "application/json");
+                exchange.sendResponseHeaders(HttpStatus.OK.value(), body.length);
+                try (OutputStream out = exchange.getResponseBody()) {
+                    out.write(body);
+                }
+            });
+            server.start();
+            return server;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
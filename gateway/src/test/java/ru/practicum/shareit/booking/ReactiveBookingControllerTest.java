@@ -0,0 +1,97 @@
+package ru.practicum.shareit.booking;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.reactive.WebFluxTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import reactor.core.publisher.Mono;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.enums.BookingView;
+
+import java.time.LocalDateTime;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ActiveProfiles("reactive")
+@WebFluxTest(controllers = ReactiveBookingController.class)
+class ReactiveBookingControllerTest {
+    @Autowired
+    private WebTestClient client;
+    @MockBean
+    private ReactiveBookingClient bookingClient;
+
+    @Test
+    void testReturnBadRequestIfTryAddBookingWithoutStart() {
+        BookingDto bookingDto = BookingDto.builder()
+                .itemId(1L)
+                .start(null)
+                .end(LocalDateTime.now().plusDays(2))
+                .build();
+
+        client.post().uri("/bookings")
+                .header("X-Sharer-User-Id", "1")
+                .contentType(MediaType.APPLICATION_JSON)
+                .accept(MediaType.APPLICATION_JSON)
+                .bodyValue(bookingDto)
+                .exchange()
+                .expectStatus().isBadRequest();
+
+        verify(bookingClient, never()).addBookingRequest(any(), anyLong());
+    }
+
+    @Test
+    void testReturnBadRequestIfBookingsPageSizeIsTooLarge() {
+        client.get().uri("/bookings/owner?size=1000")
+                .header("X-Sharer-User-Id", "1")
+                .accept(MediaType.APPLICATION_JSON)
+                .exchange()
+                .expectStatus().isBadRequest();
+
+        verify(bookingClient, never()).getBookingsOfAllItemsOfOwner(anyLong(), any(), any(), anyInt(), any());
+    }
+
+    @Test
+    void testPassCompactViewToServer() {
+        when(bookingClient.getBookings(anyLong(), any(), any(), any(), any()))
+                .thenReturn(Mono.just(ResponseEntity.ok().build()));
+
+        client.get().uri("/bookings?view=compact")
+                .header("X-Sharer-User-Id", "1")
+                .accept(MediaType.APPLICATION_JSON)
+                .exchange()
+                .expectStatus().isOk();
+
+        verify(bookingClient).getBookings(anyLong(), any(), isNull(), isNull(), eq(BookingView.COMPACT));
+    }
+
+    @Test
+    void testReturnBadRequestIfBookingsViewIsUnknown() {
+        client.get().uri("/bookings?view=brief")
+                .header("X-Sharer-User-Id", "1")
+                .accept(MediaType.APPLICATION_JSON)
+                .exchange()
+                .expectStatus().isBadRequest()
+                .expectBody().jsonPath("$.error").isEqualTo("Некорректное значение параметра view");
+
+        verify(bookingClient, never()).getBookings(anyLong(), any(), any(), anyInt(), any());
+    }
+
+    @Test
+    void testReturnServerErrorWithoutUserHeaderAsBlockingGateway() {
+        client.get().uri("/bookings")
+                .accept(MediaType.APPLICATION_JSON)
+                .exchange()
+                .expectStatus().is5xxServerError();
+    }
+}
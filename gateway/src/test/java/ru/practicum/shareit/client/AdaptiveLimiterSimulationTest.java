@@ -0,0 +1,279 @@
+package ru.practicum.shareit.client;
+
+import com.github.benmanes.caffeine.cache.Ticker;
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.hc.client5.http.impl.classic.HttpClients;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManagerBuilder;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.lang.Nullable;
+import org.springframework.web.client.RestTemplate;
+import org.springframework.web.util.DefaultUriBuilderFactory;
+import ru.practicum.shareit.exceptions.ServerUnavailableException;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Имитация деградации сервера: он обрабатывает не больше {@value #SERVER_WORKERS} запросов одновременно,
+ * остальные ждут в очереди, а время обработки за {@value #SECONDS} с растёт с {@value #START_MILLIS} до
+ * {@value #END_MILLIS} мс. {@value #CLIENTS} клиентов с паузой {@value #THINK_MILLIS} мс шлют через шлюз списки
+ * бронирований и каждый десятый раз — новое бронирование, так что к концу сервер перегружен в несколько раз.
+ * Без предела очередь сервера и время ответа растут вместе со временем обработки, а подстраиваемый предел
+ * держит очередь короткой, отклоняя лишние запросы, в первую очередь чтения.
+ * <p>
+ * Вторая имитация смешивает быстрый маршрут ({@value #FAST_MILLIS} мс) и медленный ({@value #SLOW_MILLIS} мс),
+ * на который приходится большая часть вызовов, на сервере без очереди. Предел не должен принимать медленный
+ * маршрут за перегрузку: он растёт, пока не перестанет мешать клиентам, и вызовы не отклоняются.
+ * Запуск: {@code mvn -pl gateway test -Pbenchmark -Dtest=AdaptiveLimiterSimulationTest}.
+ */
+@Slf4j
+@Tag("benchmark")
+class AdaptiveLimiterSimulationTest {
+    private static final int SERVER_WORKERS = 2;
+    private static final int SECONDS = 8;
+    private static final int START_MILLIS = 5;
+    private static final int END_MILLIS = 25;
+    private static final int CLIENTS = 32;
+    private static final int WARMUP_SECONDS = 2;
+    private static final int WRITE_EVERY = 10;
+    private static final long THINK_MILLIS = 100;
+    private static final int FAST_MILLIS = 10;
+    private static final int SLOW_MILLIS = 100;
+    private static final int MIXED_SECONDS = 4;
+
+    private final Semaphore workers = new Semaphore(SERVER_WORKERS, true);
+    private HttpServer server;
+    private volatile long startedAt;
+
+    @BeforeEach
+    void startServer() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 1000);
+        server.setExecutor(Executors.newVirtualThreadPerTaskExecutor());
+        server.createContext("/mixed", exchange -> {
+            try {
+                Thread.sleep(exchange.getRequestURI().getPath().endsWith("/owner") ? SLOW_MILLIS : FAST_MILLIS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            exchange.sendResponseHeaders(HttpStatus.OK.value(), -1);
+            exchange.close();
+        });
+        server.createContext("/", exchange -> {
+            exchange.getRequestBody().readAllBytes();
+            workers.acquireUninterruptibly();
+            try {
+                Thread.sleep(serviceMillis());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } finally {
+                workers.release();
+            }
+            byte[] body = "{\"id\":1}".getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().add("Content-Type", "application/json");
+            exchange.sendResponseHeaders(HttpStatus.OK.value(), body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        });
+        server.start();
+    }
+
+    @AfterEach
+    void stopServer() {
+        server.stop(0);
+    }
+
+    @Test
+    void simulateDegradingServer() throws Exception {
+        run(null, WARMUP_SECONDS);
+        Result unlimited = run(null, SECONDS);
+        Result limited = run(new AdaptiveLimiter(20, 2, 200, 0.8, Duration.ofSeconds(1), Ticker.systemTicker(),
+                new SimpleMeterRegistry()), SECONDS);
+
+        for (int second = 0; second < SECONDS; second++) {
+            log.info("{} с, обработка {} мс: без предела p99 {} мс; с пределом p99 {} мс, отклонено чтений {} из {}, "
+                            + "записей {} из {}", second, START_MILLIS + (END_MILLIS - START_MILLIS) * second / SECONDS,
+                    unlimited.p99(second), limited.p99(second), limited.shedReads()[second], limited.reads()[second],
+                    limited.shedWrites()[second], limited.writes()[second]);
+        }
+        long lastUnlimited = unlimited.p99(SECONDS - 1);
+        long lastLimited = limited.p99(SECONDS - 1);
+        assertTrue(lastLimited * 2 < lastUnlimited, "p99 с пределом " + lastLimited + " мс, без него "
+                + lastUnlimited + " мс");
+        double unlimitedGrowth = (double) lastUnlimited / unlimited.p99(SECONDS / 2);
+        double limitedGrowth = (double) lastLimited / limited.p99(SECONDS / 2);
+        assertTrue(limitedGrowth < unlimitedGrowth, "во второй половине p99 с пределом вырос в " + limitedGrowth
+                + " раза, без него в " + unlimitedGrowth);
+        assertTrue(limited.shedRate(limited.shedWrites(), limited.writes())
+                < limited.shedRate(limited.shedReads(), limited.reads()), "записи отклоняются реже чтений");
+    }
+
+    @Test
+    void simulateFastAndSlowRoutes() throws Exception {
+        AdaptiveLimiter limiter = new AdaptiveLimiter(20, 2, 200, 0.8, Duration.ofSeconds(1), Ticker.systemTicker(),
+                new SimpleMeterRegistry());
+        BaseClient client = client(limiter, "/mixed");
+        runMixed(client, WARMUP_SECONDS);
+        int[] shedAndSent = runMixed(client, MIXED_SECONDS);
+
+        log.info("быстрый и медленный маршруты: отклонено {} вызовов из {}, предел {}", shedAndSent[0],
+                shedAndSent[1], limiter.limit());
+        assertTrue(shedAndSent[0] * 100 < shedAndSent[1], "отклонено " + shedAndSent[0] + " вызовов из "
+                + shedAndSent[1]);
+        assertTrue(limiter.limit() * 0.8 > CLIENTS, "предел " + limiter.limit());
+    }
+
+    /**
+     * Клиенты вызывают быстрый маршрут каждый {@value #WRITE_EVERY}-й раз, а остальные разы — медленный.
+     *
+     * @return сколько вызовов отклонено и сколько отправлено
+     */
+    private int[] runMixed(BaseClient client, int seconds) throws Exception {
+        AtomicInteger sent = new AtomicInteger();
+        AtomicInteger shed = new AtomicInteger();
+        long endAt = System.nanoTime() + TimeUnit.SECONDS.toNanos(seconds);
+        try (ExecutorService clients = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < CLIENTS; i++) {
+                clients.submit(() -> {
+                    int calls = ThreadLocalRandom.current().nextInt(WRITE_EVERY);
+                    while (System.nanoTime() < endAt) {
+                        sent.incrementAndGet();
+                        try {
+                            ResponseEntity<Object> response = client.get(
+                                    ++calls % WRITE_EVERY == 0 ? "/1" : "/owner", 1L, null);
+                            if (response.getBody() instanceof ServerResponseBody body) {
+                                body.close();
+                            }
+                        } catch (ServerUnavailableException e) {
+                            shed.incrementAndGet();
+                        }
+                        Thread.sleep(THINK_MILLIS / 5);
+                    }
+                    return null;
+                });
+            }
+        }
+        return new int[]{shed.get(), sent.get()};
+    }
+
+    private Result run(@Nullable AdaptiveLimiter limiter, int seconds) throws Exception {
+        BaseClient client = client(limiter, "/bookings");
+
+        Result result = new Result();
+        startedAt = System.nanoTime();
+        long endAt = startedAt + TimeUnit.SECONDS.toNanos(seconds);
+        try (ExecutorService clients = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < CLIENTS; i++) {
+                clients.submit(() -> {
+                    int calls = ThreadLocalRandom.current().nextInt(WRITE_EVERY);
+                    while (System.nanoTime() < endAt) {
+                        call(client, ++calls % WRITE_EVERY == 0, result);
+                    }
+                    return null;
+                });
+            }
+        }
+        return result;
+    }
+
+    private BaseClient client(@Nullable AdaptiveLimiter limiter, String path) {
+        ServerCallGuard guard = limiter == null ? null : new ServerCallGuard("http://localhost",
+                new ServerCallGuard.Bulkheads(CLIENTS, CLIENTS, Map.of()),
+                new ServerCallGuard.Breakers(100, 100, 100, Duration.ofSeconds(1), 1), limiter, Ticker.systemTicker(),
+                new SimpleMeterRegistry());
+        RestTemplate rest = new RestTemplate(new HttpComponentsClientHttpRequestFactory(HttpClients.custom()
+                .setConnectionManager(PoolingHttpClientConnectionManagerBuilder.create()
+                        .setMaxConnTotal(CLIENTS)
+                        .setMaxConnPerRoute(CLIENTS)
+                        .build())
+                .build()));
+        rest.setUriTemplateHandler(new DefaultUriBuilderFactory("http://localhost:" + server.getAddress().getPort()
+                + path));
+        return new BaseClient(rest, null, null, guard);
+    }
+
+    private void call(BaseClient client, boolean write, Result result) throws IOException, InterruptedException {
+        long sentAt = System.nanoTime();
+        int second = (int) Math.min(SECONDS - 1, TimeUnit.NANOSECONDS.toSeconds(sentAt - startedAt));
+        (write ? result.writes() : result.reads())[second].incrementAndGet();
+        try {
+            ResponseEntity<Object> response = write
+                    ? client.post("", 1L, Map.of("itemId", 1))
+                    : client.get("/owner?state={state}", 1L, Map.of("state", "ALL"));
+            ((ServerResponseBody) response.getBody()).readAllBytes();
+            result.latencies().get(second).add(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - sentAt));
+        } catch (ServerUnavailableException e) {
+            (write ? result.shedWrites() : result.shedReads())[second].incrementAndGet();
+        }
+        Thread.sleep(THINK_MILLIS);
+    }
+
+    private long serviceMillis() {
+        long elapsed = Math.min(TimeUnit.SECONDS.toNanos(SECONDS), System.nanoTime() - startedAt);
+        return START_MILLIS + (END_MILLIS - START_MILLIS) * elapsed / TimeUnit.SECONDS.toNanos(SECONDS);
+    }
+
+    /**
+     * Время ответа выполненных запросов и число запросов по секундам имитации.
+     */
+    private record Result(List<ConcurrentLinkedQueue<Long>> latencies, AtomicInteger[] reads,
+                          AtomicInteger[] writes, AtomicInteger[] shedReads, AtomicInteger[] shedWrites) {
+        Result() {
+            this(new ArrayList<>(), counters(), counters(), counters(), counters());
+            for (int i = 0; i < SECONDS; i++) {
+                latencies.add(new ConcurrentLinkedQueue<>());
+            }
+        }
+
+        long p99(int second) {
+            List<Long> sorted = new ArrayList<>(latencies.get(second));
+            if (sorted.isEmpty()) {
+                return Long.MAX_VALUE;
+            }
+            Collections.sort(sorted);
+            return sorted.get(Math.min(sorted.size() - 1, sorted.size() * 99 / 100));
+        }
+
+        double shedRate(AtomicInteger[] shed, AtomicInteger[] sent) {
+            int shedTotal = 0;
+            int sentTotal = 0;
+            for (int i = 0; i < SECONDS; i++) {
+                shedTotal += shed[i].get();
+                sentTotal += sent[i].get();
+            }
+            return sentTotal == 0 ? 0 : (double) shedTotal / sentTotal;
+        }
+
+        private static AtomicInteger[] counters() {
+            AtomicInteger[] counters = new AtomicInteger[SECONDS];
+            for (int i = 0; i < SECONDS; i++) {
+                counters[i] = new AtomicInteger();
+            }
+            return counters;
+        }
+    }
+}
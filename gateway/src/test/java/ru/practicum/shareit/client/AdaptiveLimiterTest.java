@@ -0,0 +1,114 @@
+package ru.practicum.shareit.client;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AdaptiveLimiterTest {
+    private static final long NO_LOAD = TimeUnit.MILLISECONDS.toNanos(10);
+    private static final String ROUTE = "GET /bookings/owner";
+
+    private final AtomicLong now = new AtomicLong();
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final AdaptiveLimiter limiter = new AdaptiveLimiter(20, 4, 100, 0.8, Duration.ofSeconds(30), now::get,
+            meterRegistry);
+
+    @Test
+    void testRaiseLimitWhileServerAnswersWithoutQueueing() {
+        saturate(NO_LOAD);
+        saturate(NO_LOAD);
+
+        assertTrue(limiter.limit() > 20, "предел " + limiter.limit());
+        assertEquals(limiter.limit(), meterRegistry.get("gateway.adaptive.limit").gauge().value());
+    }
+
+    @Test
+    void testLowerLimitUntilQueueIsShort() {
+        limiter.sample(ROUTE, NO_LOAD, false);
+
+        for (int i = 0; i < 50; i++) {
+            saturate(4 * NO_LOAD);
+        }
+
+        assertEquals(6, limiter.limit(), "оценка очереди 6 * (1 - 1 / 4) между 3 * lg 6 и 6 * lg 6 вызовами");
+        assertEquals(0, limiter.inFlight());
+    }
+
+    @Test
+    void testKeepLimitWhileMostOfItIsUnused() {
+        limiter.sample(ROUTE, NO_LOAD, false);
+        limiter.tryAcquire(true);
+
+        limiter.sample(ROUTE, 4 * NO_LOAD, false);
+
+        assertEquals(20, limiter.limit());
+    }
+
+    @Test
+    void testLowerLimitWhenServerDoesNotAnswer() {
+        limiter.sample(ROUTE, NO_LOAD, true);
+
+        assertEquals(18, limiter.limit());
+    }
+
+    @Test
+    void testShedReadsBeforeWrites() {
+        for (int i = 0; i < 16; i++) {
+            assertTrue(limiter.tryAcquire(false));
+        }
+
+        assertFalse(limiter.tryAcquire(false));
+        for (int i = 0; i < 4; i++) {
+            assertTrue(limiter.tryAcquire(true));
+        }
+        assertFalse(limiter.tryAcquire(true));
+    }
+
+    @Test
+    void testForgetNoLoadTimeAfterTwoWindows() {
+        limiter.sample(ROUTE, NO_LOAD, false);
+        now.addAndGet(TimeUnit.SECONDS.toNanos(30));
+        limiter.sample(ROUTE, 4 * NO_LOAD, false);
+        now.addAndGet(TimeUnit.SECONDS.toNanos(30));
+
+        saturate(4 * NO_LOAD);
+
+        assertTrue(limiter.limit() > 20, "сервер стал медленнее без очереди, предел " + limiter.limit());
+    }
+
+    @Test
+    void testCompareResponseTimeWithSameRouteOnly() {
+        limiter.sample("GET /users/{id}", NO_LOAD, false);
+
+        for (int i = 0; i < 10; i++) {
+            saturate(ROUTE, 20 * NO_LOAD);
+        }
+
+        assertTrue(limiter.limit() > 20, "медленный маршрут без очереди не снижает предел, предел " + limiter.limit());
+    }
+
+    private void saturate(long rttNanos) {
+        saturate(ROUTE, rttNanos);
+    }
+
+    private void saturate(String route, long rttNanos) {
+        int calls = 0;
+        while (limiter.tryAcquire(true)) {
+            calls++;
+        }
+        for (int i = 0; i < calls; i++) {
+            limiter.sample(route, rttNanos, false);
+        }
+        for (int i = 0; i < calls; i++) {
+            limiter.release();
+        }
+    }
+}
@@ -0,0 +1,214 @@
+package ru.practicum.shareit.client;
+
+import com.github.benmanes.caffeine.cache.Ticker;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.web.client.ExpectedCount;
+import org.springframework.test.web.client.MockRestServiceServer;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.client.RestTemplate;
+import org.springframework.web.util.DefaultUriBuilderFactory;
+import ru.practicum.shareit.exceptions.ServerUnavailableException;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Map;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.content;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.header;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.method;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.requestTo;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withStatus;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withSuccess;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+
+class BaseClientTest {
+    private static final String ROWS = "{\"id\":1}\n{\"id\":2}\n";
+
+    private RestTemplate rest;
+    private MockRestServiceServer server;
+    private BaseClient client;
+
+    @BeforeEach
+    void init() {
+        rest = new RestTemplate();
+        rest.setUriTemplateHandler(new DefaultUriBuilderFactory("http://server/bookings"));
+        server = MockRestServiceServer.bindTo(rest).build();
+        client = new BaseClient(rest);
+    }
+
+    @Test
+    void testPassServerResponseThroughWithoutParsing() throws IOException {
+        String page = "[{\"id\":1, \"start\":\"2024-12-09T15:00:15\"}]";
+        server.expect(requestTo("http://server/bookings?state=ALL"))
+                .andExpect(method(HttpMethod.GET))
+                .andExpect(header("Accept", MediaType.APPLICATION_JSON_VALUE))
+                .andExpect(header("X-Sharer-User-Id", "1"))
+                .andRespond(withSuccess(page, MediaType.APPLICATION_JSON)
+                        .header("X-Next-Cursor", "next")
+                        .header("Connection", "keep-alive"));
+
+        ResponseEntity<Object> response = client.get("?state={state}", 1L, Map.of("state", "ALL"));
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(MediaType.APPLICATION_JSON, response.getHeaders().getContentType());
+        assertEquals("next", response.getHeaders().getFirst("X-Next-Cursor"));
+        assertFalse(response.getHeaders().containsKey("Connection"));
+        assertEquals(page, bodyOf(response));
+        server.verify();
+    }
+
+    @Test
+    void testIgnoreRangeOfPassedThroughResponse() throws Exception {
+        String page = "[{\"id\":1}]";
+        server.expect(requestTo("http://server/bookings"))
+                .andRespond(withSuccess(page, MediaType.APPLICATION_JSON));
+        MockMvc gateway = MockMvcBuilders.standaloneSetup(new GatewayController(() -> client.get("")))
+                .setMessageConverters(new ServerResponseBody.Converter())
+                .build();
+
+        MockHttpServletResponse response = gateway.perform(get("/bookings").header(HttpHeaders.RANGE, "bytes=0-1"))
+                .andReturn().getResponse();
+
+        assertEquals(HttpStatus.OK.value(), response.getStatus());
+        assertEquals(page, response.getContentAsString());
+        assertNull(response.getHeader(HttpHeaders.ACCEPT_RANGES));
+        assertNull(response.getHeader(HttpHeaders.CONTENT_RANGE));
+    }
+
+    @Test
+    void testReleaseCallWhenGatewayAnswersNotModified() throws Exception {
+        ServerCallGuard guard = new ServerCallGuard("http://server", new ServerCallGuard.Bulkheads(10, 1, Map.of()),
+                new ServerCallGuard.Breakers(10, 3, 50, Duration.ofMinutes(1), 1), null, Ticker.systemTicker(),
+                new SimpleMeterRegistry());
+        BaseClient guardedClient = new BaseClient(rest, null, null, guard);
+        server.expect(ExpectedCount.twice(), requestTo("http://server/bookings"))
+                .andRespond(withSuccess("[]", MediaType.APPLICATION_JSON).header(HttpHeaders.ETAG, "\"1\""));
+        MockMvc gateway = MockMvcBuilders.standaloneSetup(new GatewayController(() -> guardedClient.get("")))
+                .setMessageConverters(new ServerResponseBody.Converter())
+                .build();
+
+        for (int i = 0; i < 2; i++) {
+            MockHttpServletResponse response = gateway.perform(get("/bookings")
+                            .header(HttpHeaders.IF_NONE_MATCH, "\"1\""))
+                    .andReturn().getResponse();
+            assertEquals(HttpStatus.NOT_MODIFIED.value(), response.getStatus());
+        }
+
+        ServerCallGuard.RouteState route = guard.routes().get("GET /bookings");
+        assertEquals(route.maxConcurrentCalls(), route.availableCalls());
+        server.verify();
+    }
+
+    @Test
+    void testPassErrorOfServerThrough() throws IOException {
+        String error = "{\"error\":\"User not found\"}";
+        server.expect(requestTo("http://server/bookings/1"))
+                .andRespond(withStatus(HttpStatus.NOT_FOUND).contentType(MediaType.APPLICATION_JSON).body(error));
+
+        ResponseEntity<Object> response = client.get("/1", 1L);
+
+        assertEquals(HttpStatus.NOT_FOUND, response.getStatusCode());
+        assertEquals(error, bodyOf(response));
+    }
+
+    @Test
+    void testSendBodyAsJson() {
+        server.expect(requestTo("http://server/bookings"))
+                .andExpect(method(HttpMethod.POST))
+                .andExpect(content().json("{\"itemId\":1}"))
+                .andRespond(withStatus(HttpStatus.OK));
+
+        ResponseEntity<Object> response = client.post("", 1L, Map.of("itemId", 1));
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        server.verify();
+    }
+
+    @Test
+    void testStreamRequestsNdjson() throws IOException {
+        server.expect(requestTo("http://server/bookings?state=ALL"))
+                .andExpect(header("Accept", MediaType.APPLICATION_NDJSON_VALUE))
+                .andRespond(withSuccess(ROWS, MediaType.APPLICATION_NDJSON));
+
+        ResponseEntity<Object> response = client.stream("?state={state}", 1L, Map.of("state", "ALL"));
+
+        assertEquals(MediaType.APPLICATION_NDJSON, response.getHeaders().getContentType());
+        assertEquals(ROWS, bodyOf(response));
+    }
+
+    @Test
+    void testRevalidateCachedResponseWithEtag() {
+        String item = "{\"id\":1}";
+        ResponseCache cache = new ResponseCache("http://server", 10, Duration.ZERO, Duration.ZERO,
+                Duration.ofMinutes(1), Ticker.systemTicker(), Runnable::run, new SimpleMeterRegistry());
+        BaseClient cachingClient = new BaseClient(rest, cache);
+        server.expect(requestTo("http://server/bookings/1"))
+                .andRespond(withSuccess(item, MediaType.APPLICATION_JSON).header("ETag", "\"1\""));
+        server.expect(requestTo("http://server/bookings/1"))
+                .andExpect(header("If-None-Match", "\"1\""))
+                .andRespond(withStatus(HttpStatus.NOT_MODIFIED));
+
+        cachingClient.cachedGet("booking", "/1", 1L, null);
+        ResponseEntity<Object> response = cachingClient.cachedGet("booking", "/1", 1L, null);
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals("\"1\"", response.getHeaders().getETag());
+        assertEquals(item, new String((byte[]) response.getBody(), StandardCharsets.UTF_8));
+        server.verify();
+    }
+
+    @Test
+    void testHoldCallUntilBodyIsReadAndStopCallingFailingRoute() throws IOException {
+        ServerCallGuard guard = new ServerCallGuard("http://server", new ServerCallGuard.Bulkheads(10, 1, Map.of()),
+                new ServerCallGuard.Breakers(10, 3, 50, Duration.ofMinutes(1), 1), null, Ticker.systemTicker(),
+                new SimpleMeterRegistry());
+        BaseClient guardedClient = new BaseClient(rest, null, null, guard);
+        server.expect(requestTo("http://server/bookings/1"))
+                .andRespond(withSuccess(ROWS, MediaType.APPLICATION_JSON));
+        server.expect(requestTo("http://server/bookings/2"))
+                .andRespond(withStatus(HttpStatus.SERVICE_UNAVAILABLE));
+        server.expect(requestTo("http://server/bookings/3"))
+                .andRespond(withStatus(HttpStatus.SERVICE_UNAVAILABLE));
+
+        ResponseEntity<Object> streaming = guardedClient.get("/1", 1L);
+        assertThrows(ServerUnavailableException.class, () -> guardedClient.get("/4", 1L));
+        bodyOf(streaming);
+        bodyOf(guardedClient.get("/2", 1L));
+        bodyOf(guardedClient.get("/3", 1L));
+
+        assertThrows(ServerUnavailableException.class, () -> guardedClient.get("/5", 1L));
+        assertEquals("OPEN", guard.routes().get("GET /bookings/{id}").state());
+        server.verify();
+    }
+
+    private String bodyOf(ResponseEntity<Object> response) throws IOException {
+        ServerResponseBody body = assertInstanceOf(ServerResponseBody.class, response.getBody());
+        return new String(body.readAllBytes(), StandardCharsets.UTF_8);
+    }
+
+    @RestController
+    private record GatewayController(Supplier<ResponseEntity<Object>> client) {
+        @GetMapping("/bookings")
+        ResponseEntity<Object> getBookings() {
+            return client.get();
+        }
+    }
+}
@@ -0,0 +1,88 @@
+package ru.practicum.shareit.client;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class CircuitBreakerTest {
+    private final AtomicLong now = new AtomicLong();
+    private final CircuitBreaker breaker = new CircuitBreaker(10, 4, 50, Duration.ofSeconds(10), 2, now::get);
+
+    @Test
+    void testOpenWhenFailureRateReachesThreshold() {
+        call(false);
+        call(true);
+        call(false);
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.state(), "вызовов меньше минимума");
+
+        call(true);
+
+        assertEquals(CircuitBreaker.State.OPEN, breaker.tryPass());
+        assertEquals(TimeUnit.SECONDS.toNanos(10), breaker.retryAfterNanos());
+    }
+
+    @Test
+    void testForgetCallsOutsideWindow() {
+        CircuitBreaker closed = new CircuitBreaker(4, 4, 50, Duration.ofSeconds(10), 2, now::get);
+        for (boolean failure : new boolean[]{true, false, false, false, false, true}) {
+            closed.record(closed.tryPass(), failure);
+        }
+
+        assertEquals(CircuitBreaker.State.CLOSED, closed.state(), "первая ошибка вытеснена из окна");
+        assertEquals(25, closed.failureRate());
+    }
+
+    @Test
+    void testCloseAfterSuccessfulProbes() {
+        openBreaker();
+        now.addAndGet(TimeUnit.SECONDS.toNanos(10));
+
+        CircuitBreaker.State first = breaker.tryPass();
+        CircuitBreaker.State second = breaker.tryPass();
+        assertEquals(CircuitBreaker.State.OPEN, breaker.tryPass(), "пробных вызовов не больше двух");
+        breaker.record(first, false);
+        breaker.record(second, false);
+
+        assertEquals(CircuitBreaker.State.HALF_OPEN, first);
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.state());
+        assertEquals(0, breaker.failureRate());
+    }
+
+    @Test
+    void testReopenAfterFailedProbe() {
+        openBreaker();
+        now.addAndGet(TimeUnit.SECONDS.toNanos(10));
+
+        breaker.record(breaker.tryPass(), true);
+
+        assertEquals(CircuitBreaker.State.OPEN, breaker.tryPass());
+        assertEquals(TimeUnit.SECONDS.toNanos(10), breaker.retryAfterNanos());
+    }
+
+    @Test
+    void testIgnoreOutcomeOfCallStartedBeforeOpening() {
+        CircuitBreaker.State slow = breaker.tryPass();
+        openBreaker();
+        now.addAndGet(TimeUnit.SECONDS.toNanos(10));
+        breaker.tryPass();
+        breaker.tryPass();
+
+        breaker.record(slow, true);
+
+        assertEquals(CircuitBreaker.State.HALF_OPEN, breaker.state());
+    }
+
+    private void openBreaker() {
+        for (int i = 0; i < 4; i++) {
+            call(true);
+        }
+    }
+
+    private void call(boolean failure) {
+        breaker.record(breaker.tryPass(), failure);
+    }
+}
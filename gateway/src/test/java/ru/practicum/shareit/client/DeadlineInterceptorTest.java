@@ -0,0 +1,132 @@
+package ru.practicum.shareit.client;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.web.client.MockRestServiceServer;
+import org.springframework.web.client.RestTemplate;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import org.springframework.web.util.DefaultUriBuilderFactory;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.header;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.headerDoesNotExist;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.requestTo;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withStatus;
+
+class DeadlineInterceptorTest {
+    private final AtomicLong now = new AtomicLong();
+    private MockRestServiceServer server;
+    private BaseClient client;
+
+    @BeforeEach
+    void init() {
+        RestTemplate rest = new RestTemplate();
+        rest.setUriTemplateHandler(new DefaultUriBuilderFactory("http://server/bookings"));
+        rest.getInterceptors().add(new DeadlineInterceptor(Duration.ofSeconds(30), now::get));
+        server = MockRestServiceServer.bindTo(rest).build();
+        client = new BaseClient(rest);
+    }
+
+    @AfterEach
+    void resetRequest() {
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    @Test
+    void testSendRemainingBudgetOfGatewayRequest() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        new DeadlineInterceptor.ArrivalFilter(now::get).doFilter(request, new MockHttpServletResponse(),
+                new MockFilterChain());
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request));
+        now.addAndGet(TimeUnit.SECONDS.toNanos(12));
+        server.expect(requestTo("http://server/bookings/1"))
+                .andExpect(header(DeadlineInterceptor.HEADER, "18000"))
+                .andRespond(withStatus(HttpStatus.OK));
+
+        assertEquals(HttpStatus.OK, client.get("/1", 1L).getStatusCode());
+        server.verify();
+    }
+
+    @Test
+    void testSendWholeBudgetOutsideGatewayRequest() {
+        server.expect(requestTo("http://server/bookings/1"))
+                .andExpect(header(DeadlineInterceptor.HEADER, "30000"))
+                .andRespond(withStatus(HttpStatus.OK));
+
+        assertEquals(HttpStatus.OK, client.get("/1", 1L).getStatusCode());
+        server.verify();
+    }
+
+    @Test
+    void testSendNoDeadlineForStreams() {
+        server.expect(requestTo("http://server/bookings?state=ALL"))
+                .andExpect(headerDoesNotExist(DeadlineInterceptor.HEADER))
+                .andRespond(withStatus(HttpStatus.OK));
+
+        assertEquals(HttpStatus.OK, client.stream("?state={state}", 1L, Map.of("state", "ALL")).getStatusCode());
+        server.verify();
+    }
+
+    @Test
+    void testSendPartDeadlineFromPoolThread() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.setAttribute(DeadlineInterceptor.ARRIVED_AT, 0L);
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request));
+        now.set(TimeUnit.SECONDS.toNanos(1));
+        Runnable task = DeadlineInterceptor.withDeadline(now.get() + TimeUnit.SECONDS.toNanos(2),
+                () -> client.get("/1", 1L));
+        server.expect(requestTo("http://server/bookings/1"))
+                .andExpect(header(DeadlineInterceptor.HEADER, "2000"))
+                .andRespond(withStatus(HttpStatus.OK));
+
+        Thread.ofPlatform().start(task).join();
+
+        server.verify();
+    }
+
+    @Test
+    void testSubRequestKeepsEarlierDeadlineOfGatewayRequest() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.setAttribute(DeadlineInterceptor.ARRIVED_AT, 0L);
+        request.setAttribute(DeadlineInterceptor.DEADLINE, TimeUnit.SECONDS.toNanos(3));
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request));
+        MockHttpServletRequest subRequest = new MockHttpServletRequest();
+        DeadlineInterceptor.inherit(subRequest, TimeUnit.SECONDS.toNanos(5));
+        now.set(TimeUnit.SECONDS.toNanos(1));
+        server.expect(requestTo("http://server/bookings/1"))
+                .andExpect(header(DeadlineInterceptor.HEADER, "2000"))
+                .andRespond(withStatus(HttpStatus.OK));
+
+        Thread.ofPlatform().start(() -> {
+            RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(subRequest));
+            client.get("/1", 1L);
+        }).join();
+
+        server.verify();
+    }
+
+    @Test
+    void testSendZeroWhenBudgetIsSpent() {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.setAttribute(DeadlineInterceptor.ARRIVED_AT, 0L);
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request));
+        now.set(TimeUnit.SECONDS.toNanos(31));
+        server.expect(requestTo("http://server/bookings/1"))
+                .andExpect(header(DeadlineInterceptor.HEADER, "0"))
+                .andRespond(withStatus(HttpStatus.GATEWAY_TIMEOUT));
+
+        assertEquals(HttpStatus.GATEWAY_TIMEOUT, client.get("/1", 1L).getStatusCode());
+        server.verify();
+    }
+}
@@ -0,0 +1,123 @@
+package ru.practicum.shareit.client;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.test.web.client.ExpectedCount;
+import org.springframework.test.web.client.MockRestServiceServer;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.client.RestTemplate;
+import org.springframework.web.util.DefaultUriBuilderFactory;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.List;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.requestTo;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withSuccess;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+
+/**
+ * Замер процессорного времени шлюза на один запрос: прежний обмен через {@code ResponseEntity<Object>}
+ * с разбором и повторной записью JSON против передачи тела ответа сервера как есть.
+ * Запуск: {@code mvn -pl gateway test -Pbenchmark -Dbenchmark.requests=20000}.
+ */
+@Slf4j
+@Tag("benchmark")
+class PassThroughBenchmarkTest {
+    private static final int ROWS = 100;
+    private static final int WARMUP = 2_000;
+    private static final String URL = "http://server/bookings";
+
+    private final ObjectMapper mapper = new ObjectMapper();
+    private final int requests = Integer.getInteger("benchmark.requests", 20_000);
+
+    @Test
+    void benchmarkGatewayCpuPerRequest() throws Exception {
+        String page = page();
+        MockMvc parsing = gateway(page, rest -> () -> rest.exchange("", HttpMethod.GET,
+                new HttpEntity<>(jsonHeaders()), Object.class));
+        MockMvc passThrough = gateway(page, rest -> () -> new BaseClient(rest).get(""));
+
+        assertEquals(mapper.readTree(page), mapper.readTree(call(parsing)));
+        assertEquals(page, call(passThrough));
+
+        long parsingNanos = cpuPerRequest(parsing);
+        long passThroughNanos = cpuPerRequest(passThrough);
+        log.info("процессорное время шлюза на запрос со списком из {} бронирований: с разбором JSON {} мкс, "
+                + "без разбора {} мкс", ROWS, parsingNanos / 1000, passThroughNanos / 1000);
+    }
+
+    private MockMvc gateway(String page, Function<RestTemplate, Supplier<ResponseEntity<Object>>> client) {
+        RestTemplate rest = new RestTemplate();
+        rest.setUriTemplateHandler(new DefaultUriBuilderFactory(URL));
+        MockRestServiceServer.bindTo(rest).build()
+                .expect(ExpectedCount.manyTimes(), requestTo(URL))
+                .andRespond(withSuccess(page, MediaType.APPLICATION_JSON));
+        return MockMvcBuilders.standaloneSetup(new GatewayController(client.apply(rest)))
+                .setMessageConverters(new ServerResponseBody.Converter(), new MappingJackson2HttpMessageConverter())
+                .build();
+    }
+
+    private long cpuPerRequest(MockMvc gateway) throws Exception {
+        for (int i = 0; i < WARMUP; i++) {
+            call(gateway);
+        }
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        long startedAt = threads.getCurrentThreadCpuTime();
+        for (int i = 0; i < requests; i++) {
+            call(gateway);
+        }
+        return (threads.getCurrentThreadCpuTime() - startedAt) / requests;
+    }
+
+    private String call(MockMvc gateway) throws Exception {
+        return gateway.perform(get("/bookings").accept(MediaType.APPLICATION_JSON))
+                .andReturn().getResponse().getContentAsString();
+    }
+
+    private HttpHeaders jsonHeaders() {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setAccept(List.of(MediaType.APPLICATION_JSON));
+        headers.set("X-Sharer-User-Id", "1");
+        return headers;
+    }
+
+    private String page() {
+        StringBuilder page = new StringBuilder("[");
+        for (int i = 0; i < ROWS; i++) {
+            if (i > 0) {
+                page.append(',');
+            }
+            page.append("{\"id\":").append(i)
+                    .append(",\"start\":\"2024-12-09T15:00:15\",\"end\":\"2024-12-11T15:00:15\"")
+                    .append(",\"status\":\"APPROVED\",\"state\":\"PAST\"")
+                    .append(",\"booker\":{\"id\":2,\"name\":\"tenantName\",\"email\":\"tenant@mail.ru\"}")
+                    .append(",\"item\":{\"id\":").append(i)
+                    .append(",\"name\":\"item\",\"description\":\"description\",\"available\":true")
+                    .append(",\"comments\":[]}}");
+        }
+        return page.append(']').toString();
+    }
+
+    @RestController
+    private record GatewayController(Supplier<ResponseEntity<Object>> client) {
+        @GetMapping("/bookings")
+        ResponseEntity<Object> getBookings() {
+            return client.get();
+        }
+    }
+}
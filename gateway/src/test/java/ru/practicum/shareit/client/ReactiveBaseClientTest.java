@@ -0,0 +1,95 @@
+package ru.practicum.shareit.client;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.reactive.function.client.ClientRequest;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+class ReactiveBaseClientTest {
+    private final AtomicReference<ClientRequest> sent = new AtomicReference<>();
+
+    @Test
+    void testPassServerResponseThroughWithoutParsing() {
+        String page = "[{\"id\":1, \"start\":\"2024-12-09T15:00:15\"}]";
+        ReactiveBaseClient client = client(ClientResponse.create(HttpStatus.OK)
+                .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                .header("X-Next-Cursor", "next")
+                .header(HttpHeaders.CONNECTION, "keep-alive")
+                .body(page)
+                .build());
+
+        ResponseEntity<Flux<DataBuffer>> response = client.get("?state={state}", 1L, Map.of("state", "ALL")).block();
+
+        assertEquals("http://server/bookings?state=ALL", sent.get().url().toString());
+        assertEquals(List.of(MediaType.APPLICATION_JSON), sent.get().headers().getAccept());
+        assertEquals("1", sent.get().headers().getFirst("X-Sharer-User-Id"));
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals("next", response.getHeaders().getFirst("X-Next-Cursor"));
+        assertFalse(response.getHeaders().containsKey(HttpHeaders.CONNECTION));
+        assertEquals(page, bodyOf(response));
+    }
+
+    @Test
+    void testPassServerErrorThroughWithBody() {
+        String error = "{\"error\":\"Бронирование не найдено\"}";
+        ReactiveBaseClient client = client(ClientResponse.create(HttpStatus.NOT_FOUND)
+                .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                .body(error)
+                .build());
+
+        ResponseEntity<Flux<DataBuffer>> response = client.get("/1", 1L).block();
+
+        assertEquals(HttpStatus.NOT_FOUND, response.getStatusCode());
+        assertEquals(error, bodyOf(response));
+    }
+
+    @Test
+    void testRequestNdjsonWhenStreaming() {
+        ReactiveBaseClient client = client(ClientResponse.create(HttpStatus.OK)
+                .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_NDJSON_VALUE)
+                .body("{\"id\":1}\n{\"id\":2}\n")
+                .build());
+
+        ResponseEntity<Flux<DataBuffer>> response = client.stream("", 1L, null).block();
+
+        assertEquals(List.of(MediaType.APPLICATION_NDJSON), sent.get().headers().getAccept());
+        assertEquals(MediaType.APPLICATION_NDJSON, response.getHeaders().getContentType());
+        assertEquals("{\"id\":1}\n{\"id\":2}\n", bodyOf(response));
+    }
+
+    private ReactiveBaseClient client(ClientResponse response) {
+        return new ReactiveBaseClient(WebClient.builder()
+                .baseUrl("http://server/bookings")
+                .exchangeFunction(request -> {
+                    sent.set(request);
+                    return Mono.just(response);
+                })
+                .build());
+    }
+
+    private static String bodyOf(ResponseEntity<Flux<DataBuffer>> response) {
+        return DataBufferUtils.join(response.getBody())
+                .map(buffer -> {
+                    String body = buffer.toString(StandardCharsets.UTF_8);
+                    DataBufferUtils.release(buffer);
+                    return body;
+                })
+                .block();
+    }
+}
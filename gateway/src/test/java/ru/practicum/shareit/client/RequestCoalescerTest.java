@@ -0,0 +1,155 @@
+package ru.practicum.shareit.client;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+
+import java.io.IOException;
+import java.net.URI;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class RequestCoalescerTest {
+    private static final URI ITEM = URI.create("http://server/items/1");
+    private static final int CALLERS = 10;
+
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final AtomicInteger calls = new AtomicInteger();
+    private final CountDownLatch release = new CountDownLatch(1);
+    private final ResponseCache.Entry entry = new ResponseCache.Entry(HttpStatus.OK, new HttpHeaders(),
+            new byte[]{'1'}, 0);
+
+    @Test
+    void testShareOneCallBetweenConcurrentIdenticalRequests() throws Exception {
+        RequestCoalescer coalescer = coalescer(Duration.ofSeconds(10), true);
+        ConcurrentLinkedQueue<ResponseCache.Entry> responses = new ConcurrentLinkedQueue<>();
+
+        List<Thread> callers = startCallers(coalescer, responses);
+        awaitWaiting(callers);
+        release.countDown();
+        for (Thread caller : callers) {
+            caller.join();
+        }
+
+        assertEquals(1, calls.get());
+        assertEquals(CALLERS, responses.size());
+        responses.forEach(response -> assertSame(entry, response));
+        assertEquals(CALLERS - 1, count("shared"));
+    }
+
+    @Test
+    void testDoNotShareBetweenUsers() throws Exception {
+        RequestCoalescer coalescer = coalescer(Duration.ofSeconds(10), true);
+        release.countDown();
+
+        coalescer.execute("item", ITEM, 1L, this::slowCall);
+        coalescer.execute("item", ITEM, 2L, this::slowCall);
+
+        assertEquals(2, calls.get());
+        assertEquals(2, count("leader"));
+    }
+
+    @Test
+    void testCallServerDirectlyWhenRouteIsOff() throws Exception {
+        RequestCoalescer coalescer = coalescer(Duration.ofSeconds(10), false);
+        release.countDown();
+
+        List<Thread> callers = startCallers(coalescer, new ConcurrentLinkedQueue<>());
+        for (Thread caller : callers) {
+            caller.join();
+        }
+
+        assertEquals(CALLERS, calls.get());
+        assertEquals(0, meterRegistry.find("gateway.request.coalescing").counters().size());
+    }
+
+    @Test
+    void testCallServerAfterMaxWait() throws Exception {
+        RequestCoalescer coalescer = coalescer(Duration.ofMillis(50), true);
+        Thread leader = Thread.ofVirtual().start(() -> call(coalescer));
+        awaitWaiting(List.of(leader));
+
+        ResponseCache.Entry response = coalescer.execute("item", ITEM, null, () -> entry);
+        release.countDown();
+        leader.join();
+
+        assertSame(entry, response);
+        assertEquals(1, count("timeout"));
+    }
+
+    @Test
+    void testPassLeaderErrorToWaiters() throws Exception {
+        RequestCoalescer coalescer = coalescer(Duration.ofSeconds(10), true);
+        Thread leader = Thread.ofVirtual().start(() -> assertThrows(IOException.class,
+                () -> coalescer.execute("item", ITEM, null, () -> {
+                    slowCall();
+                    throw new IOException("Connection refused");
+                })));
+        awaitWaiting(List.of(leader));
+        ConcurrentLinkedQueue<IOException> errors = new ConcurrentLinkedQueue<>();
+        Thread waiter = Thread.ofPlatform().start(() -> errors.add(assertThrows(IOException.class,
+                () -> coalescer.execute("item", ITEM, null, this::slowCall))));
+        awaitWaiting(List.of(waiter));
+        release.countDown();
+        waiter.join();
+
+        assertEquals("Connection refused", errors.remove().getMessage());
+        assertEquals(1, calls.get());
+    }
+
+    private RequestCoalescer coalescer(Duration maxWait, boolean enabled) {
+        return new RequestCoalescer(maxWait, Map.of("item", enabled), meterRegistry);
+    }
+
+    private List<Thread> startCallers(RequestCoalescer coalescer,
+                                      ConcurrentLinkedQueue<ResponseCache.Entry> responses) {
+        List<Thread> callers = new ArrayList<>();
+        for (int i = 0; i < CALLERS; i++) {
+            callers.add(Thread.ofPlatform().start(() -> responses.add(call(coalescer))));
+        }
+        return callers;
+    }
+
+    private ResponseCache.Entry call(RequestCoalescer coalescer) {
+        try {
+            return coalescer.execute("item", ITEM, null, this::slowCall);
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private ResponseCache.Entry slowCall() throws IOException {
+        calls.incrementAndGet();
+        try {
+            release.await();
+        } catch (InterruptedException e) {
+            throw new IOException(e);
+        }
+        return entry;
+    }
+
+    /**
+     * Ждёт, пока все потоки остановятся: первый на ответе сервера, остальные на его ответе.
+     */
+    private static void awaitWaiting(List<Thread> threads) throws InterruptedException {
+        while (!threads.stream().allMatch(thread -> thread.getState() == Thread.State.WAITING
+                || thread.getState() == Thread.State.TIMED_WAITING)) {
+            Thread.sleep(5);
+        }
+    }
+
+    private double count(String result) {
+        return meterRegistry.get("gateway.request.coalescing").tag("result", result).counter().count();
+    }
+}
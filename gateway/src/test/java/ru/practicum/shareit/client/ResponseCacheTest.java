@@ -0,0 +1,177 @@
+package ru.practicum.shareit.client;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class ResponseCacheTest {
+    private static final URI ITEM = URI.create("http://server/items/1");
+    private static final URI SEARCH = URI.create("http://server/items/search?text=drill");
+
+    private final AtomicLong now = new AtomicLong();
+    private final List<Runnable> background = new ArrayList<>();
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final List<ResponseCache.Entry> loadedWith = new ArrayList<>();
+    private ResponseCache cache;
+    private int version;
+
+    @BeforeEach
+    void init() {
+        cache = new ResponseCache("http://server", 100, Duration.ofSeconds(5), Duration.ofSeconds(30),
+                Duration.ofMinutes(10), now::get, background::add, meterRegistry);
+    }
+
+    @Test
+    void testServeFreshResponseWithoutServer() throws Exception {
+        assertEquals("v1", body(cache.get(ITEM, null, this::load)));
+        advance(4);
+
+        assertEquals("v1", body(cache.get(ITEM, null, this::load)));
+
+        assertEquals(1, loadedWith.size());
+        assertEquals(1, requests("hit"));
+        assertEquals(1, requests("miss"));
+        assertEquals(0.5, meterRegistry.get("gateway.response.cache.hit.ratio").gauge().value());
+    }
+
+    @Test
+    void testServeStaleResponseAndRevalidateInBackground() throws Exception {
+        cache.get(ITEM, null, this::load);
+        advance(7);
+
+        assertEquals("v1", body(cache.get(ITEM, null, this::load)));
+        assertEquals("v1", body(cache.get(ITEM, null, this::load)));
+        assertEquals(1, background.size(), "фоновая проверка запускается один раз");
+        background.removeFirst().run();
+
+        assertEquals("v2", body(cache.get(ITEM, null, this::load)));
+        assertEquals(2, requests("stale"));
+        assertEquals(1, requests("hit"));
+        assertEquals(2, meterRegistry.get("gateway.response.cache.staleness").timer().count());
+        assertEquals(2000, meterRegistry.get("gateway.response.cache.staleness").timer()
+                .max(TimeUnit.MILLISECONDS));
+    }
+
+    @Test
+    void testRevalidateTooOldResponseBeforeServing() throws Exception {
+        cache.get(ITEM, null, this::load);
+        advance(60);
+
+        ResponseEntity<Object> response = cache.get(ITEM, null, cached -> {
+            loadedWith.add(cached);
+            return cached;
+        });
+        advance(1);
+        cache.get(ITEM, null, this::load);
+
+        assertEquals("v1", body(response));
+        assertEquals("\"v1\"", loadedWith.getLast().etag());
+        assertEquals(1, requests("revalidated"));
+        assertEquals(1, requests("hit"), "подтверждённый ответ снова свежий");
+    }
+
+    @Test
+    void testInvalidateAllQueriesOfPath() throws Exception {
+        cache.get(ITEM, null, this::load);
+        cache.get(SEARCH, null, this::load);
+        cache.get(URI.create("http://server/items/search?text=saw"), 1L, this::load);
+
+        cache.invalidate("/items/search");
+        cache.get(ITEM, null, this::load);
+        cache.get(SEARCH, null, this::load);
+        cache.get(URI.create("http://server/items/search?text=saw"), 1L, this::load);
+
+        assertEquals(1, requests("hit"));
+        assertEquals(5, requests("miss"));
+        assertNull(loadedWith.getLast(), "после удаления ответ запрашивается заново без условия");
+    }
+
+    @Test
+    void testDoNotStoreResponseLoadedBeforeInvalidation() throws Exception {
+        cache.get(ITEM, null, cached -> {
+            cache.invalidate("/items/1");
+            return load(cached);
+        });
+
+        cache.get(ITEM, null, this::load);
+
+        assertEquals(2, requests("miss"));
+    }
+
+    @Test
+    void testStoreResponseLoadedDuringInvalidationOfOtherPath() throws Exception {
+        cache.get(SEARCH, null, this::load);
+        cache.get(ITEM, null, cached -> {
+            cache.invalidate("/items/search");
+            return load(cached);
+        });
+
+        cache.get(ITEM, null, this::load);
+        cache.get(SEARCH, null, this::load);
+
+        assertEquals(1, requests("hit"));
+        assertEquals(3, requests("miss"));
+    }
+
+    @Test
+    void testInvalidateResponseStoredAgainAfterInvalidation() throws Exception {
+        cache.get(ITEM, null, this::load);
+        cache.invalidate("/items/1");
+        cache.get(ITEM, null, this::load);
+        cache.get(ITEM, null, this::load);
+        cache.invalidate("/items/1");
+
+        cache.get(ITEM, null, this::load);
+
+        assertEquals(1, requests("hit"));
+        assertEquals(3, requests("miss"));
+    }
+
+    @Test
+    void testDoNotStoreErrors() throws Exception {
+        ResponseCache.Entry notFound = cache.entry(HttpStatus.NOT_FOUND, new HttpHeaders(),
+                "{\"error\":\"Item not found\"}".getBytes(StandardCharsets.UTF_8));
+
+        ResponseEntity<Object> response = cache.get(ITEM, null, cached -> notFound);
+        cache.get(ITEM, null, this::load);
+
+        assertEquals(HttpStatus.NOT_FOUND, response.getStatusCode());
+        assertEquals(2, requests("miss"));
+        assertNull(loadedWith.getLast());
+    }
+
+    private ResponseCache.Entry load(ResponseCache.Entry cached) {
+        loadedWith.add(cached);
+        version++;
+        HttpHeaders headers = new HttpHeaders();
+        headers.setETag("\"v" + version + "\"");
+        return cache.entry(HttpStatus.OK, headers, ("v" + version).getBytes(StandardCharsets.UTF_8));
+    }
+
+    private void advance(long seconds) {
+        now.addAndGet(TimeUnit.SECONDS.toNanos(seconds));
+    }
+
+    private double requests(String result) {
+        return meterRegistry.get("gateway.response.cache.requests").tag("result", result).counter().count();
+    }
+
+    private static String body(ResponseEntity<Object> response) {
+        return new String((byte[]) response.getBody(), StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,121 @@
+package ru.practicum.shareit.client;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import ru.practicum.shareit.exceptions.ServerUnavailableException;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class ServerCallGuardTest {
+    private static final URI OWNER_BOOKINGS = URI.create("http://server/api/bookings/owner?state=ALL");
+
+    private final AtomicLong now = new AtomicLong();
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final ServerCallGuard guard = new ServerCallGuard("http://server/api/",
+            new ServerCallGuard.Bulkheads(3, 2, Map.of("/bookings/owner", 1)),
+            new ServerCallGuard.Breakers(10, 2, 50, Duration.ofSeconds(5), 1), null, now::get, meterRegistry);
+
+    @Test
+    void testRejectCallsOverRouteLimitWithoutAffectingOtherRoutes() {
+        ServerCallGuard.Permit slow = guard.enter(HttpMethod.GET, OWNER_BOOKINGS);
+
+        ServerUnavailableException e = assertThrows(ServerUnavailableException.class,
+                () -> guard.enter(HttpMethod.GET, OWNER_BOOKINGS));
+        guard.enter(HttpMethod.GET, URI.create("http://server/api/bookings/7")).close();
+        slow.close();
+        slow.close();
+        guard.enter(HttpMethod.GET, OWNER_BOOKINGS).close();
+
+        assertEquals(1, e.getRetryAfterSeconds());
+        assertEquals(1, rejected("GET /bookings/owner", "route-bulkhead"));
+        assertEquals(1, guard.routes().get("GET /bookings/owner").availableCalls());
+        assertEquals(2, guard.routes().get("GET /bookings/{id}").maxConcurrentCalls());
+    }
+
+    @Test
+    void testRejectCallsOverClientLimit() {
+        guard.enter(HttpMethod.GET, URI.create("http://server/api/items/1"));
+        guard.enter(HttpMethod.GET, URI.create("http://server/api/items/2"));
+        guard.enter(HttpMethod.PATCH, URI.create("http://server/api/items/3"));
+
+        assertThrows(ServerUnavailableException.class,
+                () -> guard.enter(HttpMethod.GET, URI.create("http://server/api/items/search?text=drill")));
+        guard.enter(HttpMethod.GET, URI.create("http://server/api/users/1"));
+
+        assertEquals(1, rejected("GET /items/search", "client-bulkhead"));
+    }
+
+    @Test
+    void testOpenRouteAfterServerErrorsAndProbeLater() {
+        for (int i = 0; i < 2; i++) {
+            try (ServerCallGuard.Permit permit = guard.enter(HttpMethod.GET, OWNER_BOOKINGS)) {
+                permit.completed(HttpStatus.BAD_GATEWAY);
+            }
+        }
+        now.addAndGet(TimeUnit.SECONDS.toNanos(2));
+
+        ServerUnavailableException e = assertThrows(ServerUnavailableException.class,
+                () -> guard.enter(HttpMethod.GET, OWNER_BOOKINGS));
+        guard.enter(HttpMethod.GET, URI.create("http://server/api/bookings?state=ALL")).close();
+        assertEquals(2, meterRegistry.get("gateway.circuit.breaker.state").tag("route", "GET /bookings/owner")
+                .gauge().value());
+        now.addAndGet(TimeUnit.SECONDS.toNanos(3));
+        try (ServerCallGuard.Permit probe = guard.enter(HttpMethod.GET, OWNER_BOOKINGS)) {
+            probe.completed(HttpStatus.OK);
+        }
+
+        assertEquals(3, e.getRetryAfterSeconds());
+        assertEquals(1, rejected("GET /bookings/owner", "circuit-open"));
+        assertEquals("CLOSED", guard.routes().get("GET /bookings/owner").state());
+    }
+
+    @Test
+    void testShedReadsFirstWhenAdaptiveLimitIsReached() {
+        ServerCallGuard limited = new ServerCallGuard("http://server/api/",
+                new ServerCallGuard.Bulkheads(10, 10, Map.of()),
+                new ServerCallGuard.Breakers(10, 2, 50, Duration.ofSeconds(5), 1),
+                new AdaptiveLimiter(2, 1, 10, 0.5, Duration.ofSeconds(30), now::get, meterRegistry), now::get,
+                meterRegistry);
+        limited.enter(HttpMethod.GET, OWNER_BOOKINGS);
+
+        assertThrows(ServerUnavailableException.class, () -> limited.enter(HttpMethod.GET, OWNER_BOOKINGS));
+        limited.enter(HttpMethod.POST, URI.create("http://server/api/bookings"));
+
+        assertEquals(1, rejected("GET /bookings/owner", "adaptive-limit"));
+        assertEquals(9, limited.routes().get("GET /bookings/owner").availableCalls(), "занято только первым вызовом");
+    }
+
+    @Test
+    void testFreeAdaptiveLimitOnceStreamHeadersArrive() {
+        AdaptiveLimiter limiter = new AdaptiveLimiter(2, 1, 10, 1, Duration.ofSeconds(30), now::get, meterRegistry);
+        ServerCallGuard limited = new ServerCallGuard("http://server/api/",
+                new ServerCallGuard.Bulkheads(10, 10, Map.of()),
+                new ServerCallGuard.Breakers(10, 2, 50, Duration.ofSeconds(5), 1), limiter, now::get,
+                meterRegistry);
+        ServerCallGuard.Permit stream = limited.enter(HttpMethod.GET, URI.create("http://server/api/bookings"), true);
+        ServerCallGuard.Permit call = limited.enter(HttpMethod.GET, OWNER_BOOKINGS);
+
+        stream.completed(HttpStatus.OK);
+
+        assertEquals(1, limiter.inFlight(), "поток занимает место только до заголовков ответа");
+        assertEquals(9, limited.routes().get("GET /bookings").availableCalls(), "место маршрута поток держит до конца");
+        stream.close();
+        call.close();
+        assertEquals(0, limiter.inFlight());
+    }
+
+    private double rejected(String route, String reason) {
+        return meterRegistry.get("gateway.server.call.rejected").tag("route", route).tag("reason", reason)
+                .counter().count();
+    }
+}
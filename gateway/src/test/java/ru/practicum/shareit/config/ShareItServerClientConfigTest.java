@@ -0,0 +1,175 @@
+package ru.practicum.shareit.config;
+
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.MeterRegistry;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordingStream;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.client.ClientHttpRequestFactory;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.client.RestTemplate;
+import ru.practicum.shareit.booking.BookingClient;
+import ru.practicum.shareit.client.BaseClient;
+import ru.practicum.shareit.client.CircuitBreakerEndpoint;
+import ru.practicum.shareit.client.DeadlineInterceptor;
+import ru.practicum.shareit.client.ServerCallGuard;
+import ru.practicum.shareit.client.ServerResponseBody;
+import ru.practicum.shareit.item.ItemClient;
+import ru.practicum.shareit.request.ItemRequestClient;
+import ru.practicum.shareit.user.UserClient;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Пул соединений клиентов шлюза. Соединений с сервером меньше, чем потоков в проверке закрепления виртуальных
+ * потоков, чтобы потоки ждали соединение из пула, а соединение проверяется при каждой выдаче. Подстраиваемый
+ * предел выключен, иначе он отклонил бы вызовы, ждущие соединение.
+ */
+@SpringBootTest(properties = {
+        "shareit-server.http-client.max-connections-per-route=2",
+        "shareit-server.http-client.validate-after-inactivity=0s",
+        "shareit-server.resilience.adaptive-limit.enabled=false"
+}, webEnvironment = SpringBootTest.WebEnvironment.NONE)
+class ShareItServerClientConfigTest {
+    private static final String PINNED = "jdk.VirtualThreadPinned";
+    private static final HttpServer SERVER = startServer();
+
+    @Autowired
+    private UserClient userClient;
+    @Autowired
+    private ItemClient itemClient;
+    @Autowired
+    private BookingClient bookingClient;
+    @Autowired
+    private ItemRequestClient itemRequestClient;
+    @Autowired
+    private ClientHttpRequestFactory requestFactory;
+    @Autowired
+    private MeterRegistry meterRegistry;
+    @Autowired
+    private CircuitBreakerEndpoint circuitBreakerEndpoint;
+
+    @DynamicPropertySource
+    static void serverUrl(DynamicPropertyRegistry registry) {
+        registry.add("shareit-server.url", () -> "http://localhost:" + SERVER.getAddress().getPort());
+    }
+
+    @AfterAll
+    static void stopServer() {
+        SERVER.stop(0);
+    }
+
+    @Test
+    void testAllClientsShareOneRequestFactory() {
+        for (BaseClient client : List.of(userClient, itemClient, bookingClient, itemRequestClient)) {
+            RestTemplate rest = (RestTemplate) ReflectionTestUtils.getField(client, "rest");
+            assertSame(requestFactory, ReflectionTestUtils.getField(rest, "requestFactory"),
+                    client.getClass().getSimpleName());
+            assertInstanceOf(DeadlineInterceptor.class, rest.getInterceptors().getFirst(),
+                    client.getClass().getSimpleName());
+        }
+    }
+
+    @Test
+    void testPoolStateAndLeaseTimeAreExported() throws IOException {
+        long leasesBefore = meterRegistry.get("httpcomponents.httpclient.pool.lease").timer().count();
+
+        for (int i = 0; i < 3; i++) {
+            Object body = userClient.getUserById(1L).getBody();
+            assertNotNull(body);
+            assertEquals("{\"id\":1}",
+                    new String(((ServerResponseBody) body).readAllBytes(), StandardCharsets.UTF_8));
+        }
+
+        assertEquals(leasesBefore + 3, meterRegistry.get("httpcomponents.httpclient.pool.lease").timer().count());
+        assertEquals(200, meterRegistry.get("httpcomponents.httpclient.pool.total.max").gauge().value());
+        assertEquals(0, meterRegistry.get("httpcomponents.httpclient.pool.total.pending").gauge().value());
+        assertTrue(meterRegistry.get("httpcomponents.httpclient.pool.total.connections")
+                .tag("state", "available").gauge().value() >= 1, "соединение должно вернуться в пул");
+    }
+
+    @Test
+    void testRouteStateIsExported() throws IOException {
+        ((ServerResponseBody) userClient.getUserById(1L).getBody()).readAllBytes();
+
+        ServerCallGuard.RouteState route = circuitBreakerEndpoint.circuitBreakers().get("GET /users/{id}");
+        assertEquals("users", route.client());
+        assertEquals("CLOSED", route.state());
+        assertEquals(route.maxConcurrentCalls(), route.availableCalls());
+    }
+
+    @Test
+    void testClientDoesNotPinVirtualThreads() throws Exception {
+        List<RecordedEvent> pinned = new ArrayList<>();
+        try (RecordingStream recording = new RecordingStream();
+             ExecutorService threads = Executors.newVirtualThreadPerTaskExecutor()) {
+            recording.enable(PINNED).withThreshold(Duration.ZERO).withStackTrace();
+            recording.onEvent(PINNED, pinned::add);
+            recording.startAsync();
+
+            List<Future<?>> calls = new ArrayList<>();
+            for (int i = 0; i < 16; i++) {
+                calls.add(threads.submit(() -> {
+                    for (int j = 0; j < 20; j++) {
+                        ((ServerResponseBody) userClient.getUserById(1L).getBody()).readAllBytes();
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> call : calls) {
+                call.get();
+            }
+            recording.stop();
+        }
+
+        assertTrue(pinned.isEmpty(), "виртуальные потоки закреплены за носителем:\n" + pinned.stream()
+                .map(event -> event.getStackTrace().getFrames().stream()
+                        .limit(15)
+                        .map(RecordedFrame::getMethod)
+                        .map(method -> method.getType().getName() + "." + method.getName())
+                        .collect(Collectors.joining("\n")))
+                .distinct()
+                .collect(Collectors.joining("\n\n")));
+    }
+
+    private static HttpServer startServer() {
+        try {
+            HttpServer server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+            server.createContext("/", exchange -> {
+                byte[] body = "{\"id\":1}".getBytes(StandardCharsets.UTF_8);
+                exchange.getResponseHeaders().add("Content-Type", "application/json");
+                exchange.sendResponseHeaders(HttpStatus.OK.value(), body.length);
+                try (OutputStream out = exchange.getResponseBody()) {
+                    out.write(body);
+                }
+            });
+            server.start();
+            return server;
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -11,11 +11,16 @@ import ru.practicum.shareit.item.dto.CreateCommentDto;
 import ru.practicum.shareit.item.dto.CreateItemDto;
 
 import java.nio.charset.StandardCharsets;
+import java.util.List;
 
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
@@ -27,6 +32,8 @@ class ItemControllerTest {
     private MockMvc mvc;
     @MockBean
     private ItemClient itemClient;
+    @MockBean
+    private ItemPageAssembler itemPageAssembler;
 
     @Test
     void testReturnBadRequestIfTryCreateItemWithoutName() throws Exception {
@@ -130,4 +137,69 @@ class ItemControllerTest {
 
         verify(itemClient, never()).addComment(any(), anyLong(), anyLong());
     }
-}
\ No newline at end of file
+
+    @Test
+    void testReturnBadRequestIfSearchPageSizeIsNotPositive() throws Exception {
+        mvc.perform(get("/items/search")
+                        .characterEncoding(StandardCharsets.UTF_8)
+                        .param("text", "text")
+                        .param("size", "0")
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isBadRequest());
+
+        verify(itemClient, never()).getItemByNameOrDescription(anyString(), anyInt(), anyInt());
+    }
+
+    @Test
+    void testReturnBadRequestIfSearchFromIsNegative() throws Exception {
+        mvc.perform(get("/items/search")
+                        .characterEncoding(StandardCharsets.UTF_8)
+                        .param("text", "text")
+                        .param("from", "-1")
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isBadRequest());
+
+        verify(itemClient, never()).getItemByNameOrDescription(anyString(), anyInt(), anyInt());
+    }
+
+    @Test
+    void testReturnBadRequestIfSuggestPrefixIsBlank() throws Exception {
+        mvc.perform(get("/items/suggest")
+                        .characterEncoding(StandardCharsets.UTF_8)
+                        .param("prefix", " ")
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isBadRequest());
+
+        verify(itemClient, never()).suggestItemNames(anyString(), anyInt());
+    }
+
+    @Test
+    void testReturnBadRequestIfBatchContainsInvalidItem() throws Exception {
+        List<CreateItemDto> itemDtos = List.of(
+                CreateItemDto.builder().name("item").description("description").available(true).build(),
+                CreateItemDto.builder().name("item").description(" ").available(true).build());
+
+        mvc.perform(post("/items/batch")
+                        .characterEncoding(StandardCharsets.UTF_8)
+                        .header("X-Sharer-User-Id", 1)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(mapper.writeValueAsString(itemDtos))
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isBadRequest());
+
+        verify(itemClient, never()).addItems(any(), anyLong());
+    }
+
+    @Test
+    void testReturnBadRequestIfBatchIsEmpty() throws Exception {
+        mvc.perform(patch("/items/batch")
+                        .characterEncoding(StandardCharsets.UTF_8)
+                        .header("X-Sharer-User-Id", 1)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[]")
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isBadRequest());
+
+        verify(itemClient, never()).updateItems(any(), anyLong());
+    }
+}
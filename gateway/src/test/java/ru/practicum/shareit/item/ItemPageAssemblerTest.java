@@ -0,0 +1,159 @@
+package ru.practicum.shareit.item;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import ru.practicum.shareit.client.DeadlineInterceptor;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Страница вещи через настоящий шлюз: сервер-заглушка отвечает на медленные пути через {@value #SLOW_MILLIS} мс,
+ * а срок сборки страницы — {@value #TIMEOUT_MILLIS} мс.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = "shareit-gateway.item-page.timeout=" + ItemPageAssemblerTest.TIMEOUT_MILLIS + "ms")
+class ItemPageAssemblerTest {
+    static final long TIMEOUT_MILLIS = 500;
+    private static final long SLOW_MILLIS = 1500;
+    private static final Map<String, String> BODIES = Map.of(
+            "/items/1", "{\"id\":1,\"name\":\"item\",\"requestId\":3,\"comments\":[{\"id\":4,\"text\":\"ok\"}]}",
+            "/items/2", "{\"id\":2,\"name\":\"free\",\"requestId\":null,\"comments\":[]}",
+            "/items/5", "{\"id\":5,\"name\":\"late\"}",
+            "/bookings/item/1?size=20", "[]",
+            "/bookings/item/2?size=20", "[{\"id\":10,\"itemId\":2}]",
+            "/requests/3", "{\"id\":3,\"description\":\"нужна вещь\"}");
+    private static final ConcurrentMap<String, String> USERS = new ConcurrentHashMap<>();
+    private static final ConcurrentMap<String, Long> DEADLINES = new ConcurrentHashMap<>();
+    private static final HttpServer SERVER = startServer();
+
+    @Autowired
+    private TestRestTemplate rest;
+
+    @DynamicPropertySource
+    static void serverUrl(DynamicPropertyRegistry registry) {
+        registry.add("shareit-server.url", () -> "http://localhost:" + SERVER.getAddress().getPort());
+    }
+
+    @AfterAll
+    static void stopServer() {
+        SERVER.stop(0);
+    }
+
+    @Test
+    void testMarkLateBookingsAsTimedOut() {
+        long startedAt = System.nanoTime();
+        ResponseEntity<JsonNode> response = page(1);
+        long elapsedMillis = (System.nanoTime() - startedAt) / 1_000_000;
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        JsonNode page = response.getBody();
+        assertEquals("item", page.get("item").get("name").asText());
+        assertEquals("ok", page.get("item").get("comments").get(0).get("text").asText());
+        assertEquals(3, page.get("request").get("id").asInt());
+        assertTrue(page.get("bookings").isNull());
+        assertTrue(page.get("partial").asBoolean());
+        assertEquals("TIMED_OUT", page.get("parts").get("bookings").asText());
+        assertEquals("OK", page.get("parts").get("request").asText());
+        assertTrue(elapsedMillis < SLOW_MILLIS, "страница собиралась " + elapsedMillis + " мс");
+    }
+
+    @Test
+    void testAssembleFullPageOfItemWithoutRequest() {
+        ResponseEntity<JsonNode> response = page(2);
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        JsonNode page = response.getBody();
+        assertEquals(10, page.get("bookings").get(0).get("id").asInt());
+        assertTrue(page.get("request").isNull());
+        assertFalse(page.get("partial").asBoolean());
+        assertEquals("NOT_LINKED", page.get("parts").get("request").asText());
+        assertEquals("7", USERS.get("/bookings/item/2?size=20"));
+        assertTrue(DEADLINES.get("/items/2") <= TIMEOUT_MILLIS, "срок вещи " + DEADLINES.get("/items/2"));
+        assertTrue(DEADLINES.get("/bookings/item/2?size=20") <= TIMEOUT_MILLIS);
+    }
+
+    @Test
+    void testPassThroughMissingItem() {
+        ResponseEntity<JsonNode> response = page(404);
+
+        assertEquals(HttpStatus.NOT_FOUND, response.getStatusCode());
+        assertEquals("Item not found", response.getBody().get("error").asText());
+    }
+
+    @Test
+    void testReturnGatewayTimeoutIfItemIsLate() {
+        ResponseEntity<JsonNode> response = page(5);
+
+        assertEquals(HttpStatus.GATEWAY_TIMEOUT, response.getStatusCode());
+        assertTrue(response.getBody().get("error").asText().contains("Истёк срок"));
+    }
+
+    private ResponseEntity<JsonNode> page(long itemId) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.set("X-Sharer-User-Id", "7");
+        return rest.exchange("/items/{itemId}/page", HttpMethod.GET, new HttpEntity<>(headers), JsonNode.class,
+                itemId);
+    }
+
+    private static HttpServer startServer() {
+        try {
+            HttpServer server = HttpServer.create(new InetSocketAddress("localhost", 0), 100);
+            server.setExecutor(Executors.newVirtualThreadPerTaskExecutor());
+            server.createContext("/", exchange -> {
+                String path = exchange.getRequestURI().toString();
+                String user = exchange.getRequestHeaders().getFirst("X-Sharer-User-Id");
+                if (user != null) {
+                    USERS.put(path, user);
+                }
+                String deadline = exchange.getRequestHeaders().getFirst(DeadlineInterceptor.HEADER);
+                if (deadline != null) {
+                    DEADLINES.put(path, Long.parseLong(deadline));
+                }
+                if (path.equals("/items/5") || path.equals("/bookings/item/1?size=20")) {
+                    try {
+                        Thread.sleep(SLOW_MILLIS);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                }
+                String found = BODIES.get(path);
+                byte[] body = (found != null ? found : "{\"error\":\"Item not found\"}")
+                        .getBytes(StandardCharsets.UTF_8);
+                exchange.getResponseHeaders().add("Content-Type", "application/json");
+                exchange.sendResponseHeaders(found != null ? HttpStatus.OK.value() : HttpStatus.NOT_FOUND.value(),
+                        body.length);
+                try (OutputStream out = exchange.getResponseBody()) {
+                    out.write(body);
+                }
+            });
+            server.start();
+            return server;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package ru.practicum.shareit.ratelimit;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Ticker;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+class RateLimitFilterTest {
+    private final RateLimiter rateLimiter = new RateLimiter(
+            List.of(new RateLimiter.Route("bookings", "/bookings", 1, 0.1)),
+            1000, Duration.ofMinutes(10), Ticker.systemTicker(), new SimpleMeterRegistry());
+    private final MockMvc mvc = MockMvcBuilders.standaloneSetup(new BookingsController())
+            .addFilters(new RateLimitFilter(rateLimiter, new ObjectMapper()))
+            .build();
+
+    @Test
+    void testAnswerTooManyRequestsWithRetryAfter() throws Exception {
+        mvc.perform(get("/bookings").header("X-Sharer-User-Id", 1))
+                .andExpect(status().isOk());
+
+        mvc.perform(get("/bookings").header("X-Sharer-User-Id", 1))
+                .andExpect(status().isTooManyRequests())
+                .andExpect(header().string("Retry-After", "10"))
+                .andExpect(jsonPath("$.error", containsString("Слишком много запросов")));
+        mvc.perform(get("/bookings").header("X-Sharer-User-Id", 2))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void testLimitRequestsWithoutUserByAddress() throws Exception {
+        mvc.perform(get("/bookings").with(request -> {
+            request.setRemoteAddr("10.0.0.1");
+            return request;
+        })).andExpect(status().isOk());
+
+        mvc.perform(get("/bookings").with(request -> {
+            request.setRemoteAddr("10.0.0.1");
+            return request;
+        })).andExpect(status().isTooManyRequests());
+        mvc.perform(get("/bookings").with(request -> {
+            request.setRemoteAddr("10.0.0.2");
+            return request;
+        })).andExpect(status().isOk());
+    }
+
+    @RestController
+    private static class BookingsController {
+        @GetMapping("/bookings")
+        String getBookings() {
+            return "[]";
+        }
+    }
+}
@@ -0,0 +1,89 @@
+package ru.practicum.shareit.ratelimit;
+
+import com.github.benmanes.caffeine.cache.Ticker;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.results.RunResult;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Затраты ограничителя частоты на один запрос при {@value #THREADS} потоках: все потоки списывают токены
+ * из одной корзины одного пользователя, из корзин {@value #USERS} разных пользователей и делают запросы
+ * по пути без бюджета. Бюджет настолько велик, что запросы не отклоняются и меряется только списание токена.
+ * Запуск: {@code mvn -pl gateway test -Pbenchmark -Dtest=RateLimiterBenchmarkTest}.
+ */
+@Slf4j
+@Tag("benchmark")
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(RateLimiterBenchmarkTest.THREADS)
+public class RateLimiterBenchmarkTest {
+    static final int THREADS = 8;
+    private static final int USERS = 10_000;
+    private static final double MAX_NANOS_PER_REQUEST = 1000;
+
+    private final RateLimiter rateLimiter = new RateLimiter(
+            List.of(new RateLimiter.Route("bookings", "/bookings", Integer.MAX_VALUE, 1e9)),
+            100_000, Duration.ofMinutes(10), Ticker.systemTicker(), new SimpleMeterRegistry());
+    private final String[] users = new String[USERS];
+
+    {
+        for (int i = 0; i < USERS; i++) {
+            users[i] = RateLimiter.client(String.valueOf(i), null);
+        }
+    }
+
+    @Benchmark
+    public long sameUser() {
+        return rateLimiter.acquire("/bookings", users[0]);
+    }
+
+    @Benchmark
+    public long manyUsers() {
+        return rateLimiter.acquire("/bookings", users[ThreadLocalRandom.current().nextInt(USERS)]);
+    }
+
+    @Benchmark
+    public long unlimitedRoute() {
+        return rateLimiter.acquire("/users/1", users[0]);
+    }
+
+    @Test
+    void benchmarkOverheadPerRequest() throws Exception {
+        Collection<RunResult> results = new Runner(new OptionsBuilder()
+                .include(getClass().getName())
+                .build()).run();
+        int cores = Math.min(THREADS, Runtime.getRuntime().availableProcessors());
+        for (RunResult result : results) {
+            double nanos = result.getPrimaryResult().getScore() * cores / THREADS;
+            log.info("{}: {} нс процессорного времени на запрос при {} потоках на {} процессорах",
+                    result.getParams().getBenchmark(), String.format("%.1f", nanos), THREADS, cores);
+            assertTrue(nanos < MAX_NANOS_PER_REQUEST, result.getParams().getBenchmark());
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package ru.practicum.shareit.ratelimit;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RateLimiterTest {
+    private final AtomicLong now = new AtomicLong(TimeUnit.HOURS.toNanos(1));
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final RateLimiter rateLimiter = new RateLimiter(List.of(
+            new RateLimiter.Route("bookings", "/bookings", 3, 1),
+            new RateLimiter.Route("items", "/items", 100, 100),
+            new RateLimiter.Route("item-search", "/items/search", 2, 10)),
+            1000, Duration.ofMinutes(10), now::get, meterRegistry);
+
+    @Test
+    void testRejectRequestsOverCapacityUntilRefill() {
+        for (int i = 0; i < 3; i++) {
+            assertEquals(0, rateLimiter.acquire("/bookings", "user:1"));
+        }
+
+        long wait = rateLimiter.acquire("/bookings/owner", "user:1");
+        assertEquals(TimeUnit.SECONDS.toNanos(1), wait);
+        assertEquals(1, RateLimiter.retryAfterSeconds(wait));
+        assertEquals(1, meterRegistry.get("gateway.rate.limit.rejected").tag("route", "bookings").counter().count());
+
+        now.addAndGet(wait);
+        assertEquals(0, rateLimiter.acquire("/bookings", "user:1"));
+        assertTrue(rateLimiter.acquire("/bookings", "user:1") > 0);
+    }
+
+    @Test
+    void testKeepSeparateBudgetsPerClientAndRoute() {
+        rateLimiter.acquire("/items/search", "user:1");
+        rateLimiter.acquire("/items/search", "user:1");
+
+        assertTrue(rateLimiter.acquire("/items/search", "user:1") > 0, "у поиска свой бюджет");
+        assertEquals(0, rateLimiter.acquire("/items/search", "user:2"));
+        assertEquals(0, rateLimiter.acquire("/items/1", "user:1"));
+        assertEquals(0, rateLimiter.acquire("/users/1", "user:1"), "маршрут без бюджета не ограничен");
+        assertEquals(0, rateLimiter.acquire("/bookingsX", "user:1"));
+    }
+
+    @Test
+    void testForgetIdleClient() {
+        RateLimiter slowRefill = new RateLimiter(List.of(new RateLimiter.Route("bookings", "/bookings", 1, 0.001)),
+                1000, Duration.ofMinutes(1), now::get, meterRegistry);
+        slowRefill.acquire("/bookings", "user:1");
+        now.addAndGet(TimeUnit.SECONDS.toNanos(30));
+        assertTrue(slowRefill.acquire("/bookings", "user:1") > 0);
+
+        now.addAndGet(TimeUnit.MINUTES.toNanos(2));
+
+        assertEquals(0, slowRefill.acquire("/bookings", "user:1"), "корзина простаивавшего клиента удалена");
+    }
+
+    @Test
+    void testRoundRetryAfterUp() {
+        assertEquals(1, RateLimiter.retryAfterSeconds(1));
+        assertEquals(2, RateLimiter.retryAfterSeconds(TimeUnit.MILLISECONDS.toNanos(1001)));
+    }
+}
@@ -0,0 +1,23 @@
+package ru.practicum.shareit.booking;
+
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Window;
+import ru.practicum.shareit.booking.dto.CompactBookingDto;
+import ru.practicum.shareit.booking.enums.BookingState;
+
+import java.time.LocalDateTime;
+
+public interface BookingCompactStorage {
+    Window<CompactBookingDto> findCompactByTenantId(Long userId, BookingState state, LocalDateTime dateTime,
+                                                    ScrollPosition position, Limit limit);
+
+    Window<CompactBookingDto> findCompactByItemOwnerId(Long userId, BookingState state, LocalDateTime dateTime,
+                                                       ScrollPosition position, Limit limit);
+
+    /**
+     * Все бронирования вещи {@code itemId} арендатором {@code userId}.
+     */
+    Window<CompactBookingDto> findCompactByTenantIdAndItemId(Long userId, Long itemId, ScrollPosition position,
+                                                             Limit limit);
+}
@@ -0,0 +1,97 @@
+package ru.practicum.shareit.booking;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.TypedQuery;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Join;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Window;
+import org.springframework.lang.Nullable;
+import ru.practicum.shareit.booking.dto.CompactBookingDto;
+import ru.practicum.shareit.booking.enums.BookingState;
+import ru.practicum.shareit.item.model.Item;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.BiFunction;
+
+/**
+ * Выборка бронирований в компактном виде: только колонки бронирования, id и название вещи и id арендатора,
+ * без создания сущностей. Страницы строятся по тому же ключу (start, id), что и в {@link BookingStorage}.
+ */
+class BookingCompactStorageImpl implements BookingCompactStorage {
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public Window<CompactBookingDto> findCompactByTenantId(Long userId, BookingState state, LocalDateTime dateTime,
+                                                           ScrollPosition position, Limit limit) {
+        return findCompact((booking, item) -> booking.get("tenant").get("id"), userId, null, state, dateTime,
+                position, limit);
+    }
+
+    @Override
+    public Window<CompactBookingDto> findCompactByItemOwnerId(Long userId, BookingState state,
+                                                              LocalDateTime dateTime, ScrollPosition position,
+                                                              Limit limit) {
+        return findCompact((booking, item) -> item.get("owner").get("id"), userId, null, state, dateTime,
+                position, limit);
+    }
+
+    @Override
+    public Window<CompactBookingDto> findCompactByTenantIdAndItemId(Long userId, Long itemId,
+                                                                    ScrollPosition position, Limit limit) {
+        return findCompact((booking, item) -> booking.get("tenant").get("id"), userId, itemId, BookingState.ALL,
+                null, position, limit);
+    }
+
+    private Window<CompactBookingDto> findCompact(BiFunction<Root<Booking>, Join<Booking, Item>, Path<Long>> user,
+                                                  Long userId, @Nullable Long itemId, BookingState state,
+                                                  LocalDateTime dateTime, ScrollPosition position, Limit limit) {
+        CriteriaBuilder builder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<CompactBookingDto> query = builder.createQuery(CompactBookingDto.class);
+        Root<Booking> booking = query.from(Booking.class);
+        Join<Booking, Item> item = booking.join("item");
+        Path<LocalDateTime> start = booking.get("start");
+        Path<LocalDateTime> end = booking.get("end");
+        Path<Long> id = booking.get("id");
+
+        List<Predicate> predicates = new ArrayList<>();
+        predicates.add(builder.equal(user.apply(booking, item), userId));
+        if (itemId != null) {
+            predicates.add(builder.equal(item.get("id"), itemId));
+        }
+        predicates.add(BookingCriteria.hasState(builder, booking, state, dateTime));
+        Map<String, ?> keys = ((KeysetScrollPosition) position).getKeys();
+        if (!keys.isEmpty()) {
+            LocalDateTime lastStart = (LocalDateTime) keys.get("start");
+            Long lastId = (Long) keys.get("id");
+            predicates.add(builder.or(builder.lessThan(start, lastStart),
+                    builder.and(builder.equal(start, lastStart), builder.lessThan(id, lastId))));
+        }
+
+        query.select(builder.construct(CompactBookingDto.class, id, start, end, booking.get("status"),
+                        item.get("id"), item.get("name"), booking.get("tenant").get("id")))
+                .where(predicates.toArray(Predicate[]::new))
+                .orderBy(builder.desc(start), builder.desc(id));
+        TypedQuery<CompactBookingDto> typedQuery = entityManager.createQuery(query);
+        if (limit.isLimited()) {
+            typedQuery.setMaxResults(limit.max() + 1);
+        }
+        List<CompactBookingDto> rows = typedQuery.getResultList();
+
+        boolean hasNext = limit.isLimited() && rows.size() > limit.max();
+        List<CompactBookingDto> content = hasNext ? rows.subList(0, limit.max()) : rows;
+        return Window.from(content, index -> ScrollPosition.forward(Map.of(
+                "start", content.get(index).getStart(), "id", content.get(index).getId())), hasNext);
+    }
+}
@@ -1,12 +1,19 @@
 package ru.practicum.shareit.booking;
 
+import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.dto.BookingPageDto;
 import ru.practicum.shareit.booking.dto.ResponseBookingDto;
 import ru.practicum.shareit.booking.enums.BookingState;
+import ru.practicum.shareit.booking.enums.BookingView;
+import ru.practicum.shareit.stream.NdjsonResponseWriter;
 
+import java.io.IOException;
 import java.util.List;
 
 @RestController
@@ -14,7 +21,10 @@ import java.util.List;
 @RequiredArgsConstructor
 @Slf4j
 public class BookingController {
+    static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+
     private final BookingService bookingService;
+    private final NdjsonResponseWriter ndjsonWriter;
 
     @PostMapping
     public ResponseBookingDto addBookingRequest(@RequestBody BookingDto bookingDto,
@@ -36,14 +46,57 @@ public class BookingController {
     }
 
     @GetMapping
-    public List<ResponseBookingDto> getBookings(@RequestHeader("X-Sharer-User-Id") Long userId,
-                                                @RequestParam(defaultValue = "ALL") BookingState state) {
-        return bookingService.getBookings(userId, state);
+    public ResponseEntity<List<?>> getBookings(@RequestHeader("X-Sharer-User-Id") Long userId,
+                                               @RequestParam(defaultValue = "ALL") BookingState state,
+                                               @RequestParam(required = false) String cursor,
+                                               @RequestParam(required = false) Integer size,
+                                               @RequestParam(defaultValue = "FULL") BookingView view) {
+        return toResponse(view == BookingView.COMPACT
+                ? bookingService.getCompactBookings(userId, state, cursor, size)
+                : bookingService.getBookings(userId, state, cursor, size));
     }
 
     @GetMapping("/owner")
-    public List<ResponseBookingDto> getBookingsOfItemsOfOwner(@RequestHeader("X-Sharer-User-Id") Long userId,
-                                                              @RequestParam(defaultValue = "ALL") BookingState state) {
-        return bookingService.getBookingsOfAllItemsOfOwner(userId, state);
+    public ResponseEntity<List<?>> getBookingsOfItemsOfOwner(@RequestHeader("X-Sharer-User-Id") Long userId,
+                                                             @RequestParam(defaultValue = "ALL") BookingState state,
+                                                             @RequestParam(required = false) String cursor,
+                                                             @RequestParam(required = false) Integer size,
+                                                             @RequestParam(defaultValue = "FULL") BookingView view) {
+        return toResponse(view == BookingView.COMPACT
+                ? bookingService.getCompactBookingsOfAllItemsOfOwner(userId, state, cursor, size)
+                : bookingService.getBookingsOfAllItemsOfOwner(userId, state, cursor, size));
+    }
+
+    /**
+     * Бронирования одной вещи пользователем в компактном виде, новые первыми.
+     */
+    @GetMapping("/item/{itemId}")
+    public ResponseEntity<List<?>> getBookingsOfItem(@RequestHeader("X-Sharer-User-Id") Long userId,
+                                                     @PathVariable Long itemId,
+                                                     @RequestParam(required = false) String cursor,
+                                                     @RequestParam(defaultValue = "20") Integer size) {
+        return toResponse(bookingService.getCompactBookingsOfItem(userId, itemId, cursor, size));
+    }
+
+    @GetMapping(produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public void streamBookings(@RequestHeader("X-Sharer-User-Id") Long userId,
+                               @RequestParam(defaultValue = "ALL") BookingState state,
+                               HttpServletResponse response) throws IOException {
+        ndjsonWriter.write(response, sink -> bookingService.streamBookings(userId, state, sink));
+    }
+
+    @GetMapping(path = "/owner", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public void streamBookingsOfItemsOfOwner(@RequestHeader("X-Sharer-User-Id") Long userId,
+                                             @RequestParam(defaultValue = "ALL") BookingState state,
+                                             HttpServletResponse response) throws IOException {
+        ndjsonWriter.write(response, sink -> bookingService.streamBookingsOfAllItemsOfOwner(userId, state, sink));
+    }
+
+    private ResponseEntity<List<?>> toResponse(BookingPageDto<?> page) {
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (page.getNextCursor() != null) {
+            response.header(NEXT_CURSOR_HEADER, page.getNextCursor());
+        }
+        return response.body(page.getBookings());
     }
 }
@@ -0,0 +1,30 @@
+package ru.practicum.shareit.booking;
+
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import lombok.experimental.UtilityClass;
+import ru.practicum.shareit.booking.enums.BookingState;
+import ru.practicum.shareit.booking.enums.BookingStatus;
+
+import java.time.LocalDateTime;
+
+/**
+ * Условия Criteria-запросов по бронированиям, общие для компактной и потоковой выборок.
+ */
+@UtilityClass
+final class BookingCriteria {
+    Predicate hasState(CriteriaBuilder builder, Root<Booking> booking, BookingState state, LocalDateTime dateTime) {
+        Path<LocalDateTime> start = booking.get("start");
+        Path<LocalDateTime> end = booking.get("end");
+        return switch (state) {
+            case ALL -> builder.conjunction();
+            case PAST -> builder.lessThan(end, dateTime);
+            case FUTURE -> builder.greaterThan(start, dateTime);
+            case CURRENT -> builder.and(builder.lessThan(start, dateTime), builder.greaterThan(end, dateTime));
+            case REJECTED -> builder.equal(booking.get("status"), BookingStatus.REJECTED);
+            case WAITING -> builder.equal(booking.get("status"), BookingStatus.WAITING);
+        };
+    }
+}
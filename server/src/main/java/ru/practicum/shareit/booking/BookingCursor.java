@@ -0,0 +1,59 @@
+package ru.practicum.shareit.booking;
+
+import lombok.experimental.UtilityClass;
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import ru.practicum.shareit.exceptions.ValidationException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import java.util.Map;
+
+/**
+ * Курсор страницы бронирований: ключ (start, id) последней отданной записи в виде непрозрачной строки.
+ */
+@UtilityClass
+final class BookingCursor {
+    static final Sort NEWEST_FIRST = Sort.by(Sort.Direction.DESC, "start", "id");
+    /**
+     * Размер страницы, если передан курсор, но не передан размер.
+     */
+    static final int DEFAULT_PAGE_SIZE = 20;
+
+    private static final String START = "start";
+    private static final String ID = "id";
+    private static final String SEPARATOR = "_";
+
+    ScrollPosition decode(String cursor) {
+        if (cursor == null || cursor.isEmpty()) {
+            return ScrollPosition.keyset();
+        }
+        try {
+            String[] keys = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8)
+                    .split(SEPARATOR, 2);
+            return ScrollPosition.forward(Map.of(START, LocalDateTime.parse(keys[0]), ID, Long.valueOf(keys[1])));
+        } catch (IllegalArgumentException | DateTimeParseException | ArrayIndexOutOfBoundsException e) {
+            throw new ValidationException("Некорректный курсор страницы бронирований");
+        }
+    }
+
+    /**
+     * Размер страницы: без курсора и размера отдаются все бронирования, как до появления страниц.
+     */
+    Limit limit(String cursor, Integer size) {
+        if (size != null) {
+            return Limit.of(size);
+        }
+        return cursor == null || cursor.isEmpty() ? Limit.unlimited() : Limit.of(DEFAULT_PAGE_SIZE);
+    }
+
+    String encode(ScrollPosition position) {
+        Map<String, Object> keys = ((KeysetScrollPosition) position).getKeys();
+        String cursor = keys.get(START) + SEPARATOR + keys.get(ID);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(cursor.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -1,10 +1,12 @@
 package ru.practicum.shareit.booking;
 
 import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.dto.BookingPageDto;
+import ru.practicum.shareit.booking.dto.CompactBookingDto;
 import ru.practicum.shareit.booking.dto.ResponseBookingDto;
 import ru.practicum.shareit.booking.enums.BookingState;
 
-import java.util.List;
+import java.util.function.Consumer;
 
 public interface BookingService {
     ResponseBookingDto addBookingRequest(BookingDto bookingDto, Long userId);
@@ -13,7 +15,22 @@ public interface BookingService {
 
     ResponseBookingDto getBooking(Long bookingId, Long userId);
 
-    List<ResponseBookingDto> getBookings(Long userId, BookingState state);
+    BookingPageDto<ResponseBookingDto> getBookings(Long userId, BookingState state, String cursor, Integer size);
 
-    List<ResponseBookingDto> getBookingsOfAllItemsOfOwner(Long userId, BookingState state);
+    BookingPageDto<ResponseBookingDto> getBookingsOfAllItemsOfOwner(Long userId, BookingState state, String cursor,
+                                                                    Integer size);
+
+    BookingPageDto<CompactBookingDto> getCompactBookings(Long userId, BookingState state, String cursor,
+                                                         Integer size);
+
+    BookingPageDto<CompactBookingDto> getCompactBookingsOfAllItemsOfOwner(Long userId, BookingState state,
+                                                                          String cursor, Integer size);
+
+    BookingPageDto<CompactBookingDto> getCompactBookingsOfItem(Long userId, Long itemId, String cursor,
+                                                               Integer size);
+
+    void streamBookings(Long userId, BookingState state, Consumer<? super ResponseBookingDto> sink);
+
+    void streamBookingsOfAllItemsOfOwner(Long userId, BookingState state,
+                                         Consumer<? super ResponseBookingDto> sink);
 }
@@ -2,37 +2,53 @@ package ru.practicum.shareit.booking;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.ScrollPosition;
 import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.dto.BookingPageDto;
+import ru.practicum.shareit.booking.dto.CompactBookingDto;
 import ru.practicum.shareit.booking.dto.ResponseBookingDto;
 import ru.practicum.shareit.booking.enums.BookingState;
 import ru.practicum.shareit.booking.enums.BookingStatus;
 import ru.practicum.shareit.booking.mapper.BookingMapper;
+import ru.practicum.shareit.booking.summary.ItemBookingSummaryService;
+import ru.practicum.shareit.deadline.RequestDeadline;
+import ru.practicum.shareit.deadline.TransactionTimeouts;
 import ru.practicum.shareit.exceptions.AuthorizationException;
 import ru.practicum.shareit.exceptions.NotFoundException;
 import ru.practicum.shareit.exceptions.ValidationException;
 import ru.practicum.shareit.item.ItemStorage;
+import ru.practicum.shareit.item.event.ItemChangedEvent;
 import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.stream.EntityStreams;
 import ru.practicum.shareit.user.User;
 import ru.practicum.shareit.user.UserStorage;
 
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Objects;
+import java.util.function.Consumer;
+import java.util.function.Function;
 
 @Service
 @RequiredArgsConstructor
 @Slf4j
-@Transactional(readOnly = true)
+@Transactional(readOnly = true, timeoutString = TransactionTimeouts.READ)
 public class BookingServiceImpl implements BookingService {
     private final BookingStorage bookingStorage;
     private final UserStorage userStorage;
     private final ItemStorage itemStorage;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ItemBookingSummaryService bookingSummaryService;
+    private final EntityStreams entityStreams;
 
     @Override
-    @Transactional
+    @Transactional(timeoutString = TransactionTimeouts.WRITE)
     public ResponseBookingDto addBookingRequest(BookingDto bookingDto, Long userId) {
         User user = userStorage.findById(userId).orElseThrow(() -> new NotFoundException("User not found"));
         Item item = itemStorage.findById(bookingDto.getItemId())
@@ -43,12 +59,13 @@ public class BookingServiceImpl implements BookingService {
         if (bookingDto.getStart().equals(bookingDto.getEnd())) {
             throw new ValidationException("Дата начала и конца бронирования не могут совпадать");
         }
-        return BookingMapper.mapToResponse(
-                bookingStorage.save(BookingMapper.mapToBooking(bookingDto, user, item, BookingStatus.WAITING)));
+        Booking booking = bookingStorage.save(BookingMapper.mapToBooking(bookingDto, user, item, BookingStatus.WAITING));
+        bookingSummaryService.refresh(List.of(item.getId()));
+        return BookingMapper.mapToResponse(booking);
     }
 
     @Override
-    @Transactional
+    @Transactional(timeoutString = TransactionTimeouts.WRITE)
     public ResponseBookingDto approveBooking(Long bookingId, Long userId, Boolean approved) {
         Booking booking = bookingStorage.findById(bookingId)
                 .orElseThrow(() -> new NotFoundException("Booking not found"));
@@ -61,6 +78,7 @@ public class BookingServiceImpl implements BookingService {
         if (approved) {
             booking.setStatus(BookingStatus.APPROVED);
             booking.getItem().setAvailable(false);
+            eventPublisher.publishEvent(new ItemChangedEvent(booking.getItem()));
         } else {
             booking.setStatus(BookingStatus.REJECTED);
         }
@@ -79,34 +97,99 @@ public class BookingServiceImpl implements BookingService {
     }
 
     @Override
-    public List<ResponseBookingDto> getBookings(Long userId, BookingState state) {
-        Sort newestFirst = Sort.by(Sort.Direction.DESC, "start");
+    public BookingPageDto<ResponseBookingDto> getBookings(Long userId, BookingState state, String cursor,
+                                                          Integer size) {
         userStorage.findById(userId).orElseThrow(() -> new NotFoundException("User not found"));
-        List<Booking> bookings = switch (state) {
-            case ALL -> bookingStorage.findAllByTenantId(userId, newestFirst);
-            case PAST -> bookingStorage.findAllByTenantIdAndEndBefore(userId, LocalDateTime.now(), newestFirst);
-            case FUTURE -> bookingStorage.findAllByTenantIdAndStartAfter(userId, LocalDateTime.now(), newestFirst);
-            case CURRENT ->
-                    bookingStorage.findAllByTenantIdAndBetweenStartAndEnd(userId, LocalDateTime.now(), newestFirst);
-            case REJECTED -> bookingStorage.findAllByTenantIdAndStatus(userId, BookingStatus.REJECTED, newestFirst);
-            case WAITING -> bookingStorage.findAllByTenantIdAndStatus(userId, BookingStatus.WAITING, newestFirst);
+        ScrollPosition position = BookingCursor.decode(cursor);
+        Sort newestFirst = BookingCursor.NEWEST_FIRST;
+        Limit limit = BookingCursor.limit(cursor, size);
+        LocalDateTime now = LocalDateTime.now();
+        Window<Booking> bookings = switch (state) {
+            case ALL -> bookingStorage.findAllByTenantId(userId, position, newestFirst, limit);
+            case PAST -> bookingStorage.findAllByTenantIdAndEndBefore(userId, now, position, newestFirst, limit);
+            case FUTURE -> bookingStorage.findAllByTenantIdAndStartAfter(userId, now, position, newestFirst, limit);
+            case CURRENT -> bookingStorage.findAllByTenantIdAndStartBeforeAndEndAfter(userId, now, now,
+                    position, newestFirst, limit);
+            case REJECTED -> bookingStorage.findAllByTenantIdAndStatus(userId, BookingStatus.REJECTED,
+                    position, newestFirst, limit);
+            case WAITING -> bookingStorage.findAllByTenantIdAndStatus(userId, BookingStatus.WAITING,
+                    position, newestFirst, limit);
         };
-        return bookings.stream().map(BookingMapper::mapToResponse).toList();
+        return mapToPage(bookings, BookingMapper::mapToResponse);
     }
 
     @Override
-    public List<ResponseBookingDto> getBookingsOfAllItemsOfOwner(Long userId, BookingState state) {
-        Sort newestFirst = Sort.by(Sort.Direction.DESC, "start");
+    public BookingPageDto<ResponseBookingDto> getBookingsOfAllItemsOfOwner(Long userId, BookingState state,
+                                                                           String cursor, Integer size) {
         userStorage.findById(userId).orElseThrow(() -> new NotFoundException("User not found"));
-        List<Booking> bookings = switch (state) {
-            case ALL -> bookingStorage.findAllByItemOwnerId(userId, newestFirst);
-            case PAST -> bookingStorage.findAllByItemOwnerIdAndEndBefore(userId, LocalDateTime.now(), newestFirst);
-            case FUTURE -> bookingStorage.findAllByItemOwnerIdAndStartAfter(userId, LocalDateTime.now(), newestFirst);
-            case CURRENT ->
-                    bookingStorage.findAllByItemOwnerIdAndBetweenStartAndEnd(userId, LocalDateTime.now(), newestFirst);
-            case REJECTED -> bookingStorage.findAllByItemOwnerIdAndStatus(userId, BookingStatus.REJECTED, newestFirst);
-            case WAITING -> bookingStorage.findAllByItemOwnerIdAndStatus(userId, BookingStatus.WAITING, newestFirst);
+        ScrollPosition position = BookingCursor.decode(cursor);
+        Sort newestFirst = BookingCursor.NEWEST_FIRST;
+        Limit limit = BookingCursor.limit(cursor, size);
+        LocalDateTime now = LocalDateTime.now();
+        Window<Booking> bookings = switch (state) {
+            case ALL -> bookingStorage.findAllByItemOwnerId(userId, position, newestFirst, limit);
+            case PAST -> bookingStorage.findAllByItemOwnerIdAndEndBefore(userId, now, position, newestFirst, limit);
+            case FUTURE -> bookingStorage.findAllByItemOwnerIdAndStartAfter(userId, now, position, newestFirst, limit);
+            case CURRENT -> bookingStorage.findAllByItemOwnerIdAndStartBeforeAndEndAfter(userId, now, now,
+                    position, newestFirst, limit);
+            case REJECTED -> bookingStorage.findAllByItemOwnerIdAndStatus(userId, BookingStatus.REJECTED,
+                    position, newestFirst, limit);
+            case WAITING -> bookingStorage.findAllByItemOwnerIdAndStatus(userId, BookingStatus.WAITING,
+                    position, newestFirst, limit);
         };
-        return bookings.stream().map(BookingMapper::mapToResponse).toList();
+        return mapToPage(bookings, BookingMapper::mapToResponse);
+    }
+
+    @Override
+    public BookingPageDto<CompactBookingDto> getCompactBookings(Long userId, BookingState state, String cursor,
+                                                                Integer size) {
+        userStorage.findById(userId).orElseThrow(() -> new NotFoundException("User not found"));
+        return mapToPage(bookingStorage.findCompactByTenantId(userId, state, LocalDateTime.now(),
+                BookingCursor.decode(cursor), BookingCursor.limit(cursor, size)), booking -> booking);
+    }
+
+    @Override
+    public BookingPageDto<CompactBookingDto> getCompactBookingsOfAllItemsOfOwner(Long userId, BookingState state,
+                                                                                 String cursor, Integer size) {
+        userStorage.findById(userId).orElseThrow(() -> new NotFoundException("User not found"));
+        return mapToPage(bookingStorage.findCompactByItemOwnerId(userId, state, LocalDateTime.now(),
+                BookingCursor.decode(cursor), BookingCursor.limit(cursor, size)), booking -> booking);
+    }
+
+    @Override
+    public BookingPageDto<CompactBookingDto> getCompactBookingsOfItem(Long userId, Long itemId, String cursor,
+                                                                      Integer size) {
+        userStorage.findById(userId).orElseThrow(() -> new NotFoundException("User not found"));
+        return mapToPage(bookingStorage.findCompactByTenantIdAndItemId(userId, itemId, BookingCursor.decode(cursor),
+                BookingCursor.limit(cursor, size)), booking -> booking);
+    }
+
+    @Override
+    @Transactional(readOnly = true, timeoutString = TransactionTimeouts.STREAM)
+    public void streamBookings(Long userId, BookingState state, Consumer<? super ResponseBookingDto> sink) {
+        userStorage.findById(userId).orElseThrow(() -> new NotFoundException("User not found"));
+        entityStreams.forEachChunk(bookingStorage.streamByTenantId(userId, state, LocalDateTime.now()),
+                bookings -> bookings.forEach(booking -> sink.accept(BookingMapper.mapToResponse(booking))));
+    }
+
+    @Override
+    @Transactional(readOnly = true, timeoutString = TransactionTimeouts.STREAM)
+    public void streamBookingsOfAllItemsOfOwner(Long userId, BookingState state,
+                                                Consumer<? super ResponseBookingDto> sink) {
+        userStorage.findById(userId).orElseThrow(() -> new NotFoundException("User not found"));
+        entityStreams.forEachChunk(bookingStorage.streamByItemOwnerId(userId, state, LocalDateTime.now()),
+                bookings -> bookings.forEach(booking -> sink.accept(BookingMapper.mapToResponse(booking))));
+    }
+
+    private <T, R> BookingPageDto<R> mapToPage(Window<T> bookings, Function<T, R> mapper) {
+        String nextCursor = bookings.hasNext() && !bookings.isEmpty()
+                ? BookingCursor.encode(bookings.positionAt(bookings.size() - 1))
+                : null;
+        return new BookingPageDto<>(bookings.stream()
+                .map(booking -> {
+                    RequestDeadline.check();
+                    return mapper.apply(booking);
+                })
+                .toList(), nextCursor);
     }
 }
@@ -1,35 +1,62 @@
 package ru.practicum.shareit.booking;
 
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.ScrollPosition;
 import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import ru.practicum.shareit.booking.enums.BookingStatus;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
 
-public interface BookingStorage extends JpaRepository<Booking, Long> {
-    List<Booking> findAllByTenantId(Long userId, Sort sort);
+public interface BookingStorage extends JpaRepository<Booking, Long>, BookingCompactStorage,
+        BookingStreamStorage {
+    @Override
+    @EntityGraph(attributePaths = {"tenant", "item"})
+    Optional<Booking> findById(Long bookingId);
 
-    List<Booking> findAllByTenantIdAndEndBefore(Long userId, LocalDateTime dateTime, Sort sort);
+    @EntityGraph(attributePaths = {"tenant", "item"})
+    Window<Booking> findAllByTenantId(Long userId, ScrollPosition position, Sort sort, Limit limit);
 
-    List<Booking> findAllByTenantIdAndStartAfter(Long userId, LocalDateTime dateTime, Sort sort);
+    @EntityGraph(attributePaths = {"tenant", "item"})
+    Window<Booking> findAllByTenantIdAndEndBefore(Long userId, LocalDateTime dateTime,
+                                                  ScrollPosition position, Sort sort, Limit limit);
 
-    @Query(value = "select bk from Booking as bk where bk.tenant.id = ?1 and bk.start < ?2 and bk.end > ?2")
-    List<Booking> findAllByTenantIdAndBetweenStartAndEnd(Long userId, LocalDateTime dateTime, Sort sort);
+    @EntityGraph(attributePaths = {"tenant", "item"})
+    Window<Booking> findAllByTenantIdAndStartAfter(Long userId, LocalDateTime dateTime,
+                                                   ScrollPosition position, Sort sort, Limit limit);
 
-    List<Booking> findAllByTenantIdAndStatus(Long userId, BookingStatus status, Sort sort);
+    @EntityGraph(attributePaths = {"tenant", "item"})
+    Window<Booking> findAllByTenantIdAndStartBeforeAndEndAfter(Long userId, LocalDateTime start, LocalDateTime end,
+                                                               ScrollPosition position, Sort sort, Limit limit);
 
-    List<Booking> findAllByItemOwnerId(Long userId, Sort sort);
+    @EntityGraph(attributePaths = {"tenant", "item"})
+    Window<Booking> findAllByTenantIdAndStatus(Long userId, BookingStatus status,
+                                               ScrollPosition position, Sort sort, Limit limit);
 
-    List<Booking> findAllByItemOwnerIdAndEndBefore(Long userId, LocalDateTime dateTime, Sort sort);
+    @EntityGraph(attributePaths = {"tenant", "item"})
+    Window<Booking> findAllByItemOwnerId(Long userId, ScrollPosition position, Sort sort, Limit limit);
 
-    List<Booking> findAllByItemOwnerIdAndStartAfter(Long userId, LocalDateTime dateTime, Sort sort);
+    @EntityGraph(attributePaths = {"tenant", "item"})
+    Window<Booking> findAllByItemOwnerIdAndEndBefore(Long userId, LocalDateTime dateTime,
+                                                     ScrollPosition position, Sort sort, Limit limit);
 
-    @Query(value = "select bk from Booking as bk where bk.item.owner.id = ?1 and bk.start < ?2 and bk.end > ?2")
-    List<Booking> findAllByItemOwnerIdAndBetweenStartAndEnd(Long userId, LocalDateTime dateTime, Sort sort);
+    @EntityGraph(attributePaths = {"tenant", "item"})
+    Window<Booking> findAllByItemOwnerIdAndStartAfter(Long userId, LocalDateTime dateTime,
+                                                      ScrollPosition position, Sort sort, Limit limit);
 
-    List<Booking> findAllByItemOwnerIdAndStatus(Long userId, BookingStatus status, Sort sort);
+    @EntityGraph(attributePaths = {"tenant", "item"})
+    Window<Booking> findAllByItemOwnerIdAndStartBeforeAndEndAfter(Long userId, LocalDateTime start,
+                                                                  LocalDateTime end, ScrollPosition position,
+                                                                  Sort sort, Limit limit);
+
+    @EntityGraph(attributePaths = {"tenant", "item"})
+    Window<Booking> findAllByItemOwnerIdAndStatus(Long userId, BookingStatus status,
+                                                  ScrollPosition position, Sort sort, Limit limit);
 
     Booking findByTenantIdAndItemIdAndStatusAndEndBefore(Long userId, Long itemId,
                                                          BookingStatus status, LocalDateTime dateTime);
@@ -41,4 +68,19 @@ public interface BookingStorage extends JpaRepository<Booking, Long> {
     @Query(value = "select bk from Booking as bk " +
             "where bk.item.id = ?1 and bk.start > ?2 order by bk.start limit 1")
     List<Booking> findAllByItemIdAfterTime(Long itemId, LocalDateTime dateTime);
+
+    @Query(value = "select bk from Booking as bk join fetch bk.tenant " +
+            "where bk.item.id in ?1 and bk.end = (select max(b.end) from Booking as b " +
+            "where b.item.id = bk.item.id and b.end < ?2) order by bk.id")
+    List<Booking> findLastBookingsOfItems(List<Long> itemIds, LocalDateTime dateTime);
+
+    @Query(value = "select bk from Booking as bk join fetch bk.tenant " +
+            "where bk.item.id in ?1 and bk.start = (select min(b.start) from Booking as b " +
+            "where b.item.id = bk.item.id and b.start > ?2) order by bk.id")
+    List<Booking> findNextBookingsOfItems(List<Long> itemIds, LocalDateTime dateTime);
+
+    @Query(value = "select bk from Booking as bk " +
+            "where bk.item.id in ?1 and bk.end = (select min(b.end) from Booking as b " +
+            "where b.item.id = bk.item.id and b.end >= ?2) order by bk.id")
+    List<Booking> findFirstEndingBookingsOfItems(List<Long> itemIds, LocalDateTime dateTime);
 }
@@ -0,0 +1,12 @@
+package ru.practicum.shareit.booking;
+
+import ru.practicum.shareit.booking.enums.BookingState;
+
+import java.time.LocalDateTime;
+import java.util.stream.Stream;
+
+public interface BookingStreamStorage {
+    Stream<Booking> streamByTenantId(Long userId, BookingState state, LocalDateTime dateTime);
+
+    Stream<Booking> streamByItemOwnerId(Long userId, BookingState state, LocalDateTime dateTime);
+}
@@ -0,0 +1,52 @@
+package ru.practicum.shareit.booking;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Join;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Root;
+import org.hibernate.jpa.AvailableHints;
+import ru.practicum.shareit.booking.enums.BookingState;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.stream.EntityStreams;
+
+import java.time.LocalDateTime;
+import java.util.function.BiFunction;
+import java.util.stream.Stream;
+
+/**
+ * Потоковое чтение бронирований с вещью и арендатором в том же порядке, что и постраничные списки.
+ * Поток нужно читать внутри транзакции и закрывать.
+ */
+class BookingStreamStorageImpl implements BookingStreamStorage {
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public Stream<Booking> streamByTenantId(Long userId, BookingState state, LocalDateTime dateTime) {
+        return stream((booking, item) -> booking.get("tenant").get("id"), userId, state, dateTime);
+    }
+
+    @Override
+    public Stream<Booking> streamByItemOwnerId(Long userId, BookingState state, LocalDateTime dateTime) {
+        return stream((booking, item) -> item.get("owner").get("id"), userId, state, dateTime);
+    }
+
+    private Stream<Booking> stream(BiFunction<Root<Booking>, Join<Booking, Item>, Path<Long>> user, Long userId,
+                                   BookingState state, LocalDateTime dateTime) {
+        CriteriaBuilder builder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Booking> query = builder.createQuery(Booking.class);
+        Root<Booking> booking = query.from(Booking.class);
+        booking.fetch("tenant");
+        Join<Booking, Item> item = (Join<Booking, Item>) booking.<Booking, Item>fetch("item");
+        query.where(builder.equal(user.apply(booking, item), userId),
+                        BookingCriteria.hasState(builder, booking, state, dateTime))
+                .orderBy(builder.desc(booking.get("start")), builder.desc(booking.get("id")));
+        return entityManager.createQuery(query)
+                .setHint(AvailableHints.HINT_FETCH_SIZE, EntityStreams.CHUNK_SIZE)
+                .setHint(AvailableHints.HINT_READ_ONLY, true)
+                .getResultStream();
+    }
+}
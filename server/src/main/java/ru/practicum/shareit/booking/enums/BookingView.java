@@ -0,0 +1,5 @@
+package ru.practicum.shareit.booking.enums;
+
+public enum BookingView {
+    FULL, COMPACT
+}
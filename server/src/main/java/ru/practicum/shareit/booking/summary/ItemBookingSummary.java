@@ -0,0 +1,36 @@
+package ru.practicum.shareit.booking.summary;
+
+import jakarta.persistence.*;
+import lombok.*;
+import ru.practicum.shareit.booking.Booking;
+
+import java.time.LocalDateTime;
+
+@Getter
+@Setter
+@Builder
+@Entity
+@Table(name = "item_booking_summary")
+@NoArgsConstructor
+@AllArgsConstructor
+public class ItemBookingSummary {
+    @Id
+    @Column(name = "item_id")
+    private Long itemId;
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "last_booking_id")
+    private Booking lastBooking;
+    @Column(name = "last_booking_end")
+    private LocalDateTime lastBookingEnd;
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "next_booking_id")
+    private Booking nextBooking;
+    @Column(name = "next_booking_start")
+    private LocalDateTime nextBookingStart;
+    @Column(name = "valid_until")
+    private LocalDateTime validUntil;
+
+    public boolean isValidAt(LocalDateTime dateTime) {
+        return validUntil == null || dateTime.isBefore(validUntil);
+    }
+}
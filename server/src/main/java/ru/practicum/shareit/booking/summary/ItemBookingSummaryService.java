@@ -0,0 +1,182 @@
+package ru.practicum.shareit.booking.summary;
+
+import jakarta.persistence.EntityManager;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.booking.Booking;
+import ru.practicum.shareit.booking.BookingStorage;
+import ru.practicum.shareit.deadline.TransactionTimeouts;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Сводки последнего и следующего бронирования вещей. Перед пересчётом строки вещей блокируются, поэтому
+ * параллельные бронирования одной вещи пересчитывают её сводку по очереди: второй пересчёт видит и бронирование
+ * первого, и созданную им строку сводки.
+ */
+@Slf4j
+@Service
+@Transactional(readOnly = true, timeoutString = TransactionTimeouts.READ)
+public class ItemBookingSummaryService {
+    private static final int BATCH_SIZE = 500;
+
+    private final ItemBookingSummaryStorage summaryStorage;
+    private final BookingStorage bookingStorage;
+    private final EntityManager entityManager;
+    private final TransactionTemplate chunkTransaction;
+
+    public ItemBookingSummaryService(ItemBookingSummaryStorage summaryStorage, BookingStorage bookingStorage,
+                                     EntityManager entityManager, PlatformTransactionManager transactionManager,
+                                     @Value("${shareit.transaction-timeout.batch}") int chunkTimeout) {
+        this.summaryStorage = summaryStorage;
+        this.bookingStorage = bookingStorage;
+        this.entityManager = entityManager;
+        this.chunkTransaction = new TransactionTemplate(transactionManager);
+        this.chunkTransaction.setTimeout(chunkTimeout);
+    }
+
+    @Transactional(timeoutString = TransactionTimeouts.WRITE)
+    public void refresh(List<Long> itemIds) {
+        refresh(itemIds, LocalDateTime.now());
+    }
+
+    @Transactional(timeoutString = TransactionTimeouts.MAINTENANCE)
+    @Scheduled(fixedDelayString = "${shareit.booking-summary.roll-forward-delay}")
+    public int rollForward() {
+        LocalDateTime now = LocalDateTime.now();
+        List<Long> itemIds = new ArrayList<>(summaryStorage.findItemIdsValidUntilNotAfter(now, Limit.of(BATCH_SIZE)));
+        itemIds.addAll(summaryStorage.findItemIdsWithoutSummary(Limit.of(BATCH_SIZE)));
+        if (!itemIds.isEmpty()) {
+            refresh(itemIds, now);
+            log.info("обновлены сводки бронирований для {} вещей", itemIds.size());
+        }
+        return itemIds.size();
+    }
+
+    /**
+     * Сверяет сводки всех вещей с таблицей booking. Каждые {@value #BATCH_SIZE} вещей сверяются в своей
+     * транзакции, после которой контекст хранения очищается, поэтому сверка не держит одну долгую транзакцию
+     * и блокировки всех вещей.
+     */
+    @Transactional(propagation = Propagation.SUPPORTS)
+    @Scheduled(cron = "${shareit.booking-summary.reconcile-cron}")
+    public int reconcile() {
+        int mismatches = 0;
+        Long lastItemId = 0L;
+        List<Long> itemIds;
+        do {
+            itemIds = summaryStorage.findItemIdsAfter(lastItemId, Limit.of(BATCH_SIZE));
+            if (itemIds.isEmpty()) {
+                break;
+            }
+            List<Long> chunk = itemIds;
+            mismatches += chunkTransaction.execute(status -> reconcile(chunk, LocalDateTime.now()));
+            lastItemId = itemIds.getLast();
+        } while (itemIds.size() == BATCH_SIZE);
+        log.info("сверка сводок бронирований завершена, расхождений: {}", mismatches);
+        return mismatches;
+    }
+
+    private int reconcile(List<Long> itemIds, LocalDateTime now) {
+        summaryStorage.lockItemsByIdIn(itemIds);
+        Map<Long, ItemBookingSummary> actual = findAllById(itemIds);
+        List<ItemBookingSummary> mismatched = calculate(itemIds, now).stream()
+                .filter(expected -> !sameBookings(actual.get(expected.getItemId()), expected))
+                .toList();
+        mismatched.forEach(expected ->
+                log.warn("сводка бронирований вещи {} не совпадает с таблицей booking", expected.getItemId()));
+        save(mismatched, actual);
+        entityManager.flush();
+        entityManager.clear();
+        return mismatched.size();
+    }
+
+    private void refresh(List<Long> itemIds, LocalDateTime now) {
+        summaryStorage.lockItemsByIdIn(itemIds);
+        save(calculate(itemIds, now), findAllById(itemIds));
+    }
+
+    private Map<Long, ItemBookingSummary> findAllById(List<Long> itemIds) {
+        return summaryStorage.findAllById(itemIds).stream()
+                .collect(Collectors.toMap(ItemBookingSummary::getItemId, Function.identity()));
+    }
+
+    private void save(List<ItemBookingSummary> calculated, Map<Long, ItemBookingSummary> existing) {
+        List<ItemBookingSummary> created = new ArrayList<>();
+        for (ItemBookingSummary summary : calculated) {
+            ItemBookingSummary stored = existing.get(summary.getItemId());
+            if (stored == null) {
+                created.add(summary);
+            } else {
+                stored.setLastBooking(summary.getLastBooking());
+                stored.setLastBookingEnd(summary.getLastBookingEnd());
+                stored.setNextBooking(summary.getNextBooking());
+                stored.setNextBookingStart(summary.getNextBookingStart());
+                stored.setValidUntil(summary.getValidUntil());
+            }
+        }
+        summaryStorage.saveAll(created);
+    }
+
+    private List<ItemBookingSummary> calculate(List<Long> itemIds, LocalDateTime now) {
+        if (itemIds.isEmpty()) {
+            return List.of();
+        }
+        Map<Long, Booking> lastBookings = mapByItemId(bookingStorage.findLastBookingsOfItems(itemIds, now));
+        Map<Long, Booking> nextBookings = mapByItemId(bookingStorage.findNextBookingsOfItems(itemIds, now));
+        Map<Long, Booking> endingBookings = mapByItemId(bookingStorage.findFirstEndingBookingsOfItems(itemIds, now));
+        return itemIds.stream()
+                .map(itemId -> {
+                    Booking last = lastBookings.get(itemId);
+                    Booking next = nextBookings.get(itemId);
+                    Booking ending = endingBookings.get(itemId);
+                    return ItemBookingSummary.builder()
+                            .itemId(itemId)
+                            .lastBooking(last)
+                            .lastBookingEnd(last == null ? null : last.getEnd())
+                            .nextBooking(next)
+                            .nextBookingStart(next == null ? null : next.getStart())
+                            .validUntil(earliest(next == null ? null : next.getStart(),
+                                    ending == null ? null : ending.getEnd()))
+                            .build();
+                })
+                .toList();
+    }
+
+    private Map<Long, Booking> mapByItemId(List<Booking> bookings) {
+        Map<Long, Booking> bookingsByItemId = new HashMap<>();
+        bookings.forEach(booking -> bookingsByItemId.putIfAbsent(booking.getItem().getId(), booking));
+        return bookingsByItemId;
+    }
+
+    private static LocalDateTime earliest(LocalDateTime first, LocalDateTime second) {
+        if (first == null || second == null) {
+            return first == null ? second : first;
+        }
+        return first.isBefore(second) ? first : second;
+    }
+
+    private static boolean sameBookings(ItemBookingSummary actual, ItemBookingSummary expected) {
+        return actual != null &&
+                Objects.equals(bookingId(actual.getLastBooking()), bookingId(expected.getLastBooking())) &&
+                Objects.equals(bookingId(actual.getNextBooking()), bookingId(expected.getNextBooking()));
+    }
+
+    private static Long bookingId(Booking booking) {
+        return booking == null ? null : booking.getId();
+    }
+}
@@ -0,0 +1,37 @@
+package ru.practicum.shareit.booking.summary;
+
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import ru.practicum.shareit.item.model.Item;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface ItemBookingSummaryStorage extends JpaRepository<ItemBookingSummary, Long> {
+    @Query(value = "select s from ItemBookingSummary as s " +
+            "left join fetch s.lastBooking as lb left join fetch lb.tenant " +
+            "left join fetch s.nextBooking as nb left join fetch nb.tenant " +
+            "where s.itemId in ?1")
+    List<ItemBookingSummary> findAllWithBookingsByItemIdIn(List<Long> itemIds);
+
+    @Query(value = "select s.itemId from ItemBookingSummary as s where s.validUntil <= ?1 order by s.validUntil")
+    List<Long> findItemIdsValidUntilNotAfter(LocalDateTime dateTime, Limit limit);
+
+    @Query(value = "select it.id from Item as it " +
+            "where not exists (select s from ItemBookingSummary as s where s.itemId = it.id) order by it.id")
+    List<Long> findItemIdsWithoutSummary(Limit limit);
+
+    @Query(value = "select it.id from Item as it where it.id > ?1 order by it.id")
+    List<Long> findItemIdsAfter(Long itemId, Limit limit);
+
+    /**
+     * Блокирует строки вещей до конца транзакции в порядке id, чтобы сводки одной вещи не пересчитывались
+     * параллельно. Строки сводок блокировать нельзя: у вещи без бронирований сводки ещё нет.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query(value = "select it from Item as it where it.id in ?1 order by it.id")
+    List<Item> lockItemsByIdIn(List<Long> itemIds);
+}
@@ -0,0 +1,32 @@
+package ru.practicum.shareit.config;
+
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
+import org.springframework.web.filter.ShallowEtagHeaderFilter;
+
+/**
+ * {@code ETag} для ответов на чтение вещей и запросов: шлюз проверяет свой кэш условным запросом
+ * и при неизменном ответе получает {@code 304 Not Modified} без тела. Потоковые списки не буферизуются.
+ */
+@Configuration
+public class EtagConfig {
+    @Bean
+    public FilterRegistrationBean<ShallowEtagHeaderFilter> etagFilter() {
+        FilterRegistrationBean<ShallowEtagHeaderFilter> registration = new FilterRegistrationBean<>(
+                new ShallowEtagHeaderFilter() {
+                    @Override
+                    protected boolean shouldNotFilter(HttpServletRequest request) {
+                        String accept = request.getHeader(HttpHeaders.ACCEPT);
+                        return !HttpMethod.GET.matches(request.getMethod())
+                                || accept != null && accept.contains(MediaType.APPLICATION_NDJSON_VALUE);
+                    }
+                });
+        registration.addUrlPatterns("/items/*", "/requests/*");
+        return registration;
+    }
+}
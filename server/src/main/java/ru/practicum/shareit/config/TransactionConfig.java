@@ -0,0 +1,24 @@
+package ru.practicum.shareit.config;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.transaction.TransactionManagerCustomizers;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionManager;
+import ru.practicum.shareit.deadline.DeadlineTransactionManager;
+
+/**
+ * Менеджер транзакций JPA, который учитывает срок запроса от шлюза, вместо менеджера Spring Boot по умолчанию.
+ */
+@Configuration
+public class TransactionConfig {
+    @Bean
+    public PlatformTransactionManager transactionManager(EntityManagerFactory entityManagerFactory,
+                                                         ObjectProvider<TransactionManagerCustomizers> customizers) {
+        DeadlineTransactionManager transactionManager = new DeadlineTransactionManager(entityManagerFactory);
+        customizers.ifAvailable(customizer -> customizer.customize((TransactionManager) transactionManager));
+        return transactionManager;
+    }
+}
@@ -0,0 +1,82 @@
+package ru.practicum.shareit.deadline;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import ru.practicum.shareit.exceptions.ErrorResponse;
+
+import java.io.IOException;
+
+/**
+ * Запоминает срок запроса из заголовка {@value RequestDeadline#HEADER}. Запрос, срок которого уже истёк,
+ * сразу отклоняется с кодом {@code 504 Gateway Timeout}: шлюз ответ не дождётся. Некорректный заголовок
+ * игнорируется, как и заголовок потоковых запросов NDJSON: их ответ начинает отправляться с первой строки,
+ * и прервать его по сроку можно только на середине тела. Длительность потока ограничивает тайм-аут
+ * транзакции {@code shareit.transaction-timeout.stream}.
+ */
+@Slf4j
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+@RequiredArgsConstructor
+public class DeadlineFilter extends OncePerRequestFilter {
+    private final ObjectMapper objectMapper;
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        Long timeoutMillis = timeoutMillis(request.getHeader(RequestDeadline.HEADER));
+        if (timeoutMillis == null || isStream(request)) {
+            chain.doFilter(request, response);
+            return;
+        }
+        if (timeoutMillis <= 0) {
+            log.debug("запрос {} {} отклонён: срок истёк до начала обработки", request.getMethod(),
+                    request.getRequestURI());
+            response.setStatus(HttpStatus.GATEWAY_TIMEOUT.value());
+            response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+            objectMapper.writeValue(response.getOutputStream(),
+                    new ErrorResponse("Истёк срок выполнения запроса"));
+            return;
+        }
+        RequestDeadline.start(timeoutMillis);
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            RequestDeadline.clear();
+        }
+    }
+
+    private static boolean isStream(HttpServletRequest request) {
+        String accept = request.getHeader(HttpHeaders.ACCEPT);
+        try {
+            return accept != null && MediaType.parseMediaTypes(accept).stream()
+                    .anyMatch(MediaType.APPLICATION_NDJSON::equalsTypeAndSubtype);
+        } catch (InvalidMediaTypeException e) {
+            return false;
+        }
+    }
+
+    private static Long timeoutMillis(String header) {
+        if (header == null) {
+            return null;
+        }
+        try {
+            return Long.parseLong(header.trim());
+        } catch (NumberFormatException e) {
+            log.debug("некорректный заголовок {}: {}", RequestDeadline.HEADER, header);
+            return null;
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package ru.practicum.shareit.deadline;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.springframework.orm.jpa.JpaTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+
+import java.util.OptionalLong;
+
+/**
+ * Менеджер транзакций, который укорачивает тайм-аут транзакции до срока запроса. Hibernate передаёт остаток
+ * тайм-аута транзакции в {@code Statement.setQueryTimeout}, поэтому запрос к базе, не уложившийся в срок,
+ * отменяется самой базой. Тайм-аут JDBC задаётся в секундах, так что остаток округляется вверх. Транзакция
+ * по запросу с истёкшим сроком не начинается.
+ */
+public class DeadlineTransactionManager extends JpaTransactionManager {
+    public DeadlineTransactionManager(EntityManagerFactory entityManagerFactory) {
+        super(entityManagerFactory);
+    }
+
+    @Override
+    protected void doBegin(Object transaction, TransactionDefinition definition) {
+        RequestDeadline.check();
+        super.doBegin(transaction, definition);
+    }
+
+    @Override
+    protected int determineTimeout(TransactionDefinition definition) {
+        int timeout = super.determineTimeout(definition);
+        OptionalLong remaining = RequestDeadline.remainingMillis();
+        if (remaining.isEmpty()) {
+            return timeout;
+        }
+        int remainingSeconds = (int) Math.clamp((remaining.getAsLong() + 999) / 1000, 1, Integer.MAX_VALUE);
+        return timeout == TransactionDefinition.TIMEOUT_DEFAULT ? remainingSeconds
+                : Math.min(timeout, remainingSeconds);
+    }
+}
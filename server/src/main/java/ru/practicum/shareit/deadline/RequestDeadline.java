@@ -0,0 +1,51 @@
+package ru.practicum.shareit.deadline;
+
+import ru.practicum.shareit.exceptions.DeadlineExceededException;
+
+import java.util.OptionalLong;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Срок выполнения текущего запроса. Шлюз передаёт в заголовке {@value #HEADER}, сколько миллисекунд он ещё
+ * готов ждать ответ; {@link DeadlineFilter} запоминает срок для потока, который обрабатывает запрос.
+ * Без заголовка срока нет, и все проверки проходят.
+ */
+public final class RequestDeadline {
+    public static final String HEADER = "X-Request-Timeout-Ms";
+
+    private static final ThreadLocal<Long> DEADLINE = new ThreadLocal<>();
+
+    private RequestDeadline() {
+    }
+
+    /**
+     * Задаёт срок текущему потоку; его нужно снять через {@link #clear()}, когда запрос обработан.
+     */
+    public static void start(long timeoutMillis) {
+        DEADLINE.set(System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMillis));
+    }
+
+    public static void clear() {
+        DEADLINE.remove();
+    }
+
+    /**
+     * Сколько миллисекунд осталось до срока; отрицательное значение, если срок прошёл, и пусто, если срока нет.
+     */
+    public static OptionalLong remainingMillis() {
+        Long deadline = DEADLINE.get();
+        return deadline == null
+                ? OptionalLong.empty()
+                : OptionalLong.of(TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime()));
+    }
+
+    /**
+     * @throws DeadlineExceededException если срок прошёл и шлюз уже не ждёт ответ
+     */
+    public static void check() {
+        Long deadline = DEADLINE.get();
+        if (deadline != null && deadline - System.nanoTime() <= 0) {
+            throw new DeadlineExceededException("Истёк срок выполнения запроса");
+        }
+    }
+}
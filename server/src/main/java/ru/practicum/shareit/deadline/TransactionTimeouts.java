@@ -0,0 +1,32 @@
+package ru.practicum.shareit.deadline;
+
+/**
+ * Тайм-ауты транзакций сервисов по видам операций, строками для {@code @Transactional(timeoutString = ...)}.
+ * Значения в секундах задаются свойствами {@code shareit.transaction-timeout.*}; срок запроса от шлюза
+ * может их только сократить.
+ */
+public final class TransactionTimeouts {
+    /**
+     * Чтение одной сущности или страницы.
+     */
+    public static final String READ = "${shareit.transaction-timeout.read}";
+    /**
+     * Изменение одной сущности.
+     */
+    public static final String WRITE = "${shareit.transaction-timeout.write}";
+    /**
+     * Пакетное создание или изменение.
+     */
+    public static final String BATCH = "${shareit.transaction-timeout.batch}";
+    /**
+     * Потоковая выдача всего списка.
+     */
+    public static final String STREAM = "${shareit.transaction-timeout.stream}";
+    /**
+     * Фоновое обслуживание данных по расписанию.
+     */
+    public static final String MAINTENANCE = "${shareit.transaction-timeout.maintenance}";
+
+    private TransactionTimeouts() {
+    }
+}
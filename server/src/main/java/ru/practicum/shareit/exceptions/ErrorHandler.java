@@ -1,40 +1,60 @@
 package ru.practicum.shareit.exceptions;
 
+import org.springframework.dao.QueryTimeoutException;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.ExceptionHandler;
-import org.springframework.web.bind.annotation.ResponseStatus;
+import org.springframework.transaction.TransactionTimedOutException;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
 
+/**
+ * Ошибки всегда отдаются в JSON, в том числе на запросы потоковых списков с {@code Accept: application/x-ndjson}.
+ */
 @RestControllerAdvice
 public class ErrorHandler {
 
     @ExceptionHandler
-    @ResponseStatus(HttpStatus.NOT_FOUND)
-    public ErrorResponse handleNotFound(final NotFoundException e) {
-        return new ErrorResponse(e.getMessage());
+    public ResponseEntity<ErrorResponse> handleNotFound(final NotFoundException e) {
+        return error(HttpStatus.NOT_FOUND, e.getMessage());
     }
 
     @ExceptionHandler
-    @ResponseStatus(HttpStatus.BAD_REQUEST)
-    public ErrorResponse handleValidation(final ValidationException e) {
-        return new ErrorResponse(e.getMessage());
+    public ResponseEntity<ErrorResponse> handleValidation(final ValidationException e) {
+        return error(HttpStatus.BAD_REQUEST, e.getMessage());
     }
 
     @ExceptionHandler
-    @ResponseStatus(HttpStatus.CONFLICT)
-    public ErrorResponse handleDuplicateException(final DuplicateException e) {
-        return new ErrorResponse(e.getMessage());
+    public ResponseEntity<ErrorResponse> handleDuplicateException(final DuplicateException e) {
+        return error(HttpStatus.CONFLICT, e.getMessage());
     }
 
     @ExceptionHandler
-    @ResponseStatus(HttpStatus.FORBIDDEN)
-    public ErrorResponse handleAuthorization(final AuthorizationException e) {
-        return new ErrorResponse(e.getMessage());
+    public ResponseEntity<ErrorResponse> handleAuthorization(final AuthorizationException e) {
+        return error(HttpStatus.FORBIDDEN, e.getMessage());
     }
 
     @ExceptionHandler
-    @ResponseStatus(HttpStatus.INTERNAL_SERVER_ERROR)
-    public ErrorResponse handle(final Exception e) {
-        return new ErrorResponse("Произошла ошибка на стороне сервера");
+    public ResponseEntity<ErrorResponse> handleDeadline(final DeadlineExceededException e) {
+        return error(HttpStatus.GATEWAY_TIMEOUT, e.getMessage());
+    }
+
+    /**
+     * Запрос к базе отменён по тайм-ауту транзакции, который укорочен до срока запроса от шлюза.
+     */
+    @ExceptionHandler({QueryTimeoutException.class, TransactionTimedOutException.class})
+    public ResponseEntity<ErrorResponse> handleTimeout(final Exception e) {
+        return error(HttpStatus.GATEWAY_TIMEOUT, "Истёк срок выполнения запроса");
+    }
+
+    @ExceptionHandler
+    public ResponseEntity<ErrorResponse> handle(final Exception e) {
+        return error(HttpStatus.INTERNAL_SERVER_ERROR, "Произошла ошибка на стороне сервера");
+    }
+
+    private ResponseEntity<ErrorResponse> error(HttpStatus status, String message) {
+        return ResponseEntity.status(status)
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(new ErrorResponse(message));
     }
 }
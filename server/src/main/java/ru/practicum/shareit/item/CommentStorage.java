@@ -7,6 +7,9 @@ import ru.practicum.shareit.item.model.Comment;
 import java.util.List;
 
 public interface CommentStorage extends JpaRepository<Comment, Long> {
-    @Query(value = "select com from Comment as com where com.item.id = ?1")
+    @Query(value = "select com from Comment as com join fetch com.author where com.item.id = ?1")
     List<Comment> findAllByItemId(Long itemId);
+
+    @Query(value = "select com from Comment as com join fetch com.author where com.item.id in ?1")
+    List<Comment> findAllByItemIdIn(List<Long> itemIds);
 }
@@ -0,0 +1,83 @@
+package ru.practicum.shareit.item;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.RequiredArgsConstructor;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.event.ItemChangedEvent;
+import ru.practicum.shareit.item.mapper.ItemMapper;
+
+import java.time.Duration;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Кэш вещей по id в кэше {@code items}. В кэше лежит собственная копия вещи, и каждый вызов получает новую копию,
+ * поэтому изменение полученной вещи не меняет кэш.
+ * <p>
+ * У каждой вещи есть версия, которая растёт после фиксации транзакции, изменившей вещь, вместе с удалением вещи
+ * из кэша. Вещь, прочитанная до фиксации, кладётся в кэш, только если версия за время чтения не изменилась;
+ * после записи версия проверяется ещё раз. Так чтение, которое шло одновременно с изменением, не возвращает
+ * в кэш прежнюю вещь.
+ */
+@Component
+@RequiredArgsConstructor
+public class ItemCache {
+    private static final String CACHE_NAME = "items";
+    private static final Duration VERSION_RETENTION = Duration.ofMinutes(10);
+
+    private final CacheManager cacheManager;
+    private final ConcurrentMap<Long, AtomicLong> versions = Caffeine.newBuilder()
+            .expireAfterAccess(VERSION_RETENTION)
+            .<Long, AtomicLong>build()
+            .asMap();
+
+    /**
+     * Отдаёт вещь из кэша или читает её через {@code loader} и кладёт в кэш.
+     */
+    public ItemDto get(Long itemId, Supplier<ItemDto> loader) {
+        Cache items = cacheManager.getCache(CACHE_NAME);
+        ItemDto cached = items != null ? items.get(itemId, ItemDto.class) : null;
+        if (cached != null) {
+            return ItemMapper.copy(cached);
+        }
+        AtomicLong version = version(itemId);
+        long loadedVersion = version.get();
+        ItemDto itemDto = loader.get();
+        if (items != null && isCurrent(itemId, version, loadedVersion)) {
+            items.put(itemId, ItemMapper.copy(itemDto));
+            if (!isCurrent(itemId, version, loadedVersion)) {
+                items.evict(itemId);
+            }
+        }
+        return itemDto;
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onItemChanged(ItemChangedEvent event) {
+        Cache items = cacheManager.getCache(CACHE_NAME);
+        event.getItems().forEach(item -> {
+            version(item.getId()).incrementAndGet();
+            if (items != null) {
+                items.evict(item.getId());
+            }
+        });
+    }
+
+    private AtomicLong version(Long itemId) {
+        return versions.computeIfAbsent(itemId, id -> new AtomicLong());
+    }
+
+    /**
+     * Версия не менялась с начала чтения. Если запись версии успела устареть и создана заново, чтение
+     * тоже считается устаревшим.
+     */
+    private boolean isCurrent(Long itemId, AtomicLong version, long loadedVersion) {
+        return versions.get(itemId) == version && version.get() == loadedVersion;
+    }
+}
@@ -1,14 +1,19 @@
 package ru.practicum.shareit.item;
 
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.websocket.server.PathParam;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.MediaType;
 import org.springframework.web.bind.annotation.*;
 import ru.practicum.shareit.item.dto.CommentDto;
 import ru.practicum.shareit.item.dto.CreateCommentDto;
 import ru.practicum.shareit.item.dto.CreateItemDto;
+import ru.practicum.shareit.item.dto.ItemBatchResultDto;
 import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.stream.NdjsonResponseWriter;
 
+import java.io.IOException;
 import java.util.List;
 
 @RestController
@@ -17,6 +22,7 @@ import java.util.List;
 @Slf4j
 public class ItemController {
     private final ItemService itemService;
+    private final NdjsonResponseWriter ndjsonWriter;
 
     @PostMapping
     public ItemDto addItem(@RequestBody CreateItemDto itemDto, @RequestHeader("X-Sharer-User-Id") Long userId) {
@@ -29,6 +35,18 @@ public class ItemController {
         return itemService.updateItem(itemDto, userId, itemId);
     }
 
+    @PostMapping("/batch")
+    public List<ItemBatchResultDto> addItems(@RequestBody List<CreateItemDto> itemDtos,
+                                             @RequestHeader("X-Sharer-User-Id") Long userId) {
+        return itemService.addItems(itemDtos, userId);
+    }
+
+    @PatchMapping("/batch")
+    public List<ItemBatchResultDto> updateItems(@RequestBody List<ItemDto> itemDtos,
+                                                @RequestHeader("X-Sharer-User-Id") Long userId) {
+        return itemService.updateItems(itemDtos, userId);
+    }
+
     @GetMapping("/{itemId}")
     public ItemDto getItemById(@PathVariable Long itemId) {
         return itemService.getItemById(itemId);
@@ -39,9 +57,23 @@ public class ItemController {
         return itemService.getItemsOfUser(userId);
     }
 
+    @GetMapping(produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public void streamItemsOfUser(@RequestHeader("X-Sharer-User-Id") Long userId,
+                                  HttpServletResponse response) throws IOException {
+        ndjsonWriter.write(response, sink -> itemService.streamItemsOfUser(userId, sink));
+    }
+
     @GetMapping("/search")
-    public List<ItemDto> getItemByNameOrDescription(@PathParam("text") String text) {
-        return itemService.getItemByNameOrDescription(text);
+    public List<ItemDto> getItemByNameOrDescription(@PathParam("text") String text,
+                                                    @RequestParam(defaultValue = "0") Integer from,
+                                                    @RequestParam(defaultValue = "20") Integer size) {
+        return itemService.getItemByNameOrDescription(text, from, size);
+    }
+
+    @GetMapping("/suggest")
+    public List<String> suggestItemNames(@RequestParam String prefix,
+                                         @RequestParam(defaultValue = "10") Integer size) {
+        return itemService.suggestItemNames(prefix, size);
     }
 
     @PostMapping("/{itemId}/comment")
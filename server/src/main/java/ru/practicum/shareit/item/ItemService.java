@@ -3,20 +3,30 @@ package ru.practicum.shareit.item;
 import ru.practicum.shareit.item.dto.CommentDto;
 import ru.practicum.shareit.item.dto.CreateCommentDto;
 import ru.practicum.shareit.item.dto.CreateItemDto;
+import ru.practicum.shareit.item.dto.ItemBatchResultDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 
 import java.util.List;
+import java.util.function.Consumer;
 
 public interface ItemService {
     ItemDto addItem(CreateItemDto itemDto, Long userId);
 
     ItemDto updateItem(ItemDto itemDto, Long userId, Long itemId);
 
+    List<ItemBatchResultDto> addItems(List<CreateItemDto> itemDtos, Long userId);
+
+    List<ItemBatchResultDto> updateItems(List<ItemDto> itemDtos, Long userId);
+
     ItemDto getItemById(Long itemId);
 
     List<ItemDto> getItemsOfUser(Long userId);
 
-    List<ItemDto> getItemByNameOrDescription(String text);
+    void streamItemsOfUser(Long userId, Consumer<? super ItemDto> sink);
+
+    List<ItemDto> getItemByNameOrDescription(String text, int from, int size);
+
+    List<String> suggestItemNames(String prefix, int size);
 
     CommentDto addComment(CreateCommentDto createCommentDto, Long itemId, Long userId);
 }
@@ -2,36 +2,59 @@ package ru.practicum.shareit.item;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 import ru.practicum.shareit.booking.Booking;
 import ru.practicum.shareit.booking.BookingStorage;
 import ru.practicum.shareit.booking.dto.BookingDtoWithoutItem;
 import ru.practicum.shareit.booking.enums.BookingStatus;
 import ru.practicum.shareit.booking.mapper.BookingMapper;
+import ru.practicum.shareit.booking.summary.ItemBookingSummaryStorage;
+import ru.practicum.shareit.deadline.TransactionTimeouts;
 import ru.practicum.shareit.exceptions.AuthorizationException;
 import ru.practicum.shareit.exceptions.NotFoundException;
 import ru.practicum.shareit.exceptions.ValidationException;
 import ru.practicum.shareit.item.dto.CommentDto;
 import ru.practicum.shareit.item.dto.CreateCommentDto;
 import ru.practicum.shareit.item.dto.CreateItemDto;
+import ru.practicum.shareit.item.dto.ItemBatchResultDto;
 import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.event.ItemChangedEvent;
 import ru.practicum.shareit.item.mapper.CommentMapper;
 import ru.practicum.shareit.item.mapper.ItemMapper;
+import ru.practicum.shareit.item.model.Comment;
 import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.search.ItemSearch;
+import ru.practicum.shareit.item.search.OffsetPageRequest;
+import ru.practicum.shareit.item.suggest.ItemNameSuggester;
 import ru.practicum.shareit.request.ItemRequestStorage;
 import ru.practicum.shareit.request.model.ItemRequest;
+import ru.practicum.shareit.stream.EntityStreams;
 import ru.practicum.shareit.user.User;
 import ru.practicum.shareit.user.UserStorage;
 
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
-@Transactional(readOnly = true)
+@Transactional(readOnly = true, timeoutString = TransactionTimeouts.READ)
 @Slf4j
 public class ItemServiceImpl implements ItemService {
     private final ItemStorage itemStorage;
@@ -39,9 +62,18 @@ public class ItemServiceImpl implements ItemService {
     private final BookingStorage bookingStorage;
     private final CommentStorage commentStorage;
     private final ItemRequestStorage requestStorage;
+    private final ItemSearch itemSearch;
+    private final ItemNameSuggester itemNameSuggester;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ItemBookingSummaryStorage bookingSummaryStorage;
+    private final EntityStreams entityStreams;
+    private final ItemCache itemCache;
+    private final PlatformTransactionManager transactionManager;
+    @Value("${shareit.transaction-timeout.read}")
+    private int readTimeout;
 
     @Override
-    @Transactional
+    @Transactional(timeoutString = TransactionTimeouts.WRITE)
     public ItemDto addItem(CreateItemDto itemDto, Long userId) {
         User user = userStorage.findById(userId).orElseThrow(() -> new NotFoundException("User not found"));
         ItemRequest itemRequest = null;
@@ -50,62 +82,144 @@ public class ItemServiceImpl implements ItemService {
                     .orElseThrow(() -> new NotFoundException("Request not found"));
         }
         Item item = itemStorage.save(ItemMapper.mapCreateDtoToItem(itemDto, user, itemRequest));
+        eventPublisher.publishEvent(new ItemChangedEvent(item));
         return ItemMapper.mapItemToItemDto(item);
     }
 
     @Override
-    @Transactional
+    @Transactional(timeoutString = TransactionTimeouts.WRITE)
     public ItemDto updateItem(ItemDto itemDto, Long userId, Long itemId) {
         userStorage.findById(userId).orElseThrow(() -> new NotFoundException("User not found"));
         Item oldItem = itemStorage.findById(itemId).orElseThrow(() -> new NotFoundException("Item not found"));
         if (!Objects.equals(oldItem.getOwner().getId(), userId)) {
             throw new AuthorizationException("Нельзя обновить информацию о предмете другого пользователя");
         }
-        if (itemDto.getName() != null) {
-            oldItem.setName(itemDto.getName());
+        applyUpdate(oldItem, itemDto);
+        Item item = itemStorage.save(oldItem);
+        eventPublisher.publishEvent(new ItemChangedEvent(item));
+        return ItemMapper.mapItemToItemDto(item);
+    }
+
+    @Override
+    @Transactional(timeoutString = TransactionTimeouts.BATCH)
+    public List<ItemBatchResultDto> addItems(List<CreateItemDto> itemDtos, Long userId) {
+        User user = userStorage.findById(userId).orElseThrow(() -> new NotFoundException("User not found"));
+        Set<Long> requestIds = itemDtos.stream()
+                .map(CreateItemDto::getRequestId)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+        Map<Long, ItemRequest> requests = requestStorage.findAllById(requestIds).stream()
+                .collect(Collectors.toMap(ItemRequest::getId, Function.identity()));
+
+        Map<Integer, String> errors = new HashMap<>();
+        Map<Integer, Item> items = new LinkedHashMap<>();
+        for (int i = 0; i < itemDtos.size(); i++) {
+            CreateItemDto itemDto = itemDtos.get(i);
+            if (itemDto.getName() == null || itemDto.getName().isBlank()
+                    || itemDto.getDescription() == null || itemDto.getDescription().isBlank()
+                    || itemDto.getAvailable() == null) {
+                errors.put(i, "Name, description and available are required");
+            } else if (itemDto.getRequestId() != null && !requests.containsKey(itemDto.getRequestId())) {
+                errors.put(i, "Request not found");
+            } else {
+                items.put(i, ItemMapper.mapCreateDtoToItem(itemDto, user,
+                        itemDto.getRequestId() == null ? null : requests.get(itemDto.getRequestId())));
+            }
         }
-        if (itemDto.getDescription() != null) {
-            oldItem.setDescription(itemDto.getDescription());
+        List<Item> saved = itemStorage.saveAll(items.values());
+        eventPublisher.publishEvent(new ItemChangedEvent(saved));
+        log.info("пользователь {} добавил вещей: {}, отклонено строк: {}", userId, saved.size(), errors.size());
+        return batchResults(itemDtos.size(), items, errors);
+    }
+
+    @Override
+    @Transactional(timeoutString = TransactionTimeouts.BATCH)
+    public List<ItemBatchResultDto> updateItems(List<ItemDto> itemDtos, Long userId) {
+        if (!userStorage.existsById(userId)) {
+            throw new NotFoundException("User not found");
         }
-        if (itemDto.getAvailable() != null) {
-            oldItem.setAvailable(itemDto.getAvailable());
+        Set<Long> ids = itemDtos.stream()
+                .map(ItemDto::getId)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+        Map<Long, Item> storedItems = itemStorage.findAllById(ids).stream()
+                .collect(Collectors.toMap(Item::getId, Function.identity()));
+
+        Map<Integer, String> errors = new HashMap<>();
+        Map<Integer, Item> items = new LinkedHashMap<>();
+        for (int i = 0; i < itemDtos.size(); i++) {
+            ItemDto itemDto = itemDtos.get(i);
+            Item item = itemDto.getId() == null ? null : storedItems.get(itemDto.getId());
+            if (item == null) {
+                errors.put(i, "Item not found");
+            } else if (!Objects.equals(item.getOwner().getId(), userId)) {
+                errors.put(i, "Нельзя обновить информацию о предмете другого пользователя");
+            } else {
+                applyUpdate(item, itemDto);
+                items.put(i, item);
+            }
         }
-        return ItemMapper.mapItemToItemDto(itemStorage.save(oldItem));
+        eventPublisher.publishEvent(new ItemChangedEvent(List.copyOf(new LinkedHashSet<>(items.values()))));
+        log.info("пользователь {} обновил вещей: {}, отклонено строк: {}", userId, items.size(), errors.size());
+        return batchResults(itemDtos.size(), items, errors);
     }
 
+    /**
+     * Вещь из кэша отдаётся без транзакции и соединения с базой; транзакция на чтение открывается только
+     * при промахе. Вызов внутри чужой транзакции читает в ней, чтобы видеть её изменения.
+     */
     @Override
+    @Transactional(propagation = Propagation.SUPPORTS)
     public ItemDto getItemById(Long itemId) {
-        ItemDto itemDto = ItemMapper.mapItemToItemDto(itemStorage.findById(itemId)
-                .orElseThrow(() -> new NotFoundException("Item not found")));
-        setComments(itemDto);
-        return itemDto;
+        return itemCache.get(itemId, () -> readTransaction().execute(status -> {
+            ItemDto itemDto = ItemMapper.mapItemToItemDto(itemStorage.findById(itemId)
+                    .orElseThrow(() -> new NotFoundException("Item not found")));
+            setComments(itemDto);
+            return itemDto;
+        }));
     }
 
     @Override
     public List<ItemDto> getItemsOfUser(Long userId) {
         userStorage.findById(userId).orElseThrow(() -> new NotFoundException("User not found"));
         List<ItemDto> items = itemStorage.findByOwnerId(userId).stream().map(ItemMapper::mapItemToItemDto).toList();
-        items.forEach(this::setFields);
+        setFields(items);
         return items;
     }
 
     @Override
-    public List<ItemDto> getItemByNameOrDescription(String text) {
+    @Transactional(readOnly = true, timeoutString = TransactionTimeouts.STREAM)
+    public void streamItemsOfUser(Long userId, Consumer<? super ItemDto> sink) {
+        userStorage.findById(userId).orElseThrow(() -> new NotFoundException("User not found"));
+        entityStreams.forEachChunk(itemStorage.streamByOwnerIdOrderById(userId), items -> {
+            List<ItemDto> itemDtos = items.stream().map(ItemMapper::mapItemToItemDto).toList();
+            setFields(itemDtos);
+            itemDtos.forEach(sink);
+        });
+    }
+
+    @Override
+    public List<ItemDto> getItemByNameOrDescription(String text, int from, int size) {
         if (text.isBlank()) {
             return new ArrayList<>();
         } else {
-            return itemStorage.getItemByNameOrDescription(text.toLowerCase()).stream()
+            return itemSearch.search(text, OffsetPageRequest.of(from, size)).stream()
                     .map(ItemMapper::mapItemToItemDto)
                     .toList();
         }
     }
 
     @Override
-    @Transactional
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public List<String> suggestItemNames(String prefix, int size) {
+        return itemNameSuggester.suggest(prefix, size);
+    }
+
+    @Override
+    @Transactional(timeoutString = TransactionTimeouts.WRITE)
     public CommentDto addComment(CreateCommentDto createCommentDto, Long itemId, Long userId) {
-        if (!itemStorage.existsById(itemId)) {
-            throw new NotFoundException("Вещь с таким id не найдена");
-        }
+        Item item = itemStorage.findById(itemId)
+                .orElseThrow(() -> new NotFoundException("Вещь с таким id не найдена"));
         if (!userStorage.existsById(userId)) {
             throw new NotFoundException("Пользователь с таким id не найден");
         }
@@ -114,35 +228,97 @@ public class ItemServiceImpl implements ItemService {
             Booking booking = bookingStorage.findByTenantIdAndItemIdAndStatusAndEndBefore(userId, itemId,
                     BookingStatus.APPROVED, LocalDateTime.now());
             log.info("нашли бронирование № {}", booking.getId());
-            return CommentMapper.mapToDto(commentStorage
-                    .save(CommentMapper.mapToComment(createCommentDto, booking.getItem(), booking.getTenant())));
+            Comment comment = commentStorage
+                    .save(CommentMapper.mapToComment(createCommentDto, item, booking.getTenant()));
+            eventPublisher.publishEvent(new ItemChangedEvent(item));
+            return CommentMapper.mapToDto(comment);
         } catch (Exception e) {
             throw new ValidationException("бронирование не найдено");
         }
     }
 
+    private TransactionTemplate readTransaction() {
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        transaction.setReadOnly(true);
+        transaction.setTimeout(readTimeout);
+        return transaction;
+    }
+
     private void setComments(ItemDto itemDto) {
         itemDto.getComments().addAll(commentStorage.findAllByItemId(itemDto.getId()).stream()
                 .map(CommentMapper::mapToDto).toList());
     }
 
-    private void setFields(ItemDto itemDto) {
-        setComments(itemDto);
+    private void setFields(List<ItemDto> items) {
+        if (items.isEmpty()) {
+            return;
+        }
+        List<Long> ids = items.stream().map(ItemDto::getId).toList();
+        LocalDateTime now = LocalDateTime.now();
+
+        Map<Long, List<CommentDto>> comments = commentStorage.findAllByItemIdIn(ids).stream()
+                .collect(Collectors.groupingBy(comment -> comment.getItem().getId(),
+                        Collectors.mapping(CommentMapper::mapToDto, Collectors.toList())));
+        Map<Long, BookingDtoWithoutItem> lastBookings = new HashMap<>();
+        Map<Long, BookingDtoWithoutItem> nextBookings = new HashMap<>();
+        Set<Long> summarizedIds = new HashSet<>();
+        bookingSummaryStorage.findAllWithBookingsByItemIdIn(ids).stream()
+                .filter(summary -> summary.isValidAt(now))
+                .forEach(summary -> {
+                    summarizedIds.add(summary.getItemId());
+                    if (summary.getLastBooking() != null) {
+                        lastBookings.put(summary.getItemId(),
+                                BookingMapper.mapToWithoutItemDto(summary.getLastBooking()));
+                    }
+                    if (summary.getNextBooking() != null) {
+                        nextBookings.put(summary.getItemId(),
+                                BookingMapper.mapToWithoutItemDto(summary.getNextBooking()));
+                    }
+                });
+        List<Long> notSummarizedIds = ids.stream().filter(id -> !summarizedIds.contains(id)).toList();
+        if (!notSummarizedIds.isEmpty()) {
+            lastBookings.putAll(mapByItemId(bookingStorage.findLastBookingsOfItems(notSummarizedIds, now)));
+            nextBookings.putAll(mapByItemId(bookingStorage.findNextBookingsOfItems(notSummarizedIds, now)));
+        }
+        log.info("для {} вещей найдено прошлых бронирований: {}, будущих бронирований: {}",
+                ids.size(), lastBookings.size(), nextBookings.size());
+
+        items.forEach(itemDto -> {
+            itemDto.getComments().addAll(comments.getOrDefault(itemDto.getId(), List.of()));
+            itemDto.setLastBooking(lastBookings.get(itemDto.getId()));
+            itemDto.setNextBooking(nextBookings.get(itemDto.getId()));
+        });
+    }
+
+    private Map<Long, BookingDtoWithoutItem> mapByItemId(List<Booking> bookings) {
+        Map<Long, BookingDtoWithoutItem> bookingsByItemId = new HashMap<>();
+        bookings.forEach(booking -> bookingsByItemId
+                .putIfAbsent(booking.getItem().getId(), BookingMapper.mapToWithoutItemDto(booking)));
+        return bookingsByItemId;
+    }
 
-        BookingDtoWithoutItem lastBooking = bookingStorage
-                .findAllByItemIdBeforeTime(itemDto.getId(), LocalDateTime.now()).stream()
-                .map(BookingMapper::mapToWithoutItemDto).findFirst().orElse(null);
-        if (lastBooking == null) {
-            log.info("прошлых бронирований не найдено");
+    private void applyUpdate(Item item, ItemDto itemDto) {
+        if (itemDto.getName() != null) {
+            item.setName(itemDto.getName());
         }
-        itemDto.setLastBooking(lastBooking);
+        if (itemDto.getDescription() != null) {
+            item.setDescription(itemDto.getDescription());
+        }
+        if (itemDto.getAvailable() != null) {
+            item.setAvailable(itemDto.getAvailable());
+        }
+    }
 
-        BookingDtoWithoutItem nextBooking = bookingStorage
-                .findAllByItemIdAfterTime(itemDto.getId(), LocalDateTime.now()).stream()
-                .map(BookingMapper::mapToWithoutItemDto).findFirst().orElse(null);
-        if (nextBooking == null) {
-            log.info("будущих бронирований не найдено");
+    private List<ItemBatchResultDto> batchResults(int size, Map<Integer, Item> items, Map<Integer, String> errors) {
+        List<ItemBatchResultDto> results = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            Item item = items.get(i);
+            results.add(ItemBatchResultDto.builder()
+                    .index(i)
+                    .item(item == null ? null : ItemMapper.mapItemToItemDto(item))
+                    .error(errors.get(i))
+                    .build());
         }
-        itemDto.setNextBooking(nextBooking);
+        return results;
     }
 }
@@ -1,21 +1,34 @@
 package ru.practicum.shareit.item;
 
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.AvailableHints;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.stream.EntityStreams;
 
 import java.util.List;
+import java.util.stream.Stream;
 
 public interface ItemStorage extends JpaRepository<Item, Long> {
 
     List<Item> findByOwnerId(Long userId);
 
+    @QueryHints(@QueryHint(name = AvailableHints.HINT_FETCH_SIZE, value = EntityStreams.FETCH_SIZE))
+    Stream<Item> streamByOwnerIdOrderById(Long userId);
+
     @Query(value = "select it from Item as it " +
             "where it.available = true " +
-            "and lower(it.name) like %?1% or lower(it.description) like %?1%")
-    List<Item> getItemByNameOrDescription(String text);
+            "and (lower(it.name) like %?1% or lower(it.description) like %?1%) " +
+            "order by it.id")
+    List<Item> getItemByNameOrDescription(String text, Pageable pageable);
 
     List<Item> findAllByRequestId(Long requestId);
 
     List<Item> findAllByRequestIdIn(List<Long> ids);
+
+    Slice<Item> findAllByAvailableTrue(Pageable pageable);
 }
@@ -16,6 +16,7 @@ public class ItemDto {
     private String name;
     private String description;
     private Boolean available;
+    private Long requestId;
     private final Set<CommentDto> comments = new HashSet<>();
     private BookingDtoWithoutItem lastBooking;
     private BookingDtoWithoutItem nextBooking;
@@ -0,0 +1,17 @@
+package ru.practicum.shareit.item.event;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import ru.practicum.shareit.item.model.Item;
+
+import java.util.List;
+
+@Getter
+@RequiredArgsConstructor
+public class ItemChangedEvent {
+    private final List<Item> items;
+
+    public ItemChangedEvent(Item item) {
+        this(List.of(item));
+    }
+}
@@ -26,6 +26,21 @@ public final class ItemMapper {
                 .name(item.getName())
                 .description(item.getDescription())
                 .available(item.getAvailable())
+                .requestId(item.getRequest() != null ? item.getRequest().getId() : null)
                 .build();
     }
+
+    public ItemDto copy(ItemDto itemDto) {
+        ItemDto copy = ItemDto.builder()
+                .id(itemDto.getId())
+                .name(itemDto.getName())
+                .description(itemDto.getDescription())
+                .available(itemDto.getAvailable())
+                .requestId(itemDto.getRequestId())
+                .lastBooking(itemDto.getLastBooking())
+                .nextBooking(itemDto.getNextBooking())
+                .build();
+        copy.getComments().addAll(itemDto.getComments());
+        return copy;
+    }
 }
@@ -0,0 +1,22 @@
+package ru.practicum.shareit.item.search;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.item.ItemStorage;
+import ru.practicum.shareit.item.model.Item;
+
+import java.util.List;
+
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "shareit.search.backend", havingValue = "database", matchIfMissing = true)
+public class DatabaseItemSearch implements ItemSearch {
+    private final ItemStorage itemStorage;
+
+    @Override
+    public List<Item> search(String text, Pageable pageable) {
+        return itemStorage.getItemByNameOrDescription(text.toLowerCase(), pageable);
+    }
+}
@@ -0,0 +1,28 @@
+package ru.practicum.shareit.item.search;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnBean;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+@Component
+@RequiredArgsConstructor
+@ConditionalOnBean(LuceneItemSearch.class)
+@Endpoint(id = "itemsearchindex")
+public class ItemSearchIndexEndpoint {
+    private final LuceneItemSearch luceneItemSearch;
+
+    @ReadOperation
+    public Map<String, Long> status() {
+        return Map.of("indexedItems", luceneItemSearch.indexedItems());
+    }
+
+    @WriteOperation
+    public Map<String, Long> rebuild() {
+        return Map.of("indexedItems", luceneItemSearch.rebuild());
+    }
+}
@@ -0,0 +1,290 @@
+package ru.practicum.shareit.item.search;
+
+import lombok.extern.slf4j.Slf4j;
+import org.apache.lucene.analysis.Analyzer;
+import org.apache.lucene.analysis.en.EnglishAnalyzer;
+import org.apache.lucene.analysis.miscellaneous.PerFieldAnalyzerWrapper;
+import org.apache.lucene.analysis.ru.RussianAnalyzer;
+import org.apache.lucene.analysis.standard.StandardAnalyzer;
+import org.apache.lucene.document.Document;
+import org.apache.lucene.document.Field;
+import org.apache.lucene.document.StringField;
+import org.apache.lucene.document.TextField;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.index.Term;
+import org.apache.lucene.search.BooleanClause;
+import org.apache.lucene.search.BooleanQuery;
+import org.apache.lucene.search.BoostQuery;
+import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.search.Query;
+import org.apache.lucene.search.ScoreDoc;
+import org.apache.lucene.search.SearcherManager;
+import org.apache.lucene.search.TopDocs;
+import org.apache.lucene.store.Directory;
+import org.apache.lucene.store.FSDirectory;
+import org.apache.lucene.util.QueryBuilder;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import ru.practicum.shareit.item.ItemStorage;
+import ru.practicum.shareit.item.event.ItemChangedEvent;
+import ru.practicum.shareit.item.model.Item;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Поиск вещей по индексу Lucene. Изменения вещей попадают в индекс сразу после коммита транзакции и видны поиску
+ * через near-real-time читатель {@link SearcherManager}, без записи индекса на диск. На диск изменения
+ * сохраняются раз в {@code shareit.search.lucene.commit-interval} миллисекунд одним коммитом; если сервер упал
+ * между коммитами, индекс перестраивается через {@code /actuator/itemsearchindex}.
+ * <p>
+ * Изменения, пришедшие во время перестройки индекса, не пишутся в индекс сразу, иначе {@code deleteAll()}
+ * перестройки стёр бы их, а уже прочитанная страница базы не вернула бы. Они ждут в очереди и применяются
+ * поверх перестроенного индекса.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "shareit.search.backend", havingValue = "lucene")
+public class LuceneItemSearch implements ItemSearch, DisposableBean {
+    private static final String ID = "id";
+    private static final String NAME_EN = "name_en";
+    private static final String NAME_RU = "name_ru";
+    private static final String DESCRIPTION_EN = "description_en";
+    private static final String DESCRIPTION_RU = "description_ru";
+    private static final float NAME_BOOST = 2.0f;
+    private static final int REBUILD_PAGE_SIZE = 1000;
+    /**
+     * Ключ в данных коммита индекса: {@code true}, если индекс на диске перестроен до конца.
+     */
+    private static final String REBUILT = "rebuilt";
+
+    private final ItemStorage itemStorage;
+    private final Analyzer analyzer;
+    private final Directory directory;
+    private final IndexWriter writer;
+    private final SearcherManager searcherManager;
+    /**
+     * Не даёт запустить две перестройки индекса одновременно и записать изменение вещи посреди перестройки.
+     * Блокировка вместо {@code synchronized}: перестройка
+     * читает базу, и виртуальный поток не должен удерживать поток-носитель на время ожидания соединения.
+     */
+    private final ReentrantLock rebuildLock = new ReentrantLock();
+    /**
+     * Изменённые вещи, ещё не записанные в индекс: пока идёт перестройка, они ждут её окончания.
+     */
+    private final Queue<Item> pending = new ConcurrentLinkedQueue<>();
+
+    public LuceneItemSearch(ItemStorage itemStorage,
+                            @Value("${shareit.search.lucene.index-dir}") Path indexDir) throws IOException {
+        this.itemStorage = itemStorage;
+        Analyzer english = new EnglishAnalyzer();
+        Analyzer russian = new RussianAnalyzer();
+        this.analyzer = new PerFieldAnalyzerWrapper(new StandardAnalyzer(), Map.of(
+                NAME_EN, english, DESCRIPTION_EN, english,
+                NAME_RU, russian, DESCRIPTION_RU, russian));
+        this.directory = FSDirectory.open(indexDir);
+        this.writer = new IndexWriter(directory, new IndexWriterConfig(analyzer)
+                .setOpenMode(IndexWriterConfig.OpenMode.CREATE_OR_APPEND));
+        this.searcherManager = new SearcherManager(writer, null);
+    }
+
+    @Override
+    public List<Item> search(String text, Pageable pageable) {
+        Query query = buildQuery(text);
+        if (query == null) {
+            return List.of();
+        }
+        List<Long> ids = new ArrayList<>();
+        try {
+            IndexSearcher searcher = searcherManager.acquire();
+            try {
+                long offset = pageable.getOffset();
+                int maxDoc = searcher.getIndexReader().maxDoc();
+                if (offset < maxDoc) {
+                    TopDocs topDocs = searcher.search(query, (int) Math.min(offset + pageable.getPageSize(), maxDoc));
+                    ScoreDoc[] scoreDocs = topDocs.scoreDocs;
+                    for (int i = (int) offset; i < scoreDocs.length; i++) {
+                        ids.add(Long.valueOf(searcher.storedFields().document(scoreDocs[i].doc).get(ID)));
+                    }
+                }
+            } finally {
+                searcherManager.release(searcher);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        Map<Long, Item> items = itemStorage.findAllById(ids).stream()
+                .collect(Collectors.toMap(Item::getId, Function.identity()));
+        return ids.stream().map(items::get).filter(Objects::nonNull).toList();
+    }
+
+    @TransactionalEventListener
+    public void onItemChanged(ItemChangedEvent event) {
+        pending.addAll(event.getItems());
+        applyPending();
+    }
+
+    /**
+     * Сохраняет на диск изменения индекса, накопленные с прошлого коммита. Пока идёт перестройка, коммит
+     * пропускается: он сохранил бы недостроенный индекс, а перестройка закончится собственным коммитом.
+     */
+    @Scheduled(fixedDelayString = "${shareit.search.lucene.commit-interval}")
+    public void commit() {
+        if (!rebuildLock.tryLock()) {
+            return;
+        }
+        try {
+            if (writer.hasUncommittedChanges()) {
+                writer.commit();
+            }
+        } catch (IOException e) {
+            log.error("не удалось сохранить поисковый индекс", e);
+        } finally {
+            rebuildLock.unlock();
+        }
+    }
+
+    /**
+     * Перестраивает индекс, если на диске нет коммита законченной перестройки: индекс ещё не строился или сервер
+     * остановился посреди перестройки.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuildIfIncomplete() {
+        if (!isRebuilt()) {
+            rebuild();
+        }
+    }
+
+    /**
+     * Перестраивает индекс из базы. Признак законченной перестройки снимается в начале и сохраняется
+     * в данных коммита только вместе с полностью перестроенным индексом.
+     */
+    public long rebuild() {
+        rebuildLock.lock();
+        try {
+            writer.setLiveCommitData(Map.of(REBUILT, Boolean.FALSE.toString()).entrySet());
+            writer.deleteAll();
+            Pageable pageable = PageRequest.of(0, REBUILD_PAGE_SIZE, Sort.by("id"));
+            Slice<Item> slice;
+            do {
+                slice = itemStorage.findAllByAvailableTrue(pageable);
+                for (Item item : slice) {
+                    index(item);
+                }
+                pageable = slice.nextPageable();
+            } while (slice.hasNext());
+            indexPending();
+            writer.setLiveCommitData(Map.of(REBUILT, Boolean.TRUE.toString()).entrySet());
+            writer.commit();
+            searcherManager.maybeRefreshBlocking();
+            log.info("поисковый индекс перестроен, проиндексировано вещей: {}", writer.getDocStats().numDocs);
+            return writer.getDocStats().numDocs;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            rebuildLock.unlock();
+            applyPending();
+        }
+    }
+
+    public long indexedItems() {
+        return writer.getDocStats().numDocs;
+    }
+
+    boolean isRebuilt() {
+        Iterable<Map.Entry<String, String>> commitData = writer.getLiveCommitData();
+        if (commitData != null) {
+            for (Map.Entry<String, String> entry : commitData) {
+                if (entry.getKey().equals(REBUILT)) {
+                    return Boolean.parseBoolean(entry.getValue());
+                }
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public void destroy() throws IOException {
+        searcherManager.close();
+        writer.close();
+        directory.close();
+    }
+
+    /**
+     * Записывает ожидающие изменения в индекс, если сейчас не идёт перестройка; иначе их запишет перестройка.
+     * Очередь проверяется снова после снятия блокировки, чтобы не потерять изменение, добавленное в тот момент,
+     * когда перестройка уже разобрала очередь, но ещё не отпустила блокировку.
+     */
+    private void applyPending() {
+        while (!pending.isEmpty() && rebuildLock.tryLock()) {
+            try {
+                indexPending();
+                searcherManager.maybeRefreshBlocking();
+            } catch (IOException e) {
+                log.error("не удалось обновить поисковый индекс", e);
+            } finally {
+                rebuildLock.unlock();
+            }
+        }
+    }
+
+    private void indexPending() throws IOException {
+        Item item;
+        while ((item = pending.poll()) != null) {
+            index(item);
+        }
+    }
+
+    private void index(Item item) throws IOException {
+        Term id = new Term(ID, String.valueOf(item.getId()));
+        if (!Boolean.TRUE.equals(item.getAvailable())) {
+            writer.deleteDocuments(id);
+            return;
+        }
+        Document document = new Document();
+        document.add(new StringField(ID, id.text(), Field.Store.YES));
+        document.add(new TextField(NAME_EN, item.getName(), Field.Store.NO));
+        document.add(new TextField(NAME_RU, item.getName(), Field.Store.NO));
+        document.add(new TextField(DESCRIPTION_EN, item.getDescription(), Field.Store.NO));
+        document.add(new TextField(DESCRIPTION_RU, item.getDescription(), Field.Store.NO));
+        writer.updateDocument(id, document);
+    }
+
+    private Query buildQuery(String text) {
+        QueryBuilder queryBuilder = new QueryBuilder(analyzer);
+        BooleanQuery.Builder query = new BooleanQuery.Builder();
+        boolean hasClauses = false;
+        for (String field : List.of(NAME_EN, NAME_RU, DESCRIPTION_EN, DESCRIPTION_RU)) {
+            Query fieldQuery = queryBuilder.createBooleanQuery(field, text);
+            if (fieldQuery != null) {
+                if (field.equals(NAME_EN) || field.equals(NAME_RU)) {
+                    fieldQuery = new BoostQuery(fieldQuery, NAME_BOOST);
+                }
+                query.add(fieldQuery, BooleanClause.Occur.SHOULD);
+                hasClauses = true;
+            }
+        }
+        return hasClauses ? query.build() : null;
+    }
+}
@@ -0,0 +1,327 @@
+package ru.practicum.shareit.item.suggest;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import ru.practicum.shareit.item.ItemStorage;
+import ru.practicum.shareit.item.event.ItemChangedEvent;
+import ru.practicum.shareit.item.model.Item;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Подсказки названий доступных вещей по префиксу. Названия хранятся в памяти без учёта регистра вместе с числом
+ * вещей, у которых такое название; подсказки упорядочены по этому числу, а при равенстве — по алфавиту.
+ * <p>
+ * Для префиксов, с которых начинается больше {@value #PRECOMPUTED_RANGE} названий, лучшие названия посчитаны
+ * заранее ({@link TopNames}) и отдаются без обхода диапазона; остальные префиксы обходят не больше
+ * {@value #PRECOMPUTED_RANGE} названий. Такие префиксы находятся после загрузки названий, а позже — при первой
+ * подсказке, которой пришлось обойти больше названий. Изменения названий сразу применяются к посчитанным спискам.
+ */
+@Slf4j
+@Component
+public class ItemNameSuggester {
+    /**
+     * Наибольшее число подсказок, которое отдаётся из посчитанного списка; больше шлюз не запрашивает.
+     */
+    static final int MAX_SUGGESTIONS = 50;
+    /**
+     * Сколько названий с префиксом можно обойти при подсказке; для более длинных диапазонов список считается заранее.
+     */
+    static final int PRECOMPUTED_RANGE = 500;
+    /**
+     * Посчитанный список хранит больше {@link #MAX_SUGGESTIONS} названий, чтобы не пересчитывать его после каждого
+     * названия, выпавшего из лучших.
+     */
+    private static final int TOP_CAPACITY = 2 * MAX_SUGGESTIONS;
+    private static final int LOAD_PAGE_SIZE = 1000;
+    /**
+     * Сначала названия самых распространённых вещей, при равенстве — по алфавиту.
+     */
+    private static final Comparator<NameEntry> BY_POPULARITY = Comparator.comparingInt(NameEntry::count).reversed()
+            .thenComparing(NameEntry::name);
+
+    private final ItemStorage itemStorage;
+    private final int maxNames;
+    private final ConcurrentNavigableMap<String, NameEntry> names = new ConcurrentSkipListMap<>();
+    private final Map<Long, String> namesOfItems = new ConcurrentHashMap<>();
+    private final Map<String, TopNames> tops = new ConcurrentHashMap<>();
+    /**
+     * Число названий в {@link #names}: размер {@link ConcurrentSkipListMap} считается обходом всех записей.
+     */
+    private final AtomicInteger nameCount = new AtomicInteger();
+    private final AtomicBoolean limitReported = new AtomicBoolean();
+
+    public ItemNameSuggester(ItemStorage itemStorage, @Value("${shareit.suggest.max-names}") int maxNames) {
+        this.itemStorage = itemStorage;
+        this.maxNames = maxNames;
+    }
+
+    /**
+     * Не больше {@code size} самых распространённых названий, начинающихся с {@code prefix}.
+     */
+    public List<String> suggest(String prefix, int size) {
+        String key = normalize(prefix);
+        if (key.isEmpty()) {
+            return List.of();
+        }
+        if (size <= MAX_SUGGESTIONS) {
+            TopNames top = tops.get(key);
+            List<String> suggestions = top != null ? top.suggest(size) : null;
+            if (suggestions != null) {
+                return suggestions;
+            }
+        }
+        PriorityQueue<NameEntry> best = new PriorityQueue<>(size + 1, BY_POPULARITY.reversed());
+        int scanned = 0;
+        for (NameEntry entry : range(key)) {
+            best.add(entry);
+            if (best.size() > size) {
+                best.poll();
+            }
+            scanned++;
+        }
+        if (scanned > PRECOMPUTED_RANGE) {
+            precompute(key);
+        }
+        List<NameEntry> suggestions = new ArrayList<>(best);
+        suggestions.sort(BY_POPULARITY);
+        return suggestions.stream().map(NameEntry::name).toList();
+    }
+
+    @TransactionalEventListener
+    public void onItemChanged(ItemChangedEvent event) {
+        event.getItems().forEach(this::update);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        Pageable pageable = PageRequest.of(0, LOAD_PAGE_SIZE, Sort.by("id"));
+        Slice<Item> slice;
+        do {
+            slice = itemStorage.findAllByAvailableTrue(pageable);
+            slice.forEach(this::update);
+            pageable = slice.nextPageable();
+        } while (slice.hasNext());
+        precomputeLongRanges("");
+        log.info("загружено названий вещей для подсказок: {}, префиксов с посчитанными подсказками: {}",
+                nameCount.get(), tops.size());
+    }
+
+    public int size() {
+        return nameCount.get();
+    }
+
+    private void update(Item item) {
+        String[] changed = new String[2];
+        namesOfItems.compute(item.getId(), (id, oldKey) -> {
+            String newKey = Boolean.TRUE.equals(item.getAvailable()) ? normalize(item.getName()) : null;
+            if (oldKey != null && oldKey.equals(newKey)) {
+                return oldKey;
+            }
+            if (oldKey != null) {
+                names.computeIfPresent(oldKey, (key, entry) -> {
+                    if (entry.count() > 1) {
+                        return entry.decrement();
+                    }
+                    nameCount.decrementAndGet();
+                    return null;
+                });
+                changed[0] = oldKey;
+            }
+            if (newKey == null || newKey.isEmpty()) {
+                return null;
+            }
+            NameEntry added = names.compute(newKey, (key, entry) -> {
+                if (entry != null) {
+                    return entry.increment();
+                }
+                if (nameCount.get() >= maxNames) {
+                    return null;
+                }
+                nameCount.incrementAndGet();
+                return new NameEntry(key, item.getName().strip(), 1);
+            });
+            if (added == null) {
+                if (limitReported.compareAndSet(false, true)) {
+                    log.warn("достигнут лимит названий для подсказок: {}, новые названия не добавляются", maxNames);
+                }
+                return null;
+            }
+            changed[1] = newKey;
+            return newKey;
+        });
+        for (String key : changed) {
+            if (key != null) {
+                updateTops(key);
+            }
+        }
+    }
+
+    /**
+     * Применяет изменение названия {@code key} к посчитанным спискам всех его префиксов.
+     */
+    private void updateTops(String key) {
+        if (tops.isEmpty()) {
+            return;
+        }
+        for (int length = 1; length <= key.length(); length++) {
+            TopNames top = tops.get(key.substring(0, length));
+            if (top != null) {
+                top.update(key);
+            }
+        }
+    }
+
+    /**
+     * Считает список лучших названий для префикса. Список регистрируется до подсчёта, чтобы изменения, пришедшие
+     * во время подсчёта, применились к нему.
+     */
+    private void precompute(String prefix) {
+        TopNames top = new TopNames(prefix);
+        if (tops.putIfAbsent(prefix, top) == null) {
+            top.rebuild();
+        }
+    }
+
+    /**
+     * Считает списки для всех префиксов внутри {@code prefix}, с которых начинается больше
+     * {@value #PRECOMPUTED_RANGE} названий. Префиксы перебираются по следующей букве без обхода всех названий.
+     */
+    private void precomputeLongRanges(String prefix) {
+        String key = names.ceilingKey(prefix);
+        while (key != null && key.startsWith(prefix)) {
+            if (key.length() == prefix.length()) {
+                key = names.higherKey(key);
+                continue;
+            }
+            String child = key.substring(0, prefix.length() + 1);
+            if (isLongRange(child)) {
+                precompute(child);
+                precomputeLongRanges(child);
+            }
+            key = names.ceilingKey(child + Character.MAX_VALUE);
+        }
+    }
+
+    private boolean isLongRange(String prefix) {
+        int scanned = 0;
+        for (String ignored : names.subMap(prefix, prefix + Character.MAX_VALUE).keySet()) {
+            if (++scanned > PRECOMPUTED_RANGE) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private Iterable<NameEntry> range(String prefix) {
+        return names.subMap(prefix, prefix + Character.MAX_VALUE).values();
+    }
+
+    private static String normalize(String name) {
+        return name == null ? "" : name.strip().toLowerCase(Locale.ROOT);
+    }
+
+    private record NameEntry(String key, String name, int count) {
+        NameEntry increment() {
+            return new NameEntry(key, name, count + 1);
+        }
+
+        NameEntry decrement() {
+            return new NameEntry(key, name, count - 1);
+        }
+    }
+
+    /**
+     * Лучшие названия с префиксом, от {@link #MAX_SUGGESTIONS} до {@link #TOP_CAPACITY}. Любое название
+     * с префиксом, которого нет в списке, не лучше последнего в списке; если список {@code complete}, в нём все
+     * названия с префиксом. Изменения применяются под блокировкой списка, а подсказки читают неизменяемый снимок.
+     */
+    private final class TopNames {
+        private final String prefix;
+        private final List<NameEntry> entries = new ArrayList<>(TOP_CAPACITY + 1);
+        private boolean complete;
+        @Nullable
+        private volatile List<String> snapshot;
+
+        private TopNames(String prefix) {
+            this.prefix = prefix;
+        }
+
+        /**
+         * Подсказки из списка или {@code null}, пока список не посчитан.
+         */
+        @Nullable
+        private List<String> suggest(int size) {
+            List<String> suggestions = snapshot;
+            if (suggestions == null) {
+                return null;
+            }
+            return suggestions.size() > size ? suggestions.subList(0, size) : suggestions;
+        }
+
+        private synchronized void rebuild() {
+            PriorityQueue<NameEntry> best = new PriorityQueue<>(TOP_CAPACITY + 1, BY_POPULARITY.reversed());
+            boolean overflow = false;
+            for (NameEntry entry : range(prefix)) {
+                best.add(entry);
+                if (best.size() > TOP_CAPACITY) {
+                    best.poll();
+                    overflow = true;
+                }
+            }
+            entries.clear();
+            entries.addAll(best);
+            entries.sort(BY_POPULARITY);
+            complete = !overflow;
+            publish();
+        }
+
+        /**
+         * Приводит список в соответствие с текущим числом вещей с названием {@code key}.
+         */
+        private synchronized void update(String key) {
+            entries.removeIf(entry -> entry.key().equals(key));
+            NameEntry current = names.get(key);
+            if (current != null) {
+                int position = Collections.binarySearch(entries, current, BY_POPULARITY);
+                int insertAt = position < 0 ? -position - 1 : position;
+                if (complete || insertAt < entries.size()) {
+                    entries.add(insertAt, current);
+                }
+            }
+            if (entries.size() > TOP_CAPACITY) {
+                entries.removeLast();
+                complete = false;
+            }
+            if (!complete && entries.size() < MAX_SUGGESTIONS) {
+                rebuild();
+            } else {
+                publish();
+            }
+        }
+
+        private void publish() {
+            snapshot = entries.stream().map(NameEntry::name).toList();
+        }
+    }
+}
@@ -1,11 +1,15 @@
 package ru.practicum.shareit.request;
 
+import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.MediaType;
 import org.springframework.web.bind.annotation.*;
 import ru.practicum.shareit.request.dto.CreateRequestDto;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
+import ru.practicum.shareit.stream.NdjsonResponseWriter;
 
+import java.io.IOException;
 import java.util.List;
 
 @Slf4j
@@ -14,6 +18,7 @@ import java.util.List;
 @RequiredArgsConstructor
 public class ItemRequestController {
     private final ItemRequestService itemRequestService;
+    private final NdjsonResponseWriter ndjsonWriter;
 
     @PostMapping
     public ItemRequestDto addRequest(@RequestBody CreateRequestDto createRequestDto,
@@ -31,6 +36,18 @@ public class ItemRequestController {
         return itemRequestService.getRequestsOfOtherUsers(userId);
     }
 
+    @GetMapping(produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public void streamAllByUser(@RequestHeader("X-Sharer-User-Id") Long userId,
+                                HttpServletResponse response) throws IOException {
+        ndjsonWriter.write(response, sink -> itemRequestService.streamAllByUser(userId, sink));
+    }
+
+    @GetMapping(path = "/all", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public void streamAllOfOtherUsers(@RequestHeader("X-Sharer-User-Id") Long userId,
+                                      HttpServletResponse response) throws IOException {
+        ndjsonWriter.write(response, sink -> itemRequestService.streamRequestsOfOtherUsers(userId, sink));
+    }
+
     @GetMapping("/{requestId}")
     public ItemRequestDto getById(@PathVariable Long requestId) {
         return itemRequestService.getRequestById(requestId);
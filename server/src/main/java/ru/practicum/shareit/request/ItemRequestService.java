@@ -4,6 +4,7 @@ import ru.practicum.shareit.request.dto.CreateRequestDto;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
 
 import java.util.List;
+import java.util.function.Consumer;
 
 public interface ItemRequestService {
     ItemRequestDto addRequest(CreateRequestDto createRequestDto, Long userId);
@@ -12,5 +13,9 @@ public interface ItemRequestService {
 
     List<ItemRequestDto> getRequestsOfOtherUsers(Long userId);
 
+    void streamAllByUser(Long userId, Consumer<? super ItemRequestDto> sink);
+
+    void streamRequestsOfOtherUsers(Long userId, Consumer<? super ItemRequestDto> sink);
+
     ItemRequestDto getRequestById(Long requestId);
 }
@@ -5,6 +5,7 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.deadline.TransactionTimeouts;
 import ru.practicum.shareit.exceptions.NotFoundException;
 import ru.practicum.shareit.item.ItemStorage;
 import ru.practicum.shareit.item.model.Item;
@@ -12,6 +13,7 @@ import ru.practicum.shareit.request.dto.CreateRequestDto;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
 import ru.practicum.shareit.request.dto.ResponseDto;
 import ru.practicum.shareit.request.mapper.ItemRequestMapper;
+import ru.practicum.shareit.stream.EntityStreams;
 import ru.practicum.shareit.user.User;
 import ru.practicum.shareit.user.UserStorage;
 
@@ -19,18 +21,20 @@ import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.function.Consumer;
 
 @Slf4j
 @Service
 @RequiredArgsConstructor
-@Transactional(readOnly = true)
+@Transactional(readOnly = true, timeoutString = TransactionTimeouts.READ)
 public class ItemRequestServiceImpl implements ItemRequestService {
     private final ItemRequestStorage requestStorage;
     private final UserStorage userStorage;
     private final ItemStorage itemStorage;
+    private final EntityStreams entityStreams;
 
     @Override
-    @Transactional
+    @Transactional(timeoutString = TransactionTimeouts.WRITE)
     public ItemRequestDto addRequest(CreateRequestDto createRequestDto, Long userId) {
         User user = userStorage.findById(userId).orElseThrow(() -> new NotFoundException("User not found"));
 
@@ -59,6 +63,31 @@ public class ItemRequestServiceImpl implements ItemRequestService {
                 .map(ItemRequestMapper::mapToDto).toList();
     }
 
+    @Override
+    @Transactional(readOnly = true, timeoutString = TransactionTimeouts.STREAM)
+    public void streamAllByUser(Long userId, Consumer<? super ItemRequestDto> sink) {
+        if (!userStorage.existsById(userId)) {
+            throw new NotFoundException("User not found");
+        }
+        Sort newestFirst = Sort.by(Sort.Direction.DESC, "created");
+        entityStreams.forEachChunk(requestStorage.streamAllByCreatorId(userId, newestFirst), chunk -> {
+            List<ItemRequestDto> requests = chunk.stream().map(ItemRequestMapper::mapToDto).toList();
+            setItems(requests);
+            requests.forEach(sink);
+        });
+    }
+
+    @Override
+    @Transactional(readOnly = true, timeoutString = TransactionTimeouts.STREAM)
+    public void streamRequestsOfOtherUsers(Long userId, Consumer<? super ItemRequestDto> sink) {
+        if (!userStorage.existsById(userId)) {
+            throw new NotFoundException("User not found");
+        }
+        Sort newestFirst = Sort.by(Sort.Direction.DESC, "created");
+        entityStreams.forEachChunk(requestStorage.streamAllByCreatorIdNot(userId, newestFirst),
+                chunk -> chunk.forEach(request -> sink.accept(ItemRequestMapper.mapToDto(request))));
+    }
+
     @Override
     public ItemRequestDto getRequestById(Long requestId) {
         ItemRequestDto requestDto = ItemRequestMapper.mapToDto(requestStorage.findById(requestId)
@@ -86,8 +115,8 @@ public class ItemRequestServiceImpl implements ItemRequestService {
         });
         log.info("получили Map {}", itemsMap);
         if (!itemsMap.isEmpty()) {
-            requests.forEach(requestDto -> requestDto.getItems()
-                    .addAll(itemsMap.get(requestDto.getId()).stream().map(this::mapItemToResponseDto).toList()));
+            requests.forEach(requestDto -> requestDto.getItems().addAll(itemsMap
+                    .getOrDefault(requestDto.getId(), List.of()).stream().map(this::mapItemToResponseDto).toList()));
         }
     }
 
@@ -1,13 +1,24 @@
 package ru.practicum.shareit.request;
 
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.AvailableHints;
 import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.QueryHints;
 import ru.practicum.shareit.request.model.ItemRequest;
+import ru.practicum.shareit.stream.EntityStreams;
 
 import java.util.List;
+import java.util.stream.Stream;
 
 public interface ItemRequestStorage extends JpaRepository<ItemRequest, Long> {
     List<ItemRequest> findAllByCreatorId(Long userId, Sort sort);
 
     List<ItemRequest> findAllByCreatorIdNot(Long userId, Sort sort);
+
+    @QueryHints(@QueryHint(name = AvailableHints.HINT_FETCH_SIZE, value = EntityStreams.FETCH_SIZE))
+    Stream<ItemRequest> streamAllByCreatorId(Long userId, Sort sort);
+
+    @QueryHints(@QueryHint(name = AvailableHints.HINT_FETCH_SIZE, value = EntityStreams.FETCH_SIZE))
+    Stream<ItemRequest> streamAllByCreatorIdNot(Long userId, Sort sort);
 }
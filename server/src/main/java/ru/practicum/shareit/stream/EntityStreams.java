@@ -0,0 +1,47 @@
+package ru.practicum.shareit.stream;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * Обход потока сущностей порциями. После каждой порции контекст персистентности очищается, поэтому
+ * память не растёт вместе с числом прочитанных строк.
+ */
+@Component
+public class EntityStreams {
+    /**
+     * Размер выборки JDBC для потоковых запросов, строкой для {@code @QueryHint}.
+     */
+    public static final String FETCH_SIZE = "500";
+    public static final int CHUNK_SIZE = Integer.parseInt(FETCH_SIZE);
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    public <T> void forEachChunk(Stream<T> rows, Consumer<List<T>> action) {
+        try (rows) {
+            List<T> chunk = new ArrayList<>(CHUNK_SIZE);
+            rows.forEach(row -> {
+                chunk.add(row);
+                if (chunk.size() == CHUNK_SIZE) {
+                    flush(chunk, action);
+                }
+            });
+            if (!chunk.isEmpty()) {
+                flush(chunk, action);
+            }
+        }
+    }
+
+    private <T> void flush(List<T> chunk, Consumer<List<T>> action) {
+        action.accept(chunk);
+        chunk.clear();
+        entityManager.clear();
+    }
+}
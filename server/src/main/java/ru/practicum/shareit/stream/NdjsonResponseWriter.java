@@ -0,0 +1,55 @@
+package ru.practicum.shareit.stream;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.function.Consumer;
+
+/**
+ * Пишет строки ответа в формате {@code application/x-ndjson} прямо в выходной поток сервлета:
+ * по одному JSON-объекту на строку, без сборки всего списка в памяти.
+ */
+@Component
+@RequiredArgsConstructor
+public class NdjsonResponseWriter {
+    private final ObjectMapper objectMapper;
+
+    /**
+     * @param rows получает приёмник строк и передаёт в него строки по мере чтения. Исключение, выброшенное
+     *             до первой строки, обрабатывается как обычно, потому что ответ ещё не отправлен
+     */
+    public void write(HttpServletResponse response, Consumer<Consumer<Object>> rows) throws IOException {
+        response.setContentType(MediaType.APPLICATION_NDJSON_VALUE);
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        ObjectWriter writer = objectMapper.writer().without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        JsonGenerator generator = objectMapper.getFactory().createGenerator(response.getOutputStream())
+                .disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET)
+                .disable(JsonGenerator.Feature.FLUSH_PASSED_TO_STREAM)
+                .setRootValueSeparator(null);
+        try {
+            rows.accept(row -> writeRow(writer, generator, row));
+            generator.flush();
+            response.flushBuffer();
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    private void writeRow(ObjectWriter writer, JsonGenerator generator, Object row) {
+        try {
+            writer.writeValue(generator, row);
+            generator.writeRaw('\n');
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
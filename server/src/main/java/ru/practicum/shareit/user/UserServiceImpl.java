@@ -3,6 +3,7 @@ package ru.practicum.shareit.user;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.deadline.TransactionTimeouts;
 import ru.practicum.shareit.exceptions.DuplicateException;
 import ru.practicum.shareit.exceptions.NotFoundException;
 import ru.practicum.shareit.user.dto.UpdateUserDto;
@@ -11,7 +12,7 @@ import ru.practicum.shareit.user.mapper.UserMapper;
 
 @Service
 @RequiredArgsConstructor
-@Transactional(readOnly = true)
+@Transactional(readOnly = true, timeoutString = TransactionTimeouts.READ)
 public class UserServiceImpl implements UserService {
     private final UserStorage userStorage;
 
@@ -22,7 +23,7 @@ public class UserServiceImpl implements UserService {
     }
 
     @Override
-    @Transactional
+    @Transactional(timeoutString = TransactionTimeouts.WRITE)
     public UserDto createUser(UserDto userDto) {
         User user = UserMapper.mapUserDtoToUser(userDto);
         validateUser(user);
@@ -30,7 +31,7 @@ public class UserServiceImpl implements UserService {
     }
 
     @Override
-    @Transactional
+    @Transactional(timeoutString = TransactionTimeouts.WRITE)
     public UserDto updateUser(UpdateUserDto userDto, Long userId) {
         User oldUser = userStorage.findById(userId).orElseThrow(() -> new NotFoundException("User not found"));
         User user = UserMapper.mapUpdateUserDtoToUser(userDto);
@@ -45,7 +46,7 @@ public class UserServiceImpl implements UserService {
     }
 
     @Override
-    @Transactional
+    @Transactional(timeoutString = TransactionTimeouts.WRITE)
     public void deleteUserById(Long userId) {
         userStorage.findById(userId).orElseThrow(() -> new NotFoundException("User not found"));
         userStorage.deleteById(userId);
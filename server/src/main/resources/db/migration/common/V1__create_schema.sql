@@ -1,18 +1,24 @@
+CREATE SEQUENCE IF NOT EXISTS users_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS item_requests_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS items_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS booking_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS comments_seq START WITH 1 INCREMENT BY 50;
+
 CREATE TABLE IF NOT EXISTS users (
-    user_id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    user_id BIGINT PRIMARY KEY,
     name varchar(50) NOT NULL,
     email varchar(50) NOT NULL UNIQUE
 );
 
 CREATE TABLE IF NOT EXISTS item_requests (
-    request_id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    request_id BIGINT PRIMARY KEY,
     description varchar(1000) NOT NULL,
     create_date timestamp NOT NULL,
     creator_id BIGINT NOT NULL references users(user_id)
 );
 
 CREATE TABLE IF NOT EXISTS items (
-    item_id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    item_id BIGINT PRIMARY KEY,
     name varchar(50) NOT NULL,
     description varchar(500) NOT NULL,
     owner_id BIGINT NOT NULL references users(user_id),
@@ -21,7 +27,7 @@ CREATE TABLE IF NOT EXISTS items (
 );
 
 CREATE TABLE IF NOT EXISTS booking (
-    booking_id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    booking_id BIGINT PRIMARY KEY,
     start_date timestamp NOT NULL,
     end_date timestamp NOT NULL,
     tenant_id BIGINT NOT NULL references users(user_id),
@@ -30,9 +36,18 @@ CREATE TABLE IF NOT EXISTS booking (
 );
 
 CREATE TABLE IF NOT EXISTS comments (
-    comment_id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    comment_id BIGINT PRIMARY KEY,
     text varchar(1000) NOT NULL,
     item_id BIGINT NOT NULL references items(item_id),
     author_id BIGINT NOT NULL references users(user_id),
     created timestamp NOT NULL
-);
\ No newline at end of file
+);
+
+CREATE TABLE IF NOT EXISTS item_booking_summary (
+    item_id BIGINT PRIMARY KEY references items(item_id) ON DELETE CASCADE,
+    last_booking_id BIGINT references booking(booking_id) ON DELETE SET NULL,
+    last_booking_end timestamp,
+    next_booking_id BIGINT references booking(booking_id) ON DELETE SET NULL,
+    next_booking_start timestamp,
+    valid_until timestamp
+);
@@ -0,0 +1,15 @@
+CREATE INDEX IF NOT EXISTS booking_tenant_start_idx ON booking (tenant_id, start_date DESC, booking_id DESC);
+
+CREATE INDEX IF NOT EXISTS booking_item_start_idx ON booking (item_id, start_date DESC, booking_id DESC);
+
+CREATE INDEX IF NOT EXISTS booking_item_end_idx ON booking (item_id, end_date);
+
+CREATE INDEX IF NOT EXISTS items_owner_idx ON items (owner_id);
+
+CREATE INDEX IF NOT EXISTS items_request_idx ON items (request_id);
+
+CREATE INDEX IF NOT EXISTS comments_item_idx ON comments (item_id);
+
+CREATE INDEX IF NOT EXISTS item_requests_creator_created_idx ON item_requests (creator_id, create_date DESC);
+
+CREATE INDEX IF NOT EXISTS item_booking_summary_valid_until_idx ON item_booking_summary (valid_until);
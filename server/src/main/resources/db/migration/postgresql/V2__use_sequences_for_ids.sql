@@ -0,0 +1,16 @@
+ALTER TABLE users ALTER COLUMN user_id DROP IDENTITY IF EXISTS;
+ALTER TABLE item_requests ALTER COLUMN request_id DROP IDENTITY IF EXISTS;
+ALTER TABLE items ALTER COLUMN item_id DROP IDENTITY IF EXISTS;
+ALTER TABLE booking ALTER COLUMN booking_id DROP IDENTITY IF EXISTS;
+ALTER TABLE comments ALTER COLUMN comment_id DROP IDENTITY IF EXISTS;
+
+SELECT setval('users_seq', (SELECT COALESCE(MAX(user_id), 0) + 1 FROM users), false)
+    WHERE NOT (SELECT is_called FROM users_seq);
+SELECT setval('item_requests_seq', (SELECT COALESCE(MAX(request_id), 0) + 1 FROM item_requests), false)
+    WHERE NOT (SELECT is_called FROM item_requests_seq);
+SELECT setval('items_seq', (SELECT COALESCE(MAX(item_id), 0) + 1 FROM items), false)
+    WHERE NOT (SELECT is_called FROM items_seq);
+SELECT setval('booking_seq', (SELECT COALESCE(MAX(booking_id), 0) + 1 FROM booking), false)
+    WHERE NOT (SELECT is_called FROM booking_seq);
+SELECT setval('comments_seq', (SELECT COALESCE(MAX(comment_id), 0) + 1 FROM comments), false)
+    WHERE NOT (SELECT is_called FROM comments_seq);
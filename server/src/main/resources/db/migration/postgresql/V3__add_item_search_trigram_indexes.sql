@@ -0,0 +1,7 @@
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+CREATE INDEX IF NOT EXISTS items_available_name_trgm_idx
+    ON items USING gin (lower(name) gin_trgm_ops) WHERE available;
+
+CREATE INDEX IF NOT EXISTS items_available_description_trgm_idx
+    ON items USING gin (lower(description) gin_trgm_ops) WHERE available;
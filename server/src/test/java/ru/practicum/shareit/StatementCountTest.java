@@ -0,0 +1,116 @@
+package ru.practicum.shareit;
+
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.booking.Booking;
+import ru.practicum.shareit.booking.BookingStorage;
+import ru.practicum.shareit.booking.enums.BookingStatus;
+import ru.practicum.shareit.item.CommentStorage;
+import ru.practicum.shareit.item.ItemStorage;
+import ru.practicum.shareit.item.model.Comment;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.request.ItemRequestStorage;
+import ru.practicum.shareit.request.model.ItemRequest;
+import ru.practicum.shareit.user.User;
+import ru.practicum.shareit.user.UserStorage;
+
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Фиксирует число SQL-запросов, которое выполняет каждый GET-эндпоинт. Если число выросло,
+ * скорее всего, маппер обратился к ленивой связи, которую запрос хранилища не подгружает.
+ */
+@Transactional
+@AutoConfigureMockMvc
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@RequiredArgsConstructor(onConstructor_ = @Autowired)
+class StatementCountTest {
+    private static final int ITEMS = 5;
+
+    private final MockMvc mvc;
+    private final EntityManager entityManager;
+    private final UserStorage userStorage;
+    private final ItemStorage itemStorage;
+    private final BookingStorage bookingStorage;
+    private final CommentStorage commentStorage;
+    private final ItemRequestStorage requestStorage;
+    private User owner;
+    private User tenant;
+    private Item item;
+    private Booking booking;
+    private ItemRequest request;
+
+    @BeforeEach
+    void init() {
+        owner = userStorage.save(User.builder().name("owner").email("owner@mail.ru").build());
+        tenant = userStorage.save(User.builder().name("tenant").email("tenant@mail.ru").build());
+        request = requestStorage.save(ItemRequest.builder().description("need a drill").creator(tenant)
+                .created(LocalDateTime.now()).build());
+        for (int i = 0; i < ITEMS; i++) {
+            item = itemStorage.save(Item.builder().name("item" + i).description("description").available(true)
+                    .owner(owner).request(request).build());
+            booking = bookingStorage.save(Booking.builder().item(item).tenant(tenant).status(BookingStatus.APPROVED)
+                    .start(LocalDateTime.now().minusDays(3)).end(LocalDateTime.now().minusDays(2)).build());
+            bookingStorage.save(Booking.builder().item(item).tenant(tenant).status(BookingStatus.WAITING)
+                    .start(LocalDateTime.now().plusDays(2)).end(LocalDateTime.now().plusDays(3)).build());
+            commentStorage.save(Comment.builder().item(item).author(tenant).text("text" + i)
+                    .created(LocalDateTime.now()).build());
+        }
+    }
+
+    @Test
+    void testStatementCountOfEndpointsDoesNotGrow() throws Exception {
+        Map<String, Long> expected = new LinkedHashMap<>();
+        expected.put("GET /users/{id}", 1L);
+        expected.put("GET /items/{id}", 2L);
+        expected.put("GET /items", 6L);
+        expected.put("GET /items/search", 1L);
+        expected.put("GET /bookings/{id}", 1L);
+        expected.put("GET /bookings", 2L);
+        expected.put("GET /bookings/owner", 2L);
+        expected.put("GET /requests", 3L);
+        expected.put("GET /requests/all", 2L);
+        expected.put("GET /requests/{id}", 2L);
+
+        Map<String, Long> actual = new LinkedHashMap<>();
+        actual.put("GET /users/{id}", count("/users/" + owner.getId(), owner));
+        actual.put("GET /items/{id}", count("/items/" + item.getId(), owner));
+        actual.put("GET /items", count("/items", owner));
+        actual.put("GET /items/search", count("/items/search?text=item", owner));
+        actual.put("GET /bookings/{id}", count("/bookings/" + booking.getId(), tenant));
+        actual.put("GET /bookings", count("/bookings?state=ALL", tenant));
+        actual.put("GET /bookings/owner", count("/bookings/owner?state=ALL", owner));
+        actual.put("GET /requests", count("/requests", tenant));
+        actual.put("GET /requests/all", count("/requests/all", owner));
+        actual.put("GET /requests/{id}", count("/requests/" + request.getId(), owner));
+
+        assertEquals(expected, actual);
+    }
+
+    private long count(String url, User user) throws Exception {
+        Statistics statistics = entityManager.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+        entityManager.flush();
+        entityManager.clear();
+        statistics.clear();
+
+        mvc.perform(get(url).header("X-Sharer-User-Id", user.getId()))
+                .andExpect(status().isOk());
+
+        return statistics.getPrepareStatementCount();
+    }
+}
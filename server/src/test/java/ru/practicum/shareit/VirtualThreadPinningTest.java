@@ -0,0 +1,123 @@
+package ru.practicum.shareit;
+
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordingStream;
+import lombok.RequiredArgsConstructor;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+import ru.practicum.shareit.item.ItemStorage;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.search.LuceneItemSearch;
+import ru.practicum.shareit.user.User;
+import ru.practicum.shareit.user.UserStorage;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Проверяет, что обработка запросов на виртуальных потоках не закрепляет их за потоком-носителем, пока они ждут
+ * соединение из пула Hikari или выполняют JDBC-запросы. Пул намеренно меньше числа потоков, чтобы они ждали.
+ * Закрепления внутри H2 не учитываются: в основном профиле база PostgreSQL, а её драйвер и Hikari
+ * не держат мониторов на время ожидания.
+ */
+@AutoConfigureMockMvc
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:pinning",
+        "spring.datasource.hikari.maximum-pool-size=2",
+        "spring.datasource.hikari.connection-timeout=10000",
+        "shareit.search.backend=lucene"})
+@RequiredArgsConstructor(onConstructor_ = @Autowired)
+class VirtualThreadPinningTest {
+    private static final int THREADS = 32;
+    private static final int REQUESTS_PER_THREAD = 20;
+    private static final String PINNED = "jdk.VirtualThreadPinned";
+
+    @TempDir
+    private static Path indexDir;
+
+    private final MockMvc mvc;
+    private final UserStorage userStorage;
+    private final ItemStorage itemStorage;
+    private final LuceneItemSearch itemSearch;
+
+    @DynamicPropertySource
+    static void indexDir(DynamicPropertyRegistry registry) {
+        registry.add("shareit.search.lucene.index-dir", () -> indexDir.toString());
+    }
+
+    @Test
+    void testRequestsOnVirtualThreadsAreNotPinned() throws Exception {
+        User owner = userStorage.save(User.builder().name("owner").email("pinning@mail.ru").build());
+        Item item = itemStorage.save(Item.builder().name("Дрель").description("Аккумуляторная").available(true)
+                .owner(owner).build());
+
+        List<RecordedEvent> pinned = new ArrayList<>();
+        try (RecordingStream recording = new RecordingStream();
+             ExecutorService threads = Executors.newVirtualThreadPerTaskExecutor()) {
+            ConcurrentLinkedQueue<RecordedEvent> events = new ConcurrentLinkedQueue<>();
+            recording.enable(PINNED).withThreshold(Duration.ZERO).withStackTrace();
+            recording.onEvent(PINNED, events::add);
+            recording.startAsync();
+
+            List<Future<?>> calls = new ArrayList<>();
+            for (int i = 0; i < THREADS; i++) {
+                boolean rebuilds = i % 8 == 0;
+                calls.add(threads.submit(() -> {
+                    for (int j = 0; j < REQUESTS_PER_THREAD; j++) {
+                        mvc.perform(get("/items/{id}", item.getId()).header("X-Sharer-User-Id", owner.getId()))
+                                .andExpect(status().isOk());
+                        mvc.perform(get("/users/{id}", owner.getId())).andExpect(status().isOk());
+                        if (rebuilds && j == 0) {
+                            itemSearch.rebuild();
+                        }
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> call : calls) {
+                call.get();
+            }
+            recording.stop();
+            events.stream().filter(event -> !inTestDatabase(event)).forEach(pinned::add);
+        }
+
+        assertTrue(pinned.isEmpty(), "виртуальные потоки закреплены за носителем:\n" + pinned.stream()
+                .map(VirtualThreadPinningTest::topFrames)
+                .distinct()
+                .collect(Collectors.joining("\n\n")));
+    }
+
+    private static boolean inTestDatabase(RecordedEvent event) {
+        return event.getStackTrace() != null && event.getStackTrace().getFrames().stream()
+                .anyMatch(frame -> frame.getMethod().getType().getName().startsWith("org.h2."));
+    }
+
+    private static String topFrames(RecordedEvent event) {
+        if (event.getStackTrace() == null) {
+            return "без стека";
+        }
+        return event.getStackTrace().getFrames().stream()
+                .limit(15)
+                .map(RecordedFrame::getMethod)
+                .map(method -> method.getType().getName() + "." + method.getName())
+                .collect(Collectors.joining("\n"));
+    }
+}
@@ -5,28 +5,43 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.dto.BookingPageDto;
+import ru.practicum.shareit.booking.dto.CompactBookingDto;
 import ru.practicum.shareit.booking.dto.ResponseBookingDto;
 import ru.practicum.shareit.booking.enums.BookingState;
 import ru.practicum.shareit.booking.enums.BookingStatus;
+import ru.practicum.shareit.deadline.RequestDeadline;
+import ru.practicum.shareit.exceptions.NotFoundException;
 import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.stream.NdjsonResponseWriter;
 import ru.practicum.shareit.user.dto.UserDto;
 
 import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.function.Consumer;
 
 import static org.hamcrest.Matchers.hasSize;
 import static org.hamcrest.Matchers.is;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @WebMvcTest(controllers = BookingController.class)
+@Import(NdjsonResponseWriter.class)
 class BookingControllerTest {
     @Autowired
     private ObjectMapper mapper;
@@ -117,7 +132,8 @@ class BookingControllerTest {
     void testGetBookings() throws Exception {
         List<ResponseBookingDto> responses = List.of(response);
 
-        when(bookingService.getBookings(anyLong(), any())).thenReturn(responses);
+        when(bookingService.getBookings(anyLong(), any(), isNull(), isNull()))
+                .thenReturn(new BookingPageDto<>(responses, "next"));
 
         mvc.perform(get("/bookings")
                         .accept(MediaType.APPLICATION_JSON)
@@ -125,6 +141,7 @@ class BookingControllerTest {
                         .characterEncoding(StandardCharsets.UTF_8)
                         .param("state", "ALL"))
                 .andExpect(status().isOk())
+                .andExpect(header().string("X-Next-Cursor", "next"))
                 .andExpect(jsonPath("$.*", hasSize(1)))
                 .andExpect(jsonPath("$.*.booker.name", is(List.of(userDto.getName()))))
                 .andExpect(jsonPath("$.*.item.name", is(List.of(itemDto.getName()))));
@@ -134,7 +151,8 @@ class BookingControllerTest {
     void getBookingsOfItemsOfOwner() throws Exception {
         List<ResponseBookingDto> responses = List.of(response);
 
-        when(bookingService.getBookingsOfAllItemsOfOwner(anyLong(), any())).thenReturn(responses);
+        when(bookingService.getBookingsOfAllItemsOfOwner(anyLong(), any(), isNull(), isNull()))
+                .thenReturn(new BookingPageDto<>(responses, null));
 
         mvc.perform(get("/bookings/owner")
                         .accept(MediaType.APPLICATION_JSON)
@@ -142,8 +160,113 @@ class BookingControllerTest {
                         .header("X-Sharer-User-Id", 1)
                         .param("state", "ALL"))
                 .andExpect(status().isOk())
+                .andExpect(header().doesNotExist("X-Next-Cursor"))
                 .andExpect(jsonPath("$.*", hasSize(1)))
                 .andExpect(jsonPath("$.*.booker.name", is(List.of(userDto.getName()))))
                 .andExpect(jsonPath("$.*.item.name", is(List.of(itemDto.getName()))));
     }
-}
\ No newline at end of file
+
+    @Test
+    void testGetCompactBookingsOfItemsOfOwner() throws Exception {
+        CompactBookingDto compact = new CompactBookingDto(response.getId(), response.getStart(), response.getEnd(),
+                response.getStatus(), itemDto.getId(), itemDto.getName(), userDto.getId());
+
+        when(bookingService.getCompactBookingsOfAllItemsOfOwner(anyLong(), any(), isNull(), isNull()))
+                .thenReturn(new BookingPageDto<>(List.of(compact), "next"));
+
+        mvc.perform(get("/bookings/owner")
+                        .accept(MediaType.APPLICATION_JSON)
+                        .characterEncoding(StandardCharsets.UTF_8)
+                        .header("X-Sharer-User-Id", 1)
+                        .param("view", "COMPACT"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("X-Next-Cursor", "next"))
+                .andExpect(jsonPath("$.*", hasSize(1)))
+                .andExpect(jsonPath("$[0].itemName", is(itemDto.getName())))
+                .andExpect(jsonPath("$[0].bookerId", is(userDto.getId()), Long.class))
+                .andExpect(jsonPath("$[0].item").doesNotExist());
+    }
+
+    @Test
+    void testGetBookingsOfItem() throws Exception {
+        CompactBookingDto compact = new CompactBookingDto(response.getId(), response.getStart(), response.getEnd(),
+                response.getStatus(), itemDto.getId(), itemDto.getName(), userDto.getId());
+
+        when(bookingService.getCompactBookingsOfItem(1L, itemDto.getId(), null, 5))
+                .thenReturn(new BookingPageDto<>(List.of(compact), null));
+
+        mvc.perform(get("/bookings/item/{itemId}", itemDto.getId())
+                        .accept(MediaType.APPLICATION_JSON)
+                        .characterEncoding(StandardCharsets.UTF_8)
+                        .header("X-Sharer-User-Id", 1)
+                        .param("size", "5"))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist("X-Next-Cursor"))
+                .andExpect(jsonPath("$.*", hasSize(1)))
+                .andExpect(jsonPath("$[0].itemId", is(itemDto.getId()), Long.class));
+    }
+
+    @Test
+    void testStreamBookingsAsNdjson() throws Exception {
+        doAnswer(invocation -> {
+            Consumer<ResponseBookingDto> sink = invocation.getArgument(2);
+            sink.accept(response);
+            sink.accept(response);
+            return null;
+        }).when(bookingService).streamBookings(anyLong(), any(), any());
+
+        String body = mvc.perform(get("/bookings")
+                        .accept(MediaType.APPLICATION_NDJSON)
+                        .header("X-Sharer-User-Id", 1))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON))
+                .andReturn().getResponse().getContentAsString();
+
+        String[] lines = body.split("\n");
+        assertEquals(2, lines.length);
+        assertEquals(response.getId(), mapper.readValue(lines[1], ResponseBookingDto.class).getId());
+    }
+
+    @Test
+    void testStreamOutlivesDeadlineOfGateway() throws Exception {
+        doAnswer(invocation -> {
+            Consumer<ResponseBookingDto> sink = invocation.getArgument(2);
+            sink.accept(response);
+            Thread.sleep(200);
+            assertTrue(RequestDeadline.remainingMillis().isEmpty(), "срок не сокращает транзакцию потока");
+            sink.accept(response);
+            return null;
+        }).when(bookingService).streamBookings(anyLong(), any(), any());
+
+        String body = mvc.perform(get("/bookings")
+                        .accept(MediaType.APPLICATION_NDJSON)
+                        .header("X-Sharer-User-Id", 1)
+                        .header(RequestDeadline.HEADER, 50))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+
+        assertEquals(2, body.split("\n").length);
+    }
+
+    @Test
+    void testReturnNotFoundIfStreamFailsBeforeFirstRow() throws Exception {
+        doThrow(new NotFoundException("User not found"))
+                .when(bookingService).streamBookingsOfAllItemsOfOwner(anyLong(), any(), any());
+
+        mvc.perform(get("/bookings/owner")
+                        .accept(MediaType.APPLICATION_NDJSON)
+                        .header("X-Sharer-User-Id", 1))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void testRejectsRequestWithExpiredDeadline() throws Exception {
+        mvc.perform(get("/bookings")
+                        .header("X-Sharer-User-Id", 1)
+                        .header(RequestDeadline.HEADER, 0))
+                .andExpect(status().isGatewayTimeout())
+                .andExpect(jsonPath("$.error", is("Истёк срок выполнения запроса")));
+
+        verifyNoInteractions(bookingService);
+    }
+}
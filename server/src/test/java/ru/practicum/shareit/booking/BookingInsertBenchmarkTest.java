@@ -0,0 +1,100 @@
+package ru.practicum.shareit.booking;
+
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.Session;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.booking.enums.BookingStatus;
+import ru.practicum.shareit.item.ItemStorage;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.User;
+import ru.practicum.shareit.user.UserStorage;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Замер скорости вставки бронирований с пакетной отправкой и без неё.
+ * Запуск: {@code mvn -pl server test -Pbenchmark -Dbenchmark.bookings=100000}.
+ */
+@Slf4j
+@Tag("benchmark")
+@SpringBootTest(
+        properties = "jdbc.url=jdbc:postgresql://localhost:6541/test",
+        webEnvironment = SpringBootTest.WebEnvironment.NONE)
+@RequiredArgsConstructor(onConstructor_ = @Autowired)
+class BookingInsertBenchmarkTest {
+    private static final int FLUSH_SIZE = 1000;
+
+    private final EntityManager entityManager;
+    private final TransactionTemplate transactionTemplate;
+    private final BookingStorage bookingStorage;
+    private final ItemStorage itemStorage;
+    private final UserStorage userStorage;
+    @Value("${benchmark.bookings:100000}")
+    private int bookings;
+    private User owner;
+    private User tenant;
+    private Item item;
+
+    @BeforeEach
+    void init() {
+        owner = userStorage.save(User.builder().name("owner").email("owner@mail.ru").build());
+        tenant = userStorage.save(User.builder().name("tenant").email("tenant@mail.ru").build());
+        item = itemStorage.save(Item.builder().name("item").description("description").available(true)
+                .owner(owner).build());
+    }
+
+    @AfterEach
+    void cleanup() {
+        bookingStorage.deleteAllInBatch();
+        itemStorage.deleteAllInBatch();
+        userStorage.deleteAllInBatch();
+    }
+
+    @Test
+    void benchmarkBookingInserts() {
+        long rowByRow = insertBookings(1);
+        bookingStorage.deleteAllInBatch();
+        long batched = insertBookings(null);
+
+        log.info("вставка {} бронирований: по одной строке {} мс ({} строк/с), пакетами {} мс ({} строк/с)",
+                bookings, rowByRow, throughput(rowByRow), batched, throughput(batched));
+        assertEquals(bookings, bookingStorage.count());
+    }
+
+    private long insertBookings(Integer jdbcBatchSize) {
+        LocalDateTime start = LocalDateTime.now().plusDays(1);
+        long startedAt = System.nanoTime();
+        transactionTemplate.executeWithoutResult(status -> {
+            entityManager.unwrap(Session.class).setJdbcBatchSize(jdbcBatchSize);
+            Item bookedItem = entityManager.getReference(Item.class, item.getId());
+            User booker = entityManager.getReference(User.class, tenant.getId());
+            for (int i = 0; i < bookings; i++) {
+                entityManager.persist(Booking.builder().item(bookedItem).tenant(booker)
+                        .status(BookingStatus.WAITING).start(start.plusHours(i)).end(start.plusHours(i + 1))
+                        .build());
+                if ((i + 1) % FLUSH_SIZE == 0) {
+                    entityManager.flush();
+                    entityManager.clear();
+                    bookedItem = entityManager.getReference(Item.class, item.getId());
+                    booker = entityManager.getReference(User.class, tenant.getId());
+                }
+            }
+        });
+        return (System.nanoTime() - startedAt) / 1_000_000;
+    }
+
+    private long throughput(long millis) {
+        return bookings * 1000L / Math.max(millis, 1);
+    }
+}
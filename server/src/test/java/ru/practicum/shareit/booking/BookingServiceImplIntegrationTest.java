@@ -6,19 +6,28 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.booking.dto.BookingPageDto;
+import ru.practicum.shareit.booking.dto.CompactBookingDto;
 import ru.practicum.shareit.booking.dto.ResponseBookingDto;
 import ru.practicum.shareit.booking.enums.BookingState;
 import ru.practicum.shareit.booking.enums.BookingStatus;
+import ru.practicum.shareit.exceptions.ValidationException;
 import ru.practicum.shareit.item.ItemStorage;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.user.User;
 import ru.practicum.shareit.user.UserStorage;
 
 import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.stream.Stream;
 
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.notNullValue;
+import static org.hamcrest.Matchers.nullValue;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 
 @Transactional
 @SpringBootTest(properties = "jdbc.url=jdbc:postgresql://localhost:6541/test",
@@ -61,7 +70,8 @@ class BookingServiceImplIntegrationTest {
                 .item(item)
                 .build());
 
-        List<ResponseBookingDto> bookings = bookingService.getBookings(tenant.getId(), BookingState.PAST);
+        List<ResponseBookingDto> bookings = bookingService.getBookings(tenant.getId(), BookingState.PAST, null, 20)
+                .getBookings();
 
         assertThat(1, equalTo(bookings.size()));
         assertThat(booking.getId(), equalTo(bookings.getFirst().getId()));
@@ -77,7 +87,8 @@ class BookingServiceImplIntegrationTest {
                 .item(item)
                 .build());
 
-        List<ResponseBookingDto> bookings = bookingService.getBookings(tenant.getId(), BookingState.FUTURE);
+        List<ResponseBookingDto> bookings = bookingService.getBookings(tenant.getId(), BookingState.FUTURE, null, 20)
+                .getBookings();
 
         assertThat(1, equalTo(bookings.size()));
         assertThat(booking.getId(), equalTo(bookings.getFirst().getId()));
@@ -93,7 +104,8 @@ class BookingServiceImplIntegrationTest {
                 .item(item)
                 .build());
 
-        List<ResponseBookingDto> bookings = bookingService.getBookings(tenant.getId(), BookingState.CURRENT);
+        List<ResponseBookingDto> bookings = bookingService.getBookings(tenant.getId(), BookingState.CURRENT, null, 20)
+                .getBookings();
 
         assertThat(1, equalTo(bookings.size()));
         assertThat(booking.getId(), equalTo(bookings.getFirst().getId()));
@@ -109,7 +121,8 @@ class BookingServiceImplIntegrationTest {
                 .item(item)
                 .build());
 
-        List<ResponseBookingDto> bookings = bookingService.getBookings(tenant.getId(), BookingState.REJECTED);
+        List<ResponseBookingDto> bookings = bookingService.getBookings(tenant.getId(), BookingState.REJECTED, null, 20)
+                .getBookings();
 
         assertThat(1, equalTo(bookings.size()));
         assertThat(booking.getId(), equalTo(bookings.getFirst().getId()));
@@ -126,7 +139,7 @@ class BookingServiceImplIntegrationTest {
                 .build());
 
         List<ResponseBookingDto> bookings = bookingService.getBookingsOfAllItemsOfOwner(owner.getId(),
-                BookingState.ALL);
+                BookingState.ALL, null, 20).getBookings();
 
         assertThat(1, equalTo(bookings.size()));
         assertThat(booking.getId(), equalTo(bookings.getFirst().getId()));
@@ -143,7 +156,7 @@ class BookingServiceImplIntegrationTest {
                 .build());
 
         List<ResponseBookingDto> bookings = bookingService.getBookingsOfAllItemsOfOwner(owner.getId(),
-                BookingState.PAST);
+                BookingState.PAST, null, 20).getBookings();
 
         assertThat(1, equalTo(bookings.size()));
         assertThat(booking.getId(), equalTo(bookings.getFirst().getId()));
@@ -160,7 +173,7 @@ class BookingServiceImplIntegrationTest {
                 .build());
 
         List<ResponseBookingDto> bookings = bookingService.getBookingsOfAllItemsOfOwner(owner.getId(),
-                BookingState.FUTURE);
+                BookingState.FUTURE, null, 20).getBookings();
 
         assertThat(1, equalTo(bookings.size()));
         assertThat(booking.getId(), equalTo(bookings.getFirst().getId()));
@@ -177,7 +190,7 @@ class BookingServiceImplIntegrationTest {
                 .build());
 
         List<ResponseBookingDto> bookings = bookingService.getBookingsOfAllItemsOfOwner(owner.getId(),
-                BookingState.CURRENT);
+                BookingState.CURRENT, null, 20).getBookings();
 
         assertThat(1, equalTo(bookings.size()));
         assertThat(booking.getId(), equalTo(bookings.getFirst().getId()));
@@ -194,9 +207,201 @@ class BookingServiceImplIntegrationTest {
                 .build());
 
         List<ResponseBookingDto> bookings = bookingService.getBookingsOfAllItemsOfOwner(owner.getId(),
-                BookingState.WAITING);
+                BookingState.WAITING, null, 20).getBookings();
 
         assertThat(1, equalTo(bookings.size()));
         assertThat(booking.getId(), equalTo(bookings.getFirst().getId()));
     }
-}
\ No newline at end of file
+
+    @Test
+    void testCanPageThroughBookingsOfTenantWithCursor() {
+        LocalDateTime start = LocalDateTime.now().plusDays(1).truncatedTo(ChronoUnit.SECONDS);
+        List<Long> ids = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            ids.add(bookingStorage.save(Booking.builder()
+                    .status(BookingStatus.WAITING)
+                    .start(i < 3 ? start : start.plusDays(i))
+                    .end(start.plusDays(10))
+                    .tenant(tenant)
+                    .item(item)
+                    .build()).getId());
+        }
+
+        BookingPageDto<ResponseBookingDto> first = bookingService.getBookings(tenant.getId(), BookingState.ALL,
+                null, 2);
+        BookingPageDto<ResponseBookingDto> second = bookingService.getBookings(tenant.getId(), BookingState.ALL,
+                first.getNextCursor(), 2);
+        BookingPageDto<ResponseBookingDto> third = bookingService.getBookings(tenant.getId(), BookingState.ALL,
+                second.getNextCursor(), 2);
+
+        List<Long> pagedIds = Stream.of(first, second, third)
+                .flatMap(page -> page.getBookings().stream())
+                .map(ResponseBookingDto::getId)
+                .toList();
+        assertThat(pagedIds, equalTo(List.of(ids.get(4), ids.get(3), ids.get(2), ids.get(1), ids.get(0))));
+        assertThat(third.getNextCursor(), nullValue());
+    }
+
+    @Test
+    void testCanGetAllBookingsWithoutCursorAndSize() {
+        LocalDateTime start = LocalDateTime.now().plusDays(1).truncatedTo(ChronoUnit.SECONDS);
+        int count = BookingCursor.DEFAULT_PAGE_SIZE + 5;
+        for (int i = 0; i < count; i++) {
+            bookingStorage.save(Booking.builder()
+                    .status(BookingStatus.WAITING)
+                    .start(start.plusHours(i))
+                    .end(start.plusDays(10))
+                    .tenant(tenant)
+                    .item(item)
+                    .build());
+        }
+
+        BookingPageDto<ResponseBookingDto> all = bookingService.getBookings(tenant.getId(), BookingState.ALL,
+                null, null);
+        BookingPageDto<CompactBookingDto> allOfOwner = bookingService.getCompactBookingsOfAllItemsOfOwner(
+                owner.getId(), BookingState.ALL, null, null);
+        BookingPageDto<ResponseBookingDto> first = bookingService.getBookings(tenant.getId(), BookingState.ALL,
+                null, 1);
+        BookingPageDto<ResponseBookingDto> next = bookingService.getBookings(tenant.getId(), BookingState.ALL,
+                first.getNextCursor(), null);
+
+        assertThat(all.getBookings().size(), equalTo(count));
+        assertThat(all.getNextCursor(), nullValue());
+        assertThat(allOfOwner.getBookings().size(), equalTo(count));
+        assertThat(allOfOwner.getNextCursor(), nullValue());
+        assertThat(next.getBookings().size(), equalTo(BookingCursor.DEFAULT_PAGE_SIZE));
+        assertThat(next.getNextCursor(), notNullValue());
+    }
+
+    @Test
+    void testCanPageThroughCompactBookingsOfOwnerWithCursor() {
+        LocalDateTime start = LocalDateTime.now().minusDays(1).truncatedTo(ChronoUnit.SECONDS);
+        List<Long> ids = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            ids.add(bookingStorage.save(Booking.builder()
+                    .status(BookingStatus.APPROVED)
+                    .start(start)
+                    .end(start.plusDays(10))
+                    .tenant(tenant)
+                    .item(item)
+                    .build()).getId());
+        }
+
+        BookingPageDto<CompactBookingDto> first = bookingService.getCompactBookingsOfAllItemsOfOwner(owner.getId(),
+                BookingState.CURRENT, null, 2);
+        BookingPageDto<CompactBookingDto> second = bookingService.getCompactBookingsOfAllItemsOfOwner(owner.getId(),
+                BookingState.CURRENT, first.getNextCursor(), 2);
+
+        List<Long> pagedIds = Stream.of(first, second)
+                .flatMap(page -> page.getBookings().stream())
+                .map(CompactBookingDto::getId)
+                .toList();
+        assertThat(pagedIds, equalTo(List.of(ids.get(2), ids.get(1), ids.get(0))));
+        assertThat(second.getNextCursor(), nullValue());
+        CompactBookingDto booking = first.getBookings().getFirst();
+        assertThat(booking.getItemId(), equalTo(item.getId()));
+        assertThat(booking.getItemName(), equalTo(item.getName()));
+        assertThat(booking.getBookerId(), equalTo(tenant.getId()));
+        assertThat(booking.getStatus(), equalTo(BookingStatus.APPROVED));
+    }
+
+    @Test
+    void testCompactBookingsOfTenantAreFilteredByState() {
+        bookingStorage.save(Booking.builder()
+                .status(BookingStatus.APPROVED)
+                .start(LocalDateTime.now().minusDays(2))
+                .end(LocalDateTime.now().minusDays(1))
+                .tenant(tenant)
+                .item(item)
+                .build());
+        Booking waiting = bookingStorage.save(Booking.builder()
+                .status(BookingStatus.WAITING)
+                .start(LocalDateTime.now().plusDays(1))
+                .end(LocalDateTime.now().plusDays(2))
+                .tenant(tenant)
+                .item(item)
+                .build());
+
+        List<CompactBookingDto> bookings = bookingService.getCompactBookings(tenant.getId(), BookingState.WAITING,
+                null, 20).getBookings();
+
+        assertThat(bookings.size(), equalTo(1));
+        assertThat(bookings.getFirst().getId(), equalTo(waiting.getId()));
+    }
+
+    @Test
+    void testCompactBookingsOfItemContainOnlyBookingsOfTenant() {
+        Item other = itemStorage.save(Item.builder()
+                .name("other")
+                .description("description")
+                .available(true)
+                .owner(owner)
+                .build());
+        User stranger = userStorage.save(User.builder()
+                .name("strangerName")
+                .email("stranger@mail.ru")
+                .build());
+        Booking past = bookingStorage.save(Booking.builder()
+                .status(BookingStatus.APPROVED)
+                .start(LocalDateTime.now().minusDays(2))
+                .end(LocalDateTime.now().minusDays(1))
+                .tenant(tenant)
+                .item(item)
+                .build());
+        Booking future = bookingStorage.save(Booking.builder()
+                .status(BookingStatus.WAITING)
+                .start(LocalDateTime.now().plusDays(1))
+                .end(LocalDateTime.now().plusDays(2))
+                .tenant(tenant)
+                .item(item)
+                .build());
+        bookingStorage.save(Booking.builder()
+                .status(BookingStatus.WAITING)
+                .start(LocalDateTime.now().plusDays(1))
+                .end(LocalDateTime.now().plusDays(2))
+                .tenant(tenant)
+                .item(other)
+                .build());
+        bookingStorage.save(Booking.builder()
+                .status(BookingStatus.WAITING)
+                .start(LocalDateTime.now().plusDays(3))
+                .end(LocalDateTime.now().plusDays(4))
+                .tenant(stranger)
+                .item(item)
+                .build());
+
+        List<CompactBookingDto> bookings = bookingService.getCompactBookingsOfItem(tenant.getId(), item.getId(),
+                null, 20).getBookings();
+
+        assertThat(bookings.stream().map(CompactBookingDto::getId).toList(),
+                equalTo(List.of(future.getId(), past.getId())));
+    }
+
+    @Test
+    void testCanStreamBookingsOfOwnerNewestFirst() {
+        List<Long> ids = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            ids.add(bookingStorage.save(Booking.builder()
+                    .status(BookingStatus.WAITING)
+                    .start(LocalDateTime.now().plusDays(i + 1))
+                    .end(LocalDateTime.now().plusDays(i + 2))
+                    .tenant(tenant)
+                    .item(item)
+                    .build()).getId());
+        }
+
+        List<ResponseBookingDto> bookings = new ArrayList<>();
+        bookingService.streamBookingsOfAllItemsOfOwner(owner.getId(), BookingState.FUTURE, bookings::add);
+
+        assertThat(bookings.stream().map(ResponseBookingDto::getId).toList(),
+                equalTo(List.of(ids.get(2), ids.get(1), ids.get(0))));
+        assertThat(bookings.getFirst().getBooker().getName(), equalTo(tenant.getName()));
+        assertThat(bookings.getFirst().getItem().getName(), equalTo(item.getName()));
+    }
+
+    @Test
+    void testThrowValidationExceptionIfCursorIsMalformed() {
+        assertThrows(ValidationException.class,
+                () -> bookingService.getBookings(tenant.getId(), BookingState.ALL, "not a cursor", 2));
+    }
+}
@@ -5,13 +5,21 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.ScrollPosition;
 import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
 import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.dto.BookingPageDto;
 import ru.practicum.shareit.booking.dto.ResponseBookingDto;
 import ru.practicum.shareit.booking.enums.BookingState;
 import ru.practicum.shareit.booking.enums.BookingStatus;
 import ru.practicum.shareit.booking.mapper.BookingMapper;
+import ru.practicum.shareit.booking.summary.ItemBookingSummaryService;
+import ru.practicum.shareit.deadline.RequestDeadline;
 import ru.practicum.shareit.exceptions.AuthorizationException;
+import ru.practicum.shareit.exceptions.DeadlineExceededException;
 import ru.practicum.shareit.exceptions.NotFoundException;
 import ru.practicum.shareit.exceptions.ValidationException;
 import ru.practicum.shareit.item.ItemStorage;
@@ -28,6 +36,7 @@ import static org.hamcrest.Matchers.equalTo;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -38,6 +47,10 @@ class BookingServiceImplTest {
     private UserStorage userStorage;
     @Mock
     private ItemStorage itemStorage;
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+    @Mock
+    private ItemBookingSummaryService bookingSummaryService;
     @InjectMocks
     private BookingServiceImpl bookingService;
 
@@ -207,15 +220,32 @@ class BookingServiceImplTest {
 
     @Test
     void testCanGetAllBookingsOfTenant() {
-        Sort sort = Sort.by(Sort.Direction.DESC, "start");
-        List<Booking> bookings = List.of(booking);
+        Window<Booking> bookings = Window.from(List.of(booking), ScrollPosition::offset);
 
         when(userStorage.findById(anyLong())).thenReturn(Optional.of(tenant));
-        when(bookingStorage.findAllByTenantId(tenant.getId(), sort)).thenReturn(bookings);
+        when(bookingStorage.findAllByTenantId(eq(tenant.getId()), any(), any(), any())).thenReturn(bookings);
 
-        assertThat(bookings.stream().map(BookingMapper::mapToResponse).toList().getFirst().getId(),
-                equalTo(bookingService.getBookings(tenant.getId(), BookingState.ALL).getFirst().getId()));
+        BookingPageDto<ResponseBookingDto> page = bookingService.getBookings(tenant.getId(), BookingState.ALL, null, 20);
+
+        assertThat(booking.getId(), equalTo(page.getBookings().getFirst().getId()));
+        assertThat(page.getNextCursor(), equalTo(null));
+        verify(bookingStorage, times(1)).findAllByTenantId(tenant.getId(), ScrollPosition.keyset(),
+                Sort.by(Sort.Direction.DESC, "start", "id"), Limit.of(20));
+    }
 
-        verify(bookingStorage, times(1)).findAllByTenantId(tenant.getId(), sort);
+    @Test
+    void testStopsMappingBookingsAfterDeadline() {
+        Window<Booking> bookings = Window.from(List.of(booking), ScrollPosition::offset);
+
+        when(userStorage.findById(anyLong())).thenReturn(Optional.of(tenant));
+        when(bookingStorage.findAllByTenantId(eq(tenant.getId()), any(), any(), any())).thenReturn(bookings);
+
+        RequestDeadline.start(0);
+        try {
+            assertThrows(DeadlineExceededException.class,
+                    () -> bookingService.getBookings(tenant.getId(), BookingState.ALL, null, 20));
+        } finally {
+            RequestDeadline.clear();
+        }
     }
-}
\ No newline at end of file
+}
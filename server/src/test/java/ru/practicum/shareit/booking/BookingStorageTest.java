@@ -5,6 +5,8 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.ScrollPosition;
 import org.springframework.data.domain.Sort;
 import ru.practicum.shareit.booking.enums.BookingStatus;
 import ru.practicum.shareit.item.ItemStorage;
@@ -56,15 +58,17 @@ class BookingStorageTest {
     }
 
     @Test
-    void testCanFindAllByTenantIdAndBetweenStartAndEnd() {
-        assertThat(booking.getId(), equalTo(bookingStorage.findAllByTenantIdAndBetweenStartAndEnd(tenant.getId(),
-                LocalDateTime.now(), sort).getFirst().getId()));
+    void testCanFindAllByTenantIdAndStartBeforeAndEndAfter() {
+        LocalDateTime now = LocalDateTime.now();
+        assertThat(booking.getId(), equalTo(bookingStorage.findAllByTenantIdAndStartBeforeAndEndAfter(tenant.getId(),
+                now, now, ScrollPosition.keyset(), sort, Limit.of(20)).getContent().getFirst().getId()));
     }
 
     @Test
-    void testCanFindAllByItemOwnerIdAndBetweenStartAndEnd() {
-        assertThat(booking.getId(), equalTo(bookingStorage.findAllByItemOwnerIdAndBetweenStartAndEnd(owner.getId(),
-                LocalDateTime.now(), sort).getFirst().getId()));
+    void testCanFindAllByItemOwnerIdAndStartBeforeAndEndAfter() {
+        LocalDateTime now = LocalDateTime.now();
+        assertThat(booking.getId(), equalTo(bookingStorage.findAllByItemOwnerIdAndStartBeforeAndEndAfter(
+                owner.getId(), now, now, ScrollPosition.keyset(), sort, Limit.of(20)).getContent().getFirst().getId()));
     }
 
     @Test
@@ -0,0 +1,191 @@
+package ru.practicum.shareit.booking.summary;
+
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.booking.Booking;
+import ru.practicum.shareit.booking.BookingStorage;
+import ru.practicum.shareit.booking.enums.BookingStatus;
+import ru.practicum.shareit.item.ItemService;
+import ru.practicum.shareit.item.ItemStorage;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.User;
+import ru.practicum.shareit.user.UserStorage;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@Transactional
+@SpringBootTest(
+        properties = "jdbc.url=jdbc:postgresql://localhost:6541/test",
+        webEnvironment = SpringBootTest.WebEnvironment.NONE)
+@RequiredArgsConstructor(onConstructor_ = @Autowired)
+class ItemBookingSummaryServiceTest {
+    private final ItemBookingSummaryService summaryService;
+    private final ItemBookingSummaryStorage summaryStorage;
+    private final ItemService itemService;
+    private final ItemStorage itemStorage;
+    private final BookingStorage bookingStorage;
+    private final UserStorage userStorage;
+    private final EntityManager entityManager;
+    private final PlatformTransactionManager transactionManager;
+    private User owner;
+    private User tenant;
+    private Item item;
+
+    @BeforeEach
+    void init() {
+        owner = userStorage.save(User.builder().name("owner").email("owner@mail.ru").build());
+        tenant = userStorage.save(User.builder().name("tenant").email("tenant@mail.ru").build());
+        item = itemStorage.save(Item.builder().name("item").description("description").available(true)
+                .owner(owner).build());
+    }
+
+    @Test
+    void testRefreshStoresLastAndNextBookings() {
+        Booking past = addBooking(LocalDateTime.now().minusDays(3), LocalDateTime.now().minusDays(2));
+        Booking future = addBooking(LocalDateTime.now().plusDays(2), LocalDateTime.now().plusDays(3));
+
+        summaryService.refresh(List.of(item.getId()));
+
+        ItemBookingSummary summary = summaryStorage.findById(item.getId()).orElseThrow();
+        assertEquals(past.getId(), summary.getLastBooking().getId());
+        assertEquals(future.getId(), summary.getNextBooking().getId());
+        assertEquals(future.getStart(), summary.getValidUntil());
+    }
+
+    @Test
+    void testSummaryExpiresWhenCurrentBookingEnds() {
+        Booking current = addBooking(LocalDateTime.now().minusDays(1), LocalDateTime.now().plusDays(1));
+        addBooking(LocalDateTime.now().plusDays(2), LocalDateTime.now().plusDays(3));
+
+        summaryService.refresh(List.of(item.getId()));
+
+        ItemBookingSummary summary = summaryStorage.findById(item.getId()).orElseThrow();
+        assertNull(summary.getLastBooking());
+        assertEquals(current.getEnd(), summary.getValidUntil());
+    }
+
+    @Test
+    void testGetItemsOfUserReadsLastAndNextBookingsFromSummary() {
+        Booking past = addBooking(LocalDateTime.now().minusDays(3), LocalDateTime.now().minusDays(2));
+        summaryService.refresh(List.of(item.getId()));
+        Booking future = addBooking(LocalDateTime.now().plusDays(2), LocalDateTime.now().plusDays(3));
+        ItemBookingSummary summary = summaryStorage.findById(item.getId()).orElseThrow();
+        summary.setNextBooking(future);
+        flushAndClear();
+
+        ItemDto itemDto = itemService.getItemsOfUser(owner.getId()).getFirst();
+
+        assertEquals(past.getId(), itemDto.getLastBooking().getId());
+        assertEquals(future.getId(), itemDto.getNextBooking().getId());
+    }
+
+    @Test
+    void testGetItemsOfUserIgnoresExpiredSummary() {
+        Booking future = addBooking(LocalDateTime.now().plusDays(2), LocalDateTime.now().plusDays(3));
+        summaryStorage.save(ItemBookingSummary.builder().itemId(item.getId())
+                .validUntil(LocalDateTime.now().minusMinutes(1)).build());
+        flushAndClear();
+
+        ItemDto itemDto = itemService.getItemsOfUser(owner.getId()).getFirst();
+
+        assertEquals(future.getId(), itemDto.getNextBooking().getId());
+    }
+
+    @Test
+    void testRollForwardRefreshesExpiredAndMissingSummaries() {
+        Item other = itemStorage.save(Item.builder().name("other").description("description").available(true)
+                .owner(owner).build());
+        Booking past = addBooking(LocalDateTime.now().minusDays(3), LocalDateTime.now().minusDays(2));
+        summaryStorage.save(ItemBookingSummary.builder().itemId(item.getId())
+                .validUntil(LocalDateTime.now().minusMinutes(1)).build());
+        flushAndClear();
+
+        assertEquals(2, summaryService.rollForward());
+        flushAndClear();
+
+        assertEquals(past.getId(), summaryStorage.findById(item.getId()).orElseThrow().getLastBooking().getId());
+        assertTrue(summaryStorage.findById(other.getId()).isPresent());
+        assertEquals(0, summaryService.rollForward());
+    }
+
+    @Test
+    void testReconcileFixesMismatchedSummaries() {
+        Booking past = addBooking(LocalDateTime.now().minusDays(3), LocalDateTime.now().minusDays(2));
+        summaryStorage.save(ItemBookingSummary.builder().itemId(item.getId()).build());
+        flushAndClear();
+
+        assertEquals(1, summaryService.reconcile());
+        flushAndClear();
+
+        assertEquals(past.getId(), summaryStorage.findById(item.getId()).orElseThrow().getLastBooking().getId());
+        assertEquals(0, summaryService.reconcile());
+    }
+
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    void testConcurrentRefreshesOfNewItemKeepBothBookings() throws Exception {
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        CountDownLatch firstRefreshed = new CountDownLatch(1);
+        try {
+            CompletableFuture<Booking> first = CompletableFuture.supplyAsync(() -> transaction.execute(status -> {
+                Booking booking = addBooking(LocalDateTime.now().minusDays(3), LocalDateTime.now().minusDays(2));
+                summaryService.refresh(List.of(item.getId()));
+                firstRefreshed.countDown();
+                sleep(300);
+                return booking;
+            }));
+            assertTrue(firstRefreshed.await(10, TimeUnit.SECONDS));
+            Booking next = transaction.execute(status -> {
+                Booking booking = addBooking(LocalDateTime.now().plusDays(2), LocalDateTime.now().plusDays(3));
+                summaryService.refresh(List.of(item.getId()));
+                return booking;
+            });
+            Booking last = first.get(10, TimeUnit.SECONDS);
+
+            ItemBookingSummary summary = transaction.execute(status -> summaryStorage
+                    .findAllWithBookingsByItemIdIn(List.of(item.getId())).getFirst());
+            assertEquals(last.getId(), summary.getLastBooking().getId());
+            assertEquals(next.getId(), summary.getNextBooking().getId());
+        } finally {
+            transaction.executeWithoutResult(status -> {
+                summaryStorage.deleteAll();
+                bookingStorage.deleteAll();
+                itemStorage.deleteAll();
+                userStorage.deleteAll();
+            });
+        }
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private Booking addBooking(LocalDateTime start, LocalDateTime end) {
+        return bookingStorage.save(Booking.builder().item(item).tenant(tenant).status(BookingStatus.APPROVED)
+                .start(start).end(end).build());
+    }
+
+    private void flushAndClear() {
+        entityManager.flush();
+        entityManager.clear();
+    }
+}
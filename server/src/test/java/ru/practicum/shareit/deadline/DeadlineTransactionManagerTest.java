@@ -0,0 +1,64 @@
+package ru.practicum.shareit.deadline;
+
+import jakarta.persistence.EntityManagerFactory;
+import lombok.RequiredArgsConstructor;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.orm.jpa.EntityManagerHolder;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.exceptions.DeadlineExceededException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE)
+@RequiredArgsConstructor(onConstructor_ = @Autowired)
+class DeadlineTransactionManagerTest {
+    private final PlatformTransactionManager transactionManager;
+    private final EntityManagerFactory entityManagerFactory;
+
+    @AfterEach
+    void clearDeadline() {
+        RequestDeadline.clear();
+    }
+
+    @Test
+    void testTransactionTimeoutIsShortenedToDeadline() {
+        assertInstanceOf(DeadlineTransactionManager.class, transactionManager);
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        transaction.setTimeout(10);
+
+        RequestDeadline.start(1_500);
+
+        assertEquals(2, (int) transaction.execute(status -> timeToLiveInSeconds()));
+    }
+
+    @Test
+    void testTransactionKeepsOwnTimeoutBeforeLaterDeadline() {
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        transaction.setTimeout(10);
+
+        RequestDeadline.start(60_000);
+
+        assertEquals(10, (int) transaction.execute(status -> timeToLiveInSeconds()));
+    }
+
+    @Test
+    void testTransactionIsNotStartedAfterDeadline() {
+        RequestDeadline.start(0);
+
+        assertThrows(DeadlineExceededException.class,
+                () -> new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+                }));
+    }
+
+    private int timeToLiveInSeconds() {
+        return ((EntityManagerHolder) TransactionSynchronizationManager.getResource(entityManagerFactory))
+                .getTimeToLiveInSeconds();
+    }
+}
@@ -5,12 +5,16 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import ru.practicum.shareit.config.EtagConfig;
 import ru.practicum.shareit.item.dto.CommentDto;
 import ru.practicum.shareit.item.dto.CreateCommentDto;
 import ru.practicum.shareit.item.dto.CreateItemDto;
+import ru.practicum.shareit.item.dto.ItemBatchResultDto;
 import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.stream.NdjsonResponseWriter;
 
 import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
@@ -21,10 +25,13 @@ import static org.hamcrest.Matchers.is;
 import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @WebMvcTest(controllers = ItemController.class)
+@Import({NdjsonResponseWriter.class, EtagConfig.class})
 class ItemControllerTest {
     @Autowired
     private ObjectMapper mapper;
@@ -98,6 +105,23 @@ class ItemControllerTest {
                 .andExpect(jsonPath("$.description", is(itemDto.getDescription())));
     }
 
+    @Test
+    void testGetItemByIdAnswersNotModifiedForSameEtag() throws Exception {
+        when(itemService.getItemById(anyLong())).thenReturn(itemDto);
+
+        String etag = mvc.perform(get("/items/{itemId}", 1)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(header().exists("ETag"))
+                .andReturn().getResponse().getHeader("ETag");
+
+        mvc.perform(get("/items/{itemId}", 1)
+                        .accept(MediaType.APPLICATION_JSON)
+                        .header("If-None-Match", etag))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+    }
+
     @Test
     void testGetItemsOfUser() throws Exception {
         List<ItemDto> items = List.of(itemDto);
@@ -117,7 +141,7 @@ class ItemControllerTest {
     void testGetItemByNameOrDescription() throws Exception {
         List<ItemDto> items = List.of(itemDto);
 
-        when(itemService.getItemByNameOrDescription(anyString())).thenReturn(items);
+        when(itemService.getItemByNameOrDescription(anyString(), anyInt(), anyInt())).thenReturn(items);
 
         mvc.perform(get("/items/search")
                         .accept(MediaType.APPLICATION_JSON)
@@ -151,4 +175,54 @@ class ItemControllerTest {
                 .andExpect(jsonPath("$.authorName", is(commentDto.getAuthorName())))
                 .andExpect(jsonPath("$.created", is(String.valueOf(commentDto.getCreated()))));
     }
-}
\ No newline at end of file
+
+    @Test
+    void testSuggestItemNames() throws Exception {
+        when(itemService.suggestItemNames("na", 5)).thenReturn(List.of("name"));
+
+        mvc.perform(get("/items/suggest")
+                        .accept(MediaType.APPLICATION_JSON)
+                        .characterEncoding(StandardCharsets.UTF_8)
+                        .param("prefix", "na")
+                        .param("size", "5"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", is(List.of("name"))));
+    }
+
+    @Test
+    void testAddItems() throws Exception {
+        List<CreateItemDto> createItemDtos = List.of(CreateItemDto.builder()
+                .name("name")
+                .description("description")
+                .available(true)
+                .build());
+
+        when(itemService.addItems(anyList(), anyLong()))
+                .thenReturn(List.of(ItemBatchResultDto.builder().index(0).item(itemDto).build()));
+
+        mvc.perform(post("/items/batch")
+                        .accept(MediaType.APPLICATION_JSON)
+                        .characterEncoding(StandardCharsets.UTF_8)
+                        .header("X-Sharer-User-Id", 1)
+                        .content(mapper.writeValueAsString(createItemDtos))
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$[0].item.id", is(itemDto.getId()), Long.class));
+    }
+
+    @Test
+    void testUpdateItems() throws Exception {
+        when(itemService.updateItems(anyList(), anyLong()))
+                .thenReturn(List.of(ItemBatchResultDto.builder().index(0).error("Item not found").build()));
+
+        mvc.perform(patch("/items/batch")
+                        .accept(MediaType.APPLICATION_JSON)
+                        .characterEncoding(StandardCharsets.UTF_8)
+                        .header("X-Sharer-User-Id", 1)
+                        .content(mapper.writeValueAsString(List.of(itemDto)))
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].error", is("Item not found")));
+    }
+}
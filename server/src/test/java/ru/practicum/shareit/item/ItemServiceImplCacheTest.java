@@ -0,0 +1,140 @@
+package ru.practicum.shareit.item;
+
+import lombok.RequiredArgsConstructor;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.cache.CacheManager;
+import ru.practicum.shareit.booking.Booking;
+import ru.practicum.shareit.booking.BookingService;
+import ru.practicum.shareit.booking.BookingStorage;
+import ru.practicum.shareit.booking.enums.BookingStatus;
+import ru.practicum.shareit.item.dto.CreateCommentDto;
+import ru.practicum.shareit.item.dto.CreateItemDto;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.user.User;
+import ru.practicum.shareit.user.UserStorage;
+
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import javax.sql.DataSource;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.notNullValue;
+import static org.hamcrest.Matchers.nullValue;
+import static org.mockito.Mockito.clearInvocations;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+@SpringBootTest(properties = "spring.cache.type=caffeine", webEnvironment = SpringBootTest.WebEnvironment.NONE)
+@RequiredArgsConstructor(onConstructor_ = @Autowired)
+class ItemServiceImplCacheTest {
+    private final ItemService itemService;
+    private final BookingService bookingService;
+    private final UserStorage userStorage;
+    private final ItemStorage itemStorage;
+    private final BookingStorage bookingStorage;
+    private final CommentStorage commentStorage;
+    private final CacheManager cacheManager;
+    private final ItemCache itemCache;
+    @SpyBean
+    private DataSource dataSource;
+    private User owner;
+    private User tenant;
+    private ItemDto item;
+
+    @BeforeEach
+    void init() {
+        owner = userStorage.save(User.builder().name("owner").email("cache-owner@mail.ru").build());
+        tenant = userStorage.save(User.builder().name("tenant").email("cache-tenant@mail.ru").build());
+        item = itemService.addItem(CreateItemDto.builder().name("item").description("description")
+                .available(true).build(), owner.getId());
+    }
+
+    @AfterEach
+    void cleanUp() {
+        cacheManager.getCache("items").clear();
+        commentStorage.deleteAll();
+        bookingStorage.deleteAll();
+        itemStorage.deleteAll();
+        userStorage.deleteAll();
+    }
+
+    @Test
+    void testGetItemByIdIsCached() {
+        itemService.getItemById(item.getId());
+
+        assertThat(cacheManager.getCache("items").get(item.getId()), notNullValue());
+    }
+
+    @Test
+    void testCachedItemIsReturnedWithoutConnection() throws SQLException {
+        itemService.getItemById(item.getId());
+        clearInvocations(dataSource);
+
+        itemService.getItemById(item.getId());
+
+        verify(dataSource, never()).getConnection();
+    }
+
+    @Test
+    void testUpdateItemEvictsCachedItem() {
+        itemService.getItemById(item.getId());
+
+        itemService.updateItem(ItemDto.builder().name("newName").build(), owner.getId(), item.getId());
+
+        assertThat(cacheManager.getCache("items").get(item.getId()), nullValue());
+        assertThat(itemService.getItemById(item.getId()).getName(), equalTo("newName"));
+    }
+
+    @Test
+    void testChangingReturnedItemDoesNotChangeCachedItem() {
+        itemService.getItemById(item.getId()).setName("changed");
+
+        itemService.getItemById(item.getId()).setName("changed again");
+
+        assertThat(itemService.getItemById(item.getId()).getName(), equalTo("item"));
+    }
+
+    @Test
+    void testItemReadBeforeConcurrentUpdateIsNotCached() {
+        ItemDto stale = itemCache.get(item.getId(), () -> {
+            ItemDto read = ItemDto.builder().id(item.getId()).name("item").build();
+            itemService.updateItem(ItemDto.builder().name("newName").build(), owner.getId(), item.getId());
+            return read;
+        });
+
+        assertThat(stale.getName(), equalTo("item"));
+        assertThat(cacheManager.getCache("items").get(item.getId()), nullValue());
+        assertThat(itemService.getItemById(item.getId()).getName(), equalTo("newName"));
+    }
+
+    @Test
+    void testAddCommentEvictsCachedItem() {
+        bookingStorage.save(Booking.builder().item(itemStorage.findById(item.getId()).orElseThrow()).tenant(tenant)
+                .status(BookingStatus.APPROVED).start(LocalDateTime.now().minusDays(2))
+                .end(LocalDateTime.now().minusDays(1)).build());
+        itemService.getItemById(item.getId());
+
+        itemService.addComment(CreateCommentDto.builder().text("text").build(), item.getId(), tenant.getId());
+
+        assertThat(itemService.getItemById(item.getId()).getComments().size(), equalTo(1));
+    }
+
+    @Test
+    void testBookingApprovalEvictsCachedItem() {
+        Booking booking = bookingStorage.save(Booking.builder()
+                .item(itemStorage.findById(item.getId()).orElseThrow()).tenant(tenant)
+                .status(BookingStatus.WAITING).start(LocalDateTime.now().plusDays(1))
+                .end(LocalDateTime.now().plusDays(2)).build());
+        itemService.getItemById(item.getId());
+
+        bookingService.approveBooking(booking.getId(), owner.getId(), true);
+
+        assertThat(itemService.getItemById(item.getId()).getAvailable(), equalTo(false));
+    }
+}
@@ -5,9 +5,11 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 import ru.practicum.shareit.booking.Booking;
 import ru.practicum.shareit.booking.BookingStorage;
 import ru.practicum.shareit.booking.enums.BookingStatus;
+import ru.practicum.shareit.booking.summary.ItemBookingSummaryStorage;
 import ru.practicum.shareit.exceptions.NotFoundException;
 import ru.practicum.shareit.exceptions.ValidationException;
 import ru.practicum.shareit.item.dto.CommentDto;
@@ -44,6 +46,10 @@ class ItemServiceImplMockTest {
     private CommentStorage commentStorage;
     @Mock
     private ItemRequestStorage requestStorage;
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+    @Mock
+    private ItemBookingSummaryStorage bookingSummaryStorage;
     @InjectMocks
     private ItemServiceImpl itemService;
 
@@ -88,7 +94,7 @@ class ItemServiceImplMockTest {
 
     @Test
     void testCanAddComment() {
-        when(itemStorage.existsById(anyLong())).thenReturn(true);
+        when(itemStorage.findById(anyLong())).thenReturn(Optional.of(item));
         when(userStorage.existsById(anyLong())).thenReturn(true);
         when(bookingStorage
                 .findByTenantIdAndItemIdAndStatusAndEndBefore(anyLong(), anyLong(), any(), any(LocalDateTime.class)))
@@ -112,7 +118,7 @@ class ItemServiceImplMockTest {
 
     @Test
     void testThrowNotFoundIfNotExistUserTryAddComment() {
-        when(itemStorage.existsById(anyLong())).thenReturn(true);
+        when(itemStorage.findById(anyLong())).thenReturn(Optional.of(item));
 
         assertThrows(NotFoundException.class, () -> itemService
                 .addComment(CreateCommentDto.builder().text("Text").build(), item.getId(), tenant.getId()));
@@ -122,7 +128,7 @@ class ItemServiceImplMockTest {
     void testThrowValidationExceptionIfTryAddCommentAndBookingNotApproved() {
         booking.setStatus(BookingStatus.WAITING);
 
-        when(itemStorage.existsById(anyLong())).thenReturn(true);
+        when(itemStorage.findById(anyLong())).thenReturn(Optional.of(item));
         when(userStorage.existsById(anyLong())).thenReturn(true);
         when(bookingStorage
                 .findByTenantIdAndItemIdAndStatusAndEndBefore(anyLong(), anyLong(), any(), any(LocalDateTime.class)))
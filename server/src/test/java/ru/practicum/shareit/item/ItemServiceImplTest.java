@@ -1,30 +1,47 @@
 package ru.practicum.shareit.item;
 
+import jakarta.persistence.EntityManager;
 import lombok.RequiredArgsConstructor;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.booking.Booking;
+import ru.practicum.shareit.booking.BookingStorage;
+import ru.practicum.shareit.booking.enums.BookingStatus;
 import ru.practicum.shareit.exceptions.AuthorizationException;
 import ru.practicum.shareit.exceptions.NotFoundException;
 import ru.practicum.shareit.item.dto.CreateItemDto;
+import ru.practicum.shareit.item.dto.ItemBatchResultDto;
 import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.model.Comment;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.stream.EntityStreams;
 import ru.practicum.shareit.user.User;
 import ru.practicum.shareit.user.UserStorage;
 
+import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.*;
 
 @Transactional
 @SpringBootTest(
-        properties = "jdbc.url=jdbc:postgresql://localhost:6541/test",
+        properties = {"jdbc.url=jdbc:postgresql://localhost:6541/test",
+                "spring.jpa.properties.hibernate.generate_statistics=true"},
         webEnvironment = SpringBootTest.WebEnvironment.NONE)
 @RequiredArgsConstructor(onConstructor_ = @Autowired)
 class ItemServiceImplTest {
     private final ItemService itemService;
     private final UserStorage userStorage;
+    private final ItemStorage itemStorage;
+    private final BookingStorage bookingStorage;
+    private final CommentStorage commentStorage;
+    private final EntityManager entityManager;
     private User user;
 
     @BeforeEach
@@ -128,6 +145,23 @@ class ItemServiceImplTest {
         assertEquals(1, items.size());
     }
 
+    @Test
+    void testCanStreamItemsOfUserInChunks() {
+        List<CreateItemDto> itemDtos = new ArrayList<>();
+        for (int i = 0; i <= EntityStreams.CHUNK_SIZE; i++) {
+            itemDtos.add(CreateItemDto.builder().name("item" + i).description("description").available(true)
+                    .build());
+        }
+        itemService.addItems(itemDtos, user.getId());
+
+        List<ItemDto> items = new ArrayList<>();
+        itemService.streamItemsOfUser(user.getId(), items::add);
+
+        assertEquals(itemDtos.size(), items.size());
+        assertEquals(items.stream().map(ItemDto::getId).sorted().toList(),
+                items.stream().map(ItemDto::getId).toList());
+    }
+
     @Test
     void testThrowNotFoundIfTryGetItemsOfNotExistenceUser() {
         assertThrows(NotFoundException.class, () -> itemService.getItemsOfUser(3L));
@@ -137,7 +171,7 @@ class ItemServiceImplTest {
     void testCanGetItemByName() {
         itemService.addItem(CreateItemDto.builder().name("item").description("description")
                 .available(true).build(), user.getId());
-        List<ItemDto> items = itemService.getItemByNameOrDescription("ite");
+        List<ItemDto> items = itemService.getItemByNameOrDescription("ite", 0, 20);
         assertEquals(1, items.size());
     }
 
@@ -145,7 +179,7 @@ class ItemServiceImplTest {
     void testCanGetItemByDescription() {
         itemService.addItem(CreateItemDto.builder().name("item").description("description")
                 .available(true).build(), user.getId());
-        List<ItemDto> items = itemService.getItemByNameOrDescription("escr");
+        List<ItemDto> items = itemService.getItemByNameOrDescription("escr", 0, 20);
         assertEquals(1, items.size());
     }
 
@@ -153,7 +187,7 @@ class ItemServiceImplTest {
     void testSearchNotDependsOfLetterCase() {
         itemService.addItem(CreateItemDto.builder().name("item").description("dEsCription")
                 .available(true).build(), user.getId());
-        List<ItemDto> items = itemService.getItemByNameOrDescription("eScR");
+        List<ItemDto> items = itemService.getItemByNameOrDescription("eScR", 0, 20);
         assertEquals(1, items.size());
     }
 
@@ -163,7 +197,7 @@ class ItemServiceImplTest {
                 .build(), user.getId());
         itemService.addItem(CreateItemDto.builder().name("item2").description("description2").available(false)
                 .build(), user.getId());
-        List<ItemDto> items = itemService.getItemByNameOrDescription("item");
+        List<ItemDto> items = itemService.getItemByNameOrDescription("item", 0, 20);
         assertEquals(1, items.size());
     }
 
@@ -171,7 +205,163 @@ class ItemServiceImplTest {
     void testGetEmptyListIfTextIsBlank() {
         itemService.addItem(CreateItemDto.builder().name("item").description("description")
                 .available(true).build(), user.getId());
-        List<ItemDto> items = itemService.getItemByNameOrDescription("");
+        List<ItemDto> items = itemService.getItemByNameOrDescription("", 0, 20);
+        assertTrue(items.isEmpty());
+    }
+
+    @Test
+    void testCanGetItemsOfUserWithLastAndNextBookingsAndComments() {
+        User tenant = userStorage.save(User.builder().name("tenant").email("tenant@mail.ru").build());
+        Item item = addItemsWithBookingsAndComments(user, tenant, 1).getFirst();
+        Booking past = bookingStorage.save(Booking.builder().item(item).tenant(tenant).status(BookingStatus.APPROVED)
+                .start(LocalDateTime.now().minusDays(5)).end(LocalDateTime.now().minusHours(1)).build());
+        Booking future = bookingStorage.save(Booking.builder().item(item).tenant(tenant).status(BookingStatus.WAITING)
+                .start(LocalDateTime.now().plusHours(1)).end(LocalDateTime.now().plusDays(5)).build());
+
+        ItemDto itemDto = itemService.getItemsOfUser(user.getId()).getFirst();
+
+        assertEquals(past.getId(), itemDto.getLastBooking().getId());
+        assertEquals(tenant.getId(), itemDto.getLastBooking().getBooker().getId());
+        assertEquals(future.getId(), itemDto.getNextBooking().getId());
+        assertEquals(1, itemDto.getComments().size());
+    }
+
+    @Test
+    void testGetItemsOfUserWithoutBookingsAndComments() {
+        itemService.addItem(CreateItemDto.builder().name("item").description("description")
+                .available(true).build(), user.getId());
+
+        ItemDto itemDto = itemService.getItemsOfUser(user.getId()).getFirst();
+
+        assertNull(itemDto.getLastBooking());
+        assertNull(itemDto.getNextBooking());
+        assertTrue(itemDto.getComments().isEmpty());
+    }
+
+    @Test
+    void testGetItemsOfUserRunsSameNumberOfQueriesForAnyNumberOfItems() {
+        User tenant = userStorage.save(User.builder().name("tenant").email("tenant@mail.ru").build());
+        User bigOwner = userStorage.save(User.builder().name("bigOwner").email("big@mail.ru").build());
+        addItemsWithBookingsAndComments(user, tenant, 1);
+        addItemsWithBookingsAndComments(bigOwner, tenant, 20);
+
+        long queriesForOneItem = countQueriesOfGetItemsOfUser(user.getId(), 1);
+        long queriesForManyItems = countQueriesOfGetItemsOfUser(bigOwner.getId(), 20);
+
+        assertEquals(queriesForOneItem, queriesForManyItems);
+    }
+
+    private List<Item> addItemsWithBookingsAndComments(User owner, User tenant, int count) {
+        List<Item> items = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            Item item = itemStorage.save(Item.builder().name("item" + i).description("description" + i)
+                    .available(true).owner(owner).build());
+            bookingStorage.save(Booking.builder().item(item).tenant(tenant).status(BookingStatus.APPROVED)
+                    .start(LocalDateTime.now().minusDays(3)).end(LocalDateTime.now().minusDays(2)).build());
+            bookingStorage.save(Booking.builder().item(item).tenant(tenant).status(BookingStatus.APPROVED)
+                    .start(LocalDateTime.now().plusDays(2)).end(LocalDateTime.now().plusDays(3)).build());
+            commentStorage.save(Comment.builder().item(item).author(tenant).text("text" + i)
+                    .created(LocalDateTime.now()).build());
+            items.add(item);
+        }
+        return items;
+    }
+
+    private long countQueriesOfGetItemsOfUser(Long ownerId, int expectedItems) {
+        Statistics statistics = entityManager.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+        entityManager.flush();
+        entityManager.clear();
+        statistics.clear();
+
+        List<ItemDto> items = itemService.getItemsOfUser(ownerId);
+
+        assertEquals(expectedItems, items.size());
+        items.forEach(itemDto -> {
+            assertNotNull(itemDto.getLastBooking());
+            assertNotNull(itemDto.getNextBooking());
+            assertEquals(1, itemDto.getComments().size());
+        });
+        return statistics.getPrepareStatementCount();
+    }
+
+    @Test
+    void testSearchSkipsUnavailableItemsMatchedByDescription() {
+        itemService.addItem(CreateItemDto.builder().name("drill").description("cordless tool").available(false)
+                .build(), user.getId());
+        List<ItemDto> items = itemService.getItemByNameOrDescription("tool", 0, 20);
         assertTrue(items.isEmpty());
     }
-}
\ No newline at end of file
+
+    @Test
+    void testSearchReturnsRequestedPage() {
+        for (int i = 0; i < 5; i++) {
+            itemService.addItem(CreateItemDto.builder().name("item" + i).description("description")
+                    .available(true).build(), user.getId());
+        }
+        List<ItemDto> firstPage = itemService.getItemByNameOrDescription("item", 0, 2);
+        List<ItemDto> lastPage = itemService.getItemByNameOrDescription("item", 4, 2);
+        assertEquals(List.of("item0", "item1"), firstPage.stream().map(ItemDto::getName).toList());
+        assertEquals(List.of("item4"), lastPage.stream().map(ItemDto::getName).toList());
+    }
+
+    @Test
+    void testSearchStartsFromOffsetNotMultipleOfSize() {
+        for (int i = 0; i < 6; i++) {
+            itemService.addItem(CreateItemDto.builder().name("item" + i).description("description")
+                    .available(true).build(), user.getId());
+        }
+        List<ItemDto> items = itemService.getItemByNameOrDescription("item", 3, 2);
+        assertEquals(List.of("item3", "item4"), items.stream().map(ItemDto::getName).toList());
+    }
+
+    @Test
+    void testAddItemsReportsRowsWithUnknownRequest() {
+        List<ItemBatchResultDto> results = itemService.addItems(List.of(
+                CreateItemDto.builder().name("drill").description("tool").available(true).build(),
+                CreateItemDto.builder().name("saw").description("tool").available(true).requestId(-1L).build()),
+                user.getId());
+
+        assertEquals("drill", results.get(0).getItem().getName());
+        assertNull(results.get(0).getError());
+        assertNull(results.get(1).getItem());
+        assertEquals("Request not found", results.get(1).getError());
+        assertEquals(1, itemService.getItemsOfUser(user.getId()).size());
+    }
+
+    @Test
+    void testAddItemsInsertsInJdbcBatches() {
+        List<CreateItemDto> itemDtos = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            itemDtos.add(CreateItemDto.builder().name("item" + i).description("description").available(true).build());
+        }
+        Statistics statistics = entityManager.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+        entityManager.flush();
+        statistics.clear();
+
+        itemService.addItems(itemDtos, user.getId());
+        entityManager.flush();
+
+        assertEquals(200, itemStorage.findByOwnerId(user.getId()).size());
+        assertTrue(statistics.getPrepareStatementCount() < 20);
+    }
+
+    @Test
+    void testUpdateItemsSkipsItemsOfOtherUsers() {
+        User other = userStorage.save(User.builder().name("other").email("other@mail.ru").build());
+        Long ownId = itemService.addItem(CreateItemDto.builder().name("item").description("description")
+                .available(true).build(), user.getId()).getId();
+        Long otherId = itemService.addItem(CreateItemDto.builder().name("item").description("description")
+                .available(true).build(), other.getId()).getId();
+
+        List<ItemBatchResultDto> results = itemService.updateItems(List.of(
+                ItemDto.builder().id(ownId).name("updated").build(),
+                ItemDto.builder().id(otherId).name("updated").build(),
+                ItemDto.builder().id(-1L).name("updated").build()), user.getId());
+
+        assertEquals("updated", results.get(0).getItem().getName());
+        assertEquals("description", results.get(0).getItem().getDescription());
+        assertNotNull(results.get(1).getError());
+        assertEquals("Item not found", results.get(2).getError());
+        assertEquals("item", itemStorage.findById(otherId).orElseThrow().getName());
+    }
+}
@@ -4,6 +4,7 @@ import lombok.RequiredArgsConstructor;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.PageRequest;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.user.User;
 import ru.practicum.shareit.user.UserStorage;
@@ -31,6 +32,6 @@ class ItemStorageTest {
                 .owner(user)
                 .build());
 
-        assertThat(item.getName(), equalTo(itemStorage.getItemByNameOrDescription("escr").getFirst().getName()));
+        assertThat(item.getName(), equalTo(itemStorage.getItemByNameOrDescription("escr", PageRequest.of(0, 10)).getFirst().getName()));
     }
 }
\ No newline at end of file
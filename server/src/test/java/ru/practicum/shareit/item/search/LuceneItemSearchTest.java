@@ -0,0 +1,185 @@
+package ru.practicum.shareit.item.search;
+
+import org.apache.lucene.index.SegmentInfos;
+import org.apache.lucene.store.Directory;
+import org.apache.lucene.store.FSDirectory;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.SliceImpl;
+import ru.practicum.shareit.item.ItemStorage;
+import ru.practicum.shareit.item.event.ItemChangedEvent;
+import ru.practicum.shareit.item.model.Item;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.is;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class LuceneItemSearchTest {
+    @TempDir
+    private Path indexDir;
+    private final ItemStorage itemStorage = mock(ItemStorage.class);
+    private final Map<Long, Item> items = new ConcurrentHashMap<>();
+    private LuceneItemSearch itemSearch;
+
+    @BeforeEach
+    void init() throws IOException {
+        when(itemStorage.findAllById(anyList())).thenAnswer(invocation -> {
+            List<Long> ids = invocation.getArgument(0);
+            return ids.stream().map(items::get).toList();
+        });
+        itemSearch = new LuceneItemSearch(itemStorage, indexDir);
+    }
+
+    @AfterEach
+    void close() throws IOException {
+        itemSearch.destroy();
+    }
+
+    @Test
+    void testItemsWithMatchInNameRankAboveMatchInDescription() {
+        save(1L, "Лестница", "Складная, для дрели подходит полка");
+        save(2L, "Дрель", "Аккумуляторная");
+
+        List<Item> found = itemSearch.search("дрели", PageRequest.of(0, 10));
+
+        assertThat(found.stream().map(Item::getId).toList(), equalTo(List.of(2L, 1L)));
+    }
+
+    @Test
+    void testSearchUsesEnglishStemming() {
+        save(1L, "Hammer", "Heavy hammers for builders");
+
+        assertThat(itemSearch.search("hammering", PageRequest.of(0, 10)).size(), equalTo(1));
+    }
+
+    @Test
+    void testUnavailableItemIsRemovedFromIndex() {
+        Item item = save(1L, "Drill", "Cordless drill");
+        item.setAvailable(false);
+        itemSearch.onItemChanged(new ItemChangedEvent(item));
+
+        assertThat(itemSearch.search("drill", PageRequest.of(0, 10)), empty());
+    }
+
+    @Test
+    void testSearchPaginatesInIndex() {
+        for (long id = 1; id <= 5; id++) {
+            save(id, "Drill " + id, "drill");
+        }
+
+        assertThat(itemSearch.search("drill", PageRequest.of(0, 2)).size(), equalTo(2));
+        assertThat(itemSearch.search("drill", PageRequest.of(2, 2)).size(), equalTo(1));
+        assertThat(itemSearch.search("drill", PageRequest.of(3, 2)), empty());
+        assertThat(itemSearch.search("drill", OffsetPageRequest.of(3, 2)).size(), equalTo(2));
+    }
+
+    @Test
+    void testSearchFarBeyondResultsReturnsNothing() {
+        save(1L, "Drill", "drill");
+
+        assertThat(itemSearch.search("drill", OffsetPageRequest.of(2147483640L, 10)), empty());
+        assertThat(itemSearch.search("drill", OffsetPageRequest.of(Long.MAX_VALUE - 5, 10)), empty());
+    }
+
+    @Test
+    void testRebuildIfIncompleteSkipsIndexRebuiltBefore() throws IOException {
+        when(itemStorage.findAllByAvailableTrue(any()))
+                .thenReturn(new SliceImpl<>(List.of(), PageRequest.of(0, 1000), false));
+        itemSearch.rebuildIfIncomplete();
+        itemSearch.destroy();
+
+        itemSearch = new LuceneItemSearch(itemStorage, indexDir);
+        itemSearch.rebuildIfIncomplete();
+
+        assertThat(itemSearch.isRebuilt(), is(true));
+        verify(itemStorage, times(1)).findAllByAvailableTrue(any());
+    }
+
+    @Test
+    void testCommitDuringRebuildIsSkipped() throws IOException {
+        save(1L, "Drill", "drill");
+        itemSearch.commit();
+        long generation = latestCommitGeneration();
+        when(itemStorage.findAllByAvailableTrue(any())).thenAnswer(invocation -> {
+            Thread.ofVirtual().start(itemSearch::commit).join();
+            assertThat(latestCommitGeneration(), equalTo(generation));
+            return new SliceImpl<>(List.of(), PageRequest.of(0, 1000), false);
+        });
+
+        itemSearch.rebuild();
+
+        assertThat(latestCommitGeneration(), equalTo(generation + 1));
+    }
+
+    @Test
+    void testIndexInterruptedDuringRebuildIsNotMarkedRebuilt() throws IOException {
+        when(itemStorage.findAllByAvailableTrue(any()))
+                .thenReturn(new SliceImpl<>(List.of(), PageRequest.of(0, 1000), false))
+                .thenThrow(new IllegalStateException("база недоступна"));
+        itemSearch.rebuild();
+        assertThrows(IllegalStateException.class, itemSearch::rebuild);
+        itemSearch.destroy();
+
+        itemSearch = new LuceneItemSearch(itemStorage, indexDir);
+
+        assertThat(itemSearch.isRebuilt(), is(false));
+    }
+
+    @Test
+    void testRebuildIndexesAllAvailableItems() {
+        items.put(1L, Item.builder().id(1L).name("Drill").description("drill").available(true).build());
+        items.put(2L, Item.builder().id(2L).name("Saw").description("saw").available(true).build());
+        when(itemStorage.findAllByAvailableTrue(any()))
+                .thenReturn(new SliceImpl<>(List.copyOf(items.values()), PageRequest.of(0, 1000), false));
+
+        assertThat(itemSearch.rebuild(), equalTo(2L));
+        assertThat(itemSearch.search("saw", PageRequest.of(0, 10)).size(), equalTo(1));
+    }
+
+    @Test
+    void testChangeDuringRebuildIsAppliedAfterIt() {
+        Item stale = Item.builder().id(1L).name("Drill").description("drill").available(true).build();
+        Item changed = Item.builder().id(1L).name("Saw").description("saw").available(true).build();
+        when(itemStorage.findAllByAvailableTrue(any())).thenAnswer(invocation -> {
+            items.put(1L, changed);
+            Thread listener = Thread.ofVirtual().start(() -> itemSearch.onItemChanged(new ItemChangedEvent(changed)));
+            listener.join();
+            return new SliceImpl<>(List.of(stale), PageRequest.of(0, 1000), false);
+        });
+
+        itemSearch.rebuild();
+
+        assertThat(itemSearch.search("saw", PageRequest.of(0, 10)).size(), equalTo(1));
+        assertThat(itemSearch.search("drill", PageRequest.of(0, 10)), empty());
+    }
+
+    private long latestCommitGeneration() throws IOException {
+        try (Directory directory = FSDirectory.open(indexDir)) {
+            return SegmentInfos.readLatestCommit(directory).getGeneration();
+        }
+    }
+
+    private Item save(Long id, String name, String description) {
+        Item item = Item.builder().id(id).name(name).description(description).available(true).build();
+        items.put(id, item);
+        itemSearch.onItemChanged(new ItemChangedEvent(item));
+        return item;
+    }
+}
@@ -0,0 +1,91 @@
+package ru.practicum.shareit.item.suggest;
+
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.SliceImpl;
+import ru.practicum.shareit.item.ItemStorage;
+import ru.practicum.shareit.item.model.Item;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.lessThan;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Замер задержки подсказок на миллионе названий; p99 должен быть меньше миллисекунды.
+ * Запуск: {@code mvn -pl server test -Pbenchmark -Dtest=ItemNameSuggesterBenchmarkTest}.
+ */
+@Slf4j
+@Tag("benchmark")
+class ItemNameSuggesterBenchmarkTest {
+    private static final int NAMES = 1_000_000;
+    private static final int WARMUP = 50_000;
+    private static final int REQUESTS = 200_000;
+    private static final String LETTERS = "абвгдеёжзиклмнопрстуфхцчшщэюя";
+
+    @Test
+    void benchmarkSuggestLatency() {
+        Random random = new Random(1);
+        ItemStorage itemStorage = mock(ItemStorage.class);
+        when(itemStorage.findAllByAvailableTrue(any())).thenAnswer(invocation -> {
+            Pageable pageable = invocation.getArgument(0);
+            long last = Math.min(pageable.getOffset() + pageable.getPageSize(), NAMES);
+            List<Item> items = new ArrayList<>(pageable.getPageSize());
+            for (long id = pageable.getOffset() + 1; id <= last; id++) {
+                items.add(Item.builder().id(id).name(name(random, id)).available(true).build());
+            }
+            return new SliceImpl<>(items, pageable, last < NAMES);
+        });
+        ItemNameSuggester suggester = new ItemNameSuggester(itemStorage, NAMES);
+        suggester.load();
+        assertThat(suggester.size(), equalTo(NAMES));
+
+        for (int i = 0; i < WARMUP; i++) {
+            suggester.suggest(prefix(random), 10);
+        }
+        long[] latencies = new long[REQUESTS];
+        for (int i = 0; i < REQUESTS; i++) {
+            String prefix = prefix(random);
+            long startedAt = System.nanoTime();
+            suggester.suggest(prefix, 10);
+            latencies[i] = System.nanoTime() - startedAt;
+        }
+        Arrays.sort(latencies);
+        long p50 = latencies[REQUESTS / 2];
+        long p99 = latencies[REQUESTS * 99 / 100];
+
+        log.info("подсказки по {} названиям: p50 {} мкс, p99 {} мкс, максимум {} мкс", NAMES,
+                TimeUnit.NANOSECONDS.toMicros(p50), TimeUnit.NANOSECONDS.toMicros(p99),
+                TimeUnit.NANOSECONDS.toMicros(latencies[REQUESTS - 1]));
+        assertThat(p99, lessThan(TimeUnit.MILLISECONDS.toNanos(1)));
+    }
+
+    /**
+     * Уникальное название: слово из случайных букв и номер вещи.
+     */
+    private static String name(Random random, long id) {
+        return word(random, 3 + random.nextInt(8)) + " " + id;
+    }
+
+    private static String prefix(Random random) {
+        return word(random, 1 + random.nextInt(4));
+    }
+
+    private static String word(Random random, int length) {
+        StringBuilder word = new StringBuilder(length);
+        for (int i = 0; i < length; i++) {
+            word.append(LETTERS.charAt(random.nextInt(LETTERS.length())));
+        }
+        return word.toString();
+    }
+}
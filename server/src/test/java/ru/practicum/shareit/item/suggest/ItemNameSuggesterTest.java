@@ -0,0 +1,170 @@
+package ru.practicum.shareit.item.suggest;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.SliceImpl;
+import ru.practicum.shareit.item.ItemStorage;
+import ru.practicum.shareit.item.event.ItemChangedEvent;
+import ru.practicum.shareit.item.model.Item;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.equalTo;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class ItemNameSuggesterTest {
+    private final ItemStorage itemStorage = mock(ItemStorage.class);
+    private final ItemNameSuggester suggester = new ItemNameSuggester(itemStorage, 100);
+
+    @Test
+    void testSuggestReturnsNamesStartingWithPrefixIgnoringCase() {
+        change(1L, "Дрель", true);
+        change(2L, "Дрель ударная", true);
+        change(3L, "Диван", true);
+
+        assertThat(suggester.suggest("др", 10), equalTo(List.of("Дрель", "Дрель ударная")));
+        assertThat(suggester.suggest("ДИ", 10), equalTo(List.of("Диван")));
+    }
+
+    @Test
+    void testSuggestReturnsAtMostSizeNames() {
+        for (long id = 1; id <= 5; id++) {
+            change(id, "drill " + id, true);
+        }
+
+        assertThat(suggester.suggest("drill", 3).size(), equalTo(3));
+    }
+
+    @Test
+    void testSuggestMostPopularNamesFirst() {
+        change(1L, "Дрель аккумуляторная", true);
+        change(2L, "Дрель", true);
+        change(3L, "дрель", true);
+        change(4L, "Дрель ударная", true);
+        change(5L, "Дрель ударная", true);
+        change(6L, "Дрель ударная", true);
+
+        assertThat(suggester.suggest("др", 2), equalTo(List.of("Дрель ударная", "Дрель")));
+        assertThat(suggester.suggest("др", 10), equalTo(List.of("Дрель ударная", "Дрель", "Дрель аккумуляторная")));
+    }
+
+    @Test
+    void testNameStaysWhileAnyAvailableItemHasIt() {
+        change(1L, "Drill", true);
+        change(2L, "drill", true);
+        change(1L, "Drill", false);
+
+        assertThat(suggester.suggest("dr", 10), equalTo(List.of("Drill")));
+
+        change(2L, "drill", false);
+
+        assertThat(suggester.suggest("dr", 10), empty());
+    }
+
+    @Test
+    void testRenamedItemReplacesOldName() {
+        change(1L, "Drill", true);
+        change(1L, "Saw", true);
+
+        assertThat(suggester.suggest("dr", 10), empty());
+        assertThat(suggester.suggest("sa", 10), equalTo(List.of("Saw")));
+        assertThat(suggester.size(), equalTo(1));
+    }
+
+    @Test
+    void testNewNamesAreIgnoredWhenLimitIsReached() {
+        ItemNameSuggester small = new ItemNameSuggester(itemStorage, 1);
+        small.onItemChanged(new ItemChangedEvent(item(1L, "Drill", true)));
+        small.onItemChanged(new ItemChangedEvent(item(2L, "Dryer", true)));
+
+        assertThat(small.suggest("dr", 10), equalTo(List.of("Drill")));
+    }
+
+    @Test
+    void testLoadReadsAvailableItems() {
+        when(itemStorage.findAllByAvailableTrue(any())).thenReturn(new SliceImpl<>(
+                List.of(item(1L, "Drill", true), item(2L, "Saw", true)), PageRequest.of(0, 1000), false));
+
+        suggester.load();
+
+        assertThat(suggester.size(), equalTo(2));
+    }
+
+    @Test
+    void testBlankPrefixReturnsNothing() {
+        change(1L, "Drill", true);
+
+        assertThat(suggester.suggest(" ", 10), empty());
+    }
+
+    @Test
+    void testPrecomputedSuggestionsFollowChanges() {
+        ItemNameSuggester large = new ItemNameSuggester(itemStorage, 10_000);
+        Random random = new Random(42);
+        Map<Long, String> available = new HashMap<>();
+        List<Item> items = new ArrayList<>();
+        for (long id = 1; id <= 6000; id++) {
+            String name = randomName(random);
+            available.put(id, name);
+            items.add(item(id, name, true));
+        }
+        when(itemStorage.findAllByAvailableTrue(any()))
+                .thenReturn(new SliceImpl<>(items, PageRequest.of(0, 1000), false));
+        large.load();
+
+        for (int step = 0; step < 20000; step++) {
+            long id = 1 + random.nextInt(6000);
+            if (random.nextInt(4) == 0) {
+                available.remove(id);
+                large.onItemChanged(new ItemChangedEvent(item(id, "a", false)));
+            } else {
+                String name = randomName(random);
+                available.put(id, name);
+                large.onItemChanged(new ItemChangedEvent(item(id, name, true)));
+            }
+            if (step % 100 == 0) {
+                String prefix = randomName(random).substring(0, 1 + random.nextInt(2));
+                int size = random.nextBoolean() ? 10 : ItemNameSuggester.MAX_SUGGESTIONS;
+                assertThat(prefix, large.suggest(prefix, size), equalTo(expected(available, prefix, size)));
+            }
+        }
+    }
+
+    private static String randomName(Random random) {
+        StringBuilder name = new StringBuilder();
+        int length = 4 + random.nextInt(5);
+        for (int i = 0; i < length; i++) {
+            name.append((char) ('a' + random.nextInt(3)));
+        }
+        return name.toString();
+    }
+
+    private static List<String> expected(Map<Long, String> available, String prefix, int size) {
+        Map<String, Long> counts = available.values().stream()
+                .filter(name -> name.startsWith(prefix))
+                .collect(Collectors.groupingBy(Function.identity(), Collectors.counting()));
+        return counts.entrySet().stream()
+                .sorted(Map.Entry.<String, Long>comparingByValue().reversed().thenComparing(Map.Entry.comparingByKey()))
+                .limit(size)
+                .map(Map.Entry::getKey)
+                .toList();
+    }
+
+    private void change(Long id, String name, boolean available) {
+        suggester.onItemChanged(new ItemChangedEvent(item(id, name, available)));
+    }
+
+    private Item item(Long id, String name, boolean available) {
+        return Item.builder().id(id).name(name).description("description").available(available).build();
+    }
+}
@@ -0,0 +1,167 @@
+package ru.practicum.shareit.schema;
+
+import lombok.RequiredArgsConstructor;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.booking.BookingCompactStorage;
+import ru.practicum.shareit.booking.BookingStorage;
+import ru.practicum.shareit.booking.BookingStreamStorage;
+import ru.practicum.shareit.booking.enums.BookingState;
+import ru.practicum.shareit.booking.enums.BookingStatus;
+import ru.practicum.shareit.item.ItemStorage;
+
+import java.lang.reflect.Method;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Проверяет планы запросов {@link BookingStorage} с его фрагментами и {@link ItemStorage} на H2: ни один запрос
+ * не должен читать таблицу целиком, если для него предусмотрен индекс.
+ */
+@Transactional
+@SpringBootTest(
+        properties = "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+                + "ru.practicum.shareit.schema.CapturingStatementInspector",
+        webEnvironment = SpringBootTest.WebEnvironment.NONE)
+@RequiredArgsConstructor(onConstructor_ = @Autowired)
+class QueryPlanTest {
+    /**
+     * Обход индекса или таблицы без условия, например {@code /* PUBLIC.BOOKING.tableScan * /}
+     * или {@code /* PUBLIC.PRIMARY_KEY_4 * /}.
+     */
+    private static final Pattern FULL_SCAN = Pattern.compile("/\\* PUBLIC\\.\\w+(\\.tableScan)? \\*/");
+    /**
+     * Запросы, которые читают все строки намеренно: поиск по подстроке обслуживают триграммные индексы,
+     * которые есть только в PostgreSQL, а перестроение поискового индекса проходит по всем вещам.
+     */
+    private static final Set<String> FULL_SCAN_EXPECTED = Set.of("getItemByNameOrDescription",
+            "findAllByAvailableTrue");
+
+    private final BookingStorage bookingStorage;
+    private final ItemStorage itemStorage;
+    private final JdbcTemplate jdbcTemplate;
+
+    @Test
+    void testQueriesOfBookingAndItemStoragesUseIndexes() {
+        Map<String, Runnable> queries = queries();
+        Set<String> declared = Stream.of(BookingStorage.class, BookingCompactStorage.class,
+                        BookingStreamStorage.class, ItemStorage.class)
+                .flatMap(storage -> Arrays.stream(storage.getDeclaredMethods()))
+                .map(Method::getName)
+                .collect(Collectors.toSet());
+        assertEquals(declared, queries.keySet(), "для каждого запроса хранилища нужна проверка плана");
+
+        for (Map.Entry<String, Runnable> query : queries.entrySet()) {
+            List<String> plans = explain(query.getValue());
+            assertFalse(plans.isEmpty(), query.getKey());
+            boolean fullScan = plans.stream().anyMatch(plan -> FULL_SCAN.matcher(plan).find());
+            if (FULL_SCAN_EXPECTED.contains(query.getKey())) {
+                assertTrue(fullScan, query.getKey() + " уже использует индекс, уберите его из исключений");
+            } else {
+                assertFalse(fullScan, query.getKey() + " читает таблицу целиком:\n" + String.join("\n", plans));
+            }
+        }
+    }
+
+    private Map<String, Runnable> queries() {
+        LocalDateTime now = LocalDateTime.now();
+        Sort newestFirst = Sort.by(Sort.Direction.DESC, "start", "id");
+        ScrollPosition next = ScrollPosition.forward(Map.of("start", now, "id", 1L));
+        Limit limit = Limit.of(20);
+        Map<String, Runnable> queries = new LinkedHashMap<>();
+        queries.put("findById", () -> bookingStorage.findById(1L));
+        queries.put("findAllByTenantId", () -> bookingStorage.findAllByTenantId(1L, next, newestFirst, limit));
+        queries.put("findAllByTenantIdAndEndBefore",
+                () -> bookingStorage.findAllByTenantIdAndEndBefore(1L, now, next, newestFirst, limit));
+        queries.put("findAllByTenantIdAndStartAfter",
+                () -> bookingStorage.findAllByTenantIdAndStartAfter(1L, now, next, newestFirst, limit));
+        queries.put("findAllByTenantIdAndStartBeforeAndEndAfter",
+                () -> bookingStorage.findAllByTenantIdAndStartBeforeAndEndAfter(1L, now, now, next, newestFirst,
+                        limit));
+        queries.put("findAllByTenantIdAndStatus", () -> bookingStorage.findAllByTenantIdAndStatus(1L,
+                BookingStatus.WAITING, next, newestFirst, limit));
+        queries.put("findAllByItemOwnerId", () -> bookingStorage.findAllByItemOwnerId(1L, next, newestFirst, limit));
+        queries.put("findAllByItemOwnerIdAndEndBefore",
+                () -> bookingStorage.findAllByItemOwnerIdAndEndBefore(1L, now, next, newestFirst, limit));
+        queries.put("findAllByItemOwnerIdAndStartAfter",
+                () -> bookingStorage.findAllByItemOwnerIdAndStartAfter(1L, now, next, newestFirst, limit));
+        queries.put("findAllByItemOwnerIdAndStartBeforeAndEndAfter",
+                () -> bookingStorage.findAllByItemOwnerIdAndStartBeforeAndEndAfter(1L, now, now, next, newestFirst,
+                        limit));
+        queries.put("findAllByItemOwnerIdAndStatus", () -> bookingStorage.findAllByItemOwnerIdAndStatus(1L,
+                BookingStatus.WAITING, next, newestFirst, limit));
+        queries.put("findCompactByTenantId", () -> bookingStorage.findCompactByTenantId(1L, BookingState.CURRENT,
+                now, next, limit));
+        queries.put("findCompactByItemOwnerId", () -> bookingStorage.findCompactByItemOwnerId(1L,
+                BookingState.CURRENT, now, next, limit));
+        queries.put("findCompactByTenantIdAndItemId", () -> bookingStorage.findCompactByTenantIdAndItemId(1L, 1L,
+                next, limit));
+        queries.put("streamByTenantId", () -> consume(bookingStorage.streamByTenantId(1L, BookingState.CURRENT,
+                now)));
+        queries.put("streamByItemOwnerId", () -> consume(bookingStorage.streamByItemOwnerId(1L,
+                BookingState.CURRENT, now)));
+        queries.put("findByTenantIdAndItemIdAndStatusAndEndBefore",
+                () -> bookingStorage.findByTenantIdAndItemIdAndStatusAndEndBefore(1L, 1L, BookingStatus.APPROVED,
+                        now));
+        queries.put("findAllByItemIdBeforeTime", () -> bookingStorage.findAllByItemIdBeforeTime(1L, now));
+        queries.put("findAllByItemIdAfterTime", () -> bookingStorage.findAllByItemIdAfterTime(1L, now));
+        queries.put("findLastBookingsOfItems", () -> bookingStorage.findLastBookingsOfItems(List.of(1L, 2L), now));
+        queries.put("findNextBookingsOfItems", () -> bookingStorage.findNextBookingsOfItems(List.of(1L, 2L), now));
+        queries.put("findFirstEndingBookingsOfItems",
+                () -> bookingStorage.findFirstEndingBookingsOfItems(List.of(1L, 2L), now));
+        queries.put("findByOwnerId", () -> itemStorage.findByOwnerId(1L));
+        queries.put("streamByOwnerIdOrderById", () -> consume(itemStorage.streamByOwnerIdOrderById(1L)));
+        queries.put("getItemByNameOrDescription",
+                () -> itemStorage.getItemByNameOrDescription("drill", PageRequest.of(0, 20)));
+        queries.put("findAllByRequestId", () -> itemStorage.findAllByRequestId(1L));
+        queries.put("findAllByRequestIdIn", () -> itemStorage.findAllByRequestIdIn(List.of(1L, 2L)));
+        queries.put("findAllByAvailableTrue",
+                () -> itemStorage.findAllByAvailableTrue(PageRequest.of(0, 20, Sort.by("id"))));
+        return queries;
+    }
+
+    private static void consume(Stream<?> rows) {
+        try (rows) {
+            rows.forEach(row -> { });
+        }
+    }
+
+    private List<String> explain(Runnable query) {
+        CapturingStatementInspector.STATEMENTS.clear();
+        query.run();
+        List<String> plans = new ArrayList<>();
+        for (String sql : CapturingStatementInspector.STATEMENTS) {
+            plans.add(jdbcTemplate.execute("EXPLAIN " + sql, (PreparedStatement statement) -> {
+                for (int i = 1; i <= statement.getParameterMetaData().getParameterCount(); i++) {
+                    statement.setObject(i, null);
+                }
+                try (ResultSet plan = statement.executeQuery()) {
+                    plan.next();
+                    return plan.getString(1);
+                }
+            }));
+        }
+        return plans;
+    }
+}